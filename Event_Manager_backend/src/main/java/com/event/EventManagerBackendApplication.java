@@ -6,8 +6,10 @@
     import org.springframework.boot.SpringApplication;
     import org.springframework.boot.autoconfigure.SpringBootApplication;
     import org.springframework.context.annotation.Bean;
+    import org.springframework.scheduling.annotation.EnableScheduling;
 
     @SpringBootApplication
+    @EnableScheduling
     public class EventManagerBackendApplication {
 
         public static void main(String[] args) {
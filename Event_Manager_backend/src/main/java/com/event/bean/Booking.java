@@ -41,6 +41,35 @@
         @Column(name = "payment_id")
         private String paymentId; // Transaction ID from payment gateway
 
+        @Column(name = "lease_id")
+        private Long leaseId; // Node-local ticket lease this booking was sold from, if any
+
+        @Column(length = 2000)
+        private String seats; // Reserved seats as "sectionId:index,index;...", null without a seat map
+
+        @Column(name = "tier_id")
+        private Long tierId; // Ticket tier the tickets were sold from, null for events without tiers
+
+        @Column(name = "amount")
+        private Double amount; // Total price charged, computed server-side when the booking is created
+
+        @Column(name = "promo_code")
+        private String promoCode; // Redeemed promo code, if any
+
+        @Column(name = "discount")
+        private Double discount; // Already taken off amount
+
+        @Column(name = "razorpay_order_id")
+        private String razorpayOrderId; // Gateway order created to pay for this booking; no other order's payment confirms it
+
+        @Column(name = "charged_paisa")
+        private Long chargedPaisa; // What that order charges for this booking
+
+        // Guards status transitions (confirm/fail/cancel) against concurrent updates
+        @Version
+        @Column(nullable = false, columnDefinition = "bigint default 0")
+        private Long version;
+
         public Booking() {
         }
 
@@ -63,6 +92,24 @@
         public void setStatus(String status) { this.status = status; }
         public String getPaymentId() { return paymentId; }
         public void setPaymentId(String paymentId) { this.paymentId = paymentId; }
+        public Long getLeaseId() { return leaseId; }
+        public void setLeaseId(Long leaseId) { this.leaseId = leaseId; }
+        public String getSeats() { return seats; }
+        public void setSeats(String seats) { this.seats = seats; }
+        public Long getTierId() { return tierId; }
+        public void setTierId(Long tierId) { this.tierId = tierId; }
+        public Double getAmount() { return amount; }
+        public void setAmount(Double amount) { this.amount = amount; }
+        public String getPromoCode() { return promoCode; }
+        public void setPromoCode(String promoCode) { this.promoCode = promoCode; }
+        public Double getDiscount() { return discount; }
+        public void setDiscount(Double discount) { this.discount = discount; }
+        public String getRazorpayOrderId() { return razorpayOrderId; }
+        public void setRazorpayOrderId(String razorpayOrderId) { this.razorpayOrderId = razorpayOrderId; }
+        public Long getChargedPaisa() { return chargedPaisa; }
+        public void setChargedPaisa(Long chargedPaisa) { this.chargedPaisa = chargedPaisa; }
+        public Long getVersion() { return version; }
+        public void setVersion(Long version) { this.version = version; }
 
         @Override
         public String toString() {
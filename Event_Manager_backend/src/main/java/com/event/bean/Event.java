@@ -2,11 +2,15 @@
 
     import jakarta.persistence.*;
     import java.time.Instant; // Use Instant for datetime
+    import com.fasterxml.jackson.annotation.JsonIgnore;
     import com.fasterxml.jackson.annotation.JsonIgnoreProperties; // Import this
+    import java.util.List;
     import java.util.Set; // Assuming you have a collection of bookings
+    import com.event.dto.TicketTierDTO;
 
     @Entity
-    @Table(name = "events")
+    @Table(name = "events", indexes = @Index(name = "idx_events_date_time", columnList = "date_time, id"),
+           uniqueConstraints = @UniqueConstraint(name = "uk_events_series_occurrence", columnNames = {"series_id", "date_time"}))
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"}) // ADD THIS LINE
     public class Event {
         @Id
@@ -37,12 +41,33 @@
         @Column(name = "image_url")
         private String imageUrl;
 
-        // Optional: If Event has a relationship to Bookings (e.g., OneToMany)
-        // You might need @JsonIgnore or DTOs to prevent infinite recursion
+        // Optional demand-based pricing curve, see PricingCurve for the format
+        @Column(name = "pricing_curve", columnDefinition = "TEXT")
+        private String pricingCurve;
+
+        // Set on the occurrences of a recurring EventSeries, materialised on their first booking
+        @Column(name = "series_id")
+        private Long seriesId;
+
+        // Optimistic lock for read-modify-write paths (event edits, ticket reverts).
+        // The conditional reserve/release queries in EventRepository bump it as well.
+        @Version
+        @Column(nullable = false, columnDefinition = "bigint default 0")
+        private Long version;
+
+        // Never serialized: listing events must not lazily load (and expose) every booking
         @OneToMany(mappedBy = "event", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
-        @JsonIgnoreProperties({"event", "hibernateLazyInitializer", "handler"}) // Ignore 'event' to prevent recursion
+        @JsonIgnore
         private Set<Booking> bookings;
 
+        // Price tiers with live availability, filled in from memory by EventService (not a column)
+        @Transient
+        private List<TicketTierDTO> tiers;
+
+        // Price per ticket right now, filled in by EventService from the pricing curve (not a column)
+        @Transient
+        private Double currentPrice;
+
         public Event() {
             // Default constructor
         }
@@ -78,8 +103,18 @@
         public void setAvailableTickets(int availableTickets) { this.availableTickets = availableTickets; }
         public String getImageUrl() { return imageUrl; }
         public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+        public String getPricingCurve() { return pricingCurve; }
+        public void setPricingCurve(String pricingCurve) { this.pricingCurve = pricingCurve; }
+        public Long getSeriesId() { return seriesId; }
+        public void setSeriesId(Long seriesId) { this.seriesId = seriesId; }
+        public Long getVersion() { return version; }
+        public void setVersion(Long version) { this.version = version; }
         public Set<Booking> getBookings() { return bookings; }
         public void setBookings(Set<Booking> bookings) { this.bookings = bookings; }
+        public List<TicketTierDTO> getTiers() { return tiers; }
+        public void setTiers(List<TicketTierDTO> tiers) { this.tiers = tiers; }
+        public Double getCurrentPrice() { return currentPrice; }
+        public void setCurrentPrice(Double currentPrice) { this.currentPrice = currentPrice; }
 
         @PrePersist
         public void prePersist() {
@@ -0,0 +1,86 @@
+package com.event.bean;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A recurring event: one row for the whole series, with a recurrence rule (see
+ * {@link com.event.util.RecurrenceRule}) instead of one {@link Event} per occurrence.
+ * Occurrences are computed on demand; an occurrence only becomes an {@link Event} row, with
+ * its own inventory, when it is first booked.
+ */
+@Entity
+@Table(name = "event_series")
+public class EventSeries {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    private String description;
+
+    @Column(nullable = false)
+    private String location;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(name = "tickets_per_occurrence", nullable = false)
+    private int ticketsPerOccurrence;
+
+    @Column(name = "image_url")
+    private String imageUrl;
+
+    @Column(name = "pricing_curve", columnDefinition = "TEXT")
+    private String pricingCurve; // Copied to every occurrence
+
+    @Column(name = "first_start", nullable = false)
+    private Instant firstStart; // First occurrence; its time of day is the series' start time
+
+    @Column(name = "time_zone", nullable = false)
+    private String timeZone; // e.g. Asia/Kolkata: the wall clock the series repeats on
+
+    @Column(name = "recurrence_rule", nullable = false)
+    private String recurrenceRule; // e.g. FREQ=WEEKLY;BYDAY=FR;COUNT=20
+
+    @Column(nullable = false)
+    private boolean active = true; // false = no further occurrences are listed or booked
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public EventSeries() {
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getTicketsPerOccurrence() { return ticketsPerOccurrence; }
+    public void setTicketsPerOccurrence(int ticketsPerOccurrence) { this.ticketsPerOccurrence = ticketsPerOccurrence; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public String getPricingCurve() { return pricingCurve; }
+    public void setPricingCurve(String pricingCurve) { this.pricingCurve = pricingCurve; }
+    public Instant getFirstStart() { return firstStart; }
+    public void setFirstStart(Instant firstStart) { this.firstStart = firstStart; }
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+    public String getRecurrenceRule() { return recurrenceRule; }
+    public void setRecurrenceRule(String recurrenceRule) { this.recurrenceRule = recurrenceRule; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,79 @@
+package com.event.bean;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A discount code redeemable on create-order: a percentage or a fixed amount off,
+ * valid for one event or (without an event) for all events.
+ */
+@Entity
+@Table(name = "promo_codes")
+public class PromoCode {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, unique = true)
+    private String code; // Stored upper case
+
+    @Column(name = "discount_type", nullable = false)
+    private String discountType; // PERCENT or FIXED
+
+    @Column(name = "discount_value", nullable = false)
+    private double discountValue;
+
+    @Column(name = "event_id")
+    private Long eventId; // null = valid for every event
+
+    @Column(name = "max_uses")
+    private Integer maxUses; // null = unlimited
+
+    @Column(name = "per_user_limit")
+    private Integer perUserLimit; // null = unlimited
+
+    @Column(name = "used_count", nullable = false)
+    private int usedCount; // Reconciled from memory in batches by PromoCodeService
+
+    @Column(name = "valid_from")
+    private Instant validFrom;
+
+    @Column(name = "valid_until")
+    private Instant validUntil;
+
+    @Column(nullable = false)
+    private boolean active = true;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public PromoCode() {
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getDiscountType() { return discountType; }
+    public void setDiscountType(String discountType) { this.discountType = discountType; }
+    public double getDiscountValue() { return discountValue; }
+    public void setDiscountValue(double discountValue) { this.discountValue = discountValue; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Integer getMaxUses() { return maxUses; }
+    public void setMaxUses(Integer maxUses) { this.maxUses = maxUses; }
+    public Integer getPerUserLimit() { return perUserLimit; }
+    public void setPerUserLimit(Integer perUserLimit) { this.perUserLimit = perUserLimit; }
+    public int getUsedCount() { return usedCount; }
+    public void setUsedCount(int usedCount) { this.usedCount = usedCount; }
+    public Instant getValidFrom() { return validFrom; }
+    public void setValidFrom(Instant validFrom) { this.validFrom = validFrom; }
+    public Instant getValidUntil() { return validUntil; }
+    public void setValidUntil(Instant validUntil) { this.validUntil = validUntil; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,70 @@
+package com.event.bean;
+
+import jakarta.persistence.*;
+
+/**
+ * A block of reserved seating (e.g. "Balcony") laid out as rows x seatsPerRow.
+ * Seat state is persisted as a bitset (one bit per seat, row-major, set = held or sold),
+ * so a 50k-seat venue costs a few KB and never needs a per-seat or per-booking scan.
+ */
+@Entity
+@Table(name = "seat_sections", indexes = {
+        @Index(name = "idx_seat_sections_event", columnList = "event_id")
+})
+public class SeatSection {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(name = "row_count", nullable = false)
+    private int rowCount;
+
+    @Column(name = "seats_per_row", nullable = false)
+    private int seatsPerRow;
+
+    @Column(name = "display_order", nullable = false)
+    private int displayOrder; // Best-available search prefers lower values (closer to the stage)
+
+    @Column(name = "seat_state")
+    private byte[] seatState; // java.util.BitSet#toByteArray of taken seats
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public SeatSection() {
+    }
+
+    public SeatSection(Long eventId, String name, int rowCount, int seatsPerRow, int displayOrder) {
+        this.eventId = eventId;
+        this.name = name;
+        this.rowCount = rowCount;
+        this.seatsPerRow = seatsPerRow;
+        this.displayOrder = displayOrder;
+        this.seatState = new byte[0];
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getRowCount() { return rowCount; }
+    public void setRowCount(int rowCount) { this.rowCount = rowCount; }
+    public int getSeatsPerRow() { return seatsPerRow; }
+    public void setSeatsPerRow(int seatsPerRow) { this.seatsPerRow = seatsPerRow; }
+    public int getDisplayOrder() { return displayOrder; }
+    public void setDisplayOrder(int displayOrder) { this.displayOrder = displayOrder; }
+    public byte[] getSeatState() { return seatState; }
+    public void setSeatState(byte[] seatState) { this.seatState = seatState; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
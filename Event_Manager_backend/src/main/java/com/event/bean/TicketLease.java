@@ -0,0 +1,71 @@
+package com.event.bean;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A block of tickets moved from an event's shared {@code available_tickets} counter to one
+ * backend node, which then sells from it locally. Bookings sold from a lease carry its id,
+ * so a lease abandoned by a crashed node can be settled exactly:
+ * {@code quantity - SUM(bookings.number_of_tickets WHERE lease_id = id)}.
+ */
+@Entity
+@Table(name = "ticket_leases", indexes = {
+        @Index(name = "idx_ticket_leases_status_expires", columnList = "status, expires_at")
+})
+public class TicketLease {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "node_id", nullable = false)
+    private String nodeId;
+
+    @Column(nullable = false)
+    private int quantity; // Tickets taken from the event, plus tickets later returned into this lease
+
+    @Column(nullable = false)
+    private String status; // ACTIVE, RETURNED, RECLAIMED
+
+    @Column(name = "leased_at", nullable = false)
+    private Instant leasedAt;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "returned_quantity")
+    private Integer returnedQuantity; // Tickets handed back to the event when the lease was closed
+
+    public TicketLease() {
+    }
+
+    public TicketLease(Long eventId, String nodeId, int quantity, Instant leasedAt, Instant expiresAt) {
+        this.eventId = eventId;
+        this.nodeId = nodeId;
+        this.quantity = quantity;
+        this.status = "ACTIVE";
+        this.leasedAt = leasedAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public String getNodeId() { return nodeId; }
+    public void setNodeId(String nodeId) { this.nodeId = nodeId; }
+    public int getQuantity() { return quantity; }
+    public void setQuantity(int quantity) { this.quantity = quantity; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Instant getLeasedAt() { return leasedAt; }
+    public void setLeasedAt(Instant leasedAt) { this.leasedAt = leasedAt; }
+    public Instant getExpiresAt() { return expiresAt; }
+    public void setExpiresAt(Instant expiresAt) { this.expiresAt = expiresAt; }
+    public Integer getReturnedQuantity() { return returnedQuantity; }
+    public void setReturnedQuantity(Integer returnedQuantity) { this.returnedQuantity = returnedQuantity; }
+}
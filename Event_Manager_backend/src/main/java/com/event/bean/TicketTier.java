@@ -0,0 +1,73 @@
+package com.event.bean;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+
+/**
+ * A price tier of an event (e.g. "VIP", "GA", "Early bird") with its own capacity, price and
+ * sale window. Each tier has its own available counter, so a rush on one tier only contends
+ * on that tier's row.
+ */
+@Entity
+@Table(name = "ticket_tiers", indexes = {
+        @Index(name = "idx_ticket_tiers_event", columnList = "event_id")
+})
+public class TicketTier {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(nullable = false)
+    private String name;
+
+    @Column(nullable = false)
+    private double price;
+
+    @Column(nullable = false)
+    private int capacity;
+
+    @Column(name = "available_tickets", nullable = false)
+    private int availableTickets;
+
+    @Column(name = "sale_starts_at")
+    private Instant saleStartsAt; // null = on sale right away
+
+    @Column(name = "sale_ends_at")
+    private Instant saleEndsAt; // null = until the event sells out
+
+    @Column(name = "display_order", nullable = false)
+    private int displayOrder;
+
+    // The conditional reserve/release queries in TicketTierRepository bump it as well
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public TicketTier() {
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+    public int getAvailableTickets() { return availableTickets; }
+    public void setAvailableTickets(int availableTickets) { this.availableTickets = availableTickets; }
+    public Instant getSaleStartsAt() { return saleStartsAt; }
+    public void setSaleStartsAt(Instant saleStartsAt) { this.saleStartsAt = saleStartsAt; }
+    public Instant getSaleEndsAt() { return saleEndsAt; }
+    public void setSaleEndsAt(Instant saleEndsAt) { this.saleEndsAt = saleEndsAt; }
+    public int getDisplayOrder() { return displayOrder; }
+    public void setDisplayOrder(int displayOrder) { this.displayOrder = displayOrder; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,89 @@
+package com.event.bean;
+
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * A customer waiting for tickets of a sold-out event (or tier). When tickets are released
+ * the entry is promoted: the tickets are held for the customer as a PENDING_PAYMENT booking
+ * and the customer gets a claim code to pay for it before the hold expires.
+ */
+@Entity
+@Table(name = "waitlist_entries", indexes = {
+        @Index(name = "idx_waitlist_event_status", columnList = "event_id, status"),
+        @Index(name = "idx_waitlist_claim_token", columnList = "claim_token", unique = true),
+        @Index(name = "idx_waitlist_manage_token", columnList = "manage_token", unique = true)
+})
+public class WaitlistEntry {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "event_id", nullable = false)
+    private Long eventId;
+
+    @Column(name = "tier_id")
+    private Long tierId;
+
+    @Column(name = "user_name", nullable = false)
+    private String userName;
+
+    @Column(name = "user_email", nullable = false)
+    private String userEmail;
+
+    @Column(name = "number_of_tickets", nullable = false)
+    private int numberOfTickets;
+
+    @Column(name = "joined_at", nullable = false)
+    private LocalDateTime joinedAt;
+
+    @Column(nullable = false)
+    private String status; // WAITING, OFFERED, CLAIMED, EXPIRED, CANCELLED
+
+    @Column(name = "booking_id")
+    private Long bookingId; // The PENDING_PAYMENT hold created when the entry was promoted
+
+    @Column(name = "claim_token")
+    private String claimToken;
+
+    @Column(name = "manage_token")
+    private String manageToken; // Handed out once on joining; required to look at or leave the entry
+
+    @Column(name = "offer_expires_at")
+    private LocalDateTime offerExpiresAt;
+
+    @Version
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    public WaitlistEntry() {
+    }
+
+    // --- Getters and Setters ---
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Long getTierId() { return tierId; }
+    public void setTierId(Long tierId) { this.tierId = tierId; }
+    public String getUserName() { return userName; }
+    public void setUserName(String userName) { this.userName = userName; }
+    public String getUserEmail() { return userEmail; }
+    public void setUserEmail(String userEmail) { this.userEmail = userEmail; }
+    public int getNumberOfTickets() { return numberOfTickets; }
+    public void setNumberOfTickets(int numberOfTickets) { this.numberOfTickets = numberOfTickets; }
+    public LocalDateTime getJoinedAt() { return joinedAt; }
+    public void setJoinedAt(LocalDateTime joinedAt) { this.joinedAt = joinedAt; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public Long getBookingId() { return bookingId; }
+    public void setBookingId(Long bookingId) { this.bookingId = bookingId; }
+    public String getClaimToken() { return claimToken; }
+    public void setClaimToken(String claimToken) { this.claimToken = claimToken; }
+    public String getManageToken() { return manageToken; }
+    public void setManageToken(String manageToken) { this.manageToken = manageToken; }
+    public LocalDateTime getOfferExpiresAt() { return offerExpiresAt; }
+    public void setOfferExpiresAt(LocalDateTime offerExpiresAt) { this.offerExpiresAt = offerExpiresAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -2,6 +2,7 @@ package com.event.config;
 
 import com.event.security.JwtAuthenticationEntryPoint;
 import com.event.security.JwtRequestFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -63,9 +64,20 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .cors(cors -> cors.configurationSource(corsConfigurationSource()))
             .authorizeHttpRequests(authorize -> authorize
+                // Second dispatch of streamed responses (exports); the request itself was authorised already
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .requestMatchers("/api/auth/**").permitAll()
                 .requestMatchers(HttpMethod.GET, "/api/events").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/catalog").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/range").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/search").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/suggest").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/trending").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/stream", "/api/events/{id}/stream").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/cache-stats").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.GET, "/api/events/{id}").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/events/{eventId}/seats/**").permitAll()
+                .requestMatchers(HttpMethod.PUT, "/api/events/{eventId}/seats").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.POST, "/api/events").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.PUT, "/api/events/{id}").hasRole("ADMIN")
                 .requestMatchers(HttpMethod.DELETE, "/api/events/{id}").hasRole("ADMIN")
@@ -74,6 +86,14 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.DELETE, "/api/bookings/{id}/cancel").hasAnyRole("USER", "ADMIN")
                 .requestMatchers("/api/bookings/**").hasRole("ADMIN") // This general rule comes AFTER the specific one
                 .requestMatchers("/api/payments/**").permitAll()
+                .requestMatchers(HttpMethod.POST, "/api/waiting-room/{eventId}/join").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/waiting-room/{eventId}/status").permitAll()
+                .requestMatchers("/api/waiting-room/**").hasRole("ADMIN")
+                .requestMatchers("/api/waitlist/**").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/promo-codes/validate").permitAll()
+                .requestMatchers(HttpMethod.GET, "/api/series", "/api/series/{id}/occurrences").permitAll()
+                .requestMatchers("/api/series/**").hasRole("ADMIN")
+                .requestMatchers("/api/promo-codes/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .exceptionHandling(exception -> exception
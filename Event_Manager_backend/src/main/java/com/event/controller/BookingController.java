@@ -2,19 +2,37 @@ package com.event.controller;
 
 import com.event.bean.Booking;
 import com.event.bean.User; // Import your User entity
+import com.event.dto.AnalyticsResultDTO;
+import com.event.dto.SalesStatsDTO;
+import com.event.service.BookingAnalyticsService;
+import com.event.service.BookingExportService;
 import com.event.service.BookingService;
+import com.event.service.SalesStatsService;
 import com.event.service.UserService; // Autowired
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.UserDetails; // Keep this import
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.WebAsyncTask;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPOutputStream;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -27,6 +45,18 @@ public class BookingController {
     @Autowired
     private UserService userService; // Ensure this is Autowired
 
+    @Autowired
+    private SalesStatsService salesStatsService;
+
+    @Autowired
+    private BookingAnalyticsService bookingAnalyticsService;
+
+    @Autowired
+    private BookingExportService bookingExportService;
+
+    @Value("${booking.export.timeout-ms:3600000}")
+    private long exportTimeoutMillis;
+
     // Admin only: Get all bookings
     @PreAuthorize("hasRole('ADMIN')")
     @GetMapping
@@ -34,6 +64,98 @@ public class BookingController {
         return bookingService.getAllBookings();
     }
 
+    // Admin only: Sales totals across all events, kept up to date in memory
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats")
+    public SalesStatsDTO getSalesStats(@RequestParam(defaultValue = "60") int minutes) {
+        return salesStatsService.getGlobalStats(minutes);
+    }
+
+    // Admin only: Sales totals of one event
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/stats/events/{eventId}")
+    public SalesStatsDTO getEventSalesStats(@PathVariable Long eventId,
+                                            @RequestParam(defaultValue = "60") int minutes) {
+        return salesStatsService.getEventStats(eventId, minutes);
+    }
+
+    // Admin only: Ad-hoc aggregates over all bookings, e.g. ?groupBy=location,week&status=CONFIRMED
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/analytics")
+    public ResponseEntity<?> getAnalytics(@RequestParam(required = false) List<String> groupBy,
+                                          @RequestParam(required = false) List<String> status,
+                                          @RequestParam(required = false) Long eventId,
+                                          @RequestParam(required = false) String location,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                          @RequestParam(defaultValue = "10") double priceBand,
+                                          @RequestParam(defaultValue = "1000") int limit) {
+        try {
+            AnalyticsResultDTO result = bookingAnalyticsService.query(groupBy, status, eventId, location, from, to,
+                    priceBand, limit);
+            return ResponseEntity.ok(result);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Admin only: Streams bookings (all, or one event's attendees) as CSV or NDJSON, optionally gzipped
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/export")
+    public WebAsyncTask<ResponseEntity<String>> exportBookings(@RequestParam(defaultValue = "csv") String format,
+                                                               @RequestParam(required = false) Long eventId,
+                                                               @RequestParam(required = false) List<String> status,
+                                                               @RequestParam(required = false) Instant from,
+                                                               @RequestParam(required = false) Instant to,
+                                                               @RequestParam(defaultValue = "false") boolean gzip,
+                                                               HttpServletResponse response) {
+        BookingExportService.Format exportFormat;
+        List<String> statuses;
+        try {
+            exportFormat = BookingExportService.parseFormat(format);
+            statuses = BookingExportService.parseStatuses(status);
+        } catch (RuntimeException e) {
+            String message = e.getMessage();
+            return new WebAsyncTask<>(() -> ResponseEntity.badRequest().contentType(MediaType.TEXT_PLAIN).body(message));
+        }
+
+        boolean csv = exportFormat == BookingExportService.Format.CSV;
+        String fileName = "bookings-" + (eventId != null ? "event-" + eventId : "all")
+                + (csv ? ".csv" : ".ndjson") + (gzip ? ".gz" : "");
+        MediaType contentType = gzip ? MediaType.parseMediaType("application/gzip")
+                : csv ? new MediaType("text", "csv", StandardCharsets.UTF_8)
+                : MediaType.parseMediaType("application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString());
+        response.setContentType(contentType.toString());
+        // Written straight to the response on an async thread, with the export's own timeout (not the app-wide one)
+        AtomicBoolean cancelled = new AtomicBoolean();
+        WebAsyncTask<ResponseEntity<String>> task = new WebAsyncTask<>(exportTimeoutMillis, () -> {
+            OutputStream out = response.getOutputStream();
+            if (gzip) {
+                GZIPOutputStream zipped = new GZIPOutputStream(out, 64 * 1024);
+                bookingExportService.export(exportFormat, eventId, statuses, from, to, zipped, cancelled);
+                zipped.finish(); // The container closes the response stream itself
+            } else {
+                bookingExportService.export(exportFormat, eventId, statuses, from, to, out, cancelled);
+            }
+            out.flush();
+            return null; // The body is already written
+        });
+        // The container completes the request on timeout or error, but the export thread keeps going
+        // until it sees the flag; it then stops at the next row and releases its cursor and connection
+        task.onTimeout(() -> exportStopped(cancelled, response, "Export timed out."));
+        task.onError(() -> exportStopped(cancelled, response, "Export failed."));
+        return task;
+    }
+
+    private static ResponseEntity<String> exportStopped(AtomicBoolean cancelled, HttpServletResponse response,
+                                                        String message) {
+        cancelled.set(true);
+        // Once rows have gone out the status can no longer change, and more text would corrupt the file
+        return response.isCommitted() ? null
+                : ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).contentType(MediaType.TEXT_PLAIN).body(message);
+    }
+
     // Admin or User: Get booking by ID (Admin can get any, User can get their own)
     @GetMapping("/{id}")
     @PreAuthorize("hasAnyRole('USER', 'ADMIN')")
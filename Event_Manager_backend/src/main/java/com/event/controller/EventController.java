@@ -1,16 +1,41 @@
 package com.event.controller;
 
 import com.event.bean.Event;
+import com.event.dto.EventCatalogPage;
 import com.event.dto.EventDTO;
+import com.event.dto.EventSearchPage;
+import com.event.dto.EventSummaryDTO;
+import com.event.dto.SuggestionDTO;
+import com.event.dto.TrendingEventDTO;
+import com.event.dto.TicketTierDTO;
+import com.event.service.AvailabilityStreamService;
+import com.event.service.CatalogSnapshotService;
+import com.event.service.EventSearchService;
 import com.event.service.EventService;
+import com.event.service.EventSuggestionService;
+import com.event.service.JwtUserDetailsService;
+import com.event.service.TrendingService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.transaction.TransactionException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/events")
@@ -20,18 +45,155 @@ public class EventController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private JwtUserDetailsService jwtUserDetailsService;
+
+    @Autowired
+    private EventSearchService eventSearchService;
+
+    @Autowired
+    private EventSuggestionService eventSuggestionService;
+
+    @Autowired
+    private AvailabilityStreamService availabilityStreamService;
+
+    @Autowired
+    private TrendingService trendingService;
+
     // Publicly accessible to view all events
     @GetMapping
-    public List<Event> getAllEvents() {
-        return eventService.getAllEvents();
+    public ResponseEntity<List<Event>> getAllEvents() {
+        try {
+            return freshness(ResponseEntity.ok()).body(eventService.getAllEvents());
+        } catch (DataAccessException | TransactionException e) {
+            // No catalog snapshot yet and the database is unreachable
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Publicly accessible: lightweight, cursor-paginated catalog (no bookings, description on request)
+    @GetMapping("/catalog")
+    public ResponseEntity<?> getCatalog(@RequestParam(required = false) String location,
+                                        @RequestParam(required = false) Double minPrice,
+                                        @RequestParam(required = false) Double maxPrice,
+                                        @RequestParam(defaultValue = "false") boolean upcoming,
+                                        @RequestParam(defaultValue = "asc") String sort,
+                                        @RequestParam(defaultValue = "false") boolean includeDescription,
+                                        @RequestParam(required = false) String cursor,
+                                        @RequestParam(defaultValue = "20") int size) {
+        try {
+            EventCatalogPage page = eventService.getCatalog(location, minPrice, maxPrice, upcoming,
+                    "desc".equalsIgnoreCase(sort), includeDescription, cursor, size);
+            return freshness(ResponseEntity.ok()).eTag(catalogETag(page)).body(page); // Matching If-None-Match gets a 304
+        } catch (DataAccessException | TransactionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("The event catalog is temporarily unavailable.");
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Publicly accessible: upcoming events in a date range, e.g. "the next 7 days" (to defaults to from + days)
+    @GetMapping("/range")
+    public ResponseEntity<?> getEventsInRange(@RequestParam(required = false) Instant from,
+                                              @RequestParam(required = false) Instant to,
+                                              @RequestParam(defaultValue = "7") int days,
+                                              @RequestParam(required = false) String cursor,
+                                              @RequestParam(defaultValue = "20") int size) {
+        Instant start = from != null ? from : Instant.now();
+        Instant end = to != null ? to : start.plus(Duration.ofDays(days));
+        try {
+            EventCatalogPage page = eventService.getEventsInRange(start, end, cursor, size);
+            return freshness(ResponseEntity.ok()).body(page);
+        } catch (DataAccessException | TransactionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body("The event catalog is temporarily unavailable.");
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Publicly accessible: relevance-ranked full-text search with highlighted snippets
+    @GetMapping("/search")
+    public ResponseEntity<?> searchEvents(@RequestParam String q,
+                                          @RequestParam(required = false) Instant from,
+                                          @RequestParam(required = false) Instant to,
+                                          @RequestParam(required = false) Double minPrice,
+                                          @RequestParam(required = false) Double maxPrice,
+                                          @RequestParam(defaultValue = "0") int page,
+                                          @RequestParam(defaultValue = "10") int size) {
+        try {
+            EventSearchPage results = eventSearchService.search(q, from, to, minPrice, maxPrice, page, size);
+            return freshness(ResponseEntity.ok()).body(results);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Publicly accessible: typeahead suggestions for event titles and locations
+    @GetMapping("/suggest")
+    public List<SuggestionDTO> suggest(@RequestParam String q,
+                                       @RequestParam(defaultValue = "8") int limit) {
+        return eventSuggestionService.suggest(q, limit);
+    }
+
+    // Publicly accessible: upcoming events ranked by recent views and bookings
+    @GetMapping("/trending")
+    public List<TrendingEventDTO> getTrending(@RequestParam(defaultValue = "10") int limit) {
+        return trendingService.getTrending(limit);
+    }
+
+    // Publicly accessible: live availability of every event as Server-Sent Events, instead of polling
+    @GetMapping(path = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamCatalogAvailability(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        try {
+            availabilityStreamService.subscribeCatalog(request, response);
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value()); // At the subscriber limit
+        }
+    }
+
+    // Publicly accessible: live availability of one event as Server-Sent Events, starting with the current count
+    @GetMapping(path = "/{id}/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public void streamEventAvailability(@PathVariable Long id, HttpServletRequest request,
+                                        HttpServletResponse response) throws IOException {
+        try {
+            Optional<Event> event = eventService.getEventById(id);
+            if (event.isEmpty()) {
+                response.sendError(HttpStatus.NOT_FOUND.value());
+                return;
+            }
+            availabilityStreamService.subscribe(id, event.get().getAvailableTickets(), request, response);
+        } catch (RuntimeException e) {
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value()); // Database down or at the subscriber limit
+        }
     }
 
     // Publicly accessible to view a single event
     @GetMapping("/{id}")
     public ResponseEntity<Event> getEventById(@PathVariable Long id) {
-        return eventService.getEventById(id)
-                .map(ResponseEntity::ok)
-                .orElse(ResponseEntity.notFound().build());
+        try {
+            return eventService.getEventById(id)
+                    .map(event -> {
+                        trendingService.recordView(id);
+                        return freshness(ResponseEntity.ok()).eTag(eventETag(event)).body(event); // Matching If-None-Match gets a 304
+                    })
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (DataAccessException | TransactionException e) {
+            // Not in the catalog snapshot and the database is unreachable
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+
+    // Admin only: event and catalog cache statistics, plus coalesced user lookups and live stream subscribers
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping("/cache-stats")
+    public Map<String, ?> getCacheStats() {
+        Map<String, Object> stats = new LinkedHashMap<>(eventService.getCacheStats());
+        stats.put("userLookups", jwtUserDetailsService.lookupStats());
+        stats.put("availabilityStreams", availabilityStreamService.stats());
+        return stats;
     }
 
     // Admin only: Create a new event
@@ -58,6 +220,39 @@ public class EventController {
         }
     }
 
+    /**
+     * Marks responses served from a catalog snapshot that could not be refreshed from the
+     * database (degraded, read-only mode), with the time it was last known to be current.
+     */
+    private ResponseEntity.BodyBuilder freshness(ResponseEntity.BodyBuilder response) {
+        if (catalogSnapshotService.isStale()) {
+            response.header(HttpHeaders.WARNING, "110 - \"Response is Stale\"");
+            if (catalogSnapshotService.refreshedAt() != null) {
+                response.header("X-Catalog-As-Of", catalogSnapshotService.refreshedAt().toString());
+            }
+        }
+        return response;
+    }
+
+    /**
+     * Weak ETag from the row version (bumped by every edit and ticket sale on the event row),
+     * plus the live parts that do not touch the row: snapshot availability, current price and
+     * tier availability.
+     */
+    private static String eventETag(Event event) {
+        int live = Objects.hash(event.getAvailableTickets(), event.getCurrentPrice(), event.getTiers() == null ? null
+                : event.getTiers().stream().map(TicketTierDTO::getAvailableTickets).toList());
+        return "W/\"" + event.getId() + "-" + event.getVersion() + "-" + Integer.toHexString(live) + "\"";
+    }
+
+    private static String catalogETag(EventCatalogPage page) {
+        int hash = Objects.hashCode(page.getNextCursor());
+        for (EventSummaryDTO item : page.getItems()) {
+            hash = 31 * hash + Objects.hash(item.getId(), item.getVersion(), item.getAvailableTickets());
+        }
+        return "W/\"" + Integer.toHexString(hash) + "\"";
+    }
+
     // Admin only: Delete an event
     @PreAuthorize("hasRole('ADMIN')")
     @DeleteMapping("/{id}")
@@ -0,0 +1,70 @@
+package com.event.controller;
+
+import com.event.dto.EventSeriesDTO;
+import com.event.dto.SeriesOccurrenceDTO;
+import com.event.service.EventSeriesService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/series")
+@CrossOrigin(origins = "https://event-manager-platform.onrender.com")
+public class EventSeriesController {
+
+    @Autowired
+    private EventSeriesService eventSeriesService;
+
+    // Publicly accessible: all recurring series that are still running
+    @GetMapping
+    public List<EventSeriesDTO> getActiveSeries() {
+        return eventSeriesService.getActiveSeries();
+    }
+
+    // Publicly accessible: upcoming occurrences of a series, computed from its rule (to defaults to from + days)
+    @GetMapping("/{id}/occurrences")
+    public ResponseEntity<?> getOccurrences(@PathVariable Long id,
+                                            @RequestParam(required = false) Instant from,
+                                            @RequestParam(required = false) Instant to,
+                                            @RequestParam(defaultValue = "90") int days,
+                                            @RequestParam(defaultValue = "20") int limit) {
+        Instant start = from != null ? from : Instant.now();
+        Instant end = to != null ? to : start.plus(Duration.ofDays(days));
+        try {
+            List<SeriesOccurrenceDTO> occurrences = eventSeriesService.getOccurrences(id, start, end, limit);
+            return ResponseEntity.ok(occurrences);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Admin only: create a recurring series (no event rows are created until occurrences are booked)
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ResponseEntity<?> createSeries(@Valid @RequestBody EventSeriesDTO seriesDTO) {
+        try {
+            return new ResponseEntity<>(eventSeriesService.createSeries(seriesDTO), HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Admin only: stop a series; occurrences already booked are kept
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> deactivate(@PathVariable Long id) {
+        try {
+            eventSeriesService.deactivate(id);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
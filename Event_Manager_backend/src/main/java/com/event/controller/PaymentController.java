@@ -1,10 +1,13 @@
 package com.event.controller;
 
+import com.event.dto.CartItem;
+import com.event.dto.CartOrderRequest;
 import com.event.dto.OrderRequest;
 import com.event.dto.PaymentResponse;
 import com.event.dto.PaymentVerificationRequest;
 import com.razorpay.Order;
 import com.razorpay.RazorpayException;
+import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
@@ -12,10 +15,18 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.json.JSONObject;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import com.event.bean.Booking;
+import com.event.bean.Event;
 import com.event.service.BookingService;
 import com.event.service.RazorpayService;
+import com.event.service.ReservationEngine;
+import com.event.service.WaitingRoomService;
+import com.event.service.WaitlistService;
 import com.event.service.EventService;
+import com.event.service.EventSeriesService;
 
 @RestController
 @RequestMapping("/api/payments")
@@ -31,25 +42,70 @@ public class PaymentController {
     @Autowired
     private EventService eventService;
 
+    @Autowired
+    private ReservationEngine reservationEngine;
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    @Autowired
+    private EventSeriesService eventSeriesService;
+
     @Value("${razorpay.key.id}")
     private String keyId;
 
     @PostMapping("/create-order")
     public ResponseEntity<?> createOrder(@RequestBody OrderRequest orderRequest) {
         try {
-            long amountInPaisa = (long) (orderRequest.getAmount() * 100);
-
             Long eventIdAsLong = null;
+            boolean newOccurrence = false;
             if (orderRequest.getEventId() != null) {
                 eventIdAsLong = Long.valueOf(orderRequest.getEventId().toString());
+            } else if (orderRequest.getSeriesId() != null && orderRequest.getOccurrenceStart() != null) {
+                eventIdAsLong = eventSeriesService.findOccurrence(orderRequest.getSeriesId(), orderRequest.getOccurrenceStart())
+                        .map(Event::getId).orElse(null);
+                newOccurrence = eventIdAsLong == null;
+            } else {
+                return new ResponseEntity<>("Either eventId or seriesId and occurrenceStart is required.", HttpStatus.BAD_REQUEST);
             }
 
-            Booking pendingBooking = bookingService.createPendingBooking(
-                eventIdAsLong,
-                orderRequest.getUserName(),
-                orderRequest.getUserEmail(),
-                orderRequest.getNumberOfTickets()
-            );
+            Booking pendingBooking;
+            if (newOccurrence) {
+                // First booking of a recurring occurrence (no row yet, so no waiting room either): the
+                // event row is created in the booking's transaction and disappears if the booking fails
+                pendingBooking = eventSeriesService.bookNewOccurrence(orderRequest.getSeriesId(),
+                        orderRequest.getOccurrenceStart(), eventId -> bookingService.createPendingBooking(
+                                eventId,
+                                orderRequest.getUserName(),
+                                orderRequest.getUserEmail(),
+                                orderRequest.getNumberOfTickets(),
+                                orderRequest.getTierId(),
+                                orderRequest.getSeatSection(),
+                                orderRequest.getSeats(),
+                                orderRequest.getPromoCode()));
+            } else {
+                // During a flash sale only buyers admitted by the event's waiting room reach the booking path
+                if (!waitingRoomService.consumeAdmission(eventIdAsLong, orderRequest.getWaitingRoomToken())) {
+                    return new ResponseEntity<>("Please wait for your turn in the waiting room.", HttpStatus.TOO_MANY_REQUESTS);
+                }
+
+                pendingBooking = reservationEngine.reserve(
+                    eventIdAsLong,
+                    orderRequest.getUserName(),
+                    orderRequest.getUserEmail(),
+                    orderRequest.getNumberOfTickets(),
+                    orderRequest.getTierId(),
+                    orderRequest.getSeatSection(),
+                    orderRequest.getSeats(),
+                    orderRequest.getPromoCode()
+                );
+            }
+
+            // Charge the price locked in when the tickets were held, never the client's amount
+            long amountInPaisa = bookingService.chargeInPaisa(pendingBooking);
 
             if (amountInPaisa == 0) {
                 bookingService.confirmBooking(pendingBooking.getId(), "FREE_EVENT_PAYMENT");
@@ -69,6 +125,7 @@ public class PaymentController {
                 orderRequest.getCurrency(),
                 receipt
             );
+            bookingService.attachOrder(List.of(pendingBooking.getId()), razorpayOrder.get("id").toString());
 
             PaymentResponse response = new PaymentResponse();
             response.setOrderId(razorpayOrder.get("id").toString());
@@ -91,6 +148,121 @@ public class PaymentController {
         }
     }
 
+    @PostMapping("/create-cart-order")
+    public ResponseEntity<?> createCartOrder(@Valid @RequestBody CartOrderRequest cartRequest) {
+        try {
+            for (CartItem item : cartRequest.getItems()) {
+                if (!waitingRoomService.consumeAdmission(item.getEventId(), item.getWaitingRoomToken())) {
+                    return new ResponseEntity<>("Please wait for your turn in the waiting room for event " + item.getEventId() + ".", HttpStatus.TOO_MANY_REQUESTS);
+                }
+            }
+
+            // All events reserved in one transaction; the amount is computed here, not trusted from the client
+            List<Booking> pendingBookings = bookingService.createPendingCartBookings(
+                cartRequest.getUserName(),
+                cartRequest.getUserEmail(),
+                cartRequest.getItems()
+            );
+
+            List<Long> bookingIds = new ArrayList<>(pendingBookings.size());
+            long amountInPaisa = 0;
+            for (Booking booking : pendingBookings) {
+                bookingIds.add(booking.getId());
+                amountInPaisa += bookingService.chargeInPaisa(booking); // The order charges exactly what is recorded per booking
+            }
+
+            PaymentResponse response = new PaymentResponse();
+            response.setKeyId(keyId);
+            response.setBookingId(bookingIds.get(0));
+            response.setBookingIds(bookingIds);
+
+            if (amountInPaisa == 0) {
+                bookingService.confirmBookings(bookingIds, "FREE_EVENT_PAYMENT");
+                response.setOrderId("FREE_CART_" + bookingIds.get(0));
+                response.setCurrency(cartRequest.getCurrency());
+                response.setAmount(0);
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            }
+
+            // One gateway order for the whole cart
+            Order razorpayOrder;
+            try {
+                razorpayOrder = razorpayService.createRazorpayOrder(
+                    amountInPaisa,
+                    cartRequest.getCurrency(),
+                    "cart_" + bookingIds.get(0)
+                );
+            } catch (RazorpayException e) {
+                bookingService.failBookings(bookingIds); // Give the tickets back right away
+                throw e;
+            }
+            bookingService.attachOrder(bookingIds, razorpayOrder.get("id").toString());
+
+            response.setOrderId(razorpayOrder.get("id").toString());
+            response.setCurrency(razorpayOrder.get("currency").toString());
+            response.setAmount(((Number) razorpayOrder.get("amount")).doubleValue());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+
+        } catch (RazorpayException e) {
+            System.err.println("Error creating Razorpay order: " + e.getMessage());
+            return new ResponseEntity<>("Error creating Razorpay order: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (RuntimeException e) {
+            System.err.println("Booking service error during cart order creation: " + e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            System.err.println("An unexpected error occurred: " + e.getMessage());
+            return new ResponseEntity<>("An unexpected server error occurred.", HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    // Pay for tickets held by a waitlist offer; the claim code comes from the offer email
+    @PostMapping("/waitlist-claim")
+    public ResponseEntity<?> createWaitlistClaimOrder(@RequestParam String claimToken,
+                                                      @RequestParam(defaultValue = "INR") String currency) {
+        try {
+            Booking heldBooking = waitlistService.claim(claimToken);
+            long amountInPaisa = bookingService.chargeInPaisa(heldBooking);
+
+            PaymentResponse response = new PaymentResponse();
+            response.setKeyId(keyId);
+            response.setBookingId(heldBooking.getId());
+
+            if (amountInPaisa == 0) {
+                bookingService.confirmBooking(heldBooking.getId(), "FREE_EVENT_PAYMENT");
+                response.setOrderId("FREE_" + heldBooking.getId());
+                response.setCurrency(currency);
+                response.setAmount(0);
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            }
+
+            if (heldBooking.getRazorpayOrderId() != null && Long.valueOf(amountInPaisa).equals(heldBooking.getChargedPaisa())) {
+                // Claimed again: keep paying the same order, so a payment of the first attempt still confirms it
+                response.setOrderId(heldBooking.getRazorpayOrderId());
+                response.setCurrency(currency);
+                response.setAmount(amountInPaisa);
+                return new ResponseEntity<>(response, HttpStatus.OK);
+            }
+
+            Order razorpayOrder = razorpayService.createRazorpayOrder(
+                amountInPaisa,
+                currency,
+                "receipt_" + heldBooking.getId()
+            );
+            bookingService.attachOrder(List.of(heldBooking.getId()), razorpayOrder.get("id").toString());
+            response.setOrderId(razorpayOrder.get("id").toString());
+            response.setCurrency(razorpayOrder.get("currency").toString());
+            response.setAmount(((Number) razorpayOrder.get("amount")).doubleValue());
+            return new ResponseEntity<>(response, HttpStatus.OK);
+
+        } catch (RazorpayException e) {
+            System.err.println("Error creating Razorpay order: " + e.getMessage());
+            return new ResponseEntity<>("Error creating Razorpay order: " + e.getMessage(), HttpStatus.BAD_REQUEST);
+        } catch (RuntimeException e) {
+            System.err.println("Waitlist claim error: " + e.getMessage());
+            return new ResponseEntity<>(e.getMessage(), HttpStatus.BAD_REQUEST);
+        }
+    }
+
     @PostMapping("/verify")
     public ResponseEntity<String> verifyPayment(@RequestBody PaymentVerificationRequest request) {
         try {
@@ -98,6 +270,16 @@ public class PaymentController {
                 return new ResponseEntity<>("Booking ID is missing for verification.", HttpStatus.BAD_REQUEST);
             }
 
+            // Cart orders pay for several bookings at once; they are confirmed or failed together
+            List<Long> bookingIds = request.getBookingIds();
+            boolean cartOrder = bookingIds != null && !bookingIds.isEmpty();
+
+            // The signature only proves that some order was paid: it must be the order these bookings were charged by
+            if (!bookingService.isOrderedThrough(cartOrder ? bookingIds : List.of(request.getBookingId()),
+                    request.getRazorpayOrderId())) {
+                return new ResponseEntity<>("This payment does not belong to the given booking.", HttpStatus.BAD_REQUEST);
+            }
+
             boolean isVerified = razorpayService.verifyPaymentSignature(
                 request.getRazorpaySignature(),
                 request.getRazorpayOrderId(),
@@ -105,10 +287,18 @@ public class PaymentController {
             );
 
             if (isVerified) {
-                bookingService.confirmBooking(request.getBookingId(), request.getRazorpayPaymentId());
+                if (cartOrder) {
+                    bookingService.confirmBookings(bookingIds, request.getRazorpayPaymentId());
+                } else {
+                    bookingService.confirmBooking(request.getBookingId(), request.getRazorpayPaymentId());
+                }
                 return new ResponseEntity<>("Payment verified and booking confirmed!", HttpStatus.OK);
             } else {
-                bookingService.failBooking(request.getBookingId());
+                if (cartOrder) {
+                    bookingService.failBookings(bookingIds);
+                } else {
+                    bookingService.failBooking(request.getBookingId());
+                }
                 return new ResponseEntity<>("Payment verification failed! Booking marked as failed.", HttpStatus.BAD_REQUEST);
             }
         } catch (RuntimeException e) {
@@ -0,0 +1,66 @@
+package com.event.controller;
+
+import com.event.dto.PromoCodeDTO;
+import com.event.service.PromoCodeService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/promo-codes")
+@CrossOrigin(origins = "https://event-manager-platform.onrender.com")
+public class PromoCodeController {
+
+    @Autowired
+    private PromoCodeService promoCodeService;
+
+    // Public: check a code at checkout and show the discount before paying
+    @GetMapping("/validate")
+    public ResponseEntity<?> validate(@RequestParam String code,
+                                      @RequestParam Long eventId,
+                                      @RequestParam String email,
+                                      @RequestParam double amount) {
+        try {
+            double discount = promoCodeService.previewDiscount(code, eventId, email, amount);
+            return ResponseEntity.ok(Map.of("discount", discount, "amount", amount - discount));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Admin only: list all codes with their usage
+    @PreAuthorize("hasRole('ADMIN')")
+    @GetMapping
+    public List<PromoCodeDTO> getAll() {
+        return promoCodeService.getAll();
+    }
+
+    // Admin only: create a code
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping
+    public ResponseEntity<?> create(@Valid @RequestBody PromoCodeDTO promoCodeDTO) {
+        try {
+            return new ResponseEntity<>(promoCodeService.create(promoCodeDTO), HttpStatus.CREATED);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Admin only: stop a code from being redeemed
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/{code}")
+    public ResponseEntity<?> deactivate(@PathVariable String code) {
+        try {
+            promoCodeService.deactivate(code);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.event.controller;
+
+import com.event.dto.SeatSectionDTO;
+import com.event.service.SeatMapService;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/events/{eventId}/seats")
+@CrossOrigin(origins = "https://event-manager-platform.onrender.com")
+@Validated
+public class SeatMapController {
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    // Public: sections with their taken-seat bitmaps, for drawing the seat map
+    @GetMapping
+    public ResponseEntity<List<SeatSectionDTO>> getSeatMap(@PathVariable Long eventId) {
+        return ResponseEntity.ok(seatMapService.getSeatMap(eventId));
+    }
+
+    // Public: best contiguous seats right now, without holding them
+    @GetMapping("/best-available")
+    public ResponseEntity<?> bestAvailable(@PathVariable Long eventId,
+                                           @RequestParam int quantity,
+                                           @RequestParam(required = false) String section) {
+        return ResponseEntity.ok(seatMapService.previewBestAvailable(eventId, quantity, section));
+    }
+
+    // Admin only: define the seat layout of an event before sales start
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping
+    public ResponseEntity<?> defineSeatMap(@PathVariable Long eventId,
+                                           @RequestBody @NotEmpty List<@Valid SeatSectionDTO> sections) {
+        try {
+            return ResponseEntity.ok(seatMapService.defineSeatMap(eventId, sections));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+}
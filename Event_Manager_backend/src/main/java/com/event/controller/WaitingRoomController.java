@@ -0,0 +1,58 @@
+package com.event.controller;
+
+import com.event.dto.WaitingRoomConfigRequest;
+import com.event.dto.WaitingRoomStatus;
+import com.event.service.WaitingRoomService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waiting-room")
+@CrossOrigin(origins = "https://event-manager-platform.onrender.com")
+public class WaitingRoomController {
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    // Public: take a place in the queue for an event
+    @PostMapping("/{eventId}/join")
+    public ResponseEntity<?> join(@PathVariable Long eventId) {
+        try {
+            return ResponseEntity.ok(waitingRoomService.join(eventId));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+
+    // Public: poll queue position; clients should poll no faster than every few seconds
+    @GetMapping("/{eventId}/status")
+    public ResponseEntity<?> status(@PathVariable Long eventId, @RequestParam String token) {
+        try {
+            WaitingRoomStatus status = waitingRoomService.status(eventId, token);
+            return ResponseEntity.ok(status);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Admin only: open or reconfigure the waiting room of an event
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/{eventId}")
+    public ResponseEntity<Void> configure(@PathVariable Long eventId, @Valid @RequestBody WaitingRoomConfigRequest request) {
+        waitingRoomService.configure(eventId, request.getAdmissionsPerSecond(), request.getCapacity(),
+                request.getAdmissionWindowSeconds());
+        return ResponseEntity.noContent().build();
+    }
+
+    // Admin only: close the waiting room, buyers go straight to checkout
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/{eventId}")
+    public ResponseEntity<Void> disable(@PathVariable Long eventId) {
+        waitingRoomService.disable(eventId);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,51 @@
+package com.event.controller;
+
+import com.event.dto.WaitlistRequest;
+import com.event.dto.WaitlistStatus;
+import com.event.service.WaitlistService;
+import jakarta.validation.Valid;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/waitlist")
+@CrossOrigin(origins = "https://event-manager-platform.onrender.com")
+public class WaitlistController {
+
+    @Autowired
+    private WaitlistService waitlistService;
+
+    // Public: join the waitlist of a sold-out event; offers arrive by email. Keep the returned manageToken
+    @PostMapping("/{eventId}")
+    public ResponseEntity<?> join(@PathVariable Long eventId, @Valid @RequestBody WaitlistRequest request) {
+        try {
+            WaitlistStatus status = waitlistService.join(eventId, request);
+            return ResponseEntity.ok(status);
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+
+    // Public: state of an entry and place in line; needs the manage token returned on joining
+    @GetMapping("/entries/{entryId}")
+    public ResponseEntity<?> status(@PathVariable Long entryId, @RequestParam String token) {
+        try {
+            return ResponseEntity.ok(waitlistService.status(entryId, token));
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        }
+    }
+
+    // Public: leave the waitlist (or give up an outstanding offer); needs the manage token returned on joining
+    @DeleteMapping("/entries/{entryId}")
+    public ResponseEntity<?> leave(@PathVariable Long entryId, @RequestParam String token) {
+        try {
+            waitlistService.leave(entryId, token);
+            return ResponseEntity.noContent().build();
+        } catch (RuntimeException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.event.dto;
+
+import java.util.List;
+
+/**
+ * Result of an analytics query over booking facts: one row per group, in group order.
+ */
+public class AnalyticsResultDTO {
+    private final List<String> groupBy;
+    private final long scannedBookings;
+    private final long matchedBookings;
+    private final long tookMillis;
+    private final boolean truncated; // More groups than the row limit
+    private final List<AnalyticsRowDTO> rows;
+
+    public AnalyticsResultDTO(List<String> groupBy, long scannedBookings, long matchedBookings, long tookMillis,
+                              boolean truncated, List<AnalyticsRowDTO> rows) {
+        this.groupBy = groupBy;
+        this.scannedBookings = scannedBookings;
+        this.matchedBookings = matchedBookings;
+        this.tookMillis = tookMillis;
+        this.truncated = truncated;
+        this.rows = rows;
+    }
+
+    // Getters
+    public List<String> getGroupBy() { return groupBy; }
+    public long getScannedBookings() { return scannedBookings; }
+    public long getMatchedBookings() { return matchedBookings; }
+    public long getTookMillis() { return tookMillis; }
+    public boolean isTruncated() { return truncated; }
+    public List<AnalyticsRowDTO> getRows() { return rows; }
+}
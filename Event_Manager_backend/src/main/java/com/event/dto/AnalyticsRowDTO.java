@@ -0,0 +1,33 @@
+package com.event.dto;
+
+import java.util.List;
+
+/**
+ * Aggregates of one group of an analytics query.
+ */
+public class AnalyticsRowDTO {
+    private final List<String> group; // One value per groupBy dimension, in the same order
+    private final long bookings;
+    private final long tickets;
+    private final double revenue;
+    private final double avgTickets; // Per booking
+    private final double avgAmount;  // Per booking
+
+    public AnalyticsRowDTO(List<String> group, long bookings, long tickets, double revenue,
+                           double avgTickets, double avgAmount) {
+        this.group = group;
+        this.bookings = bookings;
+        this.tickets = tickets;
+        this.revenue = revenue;
+        this.avgTickets = avgTickets;
+        this.avgAmount = avgAmount;
+    }
+
+    // Getters
+    public List<String> getGroup() { return group; }
+    public long getBookings() { return bookings; }
+    public long getTickets() { return tickets; }
+    public double getRevenue() { return revenue; }
+    public double getAvgTickets() { return avgTickets; }
+    public double getAvgAmount() { return avgAmount; }
+}
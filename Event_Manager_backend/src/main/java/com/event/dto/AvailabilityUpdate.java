@@ -0,0 +1,18 @@
+package com.event.dto;
+
+/**
+ * Live availability of one event, pushed to stream subscribers.
+ */
+public class AvailabilityUpdate {
+    private final Long eventId;
+    private final int availableTickets;
+
+    public AvailabilityUpdate(Long eventId, int availableTickets) {
+        this.eventId = eventId;
+        this.availableTickets = availableTickets;
+    }
+
+    // Getters
+    public Long getEventId() { return eventId; }
+    public int getAvailableTickets() { return availableTickets; }
+}
@@ -0,0 +1,48 @@
+package com.event.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+
+public class CartItem {
+    @NotNull(message = "Event ID cannot be null")
+    private Long eventId;
+
+    @Min(value = 1, message = "Number of tickets must be at least 1")
+    private int numberOfTickets;
+
+    private Long tierId; // Required for events with ticket tiers
+
+    private String waitingRoomToken; // Required only while the event's waiting room is active
+
+	public Long getEventId() {
+		return eventId;
+	}
+
+	public void setEventId(Long eventId) {
+		this.eventId = eventId;
+	}
+
+	public int getNumberOfTickets() {
+		return numberOfTickets;
+	}
+
+	public void setNumberOfTickets(int numberOfTickets) {
+		this.numberOfTickets = numberOfTickets;
+	}
+
+	public Long getTierId() {
+		return tierId;
+	}
+
+	public void setTierId(Long tierId) {
+		this.tierId = tierId;
+	}
+
+	public String getWaitingRoomToken() {
+		return waitingRoomToken;
+	}
+
+	public void setWaitingRoomToken(String waitingRoomToken) {
+		this.waitingRoomToken = waitingRoomToken;
+	}
+}
@@ -0,0 +1,56 @@
+package com.event.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+public class CartOrderRequest {
+    @NotBlank(message = "Currency cannot be blank")
+    private String currency; // e.g., "INR"
+
+    @NotBlank(message = "User name cannot be blank")
+    private String userName;
+
+    @NotBlank(message = "User email cannot be blank")
+    @Email(message = "Invalid email format")
+    private String userEmail;
+
+    @Valid
+    @NotEmpty(message = "Cart cannot be empty")
+    private List<CartItem> items;
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public void setCurrency(String currency) {
+		this.currency = currency;
+	}
+
+	public String getUserName() {
+		return userName;
+	}
+
+	public void setUserName(String userName) {
+		this.userName = userName;
+	}
+
+	public String getUserEmail() {
+		return userEmail;
+	}
+
+	public void setUserEmail(String userEmail) {
+		this.userEmail = userEmail;
+	}
+
+	public List<CartItem> getItems() {
+		return items;
+	}
+
+	public void setItems(List<CartItem> items) {
+		this.items = items;
+	}
+}
@@ -0,0 +1,22 @@
+package com.event.dto;
+
+import java.util.List;
+
+public class EventCatalogPage {
+    private List<EventSummaryDTO> items;
+    private String nextCursor; // Pass back as ?cursor= for the next page; null on the last page
+
+    public EventCatalogPage() {
+    }
+
+    public EventCatalogPage(List<EventSummaryDTO> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    // Getters and Setters
+    public List<EventSummaryDTO> getItems() { return items; }
+    public void setItems(List<EventSummaryDTO> items) { this.items = items; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+}
@@ -1,12 +1,14 @@
 package com.event.dto;
 
 import lombok.Data; // Assuming Lombok is used for getters/setters, otherwise add them manually
+import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 // import org.springframework.format.annotation.DateTimeFormat; // REMOVE THIS IMPORT
 
 import java.time.Instant; // Changed from LocalDateTime
+import java.util.List;
 
 @Data // Lombok annotation for getters, setters, equals, hashCode, toString
 public class EventDTO {
@@ -35,6 +37,13 @@ public class EventDTO {
 
     private String imageUrl; // Optional
 
+    // Optional price tiers; when given, totalTickets is the sum of their capacities
+    @Valid
+    private List<TicketTierDTO> tiers;
+
+    // Optional demand-based pricing, e.g. "occupancy: 50%=1.2, 80%=1.5; velocity: 20/min=1.1; max=2.0"
+    private String pricingCurve;
+
     // --- Manual Getters and Setters (if not using Lombok @Data) ---
     public Long getId() {
         return id;
@@ -99,4 +108,20 @@ public class EventDTO {
     public void setImageUrl(String imageUrl) {
         this.imageUrl = imageUrl;
     }
+
+    public List<TicketTierDTO> getTiers() {
+        return tiers;
+    }
+
+    public void setTiers(List<TicketTierDTO> tiers) {
+        this.tiers = tiers;
+    }
+
+    public String getPricingCurve() {
+        return pricingCurve;
+    }
+
+    public void setPricingCurve(String pricingCurve) {
+        this.pricingCurve = pricingCurve;
+    }
 }
@@ -0,0 +1,38 @@
+package com.event.dto;
+
+import java.time.Instant;
+
+public class EventSearchHit {
+    private Long id;
+    private String title;
+    private Instant dateTime;
+    private String location;
+    private double price;
+    private int availableTickets;
+    private String imageUrl;
+    private float score;
+    private String highlightedTitle; // HTML-escaped, matches wrapped in <mark>
+    private String snippet;          // HTML-escaped excerpt of the description around the first match
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public Instant getDateTime() { return dateTime; }
+    public void setDateTime(Instant dateTime) { this.dateTime = dateTime; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getAvailableTickets() { return availableTickets; }
+    public void setAvailableTickets(int availableTickets) { this.availableTickets = availableTickets; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public float getScore() { return score; }
+    public void setScore(float score) { this.score = score; }
+    public String getHighlightedTitle() { return highlightedTitle; }
+    public void setHighlightedTitle(String highlightedTitle) { this.highlightedTitle = highlightedTitle; }
+    public String getSnippet() { return snippet; }
+    public void setSnippet(String snippet) { this.snippet = snippet; }
+}
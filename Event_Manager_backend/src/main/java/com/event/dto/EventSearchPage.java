@@ -0,0 +1,34 @@
+package com.event.dto;
+
+import java.util.List;
+
+public class EventSearchPage {
+    private String query;
+    private int total; // Matches across all pages
+    private int page;  // 0-based
+    private int size;
+    private List<EventSearchHit> hits;
+
+    public EventSearchPage() {
+    }
+
+    public EventSearchPage(String query, int total, int page, int size, List<EventSearchHit> hits) {
+        this.query = query;
+        this.total = total;
+        this.page = page;
+        this.size = size;
+        this.hits = hits;
+    }
+
+    // Getters and Setters
+    public String getQuery() { return query; }
+    public void setQuery(String query) { this.query = query; }
+    public int getTotal() { return total; }
+    public void setTotal(int total) { this.total = total; }
+    public int getPage() { return page; }
+    public void setPage(int page) { this.page = page; }
+    public int getSize() { return size; }
+    public void setSize(int size) { this.size = size; }
+    public List<EventSearchHit> getHits() { return hits; }
+    public void setHits(List<EventSearchHit> hits) { this.hits = hits; }
+}
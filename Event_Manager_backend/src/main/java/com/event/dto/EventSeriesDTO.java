@@ -0,0 +1,65 @@
+package com.event.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+public class EventSeriesDTO {
+    private Long id; // Read-only
+
+    @NotBlank(message = "Title cannot be blank")
+    private String title;
+
+    private String description;
+
+    @NotBlank(message = "Location cannot be blank")
+    private String location;
+
+    @Min(value = 0, message = "Price cannot be negative")
+    private double price;
+
+    @Min(value = 1, message = "Tickets per occurrence must be at least 1")
+    private int ticketsPerOccurrence;
+
+    private String imageUrl;     // Optional
+    private String pricingCurve; // Optional, applied to every occurrence
+
+    @NotNull(message = "First start cannot be null")
+    private Instant firstStart;
+
+    @NotBlank(message = "Time zone cannot be blank")
+    private String timeZone; // e.g. Asia/Kolkata
+
+    @NotBlank(message = "Recurrence rule cannot be blank")
+    private String recurrenceRule; // e.g. FREQ=WEEKLY;BYDAY=FR;COUNT=20
+
+    private boolean active; // Read-only
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getTicketsPerOccurrence() { return ticketsPerOccurrence; }
+    public void setTicketsPerOccurrence(int ticketsPerOccurrence) { this.ticketsPerOccurrence = ticketsPerOccurrence; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public String getPricingCurve() { return pricingCurve; }
+    public void setPricingCurve(String pricingCurve) { this.pricingCurve = pricingCurve; }
+    public Instant getFirstStart() { return firstStart; }
+    public void setFirstStart(Instant firstStart) { this.firstStart = firstStart; }
+    public String getTimeZone() { return timeZone; }
+    public void setTimeZone(String timeZone) { this.timeZone = timeZone; }
+    public String getRecurrenceRule() { return recurrenceRule; }
+    public void setRecurrenceRule(String recurrenceRule) { this.recurrenceRule = recurrenceRule; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+}
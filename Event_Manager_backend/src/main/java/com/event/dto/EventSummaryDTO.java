@@ -0,0 +1,58 @@
+package com.event.dto;
+
+import java.time.Instant;
+
+/**
+ * Catalog view of an event: filled straight from a projection query, so it never touches
+ * the event's bookings and only carries the description when it was asked for.
+ */
+public class EventSummaryDTO {
+    private Long id;
+    private String title;
+    private Instant dateTime;
+    private String location;
+    private double price;
+    private int totalTickets;
+    private int availableTickets;
+    private String imageUrl;
+    private Long version;
+    private String description; // Only when requested
+
+    public EventSummaryDTO() {
+    }
+
+    public EventSummaryDTO(Long id, String title, Instant dateTime, String location, double price,
+                           int totalTickets, int availableTickets, String imageUrl, Long version) {
+        this.id = id;
+        this.title = title;
+        this.dateTime = dateTime;
+        this.location = location;
+        this.price = price;
+        this.totalTickets = totalTickets;
+        this.availableTickets = availableTickets;
+        this.imageUrl = imageUrl;
+        this.version = version;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+    public Instant getDateTime() { return dateTime; }
+    public void setDateTime(Instant dateTime) { this.dateTime = dateTime; }
+    public String getLocation() { return location; }
+    public void setLocation(String location) { this.location = location; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getTotalTickets() { return totalTickets; }
+    public void setTotalTickets(int totalTickets) { this.totalTickets = totalTickets; }
+    public int getAvailableTickets() { return availableTickets; }
+    public void setAvailableTickets(int availableTickets) { this.availableTickets = availableTickets; }
+    public String getImageUrl() { return imageUrl; }
+    public void setImageUrl(String imageUrl) { this.imageUrl = imageUrl; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+    public String getDescription() { return description; }
+    public void setDescription(String description) { this.description = description; }
+}
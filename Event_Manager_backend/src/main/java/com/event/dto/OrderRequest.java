@@ -1,21 +1,24 @@
 package com.event.dto;
 
 import lombok.Data;
+import java.time.Instant;
+import java.util.List;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
 
 @Data
 public class OrderRequest {
     @Min(value = 0, message = "Amount cannot be negative")
-    private double amount; // This will be in currency units (e.g., INR)
+    private double amount; // Informational only: the charged amount is the server-side price of the booking
 
     @NotBlank(message = "Currency cannot be blank")
     private String currency; // e.g., "INR"
 
-    @NotNull(message = "Event ID cannot be null")
-    private Long eventId;
+    private Long eventId; // Or seriesId and occurrenceStart for an occurrence of a recurring series
+
+    private Long seriesId;           // Recurring series: the series
+    private Instant occurrenceStart; // Recurring series: start of the occurrence to book
 
     @NotBlank(message = "User name cannot be blank")
     private String userName;
@@ -27,6 +30,16 @@ public class OrderRequest {
     @Min(value = 1, message = "Number of tickets must be at least 1")
     private int numberOfTickets;
 
+    private String waitingRoomToken; // Required only while the event's waiting room is active
+
+    private Long tierId; // Required for events with ticket tiers; the amount is then taken from the tier
+
+    private String seatSection; // Reserved seating: preferred section for best-available seats
+
+    private List<SeatDTO> seats; // Reserved seating: exact seats picked on the seat map
+
+    private String promoCode; // Optional discount code
+
 	public double getAmount() {
 		return amount;
 	}
@@ -74,6 +87,60 @@ public class OrderRequest {
 	public void setNumberOfTickets(int numberOfTickets) {
 		this.numberOfTickets = numberOfTickets;
 	}
-    
-    
-}
\ No newline at end of file
+
+	public String getWaitingRoomToken() {
+		return waitingRoomToken;
+	}
+
+	public void setWaitingRoomToken(String waitingRoomToken) {
+		this.waitingRoomToken = waitingRoomToken;
+	}
+
+	public Long getTierId() {
+		return tierId;
+	}
+
+	public void setTierId(Long tierId) {
+		this.tierId = tierId;
+	}
+
+	public String getSeatSection() {
+		return seatSection;
+	}
+
+	public void setSeatSection(String seatSection) {
+		this.seatSection = seatSection;
+	}
+
+	public List<SeatDTO> getSeats() {
+		return seats;
+	}
+
+	public void setSeats(List<SeatDTO> seats) {
+		this.seats = seats;
+	}
+
+	public String getPromoCode() {
+		return promoCode;
+	}
+
+	public void setPromoCode(String promoCode) {
+		this.promoCode = promoCode;
+	}
+
+	public Long getSeriesId() {
+		return seriesId;
+	}
+
+	public void setSeriesId(Long seriesId) {
+		this.seriesId = seriesId;
+	}
+
+	public Instant getOccurrenceStart() {
+		return occurrenceStart;
+	}
+
+	public void setOccurrenceStart(Instant occurrenceStart) {
+		this.occurrenceStart = occurrenceStart;
+	}
+}
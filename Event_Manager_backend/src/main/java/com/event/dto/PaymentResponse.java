@@ -2,6 +2,8 @@ package com.event.dto;
 
 import lombok.Data;
 
+import java.util.List;
+
 @Data
 public class PaymentResponse {
     private String orderId;    // Razorpay Order ID
@@ -9,6 +11,7 @@ public class PaymentResponse {
     private double amount;     // Amount in paisa/cents from Razorpay
     private String keyId;      // Your Razorpay Key ID (needed by frontend)
     private Long bookingId;    // Internal booking ID
+    private List<Long> bookingIds; // All bookings paid by this order (cart checkout)
 	public String getOrderId() {
 		return orderId;
 	}
@@ -39,6 +42,12 @@ public class PaymentResponse {
 	public void setBookingId(Long bookingId) {
 		this.bookingId = bookingId;
 	}
+	public List<Long> getBookingIds() {
+		return bookingIds;
+	}
+	public void setBookingIds(List<Long> bookingIds) {
+		this.bookingIds = bookingIds;
+	}
     
     
 }
\ No newline at end of file
@@ -4,6 +4,8 @@ import lombok.Data;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
+import java.util.List;
+
 @Data
 public class PaymentVerificationRequest {
     @NotBlank(message = "Razorpay Payment ID cannot be blank")
@@ -18,6 +20,8 @@ public class PaymentVerificationRequest {
     @NotNull(message = "Booking ID cannot be null")
     private Long bookingId; // Internal booking ID to confirm
 
+    private List<Long> bookingIds; // Cart checkout: every booking paid by the order, confirmed all-or-nothing
+
 	public String getRazorpayPaymentId() {
 		return razorpayPaymentId;
 	}
@@ -49,6 +53,12 @@ public class PaymentVerificationRequest {
 	public void setBookingId(Long bookingId) {
 		this.bookingId = bookingId;
 	}
-    
-    
+
+	public List<Long> getBookingIds() {
+		return bookingIds;
+	}
+
+	public void setBookingIds(List<Long> bookingIds) {
+		this.bookingIds = bookingIds;
+	}
 }
@@ -0,0 +1,53 @@
+package com.event.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.Instant;
+
+public class PromoCodeDTO {
+    @NotBlank(message = "Code cannot be blank")
+    private String code;
+
+    @NotBlank(message = "Discount type cannot be blank")
+    private String discountType; // PERCENT or FIXED
+
+    @Min(value = 0, message = "Discount cannot be negative")
+    private double discountValue;
+
+    private Long eventId; // Optional: null = valid for every event
+
+    @Min(value = 1, message = "Max uses must be at least 1")
+    private Integer maxUses; // Optional: null = unlimited
+
+    @Min(value = 1, message = "Per-user limit must be at least 1")
+    private Integer perUserLimit; // Optional: null = unlimited
+
+    private Instant validFrom;  // Optional
+    private Instant validUntil; // Optional
+
+    private boolean active;   // Read-only
+    private int usedCount;    // Read-only
+
+    // Getters and Setters
+    public String getCode() { return code; }
+    public void setCode(String code) { this.code = code; }
+    public String getDiscountType() { return discountType; }
+    public void setDiscountType(String discountType) { this.discountType = discountType; }
+    public double getDiscountValue() { return discountValue; }
+    public void setDiscountValue(double discountValue) { this.discountValue = discountValue; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public Integer getMaxUses() { return maxUses; }
+    public void setMaxUses(Integer maxUses) { this.maxUses = maxUses; }
+    public Integer getPerUserLimit() { return perUserLimit; }
+    public void setPerUserLimit(Integer perUserLimit) { this.perUserLimit = perUserLimit; }
+    public Instant getValidFrom() { return validFrom; }
+    public void setValidFrom(Instant validFrom) { this.validFrom = validFrom; }
+    public Instant getValidUntil() { return validUntil; }
+    public void setValidUntil(Instant validUntil) { this.validUntil = validUntil; }
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+    public int getUsedCount() { return usedCount; }
+    public void setUsedCount(int usedCount) { this.usedCount = usedCount; }
+}
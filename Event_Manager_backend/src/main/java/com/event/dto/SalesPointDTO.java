@@ -0,0 +1,23 @@
+package com.event.dto;
+
+import java.time.Instant;
+
+/**
+ * Tickets sold and revenue in one minute, for the live sales charts.
+ */
+public class SalesPointDTO {
+    private final Instant minute; // Start of the minute
+    private final long tickets;
+    private final double revenue;
+
+    public SalesPointDTO(Instant minute, long tickets, double revenue) {
+        this.minute = minute;
+        this.tickets = tickets;
+        this.revenue = revenue;
+    }
+
+    // Getters
+    public Instant getMinute() { return minute; }
+    public long getTickets() { return tickets; }
+    public double getRevenue() { return revenue; }
+}
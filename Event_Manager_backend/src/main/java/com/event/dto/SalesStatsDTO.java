@@ -0,0 +1,52 @@
+package com.event.dto;
+
+import java.util.List;
+
+/**
+ * Booking and sales totals of one event, or of all events, for the admin dashboard.
+ */
+public class SalesStatsDTO {
+    private final Long eventId; // null for the totals across all events
+    private final long bookings; // Ever created, in any status
+    private final long pendingPayment;
+    private final long confirmed;
+    private final long cancelled;
+    private final long failed;
+    private final long expired;
+    private final long ticketsSold; // Of bookings currently CONFIRMED
+    private final double revenue;   // Of bookings currently CONFIRMED
+    private final double conversionRate; // Share of bookings that were ever paid
+    private final long uniqueAttendees;  // Approximate distinct emails with a paid booking
+    private final List<SalesPointDTO> salesPerMinute; // Oldest first, ending with the current minute
+
+    public SalesStatsDTO(Long eventId, long bookings, long pendingPayment, long confirmed, long cancelled,
+                         long failed, long expired, long ticketsSold, double revenue, double conversionRate,
+                         long uniqueAttendees, List<SalesPointDTO> salesPerMinute) {
+        this.eventId = eventId;
+        this.bookings = bookings;
+        this.pendingPayment = pendingPayment;
+        this.confirmed = confirmed;
+        this.cancelled = cancelled;
+        this.failed = failed;
+        this.expired = expired;
+        this.ticketsSold = ticketsSold;
+        this.revenue = revenue;
+        this.conversionRate = conversionRate;
+        this.uniqueAttendees = uniqueAttendees;
+        this.salesPerMinute = salesPerMinute;
+    }
+
+    // Getters
+    public Long getEventId() { return eventId; }
+    public long getBookings() { return bookings; }
+    public long getPendingPayment() { return pendingPayment; }
+    public long getConfirmed() { return confirmed; }
+    public long getCancelled() { return cancelled; }
+    public long getFailed() { return failed; }
+    public long getExpired() { return expired; }
+    public long getTicketsSold() { return ticketsSold; }
+    public double getRevenue() { return revenue; }
+    public double getConversionRate() { return conversionRate; }
+    public long getUniqueAttendees() { return uniqueAttendees; }
+    public List<SalesPointDTO> getSalesPerMinute() { return salesPerMinute; }
+}
@@ -0,0 +1,24 @@
+package com.event.dto;
+
+public class SeatDTO {
+    private String section;
+    private int row;  // 1-based, row 1 is closest to the stage
+    private int seat; // 1-based within the row
+
+    public SeatDTO() {
+    }
+
+    public SeatDTO(String section, int row, int seat) {
+        this.section = section;
+        this.row = row;
+        this.seat = seat;
+    }
+
+    // Getters and Setters
+    public String getSection() { return section; }
+    public void setSection(String section) { this.section = section; }
+    public int getRow() { return row; }
+    public void setRow(int row) { this.row = row; }
+    public int getSeat() { return seat; }
+    public void setSeat(int seat) { this.seat = seat; }
+}
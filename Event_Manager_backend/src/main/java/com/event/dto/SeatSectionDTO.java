@@ -0,0 +1,34 @@
+package com.event.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+public class SeatSectionDTO {
+    private Long id;
+
+    @NotBlank(message = "Section name cannot be blank")
+    private String name;
+
+    @Min(value = 1, message = "A section needs at least 1 row")
+    private int rowCount;
+
+    @Min(value = 1, message = "A row needs at least 1 seat")
+    private int seatsPerRow;
+
+    private int availableSeats; // Read-only: filled in when the seat map is returned
+    private String takenBitmap; // Read-only: base64 of the row-major taken-seat bitset
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public int getRowCount() { return rowCount; }
+    public void setRowCount(int rowCount) { this.rowCount = rowCount; }
+    public int getSeatsPerRow() { return seatsPerRow; }
+    public void setSeatsPerRow(int seatsPerRow) { this.seatsPerRow = seatsPerRow; }
+    public int getAvailableSeats() { return availableSeats; }
+    public void setAvailableSeats(int availableSeats) { this.availableSeats = availableSeats; }
+    public String getTakenBitmap() { return takenBitmap; }
+    public void setTakenBitmap(String takenBitmap) { this.takenBitmap = takenBitmap; }
+}
@@ -0,0 +1,41 @@
+package com.event.dto;
+
+import java.time.Instant;
+
+/**
+ * One occurrence of a recurring series. {@code eventId} is set once the occurrence has been
+ * booked for the first time and has its own event row; until then availability is the
+ * series' full per-occurrence capacity.
+ */
+public class SeriesOccurrenceDTO {
+    private Long seriesId;
+    private Long eventId; // null = not booked yet
+    private String title;
+    private Instant dateTime;
+    private String location;
+    private double price;
+    private int totalTickets;
+    private int availableTickets;
+
+    public SeriesOccurrenceDTO(Long seriesId, Long eventId, String title, Instant dateTime, String location,
+                               double price, int totalTickets, int availableTickets) {
+        this.seriesId = seriesId;
+        this.eventId = eventId;
+        this.title = title;
+        this.dateTime = dateTime;
+        this.location = location;
+        this.price = price;
+        this.totalTickets = totalTickets;
+        this.availableTickets = availableTickets;
+    }
+
+    // Getters
+    public Long getSeriesId() { return seriesId; }
+    public Long getEventId() { return eventId; }
+    public String getTitle() { return title; }
+    public Instant getDateTime() { return dateTime; }
+    public String getLocation() { return location; }
+    public double getPrice() { return price; }
+    public int getTotalTickets() { return totalTickets; }
+    public int getAvailableTickets() { return availableTickets; }
+}
@@ -0,0 +1,21 @@
+package com.event.dto;
+
+/**
+ * One typeahead suggestion. Instances are built once per index and shared, never modified.
+ */
+public class SuggestionDTO {
+    private final String text;
+    private final String type;   // "event" or "location"
+    private final Long eventId;  // For event suggestions
+
+    public SuggestionDTO(String text, String type, Long eventId) {
+        this.text = text;
+        this.type = type;
+        this.eventId = eventId;
+    }
+
+    // Getters
+    public String getText() { return text; }
+    public String getType() { return type; }
+    public Long getEventId() { return eventId; }
+}
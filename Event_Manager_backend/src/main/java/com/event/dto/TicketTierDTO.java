@@ -0,0 +1,46 @@
+package com.event.dto;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+
+import java.time.Instant;
+
+public class TicketTierDTO {
+    private Long id;
+
+    @NotBlank(message = "Tier name cannot be blank")
+    private String name;
+
+    @Min(value = 0, message = "Price cannot be negative")
+    private double price;
+
+    @Min(value = 1, message = "A tier needs at least 1 ticket")
+    private int capacity;
+
+    private Instant saleStartsAt; // Optional
+    private Instant saleEndsAt;   // Optional
+
+    private int availableTickets; // Read-only: filled in from memory when events are returned
+    private boolean onSale;       // Read-only
+    private Double currentPrice;  // Read-only: price with the event's pricing curve applied
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getName() { return name; }
+    public void setName(String name) { this.name = name; }
+    public double getPrice() { return price; }
+    public void setPrice(double price) { this.price = price; }
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+    public Instant getSaleStartsAt() { return saleStartsAt; }
+    public void setSaleStartsAt(Instant saleStartsAt) { this.saleStartsAt = saleStartsAt; }
+    public Instant getSaleEndsAt() { return saleEndsAt; }
+    public void setSaleEndsAt(Instant saleEndsAt) { this.saleEndsAt = saleEndsAt; }
+    public int getAvailableTickets() { return availableTickets; }
+    public void setAvailableTickets(int availableTickets) { this.availableTickets = availableTickets; }
+    public boolean isOnSale() { return onSale; }
+    public void setOnSale(boolean onSale) { this.onSale = onSale; }
+    public Double getCurrentPrice() { return currentPrice; }
+    public void setCurrentPrice(Double currentPrice) { this.currentPrice = currentPrice; }
+}
@@ -0,0 +1,39 @@
+package com.event.dto;
+
+import java.time.Instant;
+
+/**
+ * An upcoming event ranked by recent views and bookings.
+ */
+public class TrendingEventDTO {
+    private final Long id;
+    private final String title;
+    private final Instant dateTime;
+    private final String location;
+    private final double price;
+    private final int availableTickets;
+    private final String imageUrl;
+    private final double score; // Decayed activity: views plus weighted tickets sold, halving every half-life
+
+    public TrendingEventDTO(Long id, String title, Instant dateTime, String location, double price,
+                            int availableTickets, String imageUrl, double score) {
+        this.id = id;
+        this.title = title;
+        this.dateTime = dateTime;
+        this.location = location;
+        this.price = price;
+        this.availableTickets = availableTickets;
+        this.imageUrl = imageUrl;
+        this.score = score;
+    }
+
+    // Getters
+    public Long getId() { return id; }
+    public String getTitle() { return title; }
+    public Instant getDateTime() { return dateTime; }
+    public String getLocation() { return location; }
+    public double getPrice() { return price; }
+    public int getAvailableTickets() { return availableTickets; }
+    public String getImageUrl() { return imageUrl; }
+    public double getScore() { return score; }
+}
@@ -0,0 +1,38 @@
+package com.event.dto;
+
+import jakarta.validation.constraints.Min;
+
+public class WaitingRoomConfigRequest {
+    @Min(value = 1, message = "Admission rate must be at least 1 per second")
+    private double admissionsPerSecond;
+
+    @Min(value = 1, message = "Queue capacity must be at least 1")
+    private int capacity;
+
+    @Min(value = 10, message = "Admission window must be at least 10 seconds")
+    private int admissionWindowSeconds;
+
+	public double getAdmissionsPerSecond() {
+		return admissionsPerSecond;
+	}
+
+	public void setAdmissionsPerSecond(double admissionsPerSecond) {
+		this.admissionsPerSecond = admissionsPerSecond;
+	}
+
+	public int getCapacity() {
+		return capacity;
+	}
+
+	public void setCapacity(int capacity) {
+		this.capacity = capacity;
+	}
+
+	public int getAdmissionWindowSeconds() {
+		return admissionWindowSeconds;
+	}
+
+	public void setAdmissionWindowSeconds(int admissionWindowSeconds) {
+		this.admissionWindowSeconds = admissionWindowSeconds;
+	}
+}
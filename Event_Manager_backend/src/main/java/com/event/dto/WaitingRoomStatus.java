@@ -0,0 +1,30 @@
+package com.event.dto;
+
+public class WaitingRoomStatus {
+    private String token;
+    private Long eventId;
+    private boolean waitingRoomActive; // false = no queue for this event, go straight to checkout
+    private boolean admitted;
+    private long position; // People ahead in the queue (0 once admitted)
+    private long estimatedWaitSeconds;
+    private Long admissionExpiresAt; // Epoch millis until which the admission can be used for create-order
+
+    public WaitingRoomStatus() {
+    }
+
+    // Getters and Setters
+    public String getToken() { return token; }
+    public void setToken(String token) { this.token = token; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public boolean isWaitingRoomActive() { return waitingRoomActive; }
+    public void setWaitingRoomActive(boolean waitingRoomActive) { this.waitingRoomActive = waitingRoomActive; }
+    public boolean isAdmitted() { return admitted; }
+    public void setAdmitted(boolean admitted) { this.admitted = admitted; }
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+    public long getEstimatedWaitSeconds() { return estimatedWaitSeconds; }
+    public void setEstimatedWaitSeconds(long estimatedWaitSeconds) { this.estimatedWaitSeconds = estimatedWaitSeconds; }
+    public Long getAdmissionExpiresAt() { return admissionExpiresAt; }
+    public void setAdmissionExpiresAt(Long admissionExpiresAt) { this.admissionExpiresAt = admissionExpiresAt; }
+}
@@ -0,0 +1,21 @@
+package com.event.dto;
+
+public class WaitlistStatus {
+    private Long entryId;
+    private Long eventId;
+    private String status;   // WAITING, OFFERED, CLAIMED, EXPIRED, CANCELLED
+    private long position;   // People ahead in line, while WAITING
+    private String manageToken; // Only in the response that created the entry
+
+    // Getters and Setters
+    public Long getEntryId() { return entryId; }
+    public void setEntryId(Long entryId) { this.entryId = entryId; }
+    public Long getEventId() { return eventId; }
+    public void setEventId(Long eventId) { this.eventId = eventId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getPosition() { return position; }
+    public void setPosition(long position) { this.position = position; }
+    public String getManageToken() { return manageToken; }
+    public void setManageToken(String manageToken) { this.manageToken = manageToken; }
+}
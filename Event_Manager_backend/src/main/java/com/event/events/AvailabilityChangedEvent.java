@@ -0,0 +1,10 @@
+package com.event.events;
+
+import java.util.Map;
+
+/**
+ * Published by the catalog snapshot after it applied a batch of ticket sales and releases
+ * (or an event edit), with the new available ticket count of every event that changed.
+ */
+public record AvailabilityChangedEvent(Map<Long, Integer> availableTickets) {
+}
@@ -0,0 +1,22 @@
+package com.event.events;
+
+import com.event.bean.Booking;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booking is created or moves to another status. Like the ticket events,
+ * consume it with {@code @TransactionalEventListener} to only see changes that committed.
+ *
+ * @param fromStatus {@code null} for a new booking
+ */
+public record BookingStatusChangedEvent(Long bookingId, Long eventId, String fromStatus, String toStatus,
+                                        int numberOfTickets, double amount, String userEmail,
+                                        LocalDateTime bookingDateTime) {
+
+    public static BookingStatusChangedEvent of(Booking booking, String fromStatus, String toStatus) {
+        return new BookingStatusChangedEvent(booking.getId(), booking.getEvent().getId(), fromStatus, toStatus,
+                booking.getNumberOfTickets(), booking.getAmount() != null ? booking.getAmount() : 0,
+                booking.getUserEmail(), booking.getBookingDateTime());
+    }
+}
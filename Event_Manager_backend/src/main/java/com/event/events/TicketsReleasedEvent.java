@@ -0,0 +1,11 @@
+package com.event.events;
+
+/**
+ * Published when tickets go back into an event's (or tier's) inventory: a failed, cancelled
+ * or expired booking. Listeners that act on it should use
+ * {@code @TransactionalEventListener} so they only see releases that actually committed.
+ *
+ * @param tierId {@code null} for events without tiers
+ */
+public record TicketsReleasedEvent(Long eventId, Long tierId, int numberOfTickets) {
+}
@@ -0,0 +1,10 @@
+package com.event.events;
+
+/**
+ * Published when tickets are taken for a new booking. Like {@link TicketsReleasedEvent},
+ * consume it with {@code @TransactionalEventListener} to only see committed sales.
+ *
+ * @param tierId {@code null} for events without tiers
+ */
+public record TicketsReservedEvent(Long eventId, Long tierId, int numberOfTickets) {
+}
@@ -1,11 +1,22 @@
 package com.event.repository;
 
 import com.event.bean.Booking;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
@@ -17,4 +28,121 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     List<Booking> findByUserIdAndStatusNotIn(Long userId, List<String> statuses);
 
     List<Booking> findByStatusNotIn(List<String> statuses);
+
+    // Every booking ever sold from a lease counts, even if later cancelled: cancelled tickets
+    // were handed back separately (into a live lease or to the event).
+    @Query("SELECT COALESCE(SUM(b.numberOfTickets), 0) FROM Booking b WHERE b.leaseId = :leaseId")
+    long sumTicketsByLeaseId(@Param("leaseId") Long leaseId);
+
+    /** Id and creation time of a booking, enough to re-arm its hold timer. */
+    interface HoldView {
+        Long getId();
+        LocalDateTime getBookingDateTime();
+    }
+
+    List<HoldView> findByStatus(String status);
+
+    /** Redemptions of a promo code by one customer, counting bookings that still hold the discount. */
+    interface PromoUsageView {
+        String getPromoCode();
+        String getUserEmail();
+        long getUses();
+    }
+
+    @Query("SELECT b.promoCode AS promoCode, LOWER(b.userEmail) AS userEmail, COUNT(b) AS uses FROM Booking b " +
+           "WHERE b.promoCode IS NOT NULL AND b.status IN ('PENDING_PAYMENT', 'CONFIRMED') " +
+           "GROUP BY b.promoCode, LOWER(b.userEmail)")
+    List<PromoUsageView> countActivePromoUsage();
+
+    @Query("SELECT b.promoCode AS promoCode, LOWER(b.userEmail) AS userEmail, COUNT(b) AS uses FROM Booking b " +
+           "WHERE b.promoCode IN :codes AND b.status IN ('PENDING_PAYMENT', 'CONFIRMED') " +
+           "GROUP BY b.promoCode, LOWER(b.userEmail)")
+    List<PromoUsageView> countActivePromoUsageByCodeIn(@Param("codes") Collection<String> codes);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.status = 'PENDING_PAYMENT' AND b.bookingDateTime < :cutoff")
+    List<Long> findPendingIdsCreatedBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    // Row locks keep a concurrent confirm from slipping in between reading and expiring the holds
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id IN :ids AND b.status = 'PENDING_PAYMENT' ORDER BY b.id")
+    List<Booking> findPendingByIdInForUpdate(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :status, b.version = b.version + 1 " +
+           "WHERE b.id IN :ids AND b.status = 'PENDING_PAYMENT'")
+    int updatePendingStatus(@Param("ids") Collection<Long> ids, @Param("status") String status);
+
+    /** Bookings per event and status, with their tickets, amounts and how many of them were paid. */
+    interface SalesSummaryView {
+        Long getEventId();
+        String getStatus();
+        long getBookings();
+        Long getTickets();
+        Double getRevenue();
+        Long getPaid();
+    }
+
+    @Query("SELECT b.event.id AS eventId, b.status AS status, COUNT(b) AS bookings, SUM(b.numberOfTickets) AS tickets, " +
+           "SUM(b.amount) AS revenue, SUM(CASE WHEN b.paymentId IS NOT NULL THEN 1 ELSE 0 END) AS paid " +
+           "FROM Booking b GROUP BY b.event.id, b.status")
+    List<SalesSummaryView> summarizeSales();
+
+    interface PaidBookingView {
+        Long getEventId();
+        String getUserEmail();
+        LocalDateTime getBookingDateTime();
+        int getNumberOfTickets();
+        Double getAmount();
+    }
+
+    // Every booking that was ever paid, streamed in chunks; consume inside a read-only transaction
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.event.id AS eventId, b.userEmail AS userEmail, b.bookingDateTime AS bookingDateTime, " +
+           "b.numberOfTickets AS numberOfTickets, b.amount AS amount FROM Booking b WHERE b.paymentId IS NOT NULL")
+    Stream<PaidBookingView> streamPaidBookings();
+
+    interface BookingFactView {
+        Long getId();
+        Long getEventId();
+        int getNumberOfTickets();
+        Double getAmount();
+        String getStatus();
+        LocalDateTime getBookingDateTime();
+    }
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT b.id AS id, b.event.id AS eventId, b.numberOfTickets AS numberOfTickets, b.amount AS amount, " +
+           "b.status AS status, b.bookingDateTime AS bookingDateTime FROM Booking b")
+    Stream<BookingFactView> streamBookingFacts();
+
+    /** One line of a booking export. */
+    interface BookingExportView {
+        Long getId();
+        Long getEventId();
+        String getEventTitle();
+        String getUserName();
+        String getUserEmail();
+        int getNumberOfTickets();
+        Double getAmount();
+        String getStatus();
+        LocalDateTime getBookingDateTime();
+        String getPaymentId();
+        Long getTierId();
+        String getPromoCode();
+        String getSeats();
+    }
+
+    // Forward-only cursor in chunks of the fetch size; consume inside a read-only transaction
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT b.id AS id, e.id AS eventId, e.title AS eventTitle, b.userName AS userName, " +
+           "b.userEmail AS userEmail, b.numberOfTickets AS numberOfTickets, b.amount AS amount, b.status AS status, " +
+           "b.bookingDateTime AS bookingDateTime, b.paymentId AS paymentId, b.tierId AS tierId, " +
+           "b.promoCode AS promoCode, b.seats AS seats FROM Booking b JOIN b.event e " +
+           "WHERE (:eventId IS NULL OR e.id = :eventId) AND (:anyStatus = TRUE OR b.status IN :statuses) " +
+           "AND (:from IS NULL OR b.bookingDateTime >= :from) AND (:to IS NULL OR b.bookingDateTime < :to) " +
+           "ORDER BY b.id")
+    Stream<BookingExportView> streamForExport(@Param("eventId") Long eventId, @Param("anyStatus") boolean anyStatus,
+                                              @Param("statuses") Collection<String> statuses,
+                                              @Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
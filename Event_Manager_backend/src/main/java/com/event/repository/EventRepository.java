@@ -1,10 +1,119 @@
 package com.event.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import com.event.bean.Event;
+import com.event.dto.EventSummaryDTO;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface EventRepository extends JpaRepository<Event, Long> {
-}
\ No newline at end of file
+
+    /**
+     * Atomically takes tickets from an event, but only if enough are left.
+     * Runs as a single conditional UPDATE, so concurrent buyers never overwrite each other.
+     *
+     * @return the number of rows updated: 1 if the tickets were reserved, 0 if the event
+     *         does not exist or has fewer than {@code quantity} tickets available.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets - :quantity, e.version = e.version + 1 " +
+           "WHERE e.id = :eventId AND e.availableTickets >= :quantity")
+    int reserveTickets(@Param("eventId") Long eventId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically returns tickets to an event without reading it first.
+     *
+     * @return the number of rows updated (0 if the event no longer exists).
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = e.availableTickets + :quantity, e.version = e.version + 1 " +
+           "WHERE e.id = :eventId")
+    int releaseTickets(@Param("eventId") Long eventId, @Param("quantity") int quantity);
+
+    /**
+     * Recomputes the event-level available count of tiered events from their tiers, so
+     * listings stay right without tier sales having to touch the event row.
+     */
+    @Modifying
+    @Query("UPDATE Event e SET e.availableTickets = " +
+           "(SELECT COALESCE(SUM(t.availableTickets), 0) FROM TicketTier t WHERE t.eventId = e.id), " +
+           "e.version = e.version + 1 WHERE e.id IN :eventIds")
+    int syncAvailableTicketsFromTiers(@Param("eventIds") Collection<Long> eventIds);
+
+    @Query("SELECT e.availableTickets FROM Event e WHERE e.id = :eventId")
+    Optional<Integer> findAvailableTickets(@Param("eventId") Long eventId);
+
+    interface DescriptionView {
+        Long getId();
+        String getDescription();
+    }
+
+    String SUMMARY_SELECT = "SELECT new com.event.dto.EventSummaryDTO(e.id, e.title, e.dateTime, e.location, e.price, " +
+            "e.totalTickets, e.availableTickets, e.imageUrl, e.version) FROM Event e ";
+
+    String CATALOG_SELECT = SUMMARY_SELECT +
+            "WHERE (:location IS NULL OR LOWER(e.location) LIKE :location) " +
+            "AND (:minPrice IS NULL OR e.price >= :minPrice) AND (:maxPrice IS NULL OR e.price <= :maxPrice) " +
+            "AND (:from IS NULL OR e.dateTime >= :from) ";
+
+    /**
+     * One catalog page in ascending date order, resuming after ({@code afterTime}, {@code afterId})
+     * (keyset pagination, so deep pages cost the same as the first). Only reads the event columns.
+     *
+     * @param location lower-case LIKE pattern, or {@code null} for any location.
+     */
+    @Query(CATALOG_SELECT +
+           "AND (:afterTime IS NULL OR e.dateTime > :afterTime OR (e.dateTime = :afterTime AND e.id > :afterId)) " +
+           "ORDER BY e.dateTime ASC, e.id ASC")
+    List<EventSummaryDTO> findCatalogAscending(@Param("location") String location, @Param("minPrice") Double minPrice,
+                                               @Param("maxPrice") Double maxPrice, @Param("from") Instant from,
+                                               @Param("afterTime") Instant afterTime, @Param("afterId") Long afterId,
+                                               Pageable page);
+
+    /**
+     * Same as {@link #findCatalogAscending}, newest first.
+     */
+    @Query(CATALOG_SELECT +
+           "AND (:afterTime IS NULL OR e.dateTime < :afterTime OR (e.dateTime = :afterTime AND e.id < :afterId)) " +
+           "ORDER BY e.dateTime DESC, e.id DESC")
+    List<EventSummaryDTO> findCatalogDescending(@Param("location") String location, @Param("minPrice") Double minPrice,
+                                                @Param("maxPrice") Double maxPrice, @Param("from") Instant from,
+                                                @Param("afterTime") Instant afterTime, @Param("afterId") Long afterId,
+                                                Pageable page);
+
+    /**
+     * Events with {@code from <= dateTime < to} in date order, resuming after ({@code afterTime},
+     * {@code afterId}). A range scan of {@code idx_events_date_time}.
+     */
+    @Query(SUMMARY_SELECT +
+           "WHERE e.dateTime >= :from AND e.dateTime < :to " +
+           "AND (:afterTime IS NULL OR e.dateTime > :afterTime OR (e.dateTime = :afterTime AND e.id > :afterId)) " +
+           "ORDER BY e.dateTime ASC, e.id ASC")
+    List<EventSummaryDTO> findInDateRange(@Param("from") Instant from, @Param("to") Instant to,
+                                          @Param("afterTime") Instant afterTime, @Param("afterId") Long afterId,
+                                          Pageable page);
+
+    /**
+     * The materialised occurrences of a series starting in {@code [from, to]}, by the unique
+     * (series_id, date_time) index.
+     */
+    @Query(SUMMARY_SELECT +
+           "WHERE e.seriesId = :seriesId AND e.dateTime >= :from AND e.dateTime <= :to")
+    List<EventSummaryDTO> findSeriesOccurrences(@Param("seriesId") Long seriesId, @Param("from") Instant from,
+                                                @Param("to") Instant to);
+
+    Optional<Event> findBySeriesIdAndDateTime(Long seriesId, Instant dateTime);
+
+    @Query("SELECT e.id AS id, e.description AS description FROM Event e WHERE e.id IN :ids")
+    List<DescriptionView> findDescriptionsByIdIn(@Param("ids") Collection<Long> ids);
+}
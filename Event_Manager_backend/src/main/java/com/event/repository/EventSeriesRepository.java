@@ -0,0 +1,13 @@
+package com.event.repository;
+
+import com.event.bean.EventSeries;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface EventSeriesRepository extends JpaRepository<EventSeries, Long> {
+
+    List<EventSeries> findByActiveTrueOrderByIdAsc();
+}
@@ -0,0 +1,21 @@
+package com.event.repository;
+
+import com.event.bean.PromoCode;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PromoCodeRepository extends JpaRepository<PromoCode, Long> {
+
+    boolean existsByCode(String code);
+
+    /**
+     * Folds a batch of redemptions (or, if negative, releases) into the persisted count.
+     */
+    @Modifying
+    @Query("UPDATE PromoCode p SET p.usedCount = p.usedCount + :delta, p.version = p.version + 1 WHERE p.id = :id")
+    int addUsage(@Param("id") Long id, @Param("delta") int delta);
+}
@@ -0,0 +1,39 @@
+package com.event.repository;
+
+import com.event.bean.SeatSection;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface SeatSectionRepository extends JpaRepository<SeatSection, Long> {
+
+    List<SeatSection> findByEventIdOrderByDisplayOrderAscIdAsc(Long eventId);
+
+    boolean existsByEventId(Long eventId);
+
+    // Taken before the in-memory seat map is entered, in id order, so concurrent holds queue on the rows
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM SeatSection s WHERE s.eventId = :eventId ORDER BY s.id")
+    List<SeatSection> findByEventIdForUpdate(@Param("eventId") Long eventId);
+
+    /**
+     * Writes a section's seat bitset, but only if nobody else wrote it since {@code version}.
+     *
+     * @return 1 on success, 0 if another instance changed the section in the meantime.
+     */
+    @Modifying
+    @Query("UPDATE SeatSection s SET s.seatState = :seatState, s.version = s.version + 1 " +
+           "WHERE s.id = :id AND s.version = :version")
+    int updateSeatState(@Param("id") Long id, @Param("version") Long version, @Param("seatState") byte[] seatState);
+
+    @Modifying
+    @Query("DELETE FROM SeatSection s WHERE s.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+}
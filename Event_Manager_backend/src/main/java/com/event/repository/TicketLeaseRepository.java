@@ -0,0 +1,44 @@
+package com.event.repository;
+
+import com.event.bean.TicketLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface TicketLeaseRepository extends JpaRepository<TicketLease, Long> {
+
+    List<TicketLease> findByStatusAndExpiresAtBefore(String status, Instant cutoff);
+
+    List<TicketLease> findByNodeIdAndStatus(String nodeId, String status);
+
+    /**
+     * Extends a lease held by the given node. Returns 0 if the lease was already closed or reclaimed.
+     */
+    @Modifying
+    @Query("UPDATE TicketLease l SET l.expiresAt = :expiresAt " +
+           "WHERE l.id = :id AND l.nodeId = :nodeId AND l.status = 'ACTIVE'")
+    int renew(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("expiresAt") Instant expiresAt);
+
+    /**
+     * Records tickets handed back into a still-active lease (e.g. a cancelled booking).
+     */
+    @Modifying
+    @Query("UPDATE TicketLease l SET l.quantity = l.quantity + :quantity " +
+           "WHERE l.id = :id AND l.nodeId = :nodeId AND l.status = 'ACTIVE'")
+    int addQuantity(@Param("id") Long id, @Param("nodeId") String nodeId, @Param("quantity") int quantity);
+
+    /**
+     * Moves an ACTIVE lease to a closed status. Only one caller can win, which makes settling
+     * a lease (returning its tickets to the event) happen exactly once.
+     */
+    @Modifying
+    @Query("UPDATE TicketLease l SET l.status = :status, l.returnedQuantity = :returned " +
+           "WHERE l.id = :id AND l.status = 'ACTIVE'")
+    int close(@Param("id") Long id, @Param("status") String status, @Param("returned") int returned);
+}
@@ -0,0 +1,41 @@
+package com.event.repository;
+
+import com.event.bean.TicketTier;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TicketTierRepository extends JpaRepository<TicketTier, Long> {
+
+    List<TicketTier> findByEventIdOrderByDisplayOrderAscIdAsc(Long eventId);
+
+    List<TicketTier> findByEventIdIn(Collection<Long> eventIds);
+
+    @Modifying
+    @Query("DELETE FROM TicketTier t WHERE t.eventId = :eventId")
+    int deleteByEventId(@Param("eventId") Long eventId);
+
+    /**
+     * Atomically takes tickets from a tier, only if enough are left.
+     *
+     * @return 1 if the tickets were reserved, 0 if the tier does not exist or is sold out.
+     */
+    @Modifying
+    @Query("UPDATE TicketTier t SET t.availableTickets = t.availableTickets - :quantity, t.version = t.version + 1 " +
+           "WHERE t.id = :tierId AND t.availableTickets >= :quantity")
+    int reserveTickets(@Param("tierId") Long tierId, @Param("quantity") int quantity);
+
+    /**
+     * Atomically returns tickets to a tier.
+     */
+    @Modifying
+    @Query("UPDATE TicketTier t SET t.availableTickets = t.availableTickets + :quantity, t.version = t.version + 1 " +
+           "WHERE t.id = :tierId")
+    int releaseTickets(@Param("tierId") Long tierId, @Param("quantity") int quantity);
+}
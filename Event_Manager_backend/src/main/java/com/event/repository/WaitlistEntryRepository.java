@@ -0,0 +1,32 @@
+package com.event.repository;
+
+import com.event.bean.WaitlistEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface WaitlistEntryRepository extends JpaRepository<WaitlistEntry, Long> {
+
+    List<WaitlistEntry> findByStatus(String status);
+
+    List<WaitlistEntry> findByStatusAndIdGreaterThanOrderByIdAsc(String status, Long id);
+
+    Optional<WaitlistEntry> findByClaimToken(String claimToken);
+
+    Optional<WaitlistEntry> findFirstByEventIdAndUserEmailAndStatusIn(Long eventId, String userEmail, List<String> statuses);
+
+    /**
+     * Lapses all offers whose claim window has passed, in one statement.
+     */
+    @Modifying
+    @Query("UPDATE WaitlistEntry w SET w.status = 'EXPIRED', w.version = w.version + 1 " +
+           "WHERE w.status = 'OFFERED' AND w.offerExpiresAt < :now")
+    int expireOffers(@Param("now") LocalDateTime now);
+}
@@ -0,0 +1,367 @@
+package com.event.service;
+
+import com.event.dto.AvailabilityUpdate;
+import com.event.events.AvailabilityChangedEvent;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Pushes live ticket availability to Server-Sent Events subscribers, per event and for the
+ * whole catalog, so buyers can watch a sale without polling.
+ *
+ * Changes announced by the catalog snapshot are collected per event and pushed at most
+ * {@code event.stream.max-updates-per-second} times a second, always with the latest count.
+ * Idle connections hold no thread: a small sender pool writes to the subscribers that have
+ * something to send. Each subscriber keeps only the latest count per event it has not been
+ * sent yet, so a slow reader gets fewer, fresher updates rather than a growing backlog.
+ *
+ * Streams are written with the servlet container's non-blocking output: a sender only writes
+ * while the connection accepts data and otherwise moves on, and the container calls back once
+ * the client has caught up. A reader that stalls therefore never holds a sender thread, and
+ * one that stays stalled longer than {@code event.stream.slow-consumer-timeout-ms} is
+ * disconnected (browsers reconnect on their own).
+ */
+@Service
+public class AvailabilityStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityStreamService.class);
+
+    private static final byte[] HEARTBEAT = ":keep-alive\n\n".getBytes(StandardCharsets.UTF_8);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final long streamTimeoutMillis;
+    private final int maxSubscribers;
+    private final long slowConsumerTimeoutMillis;
+    private final ExecutorService senders;
+
+    private final Map<Long, Set<Subscriber>> eventSubscribers = new ConcurrentHashMap<>();
+    private final Set<Subscriber> catalogSubscribers = ConcurrentHashMap.newKeySet();
+    private final Set<Subscriber> allSubscribers = ConcurrentHashMap.newKeySet();
+    private final AtomicInteger subscriberCount = new AtomicInteger();
+    private final Map<Long, Integer> pending = new ConcurrentHashMap<>(); // Latest count per event since the last push
+
+    public AvailabilityStreamService(@Value("${event.stream.timeout-ms:1800000}") long streamTimeoutMillis,
+                                     @Value("${event.stream.max-subscribers:10000}") int maxSubscribers,
+                                     @Value("${event.stream.slow-consumer-timeout-ms:10000}") long slowConsumerTimeoutMillis,
+                                     @Value("${event.stream.sender-threads:4}") int senderThreads) {
+        this.streamTimeoutMillis = streamTimeoutMillis;
+        this.maxSubscribers = maxSubscribers;
+        this.slowConsumerTimeoutMillis = slowConsumerTimeoutMillis;
+        this.senders = Executors.newFixedThreadPool(Math.max(1, senderThreads), runnable -> {
+            Thread thread = new Thread(runnable, "availability-stream-sender");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdownNow();
+        allSubscribers.forEach(Subscriber::close);
+    }
+
+    /**
+     * Turns the request into a stream of one event's availability, starting with its current
+     * count. The response stays open after the handler returns.
+     *
+     * @throws RuntimeException if the server is at its subscriber limit (nothing was written).
+     */
+    public void subscribe(Long eventId, int availableTickets, HttpServletRequest request,
+                          HttpServletResponse response) throws IOException {
+        Subscriber subscriber = register(eventId, request, response);
+        subscriber.offer(Map.of(eventId, availableTickets));
+    }
+
+    /**
+     * Turns the request into a stream of availability changes across the catalog, batched per push.
+     *
+     * @throws RuntimeException if the server is at its subscriber limit (nothing was written).
+     */
+    public void subscribeCatalog(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        register(null, request, response);
+    }
+
+    public Map<String, Integer> stats() {
+        return Map.of("subscribers", subscriberCount.get(), "events", eventSubscribers.size(),
+                "catalogSubscribers", catalogSubscribers.size());
+    }
+
+    @EventListener
+    public void onAvailabilityChanged(AvailabilityChangedEvent event) {
+        pending.putAll(event.availableTickets());
+    }
+
+    /**
+     * Pushes the latest count of every event that changed since the last push.
+     */
+    @Scheduled(fixedDelayString = "#{1000 / ${event.stream.max-updates-per-second:4}}")
+    public void push() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> changes = new HashMap<>();
+        for (Long eventId : pending.keySet()) {
+            Integer available = pending.remove(eventId); // Atomic take, a concurrent change starts a new entry
+            if (available != null) {
+                changes.put(eventId, available);
+            }
+        }
+        changes.forEach((eventId, available) -> {
+            Set<Subscriber> subscribers = eventSubscribers.get(eventId);
+            if (subscribers != null) {
+                Map<Long, Integer> change = Map.of(eventId, available);
+                subscribers.forEach(subscriber -> subscriber.offer(change));
+            }
+        });
+        if (!catalogSubscribers.isEmpty()) {
+            catalogSubscribers.forEach(subscriber -> subscriber.offer(changes));
+        }
+    }
+
+    /**
+     * Keeps idle connections (and the proxies in between) open, and disconnects subscribers
+     * that stopped reading.
+     */
+    @Scheduled(fixedDelayString = "${event.stream.heartbeat-interval-ms:15000}")
+    public void heartbeat() {
+        long now = System.currentTimeMillis();
+        for (Subscriber subscriber : allSubscribers) {
+            if (subscriber.stalledFor(now) > slowConsumerTimeoutMillis) {
+                logger.debug("Disconnecting slow availability stream subscriber");
+                subscriber.close();
+            } else {
+                subscriber.offerHeartbeat();
+            }
+        }
+    }
+
+    /** @param eventId {@code null} for the catalog stream. */
+    private Subscriber register(Long eventId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        if (subscriberCount.incrementAndGet() > maxSubscribers) {
+            subscriberCount.decrementAndGet();
+            throw new RuntimeException("Too many live subscribers, please refresh instead.");
+        }
+        response.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader("Cache-Control", "no-cache");
+        response.setHeader("X-Accel-Buffering", "no"); // Proxies must not hold pushes back
+
+        Subscriber subscriber;
+        try {
+            AsyncContext async = request.startAsync(request, response);
+            async.setTimeout(streamTimeoutMillis);
+            subscriber = new Subscriber(async, response.getOutputStream(), eventId);
+        } catch (IOException | RuntimeException e) {
+            subscriberCount.decrementAndGet();
+            throw e;
+        }
+        if (eventId == null) {
+            catalogSubscribers.add(subscriber);
+        } else {
+            eventSubscribers.compute(eventId, (id, subscribers) -> {
+                Set<Subscriber> group = subscribers != null ? subscribers : ConcurrentHashMap.newKeySet();
+                group.add(subscriber);
+                return group;
+            });
+        }
+        allSubscribers.add(subscriber);
+        async.addListener(subscriber);
+        subscriber.out.setWriteListener(subscriber); // The container calls onWritePossible once it is ready
+        return subscriber;
+    }
+
+    private byte[] frame(Long eventId, List<AvailabilityUpdate> updates) throws JsonProcessingException {
+        String data = objectMapper.writeValueAsString(eventId != null ? updates.get(0) : updates);
+        return ("event:availability\ndata:" + data + "\n\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private final class Subscriber implements WriteListener, AsyncListener {
+        final AsyncContext async;
+        final ServletOutputStream out;
+        private final Long eventId; // null = catalog
+        private final Map<Long, Integer> unsent = new LinkedHashMap<>(); // Guarded by this
+        private boolean heartbeatDue;  // Guarded by this
+        private boolean scheduled;     // Guarded by this: a sender is (about to be) draining
+        private boolean removed;       // Guarded by this
+        private volatile long stalledSince; // 0 = the connection accepts writes
+
+        Subscriber(AsyncContext async, ServletOutputStream out, Long eventId) {
+            this.async = async;
+            this.out = out;
+            this.eventId = eventId;
+        }
+
+        void offer(Map<Long, Integer> changes) {
+            synchronized (this) {
+                if (removed) {
+                    return;
+                }
+                unsent.putAll(changes); // Newer counts replace unsent older ones
+            }
+            schedule();
+        }
+
+        void offerHeartbeat() {
+            synchronized (this) {
+                if (removed) {
+                    return;
+                }
+                heartbeatDue = true;
+            }
+            schedule();
+        }
+
+        long stalledFor(long now) {
+            long since = stalledSince;
+            return since == 0 ? 0 : now - since;
+        }
+
+        private void schedule() {
+            synchronized (this) {
+                if (scheduled) {
+                    return; // The running drain picks the new counts up
+                }
+                scheduled = true;
+            }
+            try {
+                senders.execute(this::drain);
+            } catch (RejectedExecutionException e) {
+                close(); // Shutting down
+            }
+        }
+
+        /**
+         * Writes what is unsent while the connection accepts data. Never blocks: if the client
+         * is not reading, it stops and the container's onWritePossible schedules it again.
+         */
+        private void drain() {
+            try {
+                while (true) {
+                    List<AvailabilityUpdate> updates;
+                    boolean heartbeat;
+                    synchronized (this) {
+                        if (removed || (unsent.isEmpty() && !heartbeatDue)) {
+                            scheduled = false;
+                            return;
+                        }
+                        // Checked under the lock, so the callback it arms cannot miss the cleared flag
+                        if (!out.isReady()) {
+                            if (stalledSince == 0) {
+                                stalledSince = System.currentTimeMillis();
+                            }
+                            scheduled = false;
+                            return;
+                        }
+                        stalledSince = 0;
+                        updates = new ArrayList<>(unsent.size());
+                        unsent.forEach((eventId, available) -> updates.add(new AvailabilityUpdate(eventId, available)));
+                        unsent.clear();
+                        heartbeat = heartbeatDue && updates.isEmpty();
+                        heartbeatDue = false;
+                    }
+                    out.write(heartbeat ? HEARTBEAT : frame(eventId, updates));
+                    if (out.isReady()) {
+                        out.flush();
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                close(); // Client gone or stream already completed
+            }
+        }
+
+        @Override
+        public void onWritePossible() {
+            stalledSince = 0;
+            schedule();
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            close();
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            remove();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            close();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+
+        void close() {
+            if (remove()) {
+                try {
+                    async.complete();
+                } catch (RuntimeException e) {
+                    // Already completed by the container
+                }
+            }
+        }
+
+        /** Unregisters the subscriber; {@code false} if it already was. */
+        boolean remove() {
+            synchronized (this) {
+                if (removed) {
+                    return false;
+                }
+                removed = true;
+                unsent.clear();
+            }
+            if (eventId == null) {
+                catalogSubscribers.remove(this);
+            } else {
+                eventSubscribers.computeIfPresent(eventId, (id, subscribers) -> {
+                    subscribers.remove(this);
+                    return subscribers.isEmpty() ? null : subscribers; // Drop the event's entry with its last subscriber
+                });
+            }
+            allSubscribers.remove(this);
+            subscriberCount.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,366 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import com.event.dto.AnalyticsResultDTO;
+import com.event.dto.AnalyticsRowDTO;
+import com.event.util.GroupTable;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Ad-hoc aggregates over every booking ("revenue by location by week", "average tickets per
+ * booking by price band"), answered from the {@link BookingFactStore} instead of joins over
+ * the bookings and events tables.
+ *
+ * A query is split into blocks of {@value #MORSEL_SIZE} rows that run in parallel on
+ * {@code analytics.query.parallelism} threads. Each block is processed a column at a time:
+ * the filters narrow a selection vector of row positions, then the group keys of the
+ * selected rows are computed and summed into the block's own {@link GroupTable}; the tables
+ * are merged at the end. Event attributes (title, location) are looked up per event, not
+ * per booking, from the current catalog snapshot, so edited events group by their new values.
+ */
+@Service
+public class BookingAnalyticsService {
+
+    public static final int MAX_ROWS = 10_000;
+
+    static final int MORSEL_SIZE = BookingFactStore.CHUNK_SIZE / 4;
+
+    /** What a query can group by, at most two at a time. */
+    public enum Dimension { EVENT, LOCATION, STATUS, DAY, WEEK, MONTH, PRICE_BAND, TICKETS }
+
+    private static final ThreadLocal<Scratch> SCRATCH = ThreadLocal.withInitial(Scratch::new);
+
+    @Autowired
+    private BookingFactStore factStore;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private final ForkJoinPool pool;
+    private volatile EventAttributes attributes = new EventAttributes(-1, 0, new int[0], new String[0]);
+
+    public BookingAnalyticsService(@Value("${analytics.query.parallelism:0}") int parallelism) {
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    /**
+     * Bookings, tickets and revenue per group of the bookings that match every given filter.
+     *
+     * @param groupBy   up to two {@link Dimension} names; none gives a single row of totals.
+     * @param statuses  booking statuses to include, all if empty.
+     * @param from      first booking day to include, or {@code null}.
+     * @param to        first booking day to leave out, or {@code null}.
+     * @param priceBand width of a {@code PRICE_BAND} group, by price per ticket.
+     * @param limit     groups to return (at most {@value #MAX_ROWS}), in group order.
+     * @throws RuntimeException if a dimension or status is unknown, or the price band is not positive.
+     */
+    public AnalyticsResultDTO query(List<String> groupBy, List<String> statuses, Long eventId, String location,
+                                    LocalDate from, LocalDate to, double priceBand, int limit) {
+        long start = System.currentTimeMillis();
+        Dimension[] dimensions = parseDimensions(groupBy);
+        if (priceBand <= 0) {
+            throw new RuntimeException("The price band must be greater than 0.");
+        }
+
+        BookingFactStore.View view = factStore.view();
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        EventAttributes events = attributes(view, snapshot);
+        Plan plan = new Plan(view, snapshot, events, dimensions, statusMask(statuses),
+                from != null ? (int) from.toEpochDay() : Integer.MIN_VALUE,
+                to != null ? (int) to.toEpochDay() : Integer.MAX_VALUE,
+                eventFilter(view, events, eventId, location), Math.max(1, Math.round(priceBand * 100)));
+
+        int morsels = (view.size + MORSEL_SIZE - 1) / MORSEL_SIZE;
+        GroupTable groups = pool.submit(() -> IntStream.range(0, morsels).parallel()
+                .mapToObj(morsel -> scan(plan, morsel))
+                .reduce(GroupTable::merge)
+                .orElseGet(GroupTable::new)).join();
+
+        List<long[]> sorted = new ArrayList<>(groups.size());
+        groups.forEach((key1, key2, count, tickets, cents) ->
+                sorted.add(new long[]{key1, key2, count, tickets, cents}));
+        sorted.sort(Comparator.<long[]>comparingLong(group -> group[0]).thenComparingLong(group -> group[1]));
+
+        int max = Math.max(1, Math.min(limit, MAX_ROWS));
+        long matched = 0;
+        List<AnalyticsRowDTO> rows = new ArrayList<>(Math.min(max, sorted.size()));
+        for (long[] group : sorted) {
+            matched += group[2];
+            if (rows.size() < max) {
+                List<String> labels = new ArrayList<>(dimensions.length);
+                for (int d = 0; d < dimensions.length; d++) {
+                    labels.add(label(dimensions[d], group[d], plan));
+                }
+                rows.add(new AnalyticsRowDTO(labels, group[2], group[3], group[4] / 100.0,
+                        (double) group[3] / group[2], group[4] / 100.0 / group[2]));
+            }
+        }
+        return new AnalyticsResultDTO(Arrays.stream(dimensions).map(Enum::name).toList(), view.size, matched,
+                System.currentTimeMillis() - start, sorted.size() > max, rows);
+    }
+
+    private static GroupTable scan(Plan plan, int morsel) {
+        int chunkIndex = morsel * MORSEL_SIZE / BookingFactStore.CHUNK_SIZE;
+        BookingFactStore.Chunk chunk = plan.view.chunks[chunkIndex];
+        int begin = morsel * MORSEL_SIZE % BookingFactStore.CHUNK_SIZE;
+        int end = Math.min(begin + MORSEL_SIZE, plan.view.rowsIn(chunkIndex));
+
+        Scratch scratch = SCRATCH.get();
+        int[] selected = scratch.selected;
+        int n = 0;
+        byte[] statuses = chunk.statuses;
+        for (int row = begin; row < end; row++) {
+            if ((plan.statusMask >>> statuses[row] & 1) != 0) {
+                selected[n++] = row;
+            }
+        }
+        if (plan.fromDay != Integer.MIN_VALUE || plan.toDay != Integer.MAX_VALUE) {
+            int[] days = chunk.days;
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                int day = days[selected[i]];
+                if (day >= plan.fromDay && day < plan.toDay) {
+                    selected[kept++] = selected[i];
+                }
+            }
+            n = kept;
+        }
+        if (plan.eventFilter != null) {
+            int[] events = chunk.events;
+            int kept = 0;
+            for (int i = 0; i < n; i++) {
+                if (plan.eventFilter[events[selected[i]]]) {
+                    selected[kept++] = selected[i];
+                }
+            }
+            n = kept;
+        }
+
+        long[] keys1 = scratch.keys1;
+        long[] keys2 = scratch.keys2;
+        computeKeys(plan.dimensions.length > 0 ? plan.dimensions[0] : null, plan, chunk, selected, n, keys1);
+        computeKeys(plan.dimensions.length > 1 ? plan.dimensions[1] : null, plan, chunk, selected, n, keys2);
+
+        GroupTable table = new GroupTable();
+        int[] tickets = chunk.tickets;
+        long[] amounts = chunk.amountCents;
+        for (int i = 0; i < n; i++) {
+            int row = selected[i];
+            table.add(keys1[i], keys2[i], 1, tickets[row], amounts[row]);
+        }
+        return table;
+    }
+
+    /** Fills {@code keys} with the group key of each selected row; all zero without a dimension. */
+    private static void computeKeys(Dimension dimension, Plan plan, BookingFactStore.Chunk chunk,
+                                    int[] selected, int n, long[] keys) {
+        if (dimension == null) {
+            Arrays.fill(keys, 0, n, 0);
+            return;
+        }
+        switch (dimension) {
+            case EVENT -> {
+                long[] eventIds = plan.view.eventIds;
+                for (int i = 0; i < n; i++) {
+                    keys[i] = eventIds[chunk.events[selected[i]]];
+                }
+            }
+            case LOCATION -> {
+                int[] locationOf = plan.events.locationOf;
+                for (int i = 0; i < n; i++) {
+                    keys[i] = locationOf[chunk.events[selected[i]]];
+                }
+            }
+            case STATUS -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = chunk.statuses[selected[i]];
+                }
+            }
+            case DAY -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = chunk.days[selected[i]];
+                }
+            }
+            case WEEK -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = weekOf(chunk.days[selected[i]]);
+                }
+            }
+            case MONTH -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = monthOf(chunk.days[selected[i]]);
+                }
+            }
+            case PRICE_BAND -> {
+                for (int i = 0; i < n; i++) {
+                    int row = selected[i];
+                    int tickets = chunk.tickets[row];
+                    keys[i] = tickets > 0 ? chunk.amountCents[row] / tickets / plan.bandCents : 0;
+                }
+            }
+            case TICKETS -> {
+                for (int i = 0; i < n; i++) {
+                    keys[i] = chunk.tickets[selected[i]];
+                }
+            }
+        }
+    }
+
+    /** Weeks since the Monday before the epoch; day 0 is a Thursday. */
+    static long weekOf(int epochDay) {
+        return Math.floorDiv(epochDay + 3, 7);
+    }
+
+    /** The Monday that starts a week of {@link #weekOf}. */
+    static LocalDate weekStart(long week) {
+        return LocalDate.ofEpochDay(week * 7 - 3);
+    }
+
+    /** Months since year 0 of an epoch day, without building a {@link LocalDate} per row. */
+    static long monthOf(int epochDay) {
+        // Civil-from-days: years start in March so the leap day falls at the end
+        long z = epochDay + 719468L;
+        long era = Math.floorDiv(z, 146097);
+        long dayOfEra = z - era * 146097;
+        long yearOfEra = (dayOfEra - dayOfEra / 1460 + dayOfEra / 36524 - dayOfEra / 146096) / 365;
+        long dayOfYear = dayOfEra - (365 * yearOfEra + yearOfEra / 4 - yearOfEra / 100);
+        long shiftedMonth = (5 * dayOfYear + 2) / 153;
+        long month = shiftedMonth < 10 ? shiftedMonth + 3 : shiftedMonth - 9;
+        long year = yearOfEra + era * 400 + (month <= 2 ? 1 : 0);
+        return year * 12 + month - 1;
+    }
+
+    private static String label(Dimension dimension, long key, Plan plan) {
+        return switch (dimension) {
+            case EVENT -> {
+                Event event = plan.snapshot.get(key);
+                yield event != null ? event.getTitle() + " (#" + key + ")" : "#" + key;
+            }
+            case LOCATION -> plan.events.locationNames[(int) key];
+            case STATUS -> BookingFactStore.STATUSES[(int) key];
+            case DAY -> LocalDate.ofEpochDay(key).toString();
+            case WEEK -> weekStart(key).toString();
+            case MONTH -> YearMonth.of((int) Math.floorDiv(key, 12), (int) Math.floorMod(key, 12) + 1).toString();
+            case PRICE_BAND -> String.format(Locale.ROOT, "%.2f-%.2f",
+                    key * plan.bandCents / 100.0, (key + 1) * plan.bandCents / 100.0);
+            case TICKETS -> Long.toString(key);
+        };
+    }
+
+    private static Dimension[] parseDimensions(List<String> groupBy) {
+        List<String> names = groupBy == null ? List.of()
+                : groupBy.stream().map(String::trim).filter(name -> !name.isEmpty()).toList();
+        if (names.size() > 2) {
+            throw new RuntimeException("Group by at most two of " + Arrays.toString(Dimension.values()) + ".");
+        }
+        Dimension[] dimensions = new Dimension[names.size()];
+        for (int i = 0; i < dimensions.length; i++) {
+            try {
+                dimensions[i] = Dimension.valueOf(names.get(i).toUpperCase(Locale.ROOT).replace('-', '_'));
+            } catch (IllegalArgumentException e) {
+                throw new RuntimeException("Cannot group by '" + names.get(i) + "', use one of "
+                        + Arrays.toString(Dimension.values()) + ".");
+            }
+        }
+        return dimensions;
+    }
+
+    private static int statusMask(List<String> statuses) {
+        if (statuses == null || statuses.isEmpty()) {
+            return -1;
+        }
+        int mask = 0;
+        for (String status : statuses) {
+            byte code = BookingFactStore.statusCode(status.trim().toUpperCase(Locale.ROOT));
+            if (code == BookingFactStore.STATUSES.length - 1) {
+                throw new RuntimeException("Unknown booking status: " + status);
+            }
+            mask |= 1 << code;
+        }
+        return mask;
+    }
+
+    /** Which event indexes pass the event and location filters; {@code null} if all do. */
+    private static boolean[] eventFilter(BookingFactStore.View view, EventAttributes events, Long eventId,
+                                         String location) {
+        String wanted = location != null && !location.isBlank() ? location.trim() : null;
+        if (eventId == null && wanted == null) {
+            return null;
+        }
+        boolean[] filter = new boolean[view.eventCount];
+        for (int i = 0; i < filter.length; i++) {
+            filter[i] = (eventId == null || view.eventIds[i] == eventId)
+                    && (wanted == null || events.locationNames[events.locationOf[i]].equalsIgnoreCase(wanted));
+        }
+        return filter;
+    }
+
+    /**
+     * The location of every event in the view, dictionary-encoded in name order. Rebuilt only
+     * when the catalog or the set of booked events changed.
+     */
+    private EventAttributes attributes(BookingFactStore.View view, CatalogSnapshot snapshot) {
+        EventAttributes current = attributes;
+        if (current.contentVersion == snapshot.contentVersion() && current.eventCount == view.eventCount) {
+            return current;
+        }
+        synchronized (this) {
+            current = attributes;
+            if (current.contentVersion == snapshot.contentVersion() && current.eventCount == view.eventCount) {
+                return current;
+            }
+            Map<String, Integer> codes = new TreeMap<>(String.CASE_INSENSITIVE_ORDER); // Codes in name order
+            String[] locations = new String[view.eventCount];
+            for (int i = 0; i < view.eventCount; i++) {
+                Event event = snapshot.get(view.eventIds[i]);
+                locations[i] = event != null && event.getLocation() != null ? event.getLocation().trim() : "Unknown";
+                codes.put(locations[i], 0);
+            }
+            String[] names = codes.keySet().toArray(new String[0]);
+            for (int code = 0; code < names.length; code++) {
+                codes.put(names[code], code);
+            }
+            int[] locationOf = new int[view.eventCount];
+            for (int i = 0; i < locationOf.length; i++) {
+                locationOf[i] = codes.get(locations[i]);
+            }
+            attributes = new EventAttributes(snapshot.contentVersion(), view.eventCount, locationOf, names);
+            return attributes;
+        }
+    }
+
+    private record EventAttributes(long contentVersion, int eventCount, int[] locationOf, String[] locationNames) {
+    }
+
+    private record Plan(BookingFactStore.View view, CatalogSnapshot snapshot, EventAttributes events,
+                        Dimension[] dimensions, int statusMask, int fromDay, int toDay, boolean[] eventFilter,
+                        long bandCents) {
+    }
+
+    /** Per-thread buffers for one block, reused across blocks and queries. */
+    private static final class Scratch {
+        final int[] selected = new int[MORSEL_SIZE];
+        final long[] keys1 = new long[MORSEL_SIZE];
+        final long[] keys2 = new long[MORSEL_SIZE];
+    }
+}
@@ -0,0 +1,212 @@
+package com.event.service;
+
+import com.event.repository.BookingRepository;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Exports bookings (attendee lists) as CSV or newline-delimited JSON, written row by row to
+ * the caller's stream. Rows come from a forward-only database cursor read in chunks of the
+ * fetch size as plain projections, so nothing is held in the persistence context and memory
+ * stays flat however many bookings are exported.
+ */
+@Service
+public class BookingExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExportService.class);
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Set<String> STATUSES =
+            Set.of("PENDING_PAYMENT", "CONFIRMED", "CANCELLED", "FAILED", "EXPIRED");
+    private static final String[] COLUMNS = {"bookingId", "eventId", "eventTitle", "userName", "userEmail",
+            "numberOfTickets", "amount", "status", "bookingDateTime", "paymentId", "tierId", "promoCode", "seats"};
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final JsonFactory JSON = new JsonFactory();
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    public BookingExportService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    public static Format parseFormat(String format) {
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Unsupported export format '" + format + "', use csv or ndjson.");
+        }
+    }
+
+    /**
+     * @throws RuntimeException if a status is unknown. Checked before anything is written, so
+     *                          callers can still answer with an error.
+     */
+    public static List<String> parseStatuses(List<String> statuses) {
+        if (statuses == null) {
+            return List.of();
+        }
+        List<String> parsed = statuses.stream().map(status -> status.trim().toUpperCase(Locale.ROOT))
+                .filter(status -> !status.isEmpty()).distinct().toList();
+        for (String status : parsed) {
+            if (!STATUSES.contains(status)) {
+                throw new RuntimeException("Unknown booking status: " + status);
+            }
+        }
+        return parsed;
+    }
+
+    /**
+     * Writes the matching bookings in id order, with a header line for CSV. Does not close
+     * {@code out}. {@code cancelled} is checked before every row: once it is set the cursor is
+     * closed and the read-only transaction ends without writing the rest.
+     *
+     * @param eventId  only this event's bookings, or all if {@code null}.
+     * @param statuses only these statuses (as returned by {@link #parseStatuses}), or all if empty.
+     * @param from     bookings made at or after this time, or {@code null}.
+     * @param to       bookings made before this time, or {@code null}.
+     * @throws UncheckedIOException  if the client goes away.
+     * @throws CancellationException if {@code cancelled} was set before the last row.
+     */
+    public void export(Format format, Long eventId, List<String> statuses, Instant from, Instant to,
+                       OutputStream out, AtomicBoolean cancelled) {
+        long start = System.currentTimeMillis();
+        LocalDateTime fromTime = from != null ? LocalDateTime.ofInstant(from, ZoneId.systemDefault()) : null;
+        LocalDateTime toTime = to != null ? LocalDateTime.ofInstant(to, ZoneId.systemDefault()) : null;
+        long rows = readOnlyTransaction.execute(status -> {
+            try (Stream<BookingRepository.BookingExportView> bookings = bookingRepository.streamForExport(eventId,
+                    statuses.isEmpty(), statuses.isEmpty() ? List.of("") : statuses, fromTime, toTime)) {
+                return format == Format.CSV ? writeCsv(bookings, out, cancelled) : writeNdjson(bookings, out, cancelled);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        logger.info("Exported {} bookings as {} in {} ms", rows, format, System.currentTimeMillis() - start);
+    }
+
+    private static long writeCsv(Stream<BookingRepository.BookingExportView> bookings, OutputStream out,
+                                 AtomicBoolean cancelled) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+        long rows = 0;
+        Iterator<BookingRepository.BookingExportView> iterator = bookings.iterator();
+        while (iterator.hasNext()) {
+            checkCancelled(cancelled, rows);
+            BookingRepository.BookingExportView booking = iterator.next();
+            Object[] values = {booking.getId(), booking.getEventId(), booking.getEventTitle(), booking.getUserName(),
+                    booking.getUserEmail(), booking.getNumberOfTickets(), booking.getAmount(), booking.getStatus(),
+                    booking.getBookingDateTime(), booking.getPaymentId(), booking.getTierId(), booking.getPromoCode(),
+                    booking.getSeats()};
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(csv(values[i]));
+            }
+            writer.write("\r\n");
+            rows++;
+        }
+        writer.flush();
+        return rows;
+    }
+
+    /** Stops an export whose request timed out or failed, so it no longer holds a connection and cursor. */
+    private static void checkCancelled(AtomicBoolean cancelled, long rows) {
+        if (cancelled.get()) {
+            throw new CancellationException("Export cancelled after " + rows + " bookings");
+        }
+    }
+
+    /**
+     * RFC 4180 quoting. Text that a spreadsheet would run as a formula is prefixed with a
+     * single quote, since names and emails are customer input.
+     */
+    static String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        boolean quote = false;
+        for (int i = 0; i < text.length() && !quote; i++) {
+            char c = text.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        return quote ? '"' + text.replace("\"", "\"\"") + '"' : text;
+    }
+
+    private static long writeNdjson(Stream<BookingRepository.BookingExportView> bookings, OutputStream out,
+                                    AtomicBoolean cancelled) throws IOException {
+        long rows = 0;
+        try (JsonGenerator json = JSON.createGenerator(out, JsonEncoding.UTF8)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET); // The caller owns the response stream
+            json.setRootValueSeparator(null);
+            Iterator<BookingRepository.BookingExportView> iterator = bookings.iterator();
+            while (iterator.hasNext()) {
+                checkCancelled(cancelled, rows);
+                BookingRepository.BookingExportView booking = iterator.next();
+                json.writeStartObject();
+                json.writeNumberField(COLUMNS[0], booking.getId());
+                json.writeNumberField(COLUMNS[1], booking.getEventId());
+                json.writeStringField(COLUMNS[2], booking.getEventTitle());
+                json.writeStringField(COLUMNS[3], booking.getUserName());
+                json.writeStringField(COLUMNS[4], booking.getUserEmail());
+                json.writeNumberField(COLUMNS[5], booking.getNumberOfTickets());
+                json.writeFieldName(COLUMNS[6]);
+                if (booking.getAmount() != null) {
+                    json.writeNumber(booking.getAmount());
+                } else {
+                    json.writeNull();
+                }
+                json.writeStringField(COLUMNS[7], booking.getStatus());
+                LocalDateTime bookedAt = booking.getBookingDateTime();
+                json.writeStringField(COLUMNS[8], bookedAt != null ? bookedAt.toString() : null);
+                json.writeStringField(COLUMNS[9], booking.getPaymentId());
+                json.writeFieldName(COLUMNS[10]);
+                if (booking.getTierId() != null) {
+                    json.writeNumber(booking.getTierId());
+                } else {
+                    json.writeNull();
+                }
+                json.writeStringField(COLUMNS[11], booking.getPromoCode());
+                json.writeStringField(COLUMNS[12], booking.getSeats());
+                json.writeEndObject();
+                json.writeRaw('\n');
+                rows++;
+            }
+        }
+        return rows;
+    }
+}
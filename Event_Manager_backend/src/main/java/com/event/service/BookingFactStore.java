@@ -0,0 +1,186 @@
+package com.event.service;
+
+import com.event.events.BookingStatusChangedEvent;
+import com.event.repository.BookingRepository;
+import com.event.util.LongIntMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Every booking as one row of primitive columns, for ad-hoc analytics without touching the
+ * database: event (dictionary-encoded), tickets, amount in cents, status code and booking day.
+ * About 21 bytes per booking plus the booking id index.
+ *
+ * Rows are appended in fixed-size chunks, so growing never copies existing columns. Loaded
+ * from the bookings table on startup and kept current from committed
+ * {@link BookingStatusChangedEvent}s (new bookings are appended, status changes update the
+ * row in place). A single writer appends; any number of queries scan a {@link View} without
+ * locking. Bookings made on other instances appear after the next restart.
+ */
+@Service
+public class BookingFactStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingFactStore.class);
+
+    static final int CHUNK_SIZE = 1 << 16;
+
+    /** Status codes are positions in this array; anything else is stored as {@code OTHER}. */
+    static final String[] STATUSES = {"PENDING_PAYMENT", "CONFIRMED", "CANCELLED", "FAILED", "EXPIRED", "OTHER"};
+
+    /** One block of rows, column by column. */
+    static final class Chunk {
+        final int[] events = new int[CHUNK_SIZE]; // Index into View.eventIds
+        final int[] tickets = new int[CHUNK_SIZE];
+        final long[] amountCents = new long[CHUNK_SIZE];
+        final byte[] statuses = new byte[CHUNK_SIZE];
+        final int[] days = new int[CHUNK_SIZE]; // Booking date as epoch day, server time zone
+    }
+
+    /** The rows at one moment; rows appended later are not part of it. */
+    static final class View {
+        final Chunk[] chunks;
+        final int size;
+        final long[] eventIds; // Event index -> event id
+        final int eventCount;  // Valid entries of eventIds, covering every index used by the rows
+
+        View(Chunk[] chunks, int size, long[] eventIds, int eventCount) {
+            this.chunks = chunks;
+            this.size = size;
+            this.eventIds = eventIds;
+            this.eventCount = eventCount;
+        }
+
+        int rowsIn(int chunk) {
+            return Math.min(CHUNK_SIZE, size - chunk * CHUNK_SIZE);
+        }
+    }
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Guarded by this; readers only see them through the volatile fields below
+    private final LongIntMap rowOfBooking = new LongIntMap(1024);
+    private final Map<Long, Integer> eventIndex = new HashMap<>();
+
+    // Published in this order by the writer, read in reverse by view()
+    private volatile long[] eventIds = new long[64];
+    private volatile int eventCount;
+    private volatile Chunk[] chunks = new Chunk[0];
+    private volatile int size;
+
+    public BookingFactStore(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    View view() {
+        int rows = size; // Read first: everything written before it was published is visible
+        Chunk[] current = chunks;
+        int events = eventCount; // Before eventIds, so the array read holds at least this many
+        return new View(current, rows, eventIds, events);
+    }
+
+    static byte statusCode(String status) {
+        for (int i = 0; i < STATUSES.length - 1; i++) {
+            if (STATUSES[i].equals(status)) {
+                return (byte) i;
+            }
+        }
+        return (byte) (STATUSES.length - 1);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent change) {
+        if (change.bookingId() == null) {
+            return;
+        }
+        put(change.bookingId(), change.eventId(), change.numberOfTickets(), Math.round(change.amount() * 100),
+                change.toStatus(), change.bookingDateTime(), true);
+    }
+
+    /**
+     * Loads every booking. Bookings that changed while the load ran already have their newer
+     * row from the status change and are skipped.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        long start = System.currentTimeMillis();
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> {
+                try (Stream<BookingRepository.BookingFactView> facts = bookingRepository.streamBookingFacts()) {
+                    facts.forEach(row -> put(row.getId(), row.getEventId(), row.getNumberOfTickets(),
+                            row.getAmount() != null ? Math.round(row.getAmount() * 100) : 0,
+                            row.getStatus(), row.getBookingDateTime(), false));
+                }
+            });
+            logger.info("Loaded {} booking facts in {} ms", size, System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Failed to load booking facts, analytics only cover bookings made from now on", e);
+        }
+    }
+
+    /**
+     * @param replace whether an existing row takes the new status (live changes) or is left
+     *                alone (the startup load, which may have read an older state).
+     */
+    private synchronized void put(long bookingId, Long eventId, int tickets, long amountCents, String status,
+                                  LocalDateTime bookingDateTime, boolean replace) {
+        int row = rowOfBooking.get(bookingId);
+        if (row >= 0) {
+            if (replace) {
+                chunks[row / CHUNK_SIZE].statuses[row % CHUNK_SIZE] = statusCode(status); // Byte write, never torn
+            }
+            return;
+        }
+
+        int event = indexOf(eventId);
+        row = size;
+        Chunk[] current = chunks;
+        if (row / CHUNK_SIZE == current.length) {
+            current = Arrays.copyOf(current, current.length + 1);
+            current[current.length - 1] = new Chunk();
+            chunks = current;
+        }
+        Chunk chunk = current[row / CHUNK_SIZE];
+        int offset = row % CHUNK_SIZE;
+        chunk.events[offset] = event;
+        chunk.tickets[offset] = tickets;
+        chunk.amountCents[offset] = amountCents;
+        chunk.statuses[offset] = statusCode(status);
+        chunk.days[offset] = bookingDateTime != null ? (int) bookingDateTime.toLocalDate().toEpochDay() : 0;
+        rowOfBooking.put(bookingId, row);
+        size = row + 1; // Publishes the row
+    }
+
+    private int indexOf(Long eventId) {
+        Integer known = eventIndex.get(eventId);
+        if (known != null) {
+            return known;
+        }
+        int index = eventCount;
+        long[] ids = eventIds;
+        if (index == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+            eventIds = ids;
+        }
+        ids[index] = eventId;
+        eventCount = index + 1; // Published before any row that uses the new index
+        eventIndex.put(eventId, index);
+        return index;
+    }
+}
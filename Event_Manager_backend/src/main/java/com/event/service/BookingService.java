@@ -3,17 +3,27 @@ package com.event.service;
 import com.event.bean.Booking;
 import com.event.bean.Event;
 import com.event.bean.User;
+import com.event.dto.CartItem;
+import com.event.dto.SeatDTO;
+import com.event.events.BookingStatusChangedEvent;
 import com.event.repository.BookingRepository;
 import com.event.repository.EventRepository;
 import com.event.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays; // Import Arrays
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.TreeMap;
 
 @Service
 public class BookingService {
@@ -30,8 +40,32 @@ public class BookingService {
     @Autowired
     private EmailService emailService;
 
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    private TicketInventory ticketInventory;
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    @Autowired
+    private TicketTierService ticketTierService;
+
+    @Autowired
+    private PromoCodeService promoCodeService;
+
+    @Autowired
+    private DynamicPricingService dynamicPricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     // Define statuses to exclude from general listings
-    private static final List<String> EXCLUDED_STATUSES = Arrays.asList("CANCELLED", "FAILED");
+    private static final List<String> EXCLUDED_STATUSES = Arrays.asList("CANCELLED", "FAILED", "EXPIRED");
 
     /**
      * Creates a booking with PENDING_PAYMENT status and temporarily reduces available tickets.
@@ -46,88 +80,343 @@ public class BookingService {
      */
     @Transactional
     public Booking createPendingBooking(Long eventId, String userName, String userEmail, int numberOfTickets) {
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new RuntimeException("Event not found with id " + eventId));
+        return createPendingBooking(eventId, userName, userEmail, numberOfTickets, null, null, null, null);
+    }
 
-        if (event.getAvailableTickets() < numberOfTickets) {
-            throw new RuntimeException("Not enough tickets available for this event.");
+    /**
+     * Same as {@link #createPendingBooking(Long, String, String, int)}, with a ticket tier, seats
+     * and a promo code. Events with tiers require {@code tierId}. The booking's amount is the
+     * current dynamic price of the event (or tier), locked in for the hold. For events with
+     * reserved seating, seats are held as well: the given ones, or else the best contiguous
+     * block (optionally within {@code seatSection}). A promo code is redeemed in the same
+     * transaction and taken off the amount.
+     *
+     * @throws RuntimeException if the tier is not on sale or sold out, the requested seats are
+     *                          taken, no block of that size is free, or the promo code cannot be used.
+     */
+    @Transactional
+    public Booking createPendingBooking(Long eventId, String userName, String userEmail, int numberOfTickets,
+                                        Long tierId, String seatSection, List<SeatDTO> seats, String promoCode) {
+        if (numberOfTickets < 1) {
+            throw new RuntimeException("Number of tickets must be at least 1.");
         }
 
-        // Reduce available tickets. This is a temporary hold.
-        event.setAvailableTickets(event.getAvailableTickets() - numberOfTickets);
-        eventRepository.save(event); // Update available tickets in the event
-
         Booking booking = new Booking();
-        booking.setEvent(event);
+        // Takes tickets with a single conditional UPDATE (on the tier, this node's lease or the
+        // event row), so concurrent buyers can neither oversell nor lose updates.
+        reserveTickets(booking, eventId, tierId, numberOfTickets);
+
+        booking.setEvent(eventRepository.getReferenceById(eventId)); // No need to load the row we just updated
         booking.setUserName(userName);
         booking.setUserEmail(userEmail);
         booking.setNumberOfTickets(numberOfTickets);
         booking.setBookingDateTime(LocalDateTime.now());
         booking.setStatus("PENDING_PAYMENT"); // Initial status
+        booking.setSeats(seatMapService.hold(eventId, numberOfTickets, seatSection, seats));
+        if (promoCode != null && !promoCode.isBlank()) {
+            applyPromoCode(booking, eventId, userEmail, promoCode);
+        }
 
         // Attempt to link to a registered user if email matches
         userRepository.findByEmail(userEmail).ifPresent(booking::setUser);
 
-        return bookingRepository.save(booking); // Save the pending booking
+        Booking saved = bookingRepository.save(booking); // Save the pending booking
+        holdExpiryService.scheduleHold(saved.getId(), saved.getBookingDateTime()); // Tickets come back if payment never arrives
+        publishStatusChange(saved, null);
+        return saved;
     }
 
     /**
-     * Confirms a pending booking after successful payment.
+     * Confirms a pending booking after successful payment. If the hold already expired,
+     * the tickets are reserved again when still available.
+     * Runs in its own transaction and is retried if the booking is modified concurrently, e.g.
+     * expired by the hold timer in the meantime (the retry then takes the late-payment path).
      *
      * @param bookingId The ID of the booking to confirm.
      * @param paymentId The payment ID received from the payment gateway.
      * @throws RuntimeException if the booking is not found or not in PENDING_PAYMENT status.
      */
-    @Transactional
     public void confirmBooking(Long bookingId, String paymentId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
-
-        if ("PENDING_PAYMENT".equals(booking.getStatus())) {
-            booking.setStatus("CONFIRMED");
-            booking.setPaymentId(paymentId); // Store the payment ID
-            bookingRepository.save(booking);
-
-            // Send email confirmation
-            try {
-                emailService.sendBookingConfirmation(
-                    booking.getUserEmail(),
-                    booking.getEvent().getTitle(),
-                    booking.getNumberOfTickets(),
-                    booking.getId().toString()
-                );
-            } catch (Exception e) {
-                System.err.println("Failed to send booking confirmation email for booking ID " + bookingId + ": " + e.getMessage());
-                // Log the email failure but don't prevent booking confirmation
+        Booking confirmed = optimisticRetryExecutor.execute(() -> {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
+
+            markConfirmed(booking, paymentId);
+            return bookingRepository.saveAndFlush(booking); // Version conflicts surface here, inside the retry
+        });
+        sendConfirmationEmail(confirmed); // Once, after the attempt that committed
+    }
+
+    /**
+     * Creates PENDING_PAYMENT bookings for every item of a cart in one transaction.
+     * Items for the same event and tier are merged, and they are reserved in ascending
+     * (event id, tier id) order so two carts touching the same events can never deadlock
+     * each other. Either every item is reserved or none is.
+     *
+     * @param items The cart items (event ID, optional tier ID and number of tickets each).
+     * @return The created bookings, in ascending event ID order, with their events loaded and
+     *         their amounts set.
+     * @throws RuntimeException if any event is not found or lacks enough tickets.
+     */
+    @Transactional
+    public List<Booking> createPendingCartBookings(String userName, String userEmail, List<CartItem> items) {
+        // Deterministic lock order: ascending event id, then tier id (0 = no tier)
+        Map<Long, Map<Long, Integer>> ticketsByEvent = new TreeMap<>();
+        for (CartItem item : items) {
+            if (item.getEventId() == null || item.getNumberOfTickets() < 1) {
+                throw new RuntimeException("Every cart item needs an event ID and at least 1 ticket.");
+            }
+            Long tierKey = item.getTierId() != null ? item.getTierId() : 0L;
+            ticketsByEvent.computeIfAbsent(item.getEventId(), id -> new TreeMap<>())
+                    .merge(tierKey, item.getNumberOfTickets(), Integer::sum);
+        }
+
+        Map<Long, Event> events = new HashMap<>();
+        eventRepository.findAllById(ticketsByEvent.keySet()).forEach(event -> events.put(event.getId(), event));
+
+        User user = userRepository.findByEmail(userEmail).orElse(null);
+        LocalDateTime now = LocalDateTime.now();
+        List<Booking> bookings = new ArrayList<>(ticketsByEvent.size());
+        for (Map.Entry<Long, Map<Long, Integer>> entry : ticketsByEvent.entrySet()) {
+            Event event = events.get(entry.getKey());
+            if (event == null) {
+                throw new RuntimeException("Event not found with id " + entry.getKey());
+            }
+            List<Booking> eventBookings = new ArrayList<>(entry.getValue().size());
+            List<Integer> quantities = new ArrayList<>(entry.getValue().size());
+            for (Map.Entry<Long, Integer> tierEntry : entry.getValue().entrySet()) {
+                Long tierId = tierEntry.getKey() != 0L ? tierEntry.getKey() : null;
+                int numberOfTickets = tierEntry.getValue();
+
+                Booking booking = new Booking();
+                reserveTickets(booking, event.getId(), tierId, numberOfTickets);
+                booking.setEvent(event);
+                booking.setUserName(userName);
+                booking.setUserEmail(userEmail);
+                booking.setNumberOfTickets(numberOfTickets);
+                booking.setBookingDateTime(now);
+                booking.setStatus("PENDING_PAYMENT");
+                booking.setUser(user);
+                eventBookings.add(booking);
+                quantities.add(numberOfTickets);
+            }
+            // Best available seats for all of the event's lines in a single hold
+            List<String> seats = seatMapService.holdBlocks(event.getId(), quantities);
+            for (int i = 0; i < eventBookings.size(); i++) {
+                eventBookings.get(i).setSeats(seats != null ? seats.get(i) : null);
+            }
+            bookings.addAll(eventBookings);
+        }
+
+        List<Booking> saved = bookingRepository.saveAll(bookings);
+        saved.forEach(booking -> {
+            holdExpiryService.scheduleHold(booking.getId(), booking.getBookingDateTime());
+            publishStatusChange(booking, null);
+        });
+        return saved;
+    }
+
+    /**
+     * Confirms all bookings paid by one order. If any of them cannot be confirmed, none is.
+     * Runs in its own transaction and is retried if a booking is modified concurrently.
+     *
+     * @throws RuntimeException if a booking is not found or not in PENDING_PAYMENT status.
+     */
+    public void confirmBookings(List<Long> bookingIds, String paymentId) {
+        List<Booking> confirmed = optimisticRetryExecutor.execute(() -> {
+            List<Booking> bookings = loadAll(bookingIds);
+            bookings.sort(Comparator.comparing((Booking booking) -> booking.getEvent().getId())); // Seat sections are locked in event order
+            bookings.forEach(booking -> markConfirmed(booking, paymentId));
+            return bookingRepository.saveAllAndFlush(bookings);
+        });
+        confirmed.forEach(this::sendConfirmationEmail);
+    }
+
+    /**
+     * What a booking costs in paisa: its server-computed amount, or the event price for
+     * bookings made before amounts were recorded.
+     */
+    public long chargeInPaisa(Booking booking) {
+        double amount = booking.getAmount() != null
+                ? booking.getAmount()
+                : booking.getEvent().getPrice() * booking.getNumberOfTickets();
+        return Math.round(amount * 100);
+    }
+
+    /**
+     * Records the gateway order created to pay for these bookings, and what it charges for each,
+     * so that only a payment of that order can confirm them.
+     * Runs in its own transaction and is retried if a booking is modified concurrently.
+     *
+     * @throws RuntimeException if a booking is not found.
+     */
+    public void attachOrder(List<Long> bookingIds, String razorpayOrderId) {
+        optimisticRetryExecutor.run(() -> {
+            List<Booking> bookings = loadAll(bookingIds);
+            for (Booking booking : bookings) {
+                booking.setRazorpayOrderId(razorpayOrderId);
+                booking.setChargedPaisa(chargeInPaisa(booking));
+            }
+            bookingRepository.saveAll(bookings);
+        });
+    }
+
+    /**
+     * Whether every one of the bookings exists and is paid for by the given gateway order.
+     */
+    public boolean isOrderedThrough(List<Long> bookingIds, String razorpayOrderId) {
+        if (razorpayOrderId == null || bookingIds.isEmpty()) {
+            return false;
+        }
+        List<Booking> bookings = bookingRepository.findAllById(bookingIds);
+        return bookings.size() == new HashSet<>(bookingIds).size()
+                && bookings.stream().allMatch(booking -> razorpayOrderId.equals(booking.getRazorpayOrderId()));
+    }
+
+    /**
+     * Marks all bookings of a failed order as FAILED and reverts their tickets, all-or-nothing.
+     * Runs in its own transaction and is retried if a booking is modified concurrently.
+     *
+     * @throws RuntimeException if a booking is not found or not in PENDING_PAYMENT status.
+     */
+    public void failBookings(List<Long> bookingIds) {
+        optimisticRetryExecutor.run(() -> {
+            List<Booking> bookings = loadAll(bookingIds);
+            for (Booking booking : bookings) {
+                if (!"PENDING_PAYMENT".equals(booking.getStatus())) {
+                    throw new RuntimeException("Booking with ID " + booking.getId() + " is already " + booking.getStatus() + " and cannot be marked as failed.");
+                }
             }
+            bookings.sort(Comparator.comparing((Booking booking) -> booking.getEvent().getId())); // Seat sections are locked in event order
+            for (Booking booking : bookings) {
+                booking.setStatus("FAILED");
+                releaseHeld(booking);
+                publishStatusChange(booking, "PENDING_PAYMENT");
+            }
+            bookingRepository.saveAll(bookings);
+        });
+    }
+
+    /**
+     * Takes the tickets of a new booking from its tier, or for events without tiers from this
+     * node's lease or the event row, and records where they came from on the booking. The
+     * amount is the dynamic price quoted from memory, so the price the buyer saw is what they pay.
+     */
+    private void reserveTickets(Booking booking, Long eventId, Long tierId, int numberOfTickets) {
+        double price;
+        if (tierId != null) {
+            price = dynamicPricingService.quote(eventId, ticketTierService.reserve(eventId, tierId, numberOfTickets));
+            booking.setTierId(tierId);
+        } else if (ticketTierService.hasTiers(eventId)) {
+            throw new RuntimeException("Please choose a ticket tier for this event.");
         } else {
-            throw new RuntimeException("Booking with ID " + bookingId + " is not in PENDING_PAYMENT status.");
+            price = dynamicPricingService.quote(eventId);
+            booking.setLeaseId(ticketInventory.reserve(eventId, numberOfTickets));
+        }
+        booking.setAmount(Math.round(price * numberOfTickets * 100) / 100.0);
+    }
+
+    private void applyPromoCode(Booking booking, Long eventId, String userEmail, String promoCode) {
+        double baseAmount = booking.getAmount();
+        PromoCodeService.Redemption redemption = promoCodeService.redeem(promoCode, eventId, userEmail, baseAmount);
+        booking.setPromoCode(redemption.code());
+        booking.setDiscount(redemption.discount());
+        booking.setAmount(baseAmount - redemption.discount());
+    }
+
+    /**
+     * Gives back everything a failed or cancelled booking was holding: tickets, seats and
+     * promo code use, and stops its hold timer.
+     */
+    private void releaseHeld(Booking booking) {
+        ticketInventory.release(booking);
+        seatMapService.release(booking.getEvent().getId(), booking.getSeats());
+        promoCodeService.release(booking.getPromoCode(), booking.getUserEmail());
+        holdExpiryService.cancelHold(booking.getId());
+    }
+
+    private List<Booking> loadAll(List<Long> bookingIds) {
+        List<Booking> bookings = bookingRepository.findAllById(bookingIds);
+        if (bookings.size() != new HashSet<>(bookingIds).size()) {
+            throw new RuntimeException("One or more bookings were not found: " + bookingIds);
+        }
+        return bookings;
+    }
+
+    private void markConfirmed(Booking booking, String paymentId) {
+        String previousStatus = booking.getStatus();
+        if ("EXPIRED".equals(booking.getStatus())) {
+            // Payment arrived after the hold lapsed: take the tickets again if they are still there.
+            // Straight from the event row, so the booking's original lease accounting stays intact.
+            if (booking.getTierId() != null) {
+                ticketTierService.reserveAgain(booking.getTierId(), booking.getNumberOfTickets());
+            } else {
+                ticketInventory.reserveFromEvent(booking.getEvent().getId(), booking.getNumberOfTickets());
+            }
+            if (booking.getSeats() != null) {
+                // Same seats only; if someone else has them by now, the late payment cannot be honoured
+                List<SeatDTO> seats = seatMapService.describe(booking.getEvent().getId(), booking.getSeats());
+                booking.setSeats(seatMapService.hold(booking.getEvent().getId(), booking.getNumberOfTickets(), null, seats));
+            }
+            if (booking.getPromoCode() != null) {
+                promoCodeService.reclaim(booking.getPromoCode(), booking.getUserEmail());
+            }
+            booking.setStatus("PENDING_PAYMENT");
+        }
+
+        if (!"PENDING_PAYMENT".equals(booking.getStatus())) {
+            throw new RuntimeException("Booking with ID " + booking.getId() + " is not in PENDING_PAYMENT status.");
+        }
+        booking.setStatus("CONFIRMED");
+        booking.setPaymentId(paymentId); // Store the payment ID
+        holdExpiryService.cancelHold(booking.getId());
+        publishStatusChange(booking, previousStatus);
+    }
+
+    /**
+     * Announces a new booking ({@code fromStatus} null) or a status change; listeners see it
+     * once the transaction commits.
+     */
+    private void publishStatusChange(Booking booking, String fromStatus) {
+        eventPublisher.publishEvent(BookingStatusChangedEvent.of(booking, fromStatus, booking.getStatus()));
+    }
+
+    private void sendConfirmationEmail(Booking booking) {
+        try {
+            emailService.sendBookingConfirmation(
+                booking.getUserEmail(),
+                booking.getEvent().getTitle(),
+                booking.getNumberOfTickets(),
+                booking.getId().toString()
+            );
+        } catch (Exception e) {
+            System.err.println("Failed to send booking confirmation email for booking ID " + booking.getId() + ": " + e.getMessage());
+            // Log the email failure but don't prevent booking confirmation
         }
     }
 
     /**
      * Marks a pending booking as FAILED and reverts the tickets if payment fails.
+     * Runs in its own transaction and is retried if the booking is modified concurrently.
      *
      * @param bookingId The ID of the booking that failed.
      * @throws RuntimeException if the booking is not found or not in PENDING_PAYMENT status.
      */
-    @Transactional
     public void failBooking(Long bookingId) {
-        Booking booking = bookingRepository.findById(bookingId)
-                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
-
-        if ("PENDING_PAYMENT".equals(booking.getStatus())) {
-            booking.setStatus("FAILED");
-            // Revert tickets if payment failed
-            Event event = booking.getEvent();
-            if (event != null) { // Ensure event is not null
-                event.setAvailableTickets(event.getAvailableTickets() + booking.getNumberOfTickets());
-                eventRepository.save(event);
+        optimisticRetryExecutor.run(() -> {
+            Booking booking = bookingRepository.findById(bookingId)
+                    .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + bookingId));
+
+            if ("PENDING_PAYMENT".equals(booking.getStatus())) {
+                booking.setStatus("FAILED");
+                // Revert tickets if payment failed
+                releaseHeld(booking);
+                publishStatusChange(booking, "PENDING_PAYMENT");
+                bookingRepository.save(booking); // Version check makes a concurrent fail/cancel retry instead of double-reverting
+            } else {
+                throw new RuntimeException("Booking with ID " + bookingId + " is already " + booking.getStatus() + " and cannot be marked as failed.");
             }
-            bookingRepository.save(booking);
-        } else {
-            throw new RuntimeException("Booking with ID " + bookingId + " is already " + booking.getStatus() + " and cannot be marked as failed.");
-        }
+        });
     }
 
     /**
@@ -172,32 +461,33 @@ public class BookingService {
 
     /**
      * Cancels a confirmed or pending booking and reverts the tickets.
+     * Runs in its own transaction and is retried if the booking is modified concurrently.
      *
      * @param id The ID of the booking to cancel.
      * @throws RuntimeException if the booking is not found or is already cancelled.
      */
-    @Transactional
     public void cancelBooking(Long id) {
-        Booking booking = bookingRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Booking not found with id " + id));
-
-        // Only allow cancellation if not already cancelled or failed
-        if (!"CANCELLED".equals(booking.getStatus()) && !"FAILED".equals(booking.getStatus())) {
-            Event event = booking.getEvent();
-            if (event != null) {
-                // Return tickets to the event's available count
-                event.setAvailableTickets(event.getAvailableTickets() + booking.getNumberOfTickets());
-                eventRepository.save(event);
-            }
+        optimisticRetryExecutor.run(() -> {
+            Booking booking = bookingRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Booking not found with id " + id));
 
-            booking.setStatus("CANCELLED");
-            bookingRepository.save(booking);
+            // Only allow cancellation if not already cancelled, failed or expired (their tickets are already back)
+            if (!"CANCELLED".equals(booking.getStatus()) && !"FAILED".equals(booking.getStatus())
+                    && !"EXPIRED".equals(booking.getStatus())) {
+                // Return tickets to the event's available count (or this node's lease or tier)
+                releaseHeld(booking);
 
-            // Optionally send cancellation email
-            // emailService.sendBookingCancellation(booking.getUserEmail(), booking.getEvent().getTitle(), booking.getId().toString());
+                String previousStatus = booking.getStatus();
+                booking.setStatus("CANCELLED");
+                bookingRepository.save(booking);
+                publishStatusChange(booking, previousStatus);
 
-        } else {
-            throw new RuntimeException("Booking with ID " + id + " is already " + booking.getStatus() + " and cannot be cancelled.");
-        }
+                // Optionally send cancellation email
+                // emailService.sendBookingCancellation(booking.getUserEmail(), booking.getEvent().getTitle(), booking.getId().toString());
+
+            } else {
+                throw new RuntimeException("Booking with ID " + id + " is already " + booking.getStatus() + " and cannot be cancelled.");
+            }
+        });
     }
 }
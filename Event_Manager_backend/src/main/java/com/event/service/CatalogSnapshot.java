@@ -0,0 +1,295 @@
+package com.event.service;
+
+import com.event.bean.Event;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, versioned copy of the event table with precomputed indexes: events in date order,
+ * positions per location and positions in price order. Changes never modify a snapshot, they
+ * produce a new one, so any number of readers can query the current one without locking.
+ *
+ * Rows are detached copies and must not be modified by callers.
+ */
+public final class CatalogSnapshot {
+
+    private static final Comparator<Event> DATE_ORDER =
+            Comparator.comparing(Event::getDateTime).thenComparing(Event::getId);
+
+    public static final CatalogSnapshot EMPTY = build(0, List.of());
+
+    private final long version;
+    private final long contentVersion; // Version of the last change other than availability
+    private final Event[] byDate;
+    private final Map<Long, Integer> positionById;
+    private final Map<String, int[]> positionsByLocation; // Lower-case location -> ascending date positions
+    private final int[] byPrice;                          // Date positions, cheapest first
+    private final double[] sortedPrices;                  // Price of each entry of byPrice
+
+    private CatalogSnapshot(long version, long contentVersion, Event[] byDate, Map<Long, Integer> positionById,
+                            Map<String, int[]> positionsByLocation, int[] byPrice, double[] sortedPrices) {
+        this.version = version;
+        this.contentVersion = contentVersion;
+        this.byDate = byDate;
+        this.positionById = positionById;
+        this.positionsByLocation = positionsByLocation;
+        this.byPrice = byPrice;
+        this.sortedPrices = sortedPrices;
+    }
+
+    /**
+     * Builds a snapshot of the given events, copying every row.
+     */
+    public static CatalogSnapshot build(long version, Collection<Event> events) {
+        Event[] rows = new Event[events.size()];
+        int n = 0;
+        for (Event event : events) {
+            rows[n++] = copyOf(event);
+        }
+        return index(version, rows);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Changes whenever events are added, edited or removed, but not for availability changes,
+     * so derived structures over titles, dates or prices know when to rebuild.
+     */
+    public long contentVersion() {
+        return contentVersion;
+    }
+
+    public int size() {
+        return byDate.length;
+    }
+
+    public Event get(Long eventId) {
+        Integer position = positionById.get(eventId);
+        return position != null ? byDate[position] : null;
+    }
+
+    /**
+     * All events, soonest first.
+     */
+    public List<Event> all() {
+        return List.of(byDate);
+    }
+
+    /**
+     * A snapshot with {@code event} added or replaced.
+     */
+    public CatalogSnapshot withEvent(Event event) {
+        List<Event> rows = new ArrayList<>(byDate.length + 1);
+        for (Event row : byDate) {
+            if (!row.getId().equals(event.getId())) {
+                rows.add(row);
+            }
+        }
+        rows.add(copyOf(event));
+        return index(version + 1, rows.toArray(new Event[0]));
+    }
+
+    /**
+     * A snapshot without the given event.
+     */
+    public CatalogSnapshot withoutEvent(Long eventId) {
+        if (!positionById.containsKey(eventId)) {
+            return this;
+        }
+        Event[] rows = Arrays.stream(byDate).filter(row -> !row.getId().equals(eventId)).toArray(Event[]::new);
+        return index(version + 1, rows);
+    }
+
+    /**
+     * A snapshot with the available tickets of some events moved by the given amounts. Only the
+     * changed rows are copied; date, location and price indexes are shared with this snapshot.
+     */
+    public CatalogSnapshot withAvailabilityChanges(Map<Long, Integer> deltas) {
+        Event[] rows = byDate.clone();
+        boolean changed = false;
+        for (Map.Entry<Long, Integer> delta : deltas.entrySet()) {
+            Integer position = positionById.get(delta.getKey());
+            if (position == null || delta.getValue() == 0) {
+                continue;
+            }
+            Event row = copyOf(rows[position]);
+            row.setAvailableTickets(Math.max(0, Math.min(row.getTotalTickets(), row.getAvailableTickets() + delta.getValue())));
+            rows[position] = row;
+            changed = true;
+        }
+        return changed
+                ? new CatalogSnapshot(version + 1, contentVersion, rows, positionById, positionsByLocation, byPrice, sortedPrices)
+                : this;
+    }
+
+    /**
+     * One page of events in date order, resuming after ({@code afterTime}, {@code afterId}).
+     * Location and price filters are answered from the indexes; the date bound and the cursor
+     * by binary search, so a page costs the same wherever it starts.
+     *
+     * @param location case-insensitive substring of the location, or {@code null}.
+     * @param from     earliest date, or {@code null}.
+     * @param limit    maximum number of events returned.
+     */
+    public List<Event> page(String location, Double minPrice, Double maxPrice, Instant from, boolean descending,
+                            Instant afterTime, Long afterId, int limit) {
+        BitSet candidates = null;
+        if (location != null) {
+            candidates = new BitSet(byDate.length);
+            String needle = location.toLowerCase();
+            for (Map.Entry<String, int[]> entry : positionsByLocation.entrySet()) {
+                if (entry.getKey().contains(needle)) {
+                    for (int position : entry.getValue()) {
+                        candidates.set(position);
+                    }
+                }
+            }
+        }
+        if (minPrice != null || maxPrice != null) {
+            int lo = minPrice != null ? lowerBound(sortedPrices, minPrice) : 0;
+            int hi = maxPrice != null ? upperBound(sortedPrices, maxPrice) : sortedPrices.length;
+            BitSet inRange = new BitSet(byDate.length);
+            for (int i = lo; i < hi; i++) {
+                inRange.set(byPrice[i]);
+            }
+            if (candidates == null) {
+                candidates = inRange;
+            } else {
+                candidates.and(inRange);
+            }
+        }
+
+        int first = from != null ? firstOnOrAfter(from) : 0; // Nothing before this position qualifies
+        List<Event> result = new ArrayList<>(Math.min(limit, byDate.length));
+        if (!descending) {
+            int i = Math.max(first, afterTime != null ? firstAfter(afterTime, afterId) : 0);
+            while (i < byDate.length && result.size() < limit) {
+                if (candidates != null) {
+                    i = candidates.nextSetBit(i);
+                    if (i < 0) {
+                        break;
+                    }
+                }
+                result.add(byDate[i++]);
+            }
+        } else {
+            int i = (afterTime != null ? firstAfter(afterTime, afterId) : byDate.length) - 1;
+            if (afterTime != null && i >= 0 && isCursor(byDate[i], afterTime, afterId)) {
+                i--;
+            }
+            while (i >= first && result.size() < limit) {
+                if (candidates != null) {
+                    i = candidates.previousSetBit(i);
+                    if (i < first) {
+                        break;
+                    }
+                }
+                result.add(byDate[i--]);
+            }
+        }
+        return result;
+    }
+
+    static Event copyOf(Event row) {
+        Event copy = new Event(row.getTitle(), row.getDescription(), row.getDateTime(), row.getLocation(),
+                row.getPrice(), row.getTotalTickets(), row.getImageUrl());
+        copy.setId(row.getId());
+        copy.setAvailableTickets(row.getAvailableTickets());
+        copy.setPricingCurve(row.getPricingCurve());
+        copy.setSeriesId(row.getSeriesId());
+        copy.setVersion(row.getVersion());
+        return copy;
+    }
+
+    private static CatalogSnapshot index(long version, Event[] rows) {
+        Arrays.sort(rows, DATE_ORDER);
+        Map<Long, Integer> positionById = new HashMap<>(rows.length * 2);
+        Map<String, List<Integer>> locations = new HashMap<>();
+        Integer[] priceOrder = new Integer[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            positionById.put(rows[i].getId(), i);
+            locations.computeIfAbsent(rows[i].getLocation().toLowerCase(), key -> new ArrayList<>()).add(i);
+            priceOrder[i] = i;
+        }
+        Arrays.sort(priceOrder, Comparator.comparingDouble(i -> rows[i].getPrice()));
+
+        Map<String, int[]> positionsByLocation = new HashMap<>(locations.size() * 2);
+        locations.forEach((key, positions) -> positionsByLocation.put(key, positions.stream().mapToInt(Integer::intValue).toArray()));
+        int[] byPrice = new int[rows.length];
+        double[] sortedPrices = new double[rows.length];
+        for (int i = 0; i < rows.length; i++) {
+            byPrice[i] = priceOrder[i];
+            sortedPrices[i] = rows[priceOrder[i]].getPrice();
+        }
+        return new CatalogSnapshot(version, version, rows, Map.copyOf(positionById), Map.copyOf(positionsByLocation), byPrice, sortedPrices);
+    }
+
+    /** First position whose date is on or after {@code from}. */
+    private int firstOnOrAfter(Instant from) {
+        int lo = 0, hi = byDate.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (byDate[mid].getDateTime().isBefore(from)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    /** First position strictly after the cursor (time, id) in date order. */
+    private int firstAfter(Instant time, Long id) {
+        int lo = 0, hi = byDate.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = byDate[mid].getDateTime().compareTo(time);
+            if (cmp < 0 || (cmp == 0 && byDate[mid].getId() <= id)) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static boolean isCursor(Event row, Instant time, Long id) {
+        return row.getDateTime().equals(time) && row.getId().equals(id);
+    }
+
+    private static int lowerBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] < key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+
+    private static int upperBound(double[] values, double key) {
+        int lo = 0, hi = values.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (values[mid] <= key) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,136 @@
+package com.event.service;
+
+import com.event.bean.Event;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary file format for a {@link CatalogSnapshot}, so an instance can start with a
+ * warm catalog (and keep serving it) before the database is reachable.
+ *
+ * Layout: magic, format, snapshot version, write time (epoch millis), event count, then per
+ * event its fixed-size fields followed by length-prefixed UTF-8 strings (-1 for null).
+ * Files are written to a temporary file and moved into place, so readers never see a torn file.
+ */
+final class CatalogSnapshotFile {
+
+    private static final int MAGIC = 0x45564354; // "EVCT"
+    private static final int FORMAT = 2; // 2: series id
+
+    record Loaded(CatalogSnapshot snapshot, Instant writtenAt) {
+    }
+
+    private CatalogSnapshotFile() {
+    }
+
+    static void write(CatalogSnapshot snapshot, Path file) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, file.getFileName().toString(), ".tmp");
+        try {
+            try (OutputStream fileOut = Files.newOutputStream(tmp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(fileOut, 64 * 1024))) {
+                List<Event> events = snapshot.all();
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT);
+                out.writeLong(snapshot.version());
+                out.writeLong(System.currentTimeMillis());
+                out.writeInt(events.size());
+                for (Event event : events) {
+                    out.writeLong(event.getId());
+                    out.writeLong(event.getDateTime().getEpochSecond());
+                    out.writeInt(event.getDateTime().getNano());
+                    out.writeDouble(event.getPrice());
+                    out.writeInt(event.getTotalTickets());
+                    out.writeInt(event.getAvailableTickets());
+                    out.writeLong(event.getVersion() != null ? event.getVersion() : 0L);
+                    out.writeLong(event.getSeriesId() != null ? event.getSeriesId() : 0L); // 0 = not a series occurrence
+                    writeString(out, event.getTitle());
+                    writeString(out, event.getLocation());
+                    writeString(out, event.getImageUrl());
+                    writeString(out, event.getPricingCurve());
+                    writeString(out, event.getDescription());
+                }
+            }
+            Files.move(tmp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+
+    /**
+     * Maps the file read-only and decodes it.
+     *
+     * @return {@code null} if the file does not exist.
+     * @throws IOException if the file cannot be read or is not a catalog snapshot.
+     */
+    static Loaded read(Path file) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < 28 || buffer.getInt() != MAGIC || buffer.getInt() != FORMAT) {
+                throw new IOException("Not a catalog snapshot file: " + file);
+            }
+            long version = buffer.getLong();
+            Instant writtenAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            List<Event> events = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                Event event = new Event();
+                event.setId(buffer.getLong());
+                event.setDateTime(Instant.ofEpochSecond(buffer.getLong(), buffer.getInt()));
+                event.setPrice(buffer.getDouble());
+                event.setTotalTickets(buffer.getInt());
+                event.setAvailableTickets(buffer.getInt());
+                event.setVersion(buffer.getLong());
+                long seriesId = buffer.getLong();
+                event.setSeriesId(seriesId != 0 ? seriesId : null);
+                event.setTitle(readString(buffer));
+                event.setLocation(readString(buffer));
+                event.setImageUrl(readString(buffer));
+                event.setPricingCurve(readString(buffer));
+                event.setDescription(readString(buffer));
+                events.add(event);
+            }
+            return new Loaded(CatalogSnapshot.build(version, events), writtenAt);
+        } catch (RuntimeException e) { // Truncated or corrupt file: BufferUnderflowException and friends
+            throw new IOException("Corrupt catalog snapshot file: " + file, e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        int length = buffer.getInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,290 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import com.event.events.AvailabilityChangedEvent;
+import com.event.events.TicketsReleasedEvent;
+import com.event.events.TicketsReservedEvent;
+import com.event.repository.EventRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Holds the current {@link CatalogSnapshot}. It is loaded from the database at startup, kept
+ * up to date incrementally by committed event edits and ticket sales, and reloaded in the
+ * background to pick up changes made by other instances. Readers just take the current
+ * reference; writers are serialized and publish a new snapshot.
+ *
+ * Availability changes are coalesced and applied a few times per second, so a flash sale
+ * produces a handful of new snapshots per second instead of one per booking.
+ *
+ * The snapshot is also written to a file periodically and mapped back in at startup, so a
+ * fresh instance serves a warm catalog immediately. Until the first reload from the database
+ * succeeds, or while reloads fail, the snapshot is marked stale and served as-is (degraded,
+ * read-only browsing) instead of failing.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(CatalogSnapshotService.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private DynamicPricingService dynamicPricingService;
+
+    @Autowired
+    private InventoryLeaseManager inventoryLeaseManager;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>(CatalogSnapshot.EMPTY);
+    private final Object writeLock = new Object();
+    private final Map<Long, Integer> pendingAvailability = new ConcurrentHashMap<>();
+    private final Set<Long> editedDuringReload = ConcurrentHashMap.newKeySet();
+    private final Path file;
+    private volatile boolean reloading;
+    private volatile boolean loaded;
+    private volatile boolean stale;
+    private volatile Instant refreshedAt;
+    private long writtenVersion = -1; // Guarded by persist()
+
+    public CatalogSnapshotService(@Value("${catalog.snapshot.file:}") String file) {
+        this.file = file.isBlank() ? null : Path.of(file);
+        if (this.file == null) {
+            return;
+        }
+        try {
+            CatalogSnapshotFile.Loaded warm = CatalogSnapshotFile.read(this.file);
+            if (warm != null) {
+                current.set(warm.snapshot());
+                writtenVersion = warm.snapshot().version();
+                refreshedAt = warm.writtenAt();
+                stale = true;
+                loaded = true;
+                logger.info("Loaded {} events from catalog snapshot file {} written at {}",
+                        warm.snapshot().size(), this.file, warm.writtenAt());
+            }
+        } catch (IOException e) {
+            logger.warn("Ignoring unreadable catalog snapshot file {}: {}", this.file, e.getMessage());
+        }
+    }
+
+    /**
+     * The current snapshot. Empty until the first load completes, see {@link #isLoaded()}.
+     */
+    public CatalogSnapshot current() {
+        return current.get();
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * Whether the snapshot could not be refreshed from the database lately (still the startup
+     * file, or the last reload failed). Readers should mark what they serve as stale.
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * When the snapshot was last known to match the database.
+     */
+    public Instant refreshedAt() {
+        return refreshedAt;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadAtStartup() {
+        reload();
+    }
+
+    /**
+     * Rebuilds the snapshot from the database. Events edited on this instance while the rows
+     * were being read keep their (newer) snapshot version.
+     *
+     * Availability flushes pause for the duration: changes collected before the read are
+     * dropped (the rows include them), and changes arriving from the read on stay pending and
+     * are applied to the new snapshot. A change committed while the read is running may be
+     * counted twice until the next reload; none is lost.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.refresh-interval-ms:60000}",
+               initialDelayString = "${catalog.snapshot.refresh-interval-ms:60000}")
+    public synchronized void reload() {
+        Map<Long, Integer> beforeRead;
+        synchronized (writeLock) { // No flush is halfway through taking changes
+            editedDuringReload.clear();
+            reloading = true;
+            beforeRead = takePending();
+        }
+        boolean installed = false;
+        try {
+            List<Event> rows = eventRepository.findAll();
+            rows.forEach(dynamicPricingService::observe); // Fresh rows re-seed the pricing counters for free
+
+            synchronized (writeLock) {
+                CatalogSnapshot previous = current.get();
+                Map<Long, Event> byId = new LinkedHashMap<>();
+                rows.forEach(row -> byId.put(row.getId(), row));
+                for (Long eventId : editedDuringReload) {
+                    Event edited = previous.get(eventId);
+                    if (edited != null) {
+                        byId.put(eventId, edited);
+                    } else {
+                        byId.remove(eventId);
+                    }
+                }
+                // Tickets leased to this node are off the rows but still for sale (edited events already include them)
+                Map<Long, Integer> leased = inventoryLeaseManager.unsoldByEvent();
+                leased.keySet().removeAll(editedDuringReload);
+                current.set(CatalogSnapshot.build(previous.version() + 1, byId.values()).withAvailabilityChanges(leased));
+                reloading = false; // Changes pending from here on belong on top of the new snapshot
+                installed = true;
+                loaded = true;
+                stale = false;
+                refreshedAt = Instant.now();
+            }
+        } catch (RuntimeException e) {
+            stale = true;
+            logger.error("Failed to reload the catalog snapshot, serving version {} as stale", current.get().version(), e);
+        } finally {
+            if (!installed) {
+                // The old snapshot stays, so it still needs the changes taken before the read
+                beforeRead.forEach((eventId, delta) -> pendingAvailability.merge(eventId, delta, Integer::sum));
+                reloading = false;
+            }
+        }
+    }
+
+    /**
+     * Retries the reload more often than the regular refresh while serving stale data.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.stale-retry-interval-ms:5000}")
+    public void reloadIfStale() {
+        if (stale) {
+            reload();
+        }
+    }
+
+    /**
+     * Writes the current snapshot to the snapshot file if it changed since the last write.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.file-write-interval-ms:10000}")
+    public synchronized void persist() {
+        CatalogSnapshot snapshot = current.get();
+        if (file == null || !loaded || stale || snapshot.version() == writtenVersion) {
+            return;
+        }
+        try {
+            CatalogSnapshotFile.write(snapshot, file);
+            writtenVersion = snapshot.version();
+        } catch (IOException e) {
+            logger.warn("Failed to write catalog snapshot file {}: {}", file, e.getMessage());
+        }
+    }
+
+    /**
+     * Publishes a created or edited event. Call once its transaction has committed.
+     */
+    public void upsert(Event event) {
+        CatalogSnapshot applied;
+        synchronized (writeLock) {
+            applied = current.get().withEvent(event)
+                    .withAvailabilityChanges(Map.of(event.getId(), inventoryLeaseManager.unsold(event.getId())));
+            current.set(applied);
+            if (reloading) {
+                editedDuringReload.add(event.getId());
+            }
+        }
+        eventPublisher.publishEvent(new AvailabilityChangedEvent(
+                Map.of(event.getId(), applied.get(event.getId()).getAvailableTickets())));
+    }
+
+    /**
+     * Drops a deleted event. Call once its transaction has committed.
+     */
+    public void remove(Long eventId) {
+        synchronized (writeLock) {
+            current.set(current.get().withoutEvent(eventId));
+            if (reloading) {
+                editedDuringReload.add(eventId);
+            }
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReserved(TicketsReservedEvent event) {
+        pendingAvailability.merge(event.eventId(), -event.numberOfTickets(), Integer::sum);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReleased(TicketsReleasedEvent event) {
+        pendingAvailability.merge(event.eventId(), event.numberOfTickets(), Integer::sum);
+    }
+
+    /**
+     * Applies the availability changes collected since the last run in one new snapshot and
+     * announces the new counts ({@link AvailabilityChangedEvent}). Skipped while a reload is
+     * reading the rows; the changes are applied to the reloaded snapshot instead.
+     */
+    @Scheduled(fixedDelayString = "${catalog.snapshot.availability-flush-ms:200}")
+    public void flushAvailability() {
+        if (pendingAvailability.isEmpty()) {
+            return;
+        }
+        Map<Long, Integer> deltas;
+        CatalogSnapshot applied;
+        synchronized (writeLock) {
+            if (reloading) {
+                return;
+            }
+            deltas = takePending();
+            applied = current.get().withAvailabilityChanges(deltas);
+            current.set(applied);
+        }
+
+        Map<Long, Integer> availableTickets = new HashMap<>(deltas.size() * 2);
+        for (Long eventId : deltas.keySet()) {
+            Event event = applied.get(eventId);
+            if (event != null) {
+                availableTickets.put(eventId, event.getAvailableTickets());
+            }
+        }
+        if (!availableTickets.isEmpty()) {
+            eventPublisher.publishEvent(new AvailabilityChangedEvent(availableTickets));
+        }
+    }
+
+    private Map<Long, Integer> takePending() {
+        Map<Long, Integer> deltas = new HashMap<>();
+        for (Long eventId : pendingAvailability.keySet()) {
+            Integer delta = pendingAvailability.remove(eventId); // Atomic take, concurrent merges start a new entry
+            if (delta != null) {
+                deltas.put(eventId, delta);
+            }
+        }
+        return deltas;
+    }
+}
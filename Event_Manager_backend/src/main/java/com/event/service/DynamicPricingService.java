@@ -0,0 +1,180 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import com.event.events.TicketsReleasedEvent;
+import com.event.events.TicketsReservedEvent;
+import com.event.repository.EventRepository;
+import com.event.util.PricingCurve;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Demand-based pricing. Each event with a pricing curve gets a price multiplier from how much
+ * of it is sold and how fast it is selling. Both come from in-memory counters, kept up to date
+ * from committed sales and releases and re-seeded whenever the event row is loaded anyway
+ * (catalog views, event edits). Quoting a price therefore never reads the database, except
+ * once per event the first time it is quoted on this instance.
+ *
+ * The quoted price is locked into the booking's amount when the tickets are held, so the
+ * customer pays what they were shown for the whole hold window.
+ */
+@Service
+public class DynamicPricingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DynamicPricingService.class);
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private InventoryLeaseManager inventoryLeaseManager;
+
+    private final Map<Long, PriceState> states = new ConcurrentHashMap<>();
+
+    /**
+     * Re-seeds the counters and curve of an event from a row the caller already loaded.
+     */
+    public void observe(Event event) {
+        states.compute(event.getId(), (id, state) -> {
+            if (state == null) {
+                return new PriceState(event, available(event));
+            }
+            state.refresh(event, available(event));
+            return state;
+        });
+    }
+
+    public void forget(Long eventId) {
+        states.remove(eventId);
+    }
+
+    /**
+     * Current price per ticket of an event.
+     *
+     * @throws RuntimeException if the event is not found.
+     */
+    public double quote(Long eventId) {
+        PriceState state = state(eventId);
+        return state.price(state.basePrice);
+    }
+
+    /**
+     * Current price per ticket for a given base price, e.g. a tier's price.
+     *
+     * @throws RuntimeException if the event is not found.
+     */
+    public double quote(Long eventId, double basePrice) {
+        return state(eventId).price(basePrice);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReserved(TicketsReservedEvent event) {
+        PriceState state = states.get(event.eventId());
+        if (state != null) {
+            state.available.addAndGet(-event.numberOfTickets());
+            state.velocity.record(event.numberOfTickets(), System.currentTimeMillis());
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReleased(TicketsReleasedEvent event) {
+        PriceState state = states.get(event.eventId());
+        if (state != null) {
+            state.available.addAndGet(event.numberOfTickets());
+        }
+    }
+
+    private PriceState state(Long eventId) {
+        return states.computeIfAbsent(eventId, id -> {
+            Event event = eventRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Event not found with id " + id));
+            return new PriceState(event, available(event));
+        });
+    }
+
+    /** The row's count plus this node's unsold leased tickets, whose sales are still to be announced. */
+    private int available(Event event) {
+        return event.getAvailableTickets() + inventoryLeaseManager.unsold(event.getId());
+    }
+
+    private static PricingCurve compile(Event event) {
+        try {
+            return PricingCurve.compile(event.getPricingCurve());
+        } catch (IllegalArgumentException e) {
+            logger.warn("Ignoring invalid pricing curve of event {}: {}", event.getId(), e.getMessage());
+            return PricingCurve.FLAT;
+        }
+    }
+
+    private static final class PriceState {
+        volatile double basePrice;
+        volatile int totalTickets;
+        volatile String curveSpec;
+        volatile PricingCurve curve;
+        final AtomicInteger available;
+        final VelocityWindow velocity = new VelocityWindow();
+
+        PriceState(Event event, int availableTickets) {
+            this.available = new AtomicInteger(availableTickets);
+            this.basePrice = event.getPrice();
+            this.totalTickets = event.getTotalTickets();
+            this.curveSpec = event.getPricingCurve();
+            this.curve = compile(event);
+        }
+
+        void refresh(Event event, int availableTickets) {
+            basePrice = event.getPrice();
+            totalTickets = event.getTotalTickets();
+            available.set(availableTickets);
+            if (!Objects.equals(curveSpec, event.getPricingCurve())) {
+                curveSpec = event.getPricingCurve();
+                curve = compile(event);
+            }
+        }
+
+        double price(double base) {
+            PricingCurve current = curve;
+            if (current.isFlat() || totalTickets <= 0) {
+                return base;
+            }
+            int soldPercent = (int) ((long) (totalTickets - available.get()) * 100 / totalTickets);
+            double multiplier = current.multiplier(soldPercent, velocity.perMinute(System.currentTimeMillis()));
+            return Math.round(base * multiplier * 100) / 100.0;
+        }
+    }
+
+    /** Tickets sold over the last minute, in one-second buckets. */
+    private static final class VelocityWindow {
+        private final long[] seconds = new long[60];
+        private final int[] counts = new int[60];
+
+        synchronized void record(int tickets, long nowMillis) {
+            long second = nowMillis / 1000;
+            int slot = (int) (second % 60);
+            if (seconds[slot] != second) {
+                seconds[slot] = second;
+                counts[slot] = 0;
+            }
+            counts[slot] += tickets;
+        }
+
+        synchronized double perMinute(long nowMillis) {
+            long second = nowMillis / 1000;
+            int total = 0;
+            for (int slot = 0; slot < 60; slot++) {
+                if (second - seconds[slot] < 60) {
+                    total += counts[slot];
+                }
+            }
+            return total;
+        }
+    }
+}
@@ -5,6 +5,8 @@ import jakarta.mail.internet.InternetAddress;
 import jakarta.mail.internet.MimeMessage;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Properties;
 
 @Service
@@ -75,4 +77,59 @@ public class EmailService {
             e.printStackTrace(); // Print full stack trace for detailed debugging
         }
     }
+
+    /**
+     * Tells waitlisted customers that tickets are held for them. Sent in batches: one SMTP
+     * connection for the whole batch instead of one per message.
+     */
+    public void sendWaitlistOffers(List<WaitlistOffer> offers) {
+        if (offers.isEmpty()) {
+            return;
+        }
+        String host = "smtp.gmail.com";
+        String port = "465"; // SSL/TLS port
+
+        Properties properties = new Properties();
+        properties.put("mail.smtp.host", host);
+        properties.put("mail.smtp.port", port);
+        properties.put("mail.smtp.auth", "true");
+        properties.put("mail.smtp.starttls.enable", "true");
+        properties.put("mail.smtp.socketFactory.class", "javax.net.ssl.SSLSocketFactory");
+        properties.put("mail.smtp.socketFactory.port", port);
+        properties.put("mail.smtp.socketFactory.fallback", "false");
+        properties.put("mail.smtp.ssl.trust", host);
+
+        Session session = Session.getInstance(properties);
+        try (Transport transport = session.getTransport("smtp")) {
+            transport.connect(host, SENDER_EMAIL, SENDER_PASSWORD);
+            for (WaitlistOffer offer : offers) {
+                try {
+                    MimeMessage message = new MimeMessage(session);
+                    message.setFrom(new InternetAddress(SENDER_EMAIL));
+                    message.addRecipient(Message.RecipientType.TO, new InternetAddress(offer.toEmail()));
+                    message.setSubject("Tickets available: " + offer.eventTitle());
+                    message.setText(
+                        "Dear " + offer.userName() + ",\n\n" +
+                        "Good news: " + offer.numberOfTickets() + " ticket(s) for '" + offer.eventTitle() + "' " +
+                        "have been released and are now held for you.\n" +
+                        "Your claim code: " + offer.claimToken() + "\n" +
+                        "Complete your payment with this code before " + offer.expiresAt() + ", " +
+                        "after that the tickets go to the next person on the waitlist.\n\n" +
+                        "Best regards,\nEventify Team"
+                    );
+                    message.saveChanges();
+                    transport.sendMessage(message, message.getAllRecipients());
+                } catch (MessagingException e) {
+                    System.err.println("Error sending waitlist offer email to " + offer.toEmail() + ": " + e.getMessage());
+                }
+            }
+            System.out.println("Sent " + offers.size() + " waitlist offer email(s)");
+        } catch (MessagingException e) {
+            System.err.println("Error sending waitlist offer emails: " + e.getMessage());
+        }
+    }
+
+    public record WaitlistOffer(String toEmail, String userName, String eventTitle, int numberOfTickets,
+                                String claimToken, LocalDateTime expiresAt) {
+    }
 }
@@ -0,0 +1,293 @@
+package com.event.service;
+
+import com.event.bean.Event;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+
+/**
+ * Immutable inverted index over event titles, locations and descriptions, ranked with BM25.
+ * Fields are weighted by counting a title term three times and a location term twice. Query
+ * terms are OR-ed, so events matching more (and rarer) terms rank first.
+ *
+ * A query only touches the postings of its terms plus a bounded heap for the requested page,
+ * never every event.
+ */
+public final class EventSearchIndex {
+
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LOCATION_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Set<String> STOP_WORDS = Set.of("a", "an", "and", "at", "by", "for", "in", "of", "on", "or", "the", "to", "with");
+
+    public record Hit(Event event, float score) {
+    }
+
+    public record Result(int total, List<Hit> hits) {
+    }
+
+    private record Postings(int[] docs, float[] frequencies) {
+    }
+
+    private final long contentVersion;
+    private final Event[] docs;
+    private final float[] lengths;
+    private final float averageLength;
+    private final Map<String, Postings> postings;
+
+    private EventSearchIndex(long contentVersion, Event[] docs, float[] lengths, float averageLength, Map<String, Postings> postings) {
+        this.contentVersion = contentVersion;
+        this.docs = docs;
+        this.lengths = lengths;
+        this.averageLength = averageLength;
+        this.postings = postings;
+    }
+
+    public static EventSearchIndex build(long contentVersion, List<Event> events) {
+        Event[] docs = events.toArray(new Event[0]);
+        float[] lengths = new float[docs.length];
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+        long totalLength = 0;
+        for (int doc = 0; doc < docs.length; doc++) {
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = addField(frequencies, docs[doc].getTitle(), TITLE_WEIGHT)
+                    + addField(frequencies, docs[doc].getLocation(), LOCATION_WEIGHT)
+                    + addField(frequencies, docs[doc].getDescription(), DESCRIPTION_WEIGHT);
+            lengths[doc] = length;
+            totalLength += length;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                builders.computeIfAbsent(entry.getKey(), term -> new PostingsBuilder()).add(doc, entry.getValue());
+            }
+        }
+        Map<String, Postings> postings = new HashMap<>(builders.size() * 2);
+        builders.forEach((term, builder) -> postings.put(term, builder.build()));
+        float averageLength = docs.length > 0 ? Math.max(1f, (float) totalLength / docs.length) : 1f;
+        return new EventSearchIndex(contentVersion, docs, lengths, averageLength, postings);
+    }
+
+    public long contentVersion() {
+        return contentVersion;
+    }
+
+    /**
+     * Ranked matches of {@code query} within the optional date and price bounds.
+     *
+     * @return the total number of matches and the hits at positions {@code [offset, offset + limit)}.
+     */
+    public Result search(String query, Instant from, Instant to, Double minPrice, Double maxPrice, int offset, int limit) {
+        Set<String> terms = terms(query);
+        float[] scores = null;
+        int[] touched = new int[16];
+        int matches = 0;
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings == null) {
+                continue;
+            }
+            if (scores == null) {
+                scores = new float[docs.length];
+            }
+            int df = termPostings.docs.length;
+            float idf = (float) Math.log(1 + (docs.length - df + 0.5) / (df + 0.5));
+            for (int i = 0; i < df; i++) {
+                int doc = termPostings.docs[i];
+                if (!accepts(docs[doc], from, to, minPrice, maxPrice)) {
+                    continue;
+                }
+                float tf = termPostings.frequencies[i];
+                float norm = K1 * (1 - B + B * lengths[doc] / averageLength);
+                if (scores[doc] == 0f) {
+                    if (matches == touched.length) {
+                        touched = Arrays.copyOf(touched, matches * 2);
+                    }
+                    touched[matches++] = doc;
+                }
+                scores[doc] += idf * tf * (K1 + 1) / (tf + norm);
+            }
+        }
+        if (matches == 0 || offset >= matches) {
+            return new Result(matches, List.of());
+        }
+
+        // Keep only the best offset + limit documents: a min-heap whose head is the weakest kept
+        int keep = Math.min(matches, offset + limit);
+        float[] finalScores = scores;
+        PriorityQueue<Integer> best = new PriorityQueue<>(keep + 1, (a, b) -> compare(finalScores, b, a));
+        for (int i = 0; i < matches; i++) {
+            int doc = touched[i];
+            if (best.size() < keep) {
+                best.add(doc);
+            } else if (compare(scores, doc, best.peek()) < 0) {
+                best.poll();
+                best.add(doc);
+            }
+        }
+        Hit[] ranked = new Hit[best.size()];
+        for (int i = ranked.length - 1; i >= 0; i--) {
+            int doc = best.poll();
+            ranked[i] = new Hit(docs[doc], scores[doc]);
+        }
+        return new Result(matches, List.of(ranked).subList(Math.min(offset, ranked.length), ranked.length));
+    }
+
+    /**
+     * Distinct, normalized terms of a text, in order of first appearance.
+     */
+    public static Set<String> terms(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        forEachToken(text, (start, end) -> {
+            String term = normalize(text, start, end);
+            if (!STOP_WORDS.contains(term)) {
+                terms.add(term);
+            }
+        });
+        return terms;
+    }
+
+    /**
+     * Escapes {@code text} for HTML and wraps every occurrence of the given terms in
+     * {@code <mark>}. When {@code maxLength > 0}, returns at most about that many characters
+     * around the first match (or the start of the text if nothing matches).
+     */
+    public static String highlight(String text, Set<String> terms, int maxLength) {
+        if (text == null || text.isEmpty()) {
+            return text;
+        }
+        List<int[]> marks = new ArrayList<>();
+        forEachToken(text, (start, end) -> {
+            if (terms.contains(normalize(text, start, end))) {
+                marks.add(new int[]{start, end});
+            }
+        });
+
+        int from = 0;
+        int to = text.length();
+        if (maxLength > 0 && text.length() > maxLength) {
+            int anchor = marks.isEmpty() ? 0 : marks.get(0)[0];
+            from = Math.max(0, Math.min(anchor - maxLength / 3, text.length() - maxLength));
+            while (from > 0 && !Character.isWhitespace(text.charAt(from - 1))) {
+                from--; // Do not cut a word in half
+            }
+            to = Math.min(text.length(), from + maxLength);
+        }
+
+        StringBuilder out = new StringBuilder(to - from + 32);
+        if (from > 0) {
+            out.append("\u2026"); // Ellipsis
+        }
+        int position = from;
+        for (int[] mark : marks) {
+            if (mark[1] <= from || mark[0] < position) {
+                continue;
+            }
+            if (mark[0] >= to) {
+                break;
+            }
+            escape(out, text, position, mark[0]);
+            out.append("<mark>");
+            escape(out, text, mark[0], Math.min(mark[1], to));
+            out.append("</mark>");
+            position = Math.min(mark[1], to);
+        }
+        escape(out, text, position, to);
+        if (to < text.length()) {
+            out.append("\u2026"); // Ellipsis
+        }
+        return out.toString();
+    }
+
+    private static boolean accepts(Event event, Instant from, Instant to, Double minPrice, Double maxPrice) {
+        return (from == null || !event.getDateTime().isBefore(from))
+                && (to == null || event.getDateTime().isBefore(to))
+                && (minPrice == null || event.getPrice() >= minPrice)
+                && (maxPrice == null || event.getPrice() <= maxPrice);
+    }
+
+    /** Higher score first, then sooner date, then lower id; negative if {@code a} ranks first. */
+    private int compare(float[] scores, int a, int b) {
+        int byScore = Float.compare(scores[b], scores[a]);
+        if (byScore != 0) {
+            return byScore;
+        }
+        int byDate = docs[a].getDateTime().compareTo(docs[b].getDateTime());
+        return byDate != 0 ? byDate : docs[a].getId().compareTo(docs[b].getId());
+    }
+
+    private static int addField(Map<String, Integer> frequencies, String text, int weight) {
+        int[] length = {0};
+        forEachToken(text, (start, end) -> {
+            String term = normalize(text, start, end);
+            if (!STOP_WORDS.contains(term)) {
+                frequencies.merge(term, weight, Integer::sum);
+                length[0] += weight;
+            }
+        });
+        return length[0];
+    }
+
+    private interface TokenConsumer {
+        void accept(int start, int end);
+    }
+
+    private static void forEachToken(String text, TokenConsumer consumer) {
+        if (text == null) {
+            return;
+        }
+        int start = -1;
+        for (int i = 0; i <= text.length(); i++) {
+            boolean wordChar = i < text.length() && Character.isLetterOrDigit(text.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                consumer.accept(start, i);
+                start = -1;
+            }
+        }
+    }
+
+    private static String normalize(String text, int start, int end) {
+        return text.substring(start, end).toLowerCase();
+    }
+
+    private static void escape(StringBuilder out, String text, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            switch (c) {
+                case '<' -> out.append("&lt;");
+                case '>' -> out.append("&gt;");
+                case '&' -> out.append("&amp;");
+                case '"' -> out.append("&quot;");
+                case '\'' -> out.append("&#39;");
+                default -> out.append(c);
+            }
+        }
+    }
+
+    private static final class PostingsBuilder {
+        private int[] docs = new int[4];
+        private float[] frequencies = new float[4];
+        private int size;
+
+        void add(int doc, int frequency) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docs[size] = doc;
+            frequencies[size++] = frequency;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(docs, size), Arrays.copyOf(frequencies, size));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import com.event.dto.EventSearchHit;
+import com.event.dto.EventSearchPage;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Full-text event search over an in-memory {@link EventSearchIndex} built from the catalog
+ * snapshot. The index is rebuilt in the background when event texts, dates or prices change
+ * (not on ticket sales); hits are then filled in from the current snapshot, so availability
+ * is always current.
+ */
+@Service
+public class EventSearchService {
+
+    public static final int MAX_PAGE_SIZE = 50;
+    public static final int MAX_RESULTS = 1000; // Deepest result reachable by paging
+
+    private static final int SNIPPET_LENGTH = 160;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private volatile EventSearchIndex index;
+
+    /**
+     * Ranked search across titles, descriptions and locations.
+     *
+     * @param from earliest event date (inclusive), or {@code null}.
+     * @param to   latest event date (exclusive), or {@code null}.
+     * @param page 0-based page number.
+     * @throws RuntimeException if the query has no searchable terms or the page is too deep.
+     */
+    public EventSearchPage search(String query, Instant from, Instant to, Double minPrice, Double maxPrice, int page, int size) {
+        Set<String> terms = query == null ? Set.of() : EventSearchIndex.terms(query);
+        if (terms.isEmpty()) {
+            throw new RuntimeException("Please enter a search term.");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        int offset = Math.max(0, page) * pageSize;
+        if (offset >= MAX_RESULTS) {
+            throw new RuntimeException("Please refine your search, only the first " + MAX_RESULTS + " results can be paged through.");
+        }
+
+        EventSearchIndex.Result result = currentIndex().search(query, from, to, minPrice, maxPrice, offset, pageSize);
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<EventSearchHit> hits = new ArrayList<>(result.hits().size());
+        for (EventSearchIndex.Hit hit : result.hits()) {
+            Event event = snapshot.get(hit.event().getId());
+            if (event == null) {
+                continue; // Deleted since the index was built
+            }
+            hits.add(toHit(event, hit.score(), terms));
+        }
+        return new EventSearchPage(query, result.total(), Math.max(0, page), pageSize, hits);
+    }
+
+    /**
+     * Rebuilds the index when the catalog's content changed since it was built.
+     */
+    @Scheduled(fixedDelayString = "${event.search.refresh-interval-ms:1000}")
+    public void refreshIndex() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        EventSearchIndex current = index;
+        if (current == null || current.contentVersion() != snapshot.contentVersion()) {
+            rebuild(snapshot);
+        }
+    }
+
+    private EventSearchIndex currentIndex() {
+        EventSearchIndex current = index;
+        return current != null ? current : rebuild(catalogSnapshotService.current());
+    }
+
+    private synchronized EventSearchIndex rebuild(CatalogSnapshot snapshot) {
+        EventSearchIndex current = index;
+        if (current == null || current.contentVersion() < snapshot.contentVersion()) {
+            current = EventSearchIndex.build(snapshot.contentVersion(), snapshot.all());
+            index = current;
+        }
+        return current;
+    }
+
+    private static EventSearchHit toHit(Event event, float score, Set<String> terms) {
+        EventSearchHit hit = new EventSearchHit();
+        hit.setId(event.getId());
+        hit.setTitle(event.getTitle());
+        hit.setDateTime(event.getDateTime());
+        hit.setLocation(event.getLocation());
+        hit.setPrice(event.getPrice());
+        hit.setAvailableTickets(event.getAvailableTickets());
+        hit.setImageUrl(event.getImageUrl());
+        hit.setScore(score);
+        hit.setHighlightedTitle(EventSearchIndex.highlight(event.getTitle(), terms, 0));
+        hit.setSnippet(EventSearchIndex.highlight(event.getDescription(), terms, SNIPPET_LENGTH));
+        return hit;
+    }
+}
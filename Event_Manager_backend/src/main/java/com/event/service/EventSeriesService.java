@@ -0,0 +1,234 @@
+package com.event.service;
+
+import com.event.bean.Booking;
+import com.event.bean.Event;
+import com.event.bean.EventSeries;
+import com.event.dto.EventSeriesDTO;
+import com.event.dto.EventSummaryDTO;
+import com.event.dto.SeriesOccurrenceDTO;
+import com.event.repository.EventRepository;
+import com.event.repository.EventSeriesRepository;
+import com.event.util.RecurrenceRule;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Recurring event series. A series is stored once with its recurrence rule; listing its
+ * occurrences computes them from the rule and reads only the event rows of the occurrences on
+ * the requested page. An occurrence gets its own {@link Event} row, and so its own inventory,
+ * pricing and bookings, when it is first booked ({@link #bookNewOccurrence}), in the same
+ * transaction as that booking. Only occurrences up to {@code event.series.booking-horizon-days}
+ * ahead can be booked, so the rows created stay bounded however open-ended the rule is.
+ */
+@Service
+public class EventSeriesService {
+
+    private static final Logger log = LoggerFactory.getLogger(EventSeriesService.class);
+
+    public static final int MAX_OCCURRENCES_PER_PAGE = 100;
+
+    @Autowired
+    private EventSeriesRepository eventSeriesRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Duration bookingHorizon;
+
+    public EventSeriesService(PlatformTransactionManager transactionManager,
+                              @Value("${event.series.booking-horizon-days:366}") long bookingHorizonDays) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.bookingHorizon = Duration.ofDays(bookingHorizonDays);
+    }
+
+    /**
+     * @throws RuntimeException if the recurrence rule, time zone or pricing curve is invalid.
+     */
+    @Transactional
+    public EventSeriesDTO createSeries(EventSeriesDTO seriesDTO) {
+        RecurrenceRule rule = compile(seriesDTO.getRecurrenceRule());
+        ZoneId zone = zone(seriesDTO.getTimeZone());
+        if (rule.occurrences(seriesDTO.getFirstStart(), zone, seriesDTO.getFirstStart(), Instant.MAX, 1).isEmpty()) {
+            throw new RuntimeException("The recurrence rule has no occurrences.");
+        }
+
+        EventSeries series = new EventSeries();
+        series.setTitle(seriesDTO.getTitle());
+        series.setDescription(seriesDTO.getDescription());
+        series.setLocation(seriesDTO.getLocation());
+        series.setPrice(seriesDTO.getPrice());
+        series.setTicketsPerOccurrence(seriesDTO.getTicketsPerOccurrence());
+        series.setImageUrl(seriesDTO.getImageUrl());
+        series.setPricingCurve(EventService.validPricingCurve(seriesDTO.getPricingCurve()));
+        series.setFirstStart(seriesDTO.getFirstStart());
+        series.setTimeZone(zone.getId());
+        series.setRecurrenceRule(seriesDTO.getRecurrenceRule().trim());
+        return toDTO(eventSeriesRepository.save(series));
+    }
+
+    public List<EventSeriesDTO> getActiveSeries() {
+        return eventSeriesRepository.findByActiveTrueOrderByIdAsc().stream().map(EventSeriesService::toDTO).toList();
+    }
+
+    /**
+     * Stops listing and booking further occurrences. Occurrences already booked keep their
+     * event rows and bookings.
+     */
+    @Transactional
+    public void deactivate(Long seriesId) {
+        EventSeries series = findSeries(seriesId);
+        series.setActive(false);
+        eventSeriesRepository.save(series);
+    }
+
+    /**
+     * Up to {@code limit} upcoming occurrences starting in {@code [from, to)}, soonest first.
+     * Booked occurrences show their live availability. The cost depends on the page, not on
+     * how far ahead {@code to} is.
+     */
+    public List<SeriesOccurrenceDTO> getOccurrences(Long seriesId, Instant from, Instant to, int limit) {
+        EventSeries series = findSeries(seriesId);
+        if (!series.isActive()) {
+            return List.of();
+        }
+        Instant now = Instant.now();
+        List<Instant> starts = compile(series.getRecurrenceRule()).occurrences(series.getFirstStart(),
+                zone(series.getTimeZone()), from.isBefore(now) ? now : from, to,
+                Math.max(1, Math.min(limit, MAX_OCCURRENCES_PER_PAGE)));
+        if (starts.isEmpty()) {
+            return List.of();
+        }
+
+        // Only the rows of the occurrences on this page, by the unique (series_id, date_time) index
+        Map<Instant, EventSummaryDTO> booked = new HashMap<>();
+        for (EventSummaryDTO row : eventRepository.findSeriesOccurrences(seriesId, starts.get(0), starts.get(starts.size() - 1))) {
+            booked.put(row.getDateTime(), row);
+        }
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<SeriesOccurrenceDTO> occurrences = new ArrayList<>(starts.size());
+        for (Instant start : starts) {
+            EventSummaryDTO row = booked.get(start);
+            if (row == null) {
+                occurrences.add(new SeriesOccurrenceDTO(seriesId, null, series.getTitle(), start, series.getLocation(),
+                        series.getPrice(), series.getTicketsPerOccurrence(), series.getTicketsPerOccurrence()));
+                continue;
+            }
+            Event live = snapshot.get(row.getId()); // Availability changes with every sale
+            int available = live != null ? live.getAvailableTickets() : row.getAvailableTickets();
+            occurrences.add(new SeriesOccurrenceDTO(seriesId, row.getId(), row.getTitle(), start, row.getLocation(),
+                    row.getPrice(), row.getTotalTickets(), available));
+        }
+        return occurrences;
+    }
+
+    /**
+     * The event row of an occurrence, if it has been booked before.
+     */
+    public Optional<Event> findOccurrence(Long seriesId, Instant startsAt) {
+        return eventRepository.findBySeriesIdAndDateTime(seriesId, startsAt);
+    }
+
+    /**
+     * First booking of an occurrence: creates its event row with a fresh inventory and runs
+     * {@code book} with the new event id, in one transaction. If the booking fails, the row is
+     * rolled back with it. If a concurrent first booking created the row meanwhile, {@code book}
+     * runs again against that row.
+     *
+     * @throws RuntimeException if the series is inactive, has no upcoming occurrence at
+     *                          {@code startsAt}, the occurrence is beyond the booking horizon,
+     *                          or {@code book} fails.
+     */
+    public Booking bookNewOccurrence(Long seriesId, Instant startsAt, Function<Long, Booking> book) {
+        try {
+            return transactionTemplate.execute(status -> {
+                Event created = materialize(seriesId, startsAt);
+                Booking booking = book.apply(created.getId());
+                log.info("Materialised occurrence {} of series {} as event {}", startsAt, seriesId, created.getId());
+                return booking;
+            });
+        } catch (DataIntegrityViolationException e) {
+            // Another booking created the row first (unique series_id, date_time)
+            Event existing = findOccurrence(seriesId, startsAt).orElseThrow(() -> e);
+            return book.apply(existing.getId());
+        }
+    }
+
+    private Event materialize(Long seriesId, Instant startsAt) {
+        EventSeries series = findSeries(seriesId);
+        if (!series.isActive()) {
+            throw new RuntimeException("This event series is no longer available.");
+        }
+        Instant now = Instant.now();
+        if (!startsAt.isAfter(now)
+                || !compile(series.getRecurrenceRule()).occursAt(series.getFirstStart(), zone(series.getTimeZone()), startsAt)) {
+            throw new RuntimeException("This event series has no upcoming occurrence at " + startsAt + ".");
+        }
+        if (startsAt.isAfter(now.plus(bookingHorizon))) {
+            throw new RuntimeException("Occurrences more than " + bookingHorizon.toDays() + " days ahead cannot be booked yet.");
+        }
+        return eventService.createOccurrence(series, startsAt);
+    }
+
+    private EventSeries findSeries(Long seriesId) {
+        return eventSeriesRepository.findById(seriesId)
+                .orElseThrow(() -> new RuntimeException("Event series not found with id: " + seriesId));
+    }
+
+    private static RecurrenceRule compile(String spec) {
+        try {
+            return RecurrenceRule.compile(spec);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid recurrence rule: " + e.getMessage());
+        }
+    }
+
+    private static ZoneId zone(String timeZone) {
+        try {
+            return ZoneId.of(timeZone.trim());
+        } catch (DateTimeException e) {
+            throw new RuntimeException("Invalid time zone: " + timeZone);
+        }
+    }
+
+    private static EventSeriesDTO toDTO(EventSeries series) {
+        EventSeriesDTO dto = new EventSeriesDTO();
+        dto.setId(series.getId());
+        dto.setTitle(series.getTitle());
+        dto.setDescription(series.getDescription());
+        dto.setLocation(series.getLocation());
+        dto.setPrice(series.getPrice());
+        dto.setTicketsPerOccurrence(series.getTicketsPerOccurrence());
+        dto.setImageUrl(series.getImageUrl());
+        dto.setPricingCurve(series.getPricingCurve());
+        dto.setFirstStart(series.getFirstStart());
+        dto.setTimeZone(series.getTimeZone());
+        dto.setRecurrenceRule(series.getRecurrenceRule());
+        dto.setActive(series.isActive());
+        return dto;
+    }
+}
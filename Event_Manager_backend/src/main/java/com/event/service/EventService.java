@@ -1,22 +1,100 @@
 package com.event.service;
 
 import com.event.bean.Event;
+import com.event.bean.EventSeries;
+import com.event.dto.EventCatalogPage;
 import com.event.dto.EventDTO;
+import com.event.dto.EventSummaryDTO;
+import com.event.dto.TicketTierDTO;
+import com.event.events.TicketsReleasedEvent;
+import com.event.events.TicketsReservedEvent;
 import com.event.repository.EventRepository;
+import com.event.util.BoundedTtlCache;
+import com.event.util.PricingCurve;
+import jakarta.annotation.PreDestroy;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionException;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
 import java.time.Instant; // Import Instant
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
+/**
+ * Events and the public catalog. Reads are served from the in-memory {@link CatalogSnapshot}
+ * once it is loaded; until then (and for events this instance has not seen yet) single events
+ * and catalog pages go through bounded TTL caches. Edits update the snapshot and invalidate the
+ * caches once committed, and ticket sales or releases invalidate exactly the cached event and
+ * the cached pages that show it.
+ */
 @Service
 public class EventService {
 
     @Autowired
     private EventRepository eventRepository;
 
+    @Autowired
+    private OptimisticRetryExecutor optimisticRetryExecutor;
+
+    @Autowired
+    private TicketTierService ticketTierService;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    @Autowired
+    private DynamicPricingService dynamicPricingService;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Autowired
+    private UpcomingEventService upcomingEventService;
+
+    public static final int MAX_CATALOG_PAGE_SIZE = 100;
+
+    private final ExecutorService cacheRefresher;
+    private final BoundedTtlCache<Long, Event> eventCache;
+    private final BoundedTtlCache<CatalogQuery, EventCatalogPage> catalogCache;
+
+    public EventService(@Value("${event.cache.max-size:1000}") int cacheMaxSize,
+                        @Value("${event.cache.ttl-ms:30000}") long cacheTtlMillis,
+                        @Value("${event.cache.stale-while-revalidate-ms:10000}") long staleWhileRevalidateMillis) {
+        this.cacheRefresher = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "event-cache-refresher");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Concurrent misses of one key share a single query; expired entries are served while one refresh runs
+        this.eventCache = new BoundedTtlCache<>(cacheMaxSize, cacheTtlMillis, staleWhileRevalidateMillis, cacheRefresher);
+        this.catalogCache = new BoundedTtlCache<>(cacheMaxSize, cacheTtlMillis, staleWhileRevalidateMillis, cacheRefresher);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        cacheRefresher.shutdown();
+    }
+
+    private record CatalogQuery(String location, Double minPrice, Double maxPrice, boolean upcomingOnly,
+                                boolean descending, boolean includeDescription, String cursor, int size) {
+    }
+
     @Transactional
     public Event createEvent(EventDTO eventDTO) {
         Event event = new Event();
@@ -28,45 +106,350 @@ public class EventService {
         event.setTotalTickets(eventDTO.getTotalTickets());
         event.setAvailableTickets(eventDTO.getTotalTickets()); // Initially, available tickets = total tickets
         event.setImageUrl(eventDTO.getImageUrl());
-        return eventRepository.save(event);
+        event.setPricingCurve(validPricingCurve(eventDTO.getPricingCurve()));
+        return saveNew(event, eventDTO.getTiers());
     }
 
+    /**
+     * Creates the event row of one occurrence of a recurring series, with the series' details
+     * and a fresh inventory of its per-occurrence capacity.
+     *
+     * @throws org.springframework.dao.DataIntegrityViolationException if the occurrence already
+     *         has a row (created concurrently).
+     */
+    @Transactional
+    public Event createOccurrence(EventSeries series, Instant startsAt) {
+        Event event = new Event(series.getTitle(), series.getDescription(), startsAt, series.getLocation(),
+                series.getPrice(), series.getTicketsPerOccurrence(), series.getImageUrl());
+        event.setPricingCurve(series.getPricingCurve());
+        event.setSeriesId(series.getId());
+        return saveNew(event, null);
+    }
+
+    private Event saveNew(Event event, List<TicketTierDTO> tiers) {
+        Event saved = eventRepository.save(event);
+
+        if (tiers != null && !tiers.isEmpty()) {
+            int totalTickets = ticketTierService.applyTiers(saved.getId(), tiers);
+            saved.setTotalTickets(totalTickets);
+            saved.setAvailableTickets(totalTickets);
+        }
+        dynamicPricingService.observe(saved);
+        afterCommit(() -> {
+            catalogSnapshotService.upsert(saved);
+            catalogCache.clear();
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status == STATUS_ROLLED_BACK) {
+                        dynamicPricingService.forget(saved.getId()); // The row never existed
+                    }
+                }
+            });
+        }
+        return saved;
+    }
+
+    /**
+     * All events, each with its tiers, their live availability (served from memory) and
+     * current prices. Served from the catalog snapshot without touching the database.
+     */
     public List<Event> getAllEvents() {
-        return eventRepository.findAll();
+        List<Event> events;
+        if (catalogSnapshotService.isLoaded()) {
+            events = catalogSnapshotService.current().all().stream().map(CatalogSnapshot::copyOf).toList();
+        } else {
+            events = eventRepository.findAll();
+            events.forEach(dynamicPricingService::observe); // Fresh rows re-seed the pricing counters for free
+        }
+        try {
+            ticketTierService.preload(events.stream().map(Event::getId).toList());
+        } catch (DataAccessException | TransactionException e) {
+            // Database unreachable: fillLiveState serves the snapshot rows without tiers
+        }
+        events.forEach(this::fillLiveState);
+        return events;
     }
 
+    /**
+     * A single event with its tiers and current price. The row comes from the catalog snapshot
+     * or the cache; tiers and price are always live (from memory), on a copy so shared rows are
+     * never modified.
+     */
     public Optional<Event> getEventById(Long id) {
-        return eventRepository.findById(id);
+        Event cached = catalogSnapshotService.current().get(id);
+        if (cached == null) {
+            cached = loadCached(id);
+        }
+        if (cached == null) {
+            return Optional.empty();
+        }
+        Event event = CatalogSnapshot.copyOf(cached);
+        fillLiveState(event);
+        return Optional.of(event);
     }
 
-    @Transactional
-    public Event updateEvent(Long id, EventDTO eventDTO) {
-        Event existingEvent = eventRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Event not found with ID: " + id));
+    private Event loadCached(Long id) {
+        return eventCache.getOrLoad(id, () -> eventRepository.findById(id)
+                .map(row -> {
+                    dynamicPricingService.observe(row); // Only fresh rows may re-seed the pricing counters
+                    return row;
+                })
+                .orElse(null));
+    }
+
+    /**
+     * Hit, miss and eviction counts of the event and catalog caches, and the catalog
+     * snapshot's version and size.
+     */
+    public Map<String, Object> getCacheStats() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("events", eventCache.stats());
+        stats.put("catalog", catalogCache.stats());
+        stats.put("snapshot", Map.of("loaded", catalogSnapshotService.isLoaded(),
+                "version", snapshot.version(), "size", snapshot.size()));
+        return stats;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReserved(TicketsReservedEvent event) {
+        invalidate(event.eventId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReleased(TicketsReleasedEvent event) {
+        invalidate(event.eventId());
+    }
+
+    /**
+     * One page of the public catalog, sorted by date. Answered from the catalog snapshot's
+     * indexes; before the snapshot is loaded, from a query that reads only the catalog columns
+     * of one page (plus descriptions in a second query when asked for). Either way the cost of a
+     * page does not depend on how many events came before it or how many bookings they have.
+     *
+     * @param cursor     {@code nextCursor} of the previous page, or {@code null} for the first page.
+     * @param descending newest first instead of soonest first.
+     * @throws RuntimeException if the cursor is malformed.
+     */
+    public EventCatalogPage getCatalog(String location, Double minPrice, Double maxPrice, boolean upcomingOnly,
+                                       boolean descending, boolean includeDescription, String cursor, int size) {
+        if (catalogSnapshotService.isLoaded()) {
+            return snapshotCatalog(location, minPrice, maxPrice, upcomingOnly, descending, includeDescription, cursor, size);
+        }
+        CatalogQuery query = new CatalogQuery(location, minPrice, maxPrice, upcomingOnly, descending, includeDescription, cursor, size);
+        return catalogCache.getOrLoad(query, () -> loadCatalog(location, minPrice, maxPrice, upcomingOnly,
+                descending, includeDescription, cursor, size));
+    }
+
+    /**
+     * One page of the upcoming events with {@code from <= dateTime < to}, soonest first.
+     * Answered from the in-memory day buckets of {@link UpcomingEventService}; before the catalog
+     * snapshot is loaded, from an indexed range query. Events that have already started are
+     * left out.
+     *
+     * @param cursor {@code nextCursor} of the previous page, or {@code null} for the first page.
+     * @throws RuntimeException if the range is empty or the cursor is malformed.
+     */
+    public EventCatalogPage getEventsInRange(Instant from, Instant to, String cursor, int size) {
+        if (!from.isBefore(to)) {
+            throw new RuntimeException("The end of the date range must be after its start.");
+        }
+        int pageSize = Math.max(1, Math.min(size, MAX_CATALOG_PAGE_SIZE));
+        CatalogCursor after = CatalogCursor.parse(cursor);
+        Instant afterTime = after != null ? after.time() : null;
+        Long afterId = after != null ? after.id() : null;
+
+        List<EventSummaryDTO> items;
+        if (catalogSnapshotService.isLoaded()) {
+            items = new ArrayList<>();
+            for (Event row : upcomingEventService.range(from, to, afterTime, afterId, pageSize + 1)) {
+                items.add(new EventSummaryDTO(row.getId(), row.getTitle(), row.getDateTime(), row.getLocation(),
+                        row.getPrice(), row.getTotalTickets(), row.getAvailableTickets(), row.getImageUrl(), row.getVersion()));
+            }
+        } else {
+            Instant now = Instant.now();
+            items = eventRepository.findInDateRange(from.isBefore(now) ? now : from, to, afterTime, afterId,
+                    PageRequest.of(0, pageSize + 1)); // One extra row tells whether there is a next page
+        }
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = encodeCursor(items.get(pageSize - 1));
+        }
+        return new EventCatalogPage(List.copyOf(items), nextCursor);
+    }
+
+    private EventCatalogPage loadCatalog(String location, Double minPrice, Double maxPrice, boolean upcomingOnly,
+                                         boolean descending, boolean includeDescription, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CATALOG_PAGE_SIZE));
+        String locationPattern = location == null || location.isBlank() ? null : "%" + location.trim().toLowerCase() + "%";
+        Instant from = upcomingOnly ? Instant.now() : null;
+        CatalogCursor after = CatalogCursor.parse(cursor);
+        Instant afterTime = after != null ? after.time() : null;
+        Long afterId = after != null ? after.id() : null;
+
+        PageRequest page = PageRequest.of(0, pageSize + 1); // One extra row tells whether there is a next page
+        List<EventSummaryDTO> items = descending
+                ? eventRepository.findCatalogDescending(locationPattern, minPrice, maxPrice, from, afterTime, afterId, page)
+                : eventRepository.findCatalogAscending(locationPattern, minPrice, maxPrice, from, afterTime, afterId, page);
+
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            nextCursor = encodeCursor(items.get(pageSize - 1));
+        }
+        if (includeDescription && !items.isEmpty()) {
+            Map<Long, String> descriptions = new HashMap<>();
+            eventRepository.findDescriptionsByIdIn(items.stream().map(EventSummaryDTO::getId).toList())
+                    .forEach(view -> descriptions.put(view.getId(), view.getDescription()));
+            items.forEach(item -> item.setDescription(descriptions.get(item.getId())));
+        }
+        return new EventCatalogPage(List.copyOf(items), nextCursor);
+    }
+
+    private EventCatalogPage snapshotCatalog(String location, Double minPrice, Double maxPrice, boolean upcomingOnly,
+                                             boolean descending, boolean includeDescription, String cursor, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_CATALOG_PAGE_SIZE));
+        CatalogCursor after = CatalogCursor.parse(cursor);
+        List<Event> rows = catalogSnapshotService.current().page(
+                location == null || location.isBlank() ? null : location.trim(), minPrice, maxPrice,
+                upcomingOnly ? Instant.now() : null, descending,
+                after != null ? after.time() : null, after != null ? after.id() : null, pageSize + 1);
+
+        List<EventSummaryDTO> items = new ArrayList<>(Math.min(rows.size(), pageSize));
+        for (int i = 0; i < rows.size() && i < pageSize; i++) {
+            Event row = rows.get(i);
+            EventSummaryDTO item = new EventSummaryDTO(row.getId(), row.getTitle(), row.getDateTime(), row.getLocation(),
+                    row.getPrice(), row.getTotalTickets(), row.getAvailableTickets(), row.getImageUrl(), row.getVersion());
+            if (includeDescription) {
+                item.setDescription(row.getDescription());
+            }
+            items.add(item);
+        }
+        String nextCursor = rows.size() > pageSize ? encodeCursor(items.get(pageSize - 1)) : null;
+        return new EventCatalogPage(List.copyOf(items), nextCursor);
+    }
+
+    private static String encodeCursor(EventSummaryDTO last) {
+        String raw = last.getDateTime().getEpochSecond() + ":" + last.getDateTime().getNano() + ":" + last.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** Position after the last event of a page: its date and id. */
+    private record CatalogCursor(Instant time, Long id) {
+
+        static CatalogCursor parse(String cursor) {
+            if (cursor == null || cursor.isBlank()) {
+                return null;
+            }
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+                if (parts.length != 3) {
+                    throw new IllegalArgumentException();
+                }
+                return new CatalogCursor(Instant.ofEpochSecond(Long.parseLong(parts[0]), Long.parseLong(parts[1])),
+                        Long.valueOf(parts[2]));
+            } catch (IllegalArgumentException | DateTimeException e) {
+                throw new RuntimeException("Invalid catalog cursor.");
+            }
+        }
+    }
+
+    /**
+     * Adds tiers and current prices to a loaded event. If they are not in memory and the
+     * database is unreachable, the event is returned at its base price without tiers rather
+     * than failing the read.
+     */
+    private void fillLiveState(Event event) {
+        try {
+            event.setCurrentPrice(dynamicPricingService.quote(event.getId()));
+            List<TicketTierDTO> tiers = ticketTierService.getTiers(event.getId());
+            tiers.forEach(tier -> tier.setCurrentPrice(dynamicPricingService.quote(event.getId(), tier.getPrice())));
+            event.setTiers(tiers);
+        } catch (DataAccessException | TransactionException e) {
+            event.setCurrentPrice(event.getPrice());
+        }
+    }
 
-        // Calculate ticket difference if totalTickets changed
-        int oldTotalTickets = existingEvent.getTotalTickets();
-        int newTotalTickets = eventDTO.getTotalTickets();
-        int availableTicketsChange = newTotalTickets - oldTotalTickets;
+    private void invalidate(Long eventId) {
+        eventCache.invalidate(eventId);
+        catalogCache.invalidateIf(page -> page.getItems().stream().anyMatch(item -> item.getId().equals(eventId)));
+    }
 
-        // Update fields
-        existingEvent.setTitle(eventDTO.getTitle());
-        existingEvent.setDescription(eventDTO.getDescription());
-        existingEvent.setDateTime(eventDTO.getDateTime()); // Uses Instant
-        existingEvent.setLocation(eventDTO.getLocation());
-        existingEvent.setPrice(eventDTO.getPrice());
-        existingEvent.setTotalTickets(newTotalTickets);
-        existingEvent.setImageUrl(eventDTO.getImageUrl());
+    private static void afterCommit(Runnable callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            callback.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                callback.run();
+            }
+        });
+    }
 
-        // Adjust available tickets based on change in total tickets
-        // Ensure available tickets don't go below zero
-        int newAvailableTickets = existingEvent.getAvailableTickets() + availableTicketsChange;
-        if (newAvailableTickets < 0) {
-            throw new RuntimeException("Cannot reduce total tickets below current booked tickets.");
+    static String validPricingCurve(String spec) {
+        try {
+            return PricingCurve.compile(spec).isFlat() ? null : spec.trim();
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid pricing curve: " + e.getMessage());
         }
-        existingEvent.setAvailableTickets(newAvailableTickets);
+    }
+
+    /**
+     * Updates an event in its own transaction. Bookings change available tickets concurrently,
+     * so a stale read fails the {@code @Version} check and the whole update is retried.
+     */
+    public Event updateEvent(Long id, EventDTO eventDTO) {
+        Event updated = optimisticRetryExecutor.execute(() -> {
+            Event existingEvent = eventRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Event not found with ID: " + id));
+
+            // Calculate ticket difference if totalTickets changed
+            int oldTotalTickets = existingEvent.getTotalTickets();
+            int newTotalTickets = eventDTO.getTotalTickets();
+            int availableTicketsChange = newTotalTickets - oldTotalTickets;
+
+            // Update fields
+            existingEvent.setTitle(eventDTO.getTitle());
+            existingEvent.setDescription(eventDTO.getDescription());
+            existingEvent.setDateTime(eventDTO.getDateTime()); // Uses Instant
+            existingEvent.setLocation(eventDTO.getLocation());
+            existingEvent.setPrice(eventDTO.getPrice());
+            existingEvent.setTotalTickets(newTotalTickets);
+            existingEvent.setImageUrl(eventDTO.getImageUrl());
+            existingEvent.setPricingCurve(validPricingCurve(eventDTO.getPricingCurve()));
+
+            // Tiered events: tiers are the inventory, the event's total is their capacity
+            if (eventDTO.getTiers() != null) {
+                int tierCapacity = ticketTierService.applyTiers(id, eventDTO.getTiers());
+                if (!eventDTO.getTiers().isEmpty()) {
+                    newTotalTickets = tierCapacity;
+                    availableTicketsChange = newTotalTickets - oldTotalTickets;
+                    existingEvent.setTotalTickets(newTotalTickets);
+                }
+            }
+
+            // Adjust available tickets based on change in total tickets
+            // Ensure available tickets don't go below zero
+            int newAvailableTickets = existingEvent.getAvailableTickets() + availableTicketsChange;
+            if (newAvailableTickets < 0) {
+                throw new RuntimeException("Cannot reduce total tickets below current booked tickets.");
+            }
+            existingEvent.setAvailableTickets(newAvailableTickets);
 
-        return eventRepository.save(existingEvent);
+            return eventRepository.saveAndFlush(existingEvent); // Flush so a version conflict surfaces inside the retry
+        });
+        dynamicPricingService.observe(updated);
+        catalogSnapshotService.upsert(updated);
+        eventCache.invalidate(id);
+        catalogCache.clear(); // Date, location or price may have moved the event to other pages
+        return updated;
     }
 
     @Transactional
@@ -74,6 +457,15 @@ public class EventService {
         if (!eventRepository.existsById(id)) {
             throw new RuntimeException("Event not found with ID: " + id);
         }
+        // Tiers and seat sections refer to the event by id only, so they go in the same transaction
+        ticketTierService.deleteTiers(id);
+        seatMapService.deleteSeatMap(id);
         eventRepository.deleteById(id);
+        dynamicPricingService.forget(id);
+        afterCommit(() -> {
+            catalogSnapshotService.remove(id);
+            eventCache.invalidate(id);
+            catalogCache.clear();
+        });
     }
 }
@@ -0,0 +1,133 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import com.event.dto.SuggestionDTO;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Typeahead over upcoming event titles and locations, served from a {@link SuggestionTrie}
+ * built from the catalog snapshot. Typing the start of any word matches ("jazz" finds
+ * "Summer Jazz Night"). Suggestions rank by tickets sold, then by how soon the event is;
+ * a location ranks by the tickets sold across its upcoming events.
+ *
+ * The trie is rebuilt in the background when event texts or dates change, and every
+ * {@code event.suggest.popularity-refresh-ms} to pick up sales and drop past events.
+ */
+@Service
+public class EventSuggestionService {
+
+    public static final int MAX_SUGGESTIONS = 10;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private final long popularityRefreshMillis;
+
+    private volatile Built trie;
+
+    public EventSuggestionService(@Value("${event.suggest.popularity-refresh-ms:60000}") long popularityRefreshMillis) {
+        this.popularityRefreshMillis = popularityRefreshMillis;
+    }
+
+    /**
+     * The best suggestions for what has been typed so far, best first.
+     *
+     * @param limit at most {@link #MAX_SUGGESTIONS}.
+     */
+    public List<SuggestionDTO> suggest(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        SuggestionDTO[] best = currentTrie().lookup(prefix);
+        return Arrays.asList(best).subList(0, Math.min(best.length, Math.max(1, Math.min(limit, MAX_SUGGESTIONS))));
+    }
+
+    /**
+     * Rebuilds the trie when the catalog's content changed, or when rankings are due a refresh.
+     */
+    @Scheduled(fixedDelayString = "${event.suggest.refresh-interval-ms:1000}")
+    public void refreshTrie() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Built current = trie;
+        if (current == null || current.contentVersion() != snapshot.contentVersion()
+                || (current.version() != snapshot.version() && System.currentTimeMillis() - current.builtAt() >= popularityRefreshMillis)) {
+            rebuild(snapshot);
+        }
+    }
+
+    private SuggestionTrie currentTrie() {
+        Built current = trie;
+        return (current != null ? current : rebuild(catalogSnapshotService.current())).trie();
+    }
+
+    private synchronized Built rebuild(CatalogSnapshot snapshot) {
+        Built current = trie;
+        if (current == null || current.version() < snapshot.version()) {
+            current = new Built(snapshot.version(), snapshot.contentVersion(), System.currentTimeMillis(), build(snapshot.all()));
+            trie = current;
+        }
+        return current;
+    }
+
+    static SuggestionTrie build(List<Event> events) {
+        Instant now = Instant.now();
+        SuggestionTrie.Builder builder = new SuggestionTrie.Builder(MAX_SUGGESTIONS);
+        Map<String, LocationStats> locations = new LinkedHashMap<>();
+        for (Event event : events) { // In date order
+            if (event.getDateTime() == null || event.getTitle() == null || !event.getDateTime().isAfter(now)) {
+                continue;
+            }
+            int sold = Math.max(0, event.getTotalTickets() - event.getAvailableTickets());
+            double soon = 1.0 / (1 + Duration.between(now, event.getDateTime()).toDays()); // Below 1: only breaks ties
+            builder.add(new SuggestionDTO(event.getTitle(), "event", event.getId()), sold + soon, wordStarts(event.getTitle()));
+            if (event.getLocation() != null && !event.getLocation().isBlank()) {
+                LocationStats stats = locations.computeIfAbsent(event.getLocation().trim().toLowerCase(Locale.ROOT),
+                        key -> new LocationStats(event.getLocation().trim(), soon));
+                stats.sold += sold;
+            }
+        }
+        for (LocationStats stats : locations.values()) {
+            builder.add(new SuggestionDTO(stats.text, "location", null), stats.sold + stats.soonest, wordStarts(stats.text));
+        }
+        return builder.build();
+    }
+
+    /** The text from the start of each of its words: "Summer Jazz Night", "Jazz Night", "Night". */
+    private static List<String> wordStarts(String text) {
+        String normalized = SuggestionTrie.normalize(text);
+        List<String> keys = new ArrayList<>();
+        for (int start = 0; start < normalized.length(); start = normalized.indexOf(' ', start) + 1) {
+            keys.add(normalized.substring(start));
+            if (normalized.indexOf(' ', start) < 0) {
+                break;
+            }
+        }
+        return keys;
+    }
+
+    private static final class LocationStats {
+        final String text;
+        final double soonest; // Of its next event: events are visited in date order
+        long sold;
+
+        LocationStats(String text, double soonest) {
+            this.text = text;
+            this.soonest = soonest;
+        }
+    }
+
+    private record Built(long version, long contentVersion, long builtAt, SuggestionTrie trie) {
+    }
+}
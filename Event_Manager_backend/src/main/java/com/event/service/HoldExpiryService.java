@@ -0,0 +1,197 @@
+package com.event.service;
+
+import com.event.bean.Booking;
+import com.event.events.BookingStatusChangedEvent;
+import com.event.repository.BookingRepository;
+import com.event.util.HashedTimingWheel;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expires abandoned PENDING_PAYMENT holds and gives their tickets back.
+ *
+ * Every hold is tracked in a {@link HashedTimingWheel}, so scheduling and cancelling a hold is
+ * O(1) and nothing polls the database per hold. Holds that expire in the same tick are
+ * expired together: one locking read, one status UPDATE, and one ticket release per event.
+ * Outstanding holds are re-armed from the bookings table on startup.
+ */
+@Service
+public class HoldExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(HoldExpiryService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private TicketInventory ticketInventory;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    @Autowired
+    private TicketTierService ticketTierService;
+
+    @Autowired
+    private PromoCodeService promoCodeService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+    private final HashedTimingWheel<Long> wheel;
+    private final ScheduledExecutorService ticker;
+    private final ConcurrentLinkedQueue<Long> expiredQueue = new ConcurrentLinkedQueue<>();
+    private final long holdTtlMillis;
+    private final long tickMillis;
+    private final int batchSize;
+
+    public HoldExpiryService(PlatformTransactionManager transactionManager,
+                             @Value("${booking.hold.ttl-seconds:600}") long holdTtlSeconds,
+                             @Value("${booking.hold.tick-ms:250}") long tickMillis,
+                             @Value("${booking.hold.wheel-size:512}") int wheelSize,
+                             @Value("${booking.hold.batch-size:500}") int batchSize) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.holdTtlMillis = holdTtlSeconds * 1000;
+        this.batchSize = Math.max(1, batchSize);
+        this.wheel = new HashedTimingWheel<>(tickMillis, wheelSize, System.currentTimeMillis());
+        this.tickMillis = tickMillis;
+        this.ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "hold-expiry-wheel");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker.scheduleAtFixedRate(this::tick, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public long getHoldTtlMillis() {
+        return holdTtlMillis;
+    }
+
+    /**
+     * Starts the hold timer of a new PENDING_PAYMENT booking.
+     */
+    public void scheduleHold(Long bookingId, LocalDateTime bookingDateTime) {
+        wheel.schedule(bookingId, toEpochMillis(bookingDateTime) + holdTtlMillis);
+    }
+
+    /**
+     * Stops the hold timer once the booking is confirmed, failed or cancelled.
+     */
+    public void cancelHold(Long bookingId) {
+        wheel.cancel(bookingId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverHolds() {
+        List<BookingRepository.HoldView> holds = bookingRepository.findByStatus("PENDING_PAYMENT");
+        holds.forEach(hold -> scheduleHold(hold.getId(), hold.getBookingDateTime()));
+        if (!holds.isEmpty()) {
+            logger.info("Re-armed {} outstanding PENDING_PAYMENT holds", holds.size());
+        }
+    }
+
+    /**
+     * Safety net for holds created on another instance that has since died: one query for
+     * all overdue holds, not a poll per hold.
+     */
+    @Scheduled(fixedDelayString = "${booking.hold.sweep-interval-ms:300000}")
+    public void sweepOverdueHolds() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(holdTtlMillis * 1_000_000);
+        expiredQueue.addAll(bookingRepository.findPendingIdsCreatedBefore(cutoff));
+    }
+
+    private void tick() {
+        try {
+            expiredQueue.addAll(wheel.advanceTo(System.currentTimeMillis()));
+            List<Long> batch = new ArrayList<>(batchSize);
+            Long id;
+            while ((id = expiredQueue.poll()) != null) {
+                batch.add(id);
+                if (batch.size() == batchSize) {
+                    expire(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            }
+            if (!batch.isEmpty()) {
+                expire(batch);
+            }
+        } catch (RuntimeException e) {
+            // Keep the ticker alive; the sweep picks up anything that was dropped here
+            logger.error("Failed to expire PENDING_PAYMENT holds", e);
+        }
+    }
+
+    private void expire(List<Long> bookingIds) {
+        Integer expired = transactionTemplate.execute(status -> {
+            List<Booking> holds = bookingRepository.findPendingByIdInForUpdate(bookingIds);
+            if (holds.isEmpty()) {
+                return 0; // Confirmed, failed or cancelled in the meantime
+            }
+
+            Map<Long, Integer> ticketsByEvent = new LinkedHashMap<>();
+            Map<Long, Integer> ticketsByTier = new LinkedHashMap<>();
+            Map<Long, String> seatsByEvent = new TreeMap<>(); // Seat sections are locked in event order
+            List<Long> ids = new ArrayList<>(holds.size());
+            for (Booking hold : holds) {
+                ids.add(hold.getId());
+                if (hold.getTierId() != null) {
+                    ticketsByTier.merge(hold.getTierId(), hold.getNumberOfTickets(), Integer::sum);
+                } else {
+                    ticketsByEvent.merge(hold.getEvent().getId(), hold.getNumberOfTickets(), Integer::sum);
+                }
+                promoCodeService.release(hold.getPromoCode(), hold.getUserEmail());
+                if (hold.getSeats() != null) {
+                    seatsByEvent.merge(hold.getEvent().getId(), hold.getSeats(), (a, b) -> a + ";" + b);
+                }
+            }
+
+            bookingRepository.updatePendingStatus(ids, "EXPIRED");
+            ticketsByEvent.forEach(ticketInventory::release);
+            ticketsByTier.forEach(ticketTierService::release);
+            seatsByEvent.forEach(seatMapService::release);
+            holds.forEach(hold -> eventPublisher.publishEvent(
+                    BookingStatusChangedEvent.of(hold, "PENDING_PAYMENT", "EXPIRED")));
+            return ids.size();
+        });
+        if (expired != null && expired > 0) {
+            logger.info("Expired {} abandoned PENDING_PAYMENT holds", expired);
+        }
+    }
+
+    private static long toEpochMillis(LocalDateTime dateTime) {
+        return dateTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        ticker.shutdownNow();
+    }
+}
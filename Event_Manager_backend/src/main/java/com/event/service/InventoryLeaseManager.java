@@ -0,0 +1,356 @@
+package com.event.service;
+
+import com.event.bean.TicketLease;
+import com.event.repository.BookingRepository;
+import com.event.repository.EventRepository;
+import com.event.repository.TicketLeaseRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.net.InetAddress;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hi-lo style ticket leasing for multi-instance deployments.
+ *
+ * Each node moves a block of tickets from the event row into a {@link TicketLease} and sells
+ * from it with a lock-free in-memory counter, so bookings on different nodes no longer
+ * contend on the same {@code events} row. Leases are renewed while the node is alive and
+ * handed back on shutdown, on expiry (settled by any surviving node) or when the event's
+ * shared inventory runs low, so stranded tickets return to the pool.
+ *
+ * Sales from a lease are announced like any other sale, so the event row alone undercounts
+ * what is still for sale: counters seeded from a row add {@link #unsold} back. Blocks leased
+ * by other nodes count as taken here, since their sales are not seen by this node either.
+ */
+@Service
+public class InventoryLeaseManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryLeaseManager.class);
+
+    @Autowired
+    private TicketLeaseRepository ticketLeaseRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final TransactionTemplate newTransaction;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int blockSize;
+    private final int lowWatermark;
+    private final long ttlMillis;
+    private final long safetyMarginMillis;
+    private final long reclaimGraceMillis;
+
+    private final Map<Long, LocalLease> leases = new ConcurrentHashMap<>();
+    private final Map<Long, Object> leaseLocks = new ConcurrentHashMap<>();
+
+    public InventoryLeaseManager(PlatformTransactionManager transactionManager,
+                                 @Value("${inventory.lease.enabled:false}") boolean enabled,
+                                 @Value("${inventory.lease.node-id:}") String nodeId,
+                                 @Value("${inventory.lease.block-size:50}") int blockSize,
+                                 @Value("${inventory.lease.low-watermark:0}") int lowWatermark,
+                                 @Value("${inventory.lease.ttl-ms:60000}") long ttlMillis,
+                                 @Value("${inventory.lease.reclaim-grace-ms:10000}") long reclaimGraceMillis) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.nodeId = nodeId == null || nodeId.isBlank() ? defaultNodeId() : nodeId;
+        this.blockSize = Math.max(1, blockSize);
+        this.lowWatermark = lowWatermark > 0 ? lowWatermark : this.blockSize;
+        this.ttlMillis = ttlMillis;
+        // Stop selling from a lease a little before it expires, so an expired lease is never settled
+        // by another node while this one is still selling from it
+        this.safetyMarginMillis = Math.min(5000, ttlMillis / 4);
+        this.reclaimGraceMillis = reclaimGraceMillis;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * Takes tickets from this node's lease for the event, leasing a fresh block if needed.
+     *
+     * @return the id of the lease the tickets came from, or {@code null} if leasing is off or
+     *         the event's shared inventory is too low to lease from (caller should then use the
+     *         shared counter directly).
+     */
+    public Long tryAcquire(Long eventId, int quantity) {
+        if (!enabled || quantity > blockSize) {
+            return null;
+        }
+
+        LocalLease lease = leases.get(eventId);
+        if (lease != null && lease.tryTake(quantity)) {
+            return lease.leaseId; // Fast path: no DB access at all
+        }
+
+        synchronized (leaseLocks.computeIfAbsent(eventId, id -> new Object())) {
+            lease = leases.get(eventId);
+            if (lease != null && lease.tryTake(quantity)) {
+                return lease.leaseId;
+            }
+            LocalLease fresh = swapLease(eventId, lease);
+            if (fresh != null && fresh.tryTake(quantity)) {
+                return fresh.leaseId;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * Puts tickets back into the in-memory counter of a lease, e.g. when the transaction that
+     * took them rolled back. Returns {@code false} if the lease has been closed in the meantime.
+     */
+    public boolean giveBack(Long leaseId, Long eventId, int quantity) {
+        LocalLease lease = leases.get(eventId);
+        return lease != null && lease.leaseId.equals(leaseId) && lease.give(quantity);
+    }
+
+    /**
+     * Returns the id of this node's open lease for the event, or {@code null}.
+     */
+    public Long activeLeaseId(Long eventId) {
+        LocalLease lease = leases.get(eventId);
+        return lease != null && lease.isOpen() ? lease.leaseId : null;
+    }
+
+    /**
+     * Records tickets handed back into this node's active lease. Must run inside the caller's
+     * transaction; the in-memory counter is credited with {@link #giveBack} after commit.
+     */
+    public boolean recordReturn(Long leaseId, int quantity) {
+        return ticketLeaseRepository.addQuantity(leaseId, nodeId, quantity) == 1;
+    }
+
+    /**
+     * Tickets of this node's lease for the event that are not sold yet: already taken off the
+     * event row, but still for sale.
+     */
+    public int unsold(Long eventId) {
+        LocalLease lease = leases.get(eventId);
+        return lease != null ? Math.max(0, lease.remaining.get()) : 0;
+    }
+
+    /** {@link #unsold} of every event this node currently holds a lease for. */
+    public Map<Long, Integer> unsoldByEvent() {
+        Map<Long, Integer> unsold = new HashMap<>();
+        leases.forEach((eventId, lease) -> {
+            int remaining = lease.remaining.get();
+            if (remaining > 0) {
+                unsold.put(eventId, remaining);
+            }
+        });
+        return unsold;
+    }
+
+    /** Replaces an exhausted lease with a fresh block, or drops leasing for the event if inventory is low. */
+    private LocalLease swapLease(Long eventId, LocalLease exhausted) {
+        LocalLease fresh = newTransaction.execute(status -> {
+            if (exhausted != null) {
+                settleOwnLease(exhausted);
+            }
+
+            Integer available = eventRepository.findAvailableTickets(eventId).orElse(null);
+            if (available == null || available < lowWatermark) {
+                return null;
+            }
+            int quantity = Math.min(blockSize, available);
+            if (eventRepository.reserveTickets(eventId, quantity) == 0) {
+                return null;
+            }
+            Instant now = Instant.now();
+            Instant expiresAt = now.plusMillis(ttlMillis);
+            TicketLease saved = ticketLeaseRepository.save(new TicketLease(eventId, nodeId, quantity, now, expiresAt));
+            return new LocalLease(saved.getId(), quantity, expiresAt.toEpochMilli() - safetyMarginMillis);
+        });
+
+        if (fresh != null) {
+            leases.put(eventId, fresh);
+            logger.debug("Node {} leased {} tickets for event {} (lease {})", nodeId, fresh.remaining.get(), eventId, fresh.leaseId);
+        } else {
+            leases.remove(eventId);
+        }
+        return fresh;
+    }
+
+    /** Closes a lease held by this node and hands its unsold tickets back to the event. Runs inside a transaction. */
+    private void settleOwnLease(LocalLease lease) {
+        int remaining = lease.close();
+        if (remaining < 0) {
+            return; // Already closed
+        }
+        TicketLease row = ticketLeaseRepository.findById(lease.leaseId).orElse(null);
+        if (row != null && ticketLeaseRepository.close(lease.leaseId, "RETURNED", remaining) == 1 && remaining > 0) {
+            eventRepository.releaseTickets(row.getEventId(), remaining);
+        }
+    }
+
+    /** Settles a lease whose node stopped renewing it, using the bookings recorded against it. */
+    private void reclaim(TicketLease lease) {
+        newTransaction.executeWithoutResult(status -> {
+            long sold = bookingRepository.sumTicketsByLeaseId(lease.getId());
+            int unsold = (int) Math.max(0, lease.getQuantity() - sold);
+            if (ticketLeaseRepository.close(lease.getId(), "RECLAIMED", unsold) == 1 && unsold > 0) {
+                eventRepository.releaseTickets(lease.getEventId(), unsold);
+            }
+        });
+        logger.info("Reclaimed expired ticket lease {} of node {} for event {}", lease.getId(), lease.getNodeId(), lease.getEventId());
+    }
+
+    /** Leases left ACTIVE by a previous run of this node (same configured node id) are settled right away. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void reclaimOwnLeasesOnStartup() {
+        if (!enabled) {
+            return;
+        }
+        ticketLeaseRepository.findByNodeIdAndStatus(nodeId, "ACTIVE").forEach(this::reclaim);
+    }
+
+    /**
+     * Renews this node's leases, and returns them when the event's shared inventory runs low so
+     * that other nodes are not told "sold out" while tickets sit unsold here.
+     */
+    @Scheduled(fixedDelayString = "${inventory.lease.renew-interval-ms:15000}")
+    public void renewLeases() {
+        if (!enabled) {
+            return;
+        }
+        leases.forEach((eventId, lease) -> {
+            synchronized (leaseLocks.computeIfAbsent(eventId, id -> new Object())) {
+                if (leases.get(eventId) != lease) {
+                    return;
+                }
+                try {
+                    Integer shared = eventRepository.findAvailableTickets(eventId).orElse(null);
+                    if (shared == null || shared < lowWatermark) {
+                        newTransaction.executeWithoutResult(status -> settleOwnLease(lease));
+                        leases.remove(eventId);
+                        return;
+                    }
+                    Instant expiresAt = Instant.now().plusMillis(ttlMillis);
+                    Integer renewed = newTransaction.execute(status -> ticketLeaseRepository.renew(lease.leaseId, nodeId, expiresAt));
+                    if (renewed != null && renewed == 1) {
+                        lease.deadlineMillis = expiresAt.toEpochMilli() - safetyMarginMillis;
+                    } else {
+                        // Another node settled it (we missed renewals); its bookings were already accounted for
+                        lease.close();
+                        leases.remove(eventId);
+                    }
+                } catch (RuntimeException e) {
+                    logger.warn("Could not renew ticket lease {} for event {}: {}", lease.leaseId, eventId, e.getMessage());
+                }
+            }
+        });
+    }
+
+    /** Settles leases of nodes that crashed or lost connectivity. Safe to run on every node. */
+    @Scheduled(fixedDelayString = "${inventory.lease.reclaim-interval-ms:30000}")
+    public void reclaimExpiredLeases() {
+        if (!enabled) {
+            return;
+        }
+        Instant cutoff = Instant.now().minusMillis(reclaimGraceMillis);
+        for (TicketLease lease : ticketLeaseRepository.findByStatusAndExpiresAtBefore("ACTIVE", cutoff)) {
+            try {
+                reclaim(lease);
+            } catch (RuntimeException e) {
+                logger.warn("Could not reclaim ticket lease {}: {}", lease.getId(), e.getMessage());
+            }
+        }
+    }
+
+    @PreDestroy
+    public void returnLeases() {
+        leases.forEach((eventId, lease) -> {
+            try {
+                newTransaction.executeWithoutResult(status -> settleOwnLease(lease));
+            } catch (RuntimeException e) {
+                logger.warn("Could not return ticket lease {} on shutdown, it will be reclaimed on expiry: {}", lease.leaseId, e.getMessage());
+            }
+        });
+        leases.clear();
+    }
+
+    private static String defaultNodeId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        return host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    /** In-memory view of one lease. {@code remaining} is -1 once the lease is closed. */
+    private static final class LocalLease {
+        final Long leaseId;
+        final AtomicInteger remaining;
+        volatile long deadlineMillis;
+
+        LocalLease(Long leaseId, int quantity, long deadlineMillis) {
+            this.leaseId = leaseId;
+            this.remaining = new AtomicInteger(quantity);
+            this.deadlineMillis = deadlineMillis;
+        }
+
+        boolean isOpen() {
+            return remaining.get() >= 0 && System.currentTimeMillis() < deadlineMillis;
+        }
+
+        boolean tryTake(int quantity) {
+            if (System.currentTimeMillis() >= deadlineMillis) {
+                return false;
+            }
+            while (true) {
+                int current = remaining.get();
+                if (current < quantity) { // Also covers a closed lease (-1)
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current - quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        boolean give(int quantity) {
+            while (true) {
+                int current = remaining.get();
+                if (current < 0) {
+                    return false;
+                }
+                if (remaining.compareAndSet(current, current + quantity)) {
+                    return true;
+                }
+            }
+        }
+
+        int close() {
+            return remaining.getAndSet(-1);
+        }
+    }
+}
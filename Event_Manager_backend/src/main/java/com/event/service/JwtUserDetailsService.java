@@ -3,12 +3,14 @@ package com.event.service;
 import com.event.bean.User; // Import your User entity
 import com.event.bean.Role; // IMPORTANT: Assuming you have a Role class/enum
 import com.event.repository.UserRepository;
+import com.event.util.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.Optional;
 import java.util.stream.Collectors;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 
@@ -18,9 +20,24 @@ public class JwtUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    // Every authenticated request looks its user up: concurrent requests of one user share the query
+    private final SingleFlight<String, Optional<User>> userLookups = new SingleFlight<>();
+
+    /**
+     * Finds a user by username. Concurrent lookups of the same username are coalesced into
+     * one query; the (eagerly loaded) user is then shared by those callers and must not be modified.
+     */
+    public Optional<User> findUser(String username) {
+        return userLookups.load(username, () -> userRepository.findByUsername(username));
+    }
+
+    public SingleFlight.Stats lookupStats() {
+        return userLookups.stats();
+    }
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        User userEntity = userRepository.findByUsername(username)
+        User userEntity = findUser(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found with username: " + username));
 
         return new org.springframework.security.core.userdetails.User(
@@ -0,0 +1,71 @@
+package com.event.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Runs a unit of work in its own transaction and retries it a bounded number of times
+ * when a {@code @Version} check fails. Each attempt re-reads the entities, so the
+ * work must be safe to repeat (it is re-executed from scratch on conflict).
+ */
+@Component
+public class OptimisticRetryExecutor {
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxAttempts;
+    private final long backoffMillis;
+
+    public OptimisticRetryExecutor(PlatformTransactionManager transactionManager,
+                                   @Value("${booking.optimistic-retry.max-attempts:5}") int maxAttempts,
+                                   @Value("${booking.optimistic-retry.backoff-ms:10}") long backoffMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.backoffMillis = Math.max(0, backoffMillis);
+    }
+
+    public <T> T execute(Supplier<T> work) {
+        // Inside a caller's transaction a retry would reuse the stale persistence context,
+        // so just join it and let the caller's transaction handle the failure.
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return work.get();
+        }
+
+        OptimisticLockingFailureException lastFailure = null;
+        for (int attempt = 1; attempt <= maxAttempts; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                lastFailure = e;
+                backoff(attempt);
+            }
+        }
+        throw new RuntimeException("Concurrent update conflict, please try again.", lastFailure);
+    }
+
+    public void run(Runnable work) {
+        execute(() -> {
+            work.run();
+            return null;
+        });
+    }
+
+    private void backoff(int attempt) {
+        if (backoffMillis == 0) {
+            return;
+        }
+        // Randomised, linearly growing pause so colliding writers don't retry in lockstep
+        long pause = backoffMillis * attempt + ThreadLocalRandom.current().nextLong(backoffMillis + 1);
+        try {
+            Thread.sleep(pause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
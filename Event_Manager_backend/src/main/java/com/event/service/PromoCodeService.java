@@ -0,0 +1,409 @@
+package com.event.service;
+
+import com.event.bean.PromoCode;
+import com.event.dto.PromoCodeDTO;
+import com.event.repository.BookingRepository;
+import com.event.repository.PromoCodeRepository;
+import com.event.util.StripedQuota;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Promo codes. Every code is validated and redeemed against an in-memory index, without a
+ * database query per attempt. Max-uses limits are enforced with a {@link StripedQuota}, so a
+ * launch where thousands of buyers redeem the same code at once does not serialise on one
+ * counter. Committed redemptions are folded into {@code promo_codes.used_count} in batches.
+ *
+ * With several instances each one enforces the limits on its own view of the remaining
+ * uses. The batch job also refreshes every code from its row: codes created on another
+ * instance become redeemable here, and deactivation, validity and max-uses changes take
+ * effect, within one flush interval. The remaining uses are rebased on the other instances'
+ * redemptions at the same time, so a code can overshoot its max uses by at most what is
+ * redeemed within one flush interval.
+ */
+@Service
+public class PromoCodeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(PromoCodeService.class);
+
+    @Autowired
+    private PromoCodeRepository promoCodeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, CodeState> codes = new ConcurrentHashMap<>();
+    private final int stripes;
+
+    public PromoCodeService(PlatformTransactionManager transactionManager,
+                            @Value("${promo.counter-stripes:16}") int stripes) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.stripes = stripes;
+    }
+
+    /** A redemption taken by a booking: the normalised code and the discount it gave. */
+    public record Redemption(String code, double discount) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadCodes() {
+        List<PromoCode> all = promoCodeRepository.findAll();
+        all.forEach(code -> codes.put(code.getCode(), new CodeState(code, stripes)));
+        loadPerUserUsage(bookingRepository.countActivePromoUsage());
+        if (!all.isEmpty()) {
+            logger.info("Loaded {} promo codes", all.size());
+        }
+    }
+
+    /**
+     * Creates a promo code.
+     *
+     * @throws RuntimeException if the code already exists or the discount is invalid.
+     */
+    public PromoCodeDTO create(PromoCodeDTO dto) {
+        String code = normalize(dto.getCode());
+        String type = dto.getDiscountType() == null ? "" : dto.getDiscountType().toUpperCase(Locale.ROOT);
+        if (!"PERCENT".equals(type) && !"FIXED".equals(type)) {
+            throw new RuntimeException("Discount type must be PERCENT or FIXED.");
+        }
+        if ("PERCENT".equals(type) && dto.getDiscountValue() > 100) {
+            throw new RuntimeException("A percentage discount cannot exceed 100.");
+        }
+        if (codes.containsKey(code) || promoCodeRepository.existsByCode(code)) {
+            throw new RuntimeException("Promo code " + code + " already exists.");
+        }
+
+        PromoCode promoCode = new PromoCode();
+        promoCode.setCode(code);
+        promoCode.setDiscountType(type);
+        promoCode.setDiscountValue(dto.getDiscountValue());
+        promoCode.setEventId(dto.getEventId());
+        promoCode.setMaxUses(dto.getMaxUses());
+        promoCode.setPerUserLimit(dto.getPerUserLimit());
+        promoCode.setValidFrom(dto.getValidFrom());
+        promoCode.setValidUntil(dto.getValidUntil());
+        promoCode.setActive(true);
+        PromoCode saved = promoCodeRepository.save(promoCode);
+
+        // The flush job may have picked the new row up already
+        CodeState state = codes.computeIfAbsent(code, key -> new CodeState(saved, stripes));
+        return state.toDTO();
+    }
+
+    public List<PromoCodeDTO> getAll() {
+        List<PromoCodeDTO> result = new ArrayList<>(codes.size());
+        codes.values().forEach(state -> result.add(state.toDTO()));
+        return result;
+    }
+
+    /**
+     * Stops a code from being redeemed; bookings that already used it keep their discount.
+     */
+    public void deactivate(String code) {
+        CodeState state = codes.get(normalize(code));
+        if (state == null) {
+            throw new RuntimeException("Promo code not found: " + code);
+        }
+        PromoCode promoCode = promoCodeRepository.findById(state.id)
+                .orElseThrow(() -> new RuntimeException("Promo code not found: " + code));
+        promoCode.setActive(false);
+        promoCodeRepository.save(promoCode);
+        state.active = false;
+    }
+
+    /**
+     * Discount a code would give right now, without redeeming it.
+     *
+     * @throws RuntimeException if the code cannot be used for this event and customer.
+     */
+    public double previewDiscount(String code, Long eventId, String userEmail, double baseAmount) {
+        CodeState state = lookup(code);
+        checkApplicable(state, eventId);
+        AtomicInteger uses = state.perUser.get(emailKey(userEmail));
+        if (state.perUserLimit != null && uses != null && uses.get() >= state.perUserLimit) {
+            throw new RuntimeException("You have already used this promo code.");
+        }
+        StripedQuota quota = state.quota;
+        if (quota != null && quota.remaining() <= 0) {
+            throw new RuntimeException("This promo code has been fully redeemed.");
+        }
+        return state.discountFor(baseAmount);
+    }
+
+    /**
+     * Redeems a code for a new booking. Must be called inside the booking's transaction:
+     * the use is given back if the booking is rolled back.
+     *
+     * @throws RuntimeException if the code is unknown, inactive, not valid for this event,
+     *                          used up, or already used by this customer as often as allowed.
+     */
+    public Redemption redeem(String code, Long eventId, String userEmail, double baseAmount) {
+        CodeState state = lookup(code);
+        checkApplicable(state, eventId);
+
+        AtomicInteger uses = state.perUser.computeIfAbsent(emailKey(userEmail), email -> new AtomicInteger());
+        if (state.perUserLimit != null) {
+            int current;
+            do {
+                current = uses.get();
+                if (current >= state.perUserLimit) {
+                    throw new RuntimeException("You have already used this promo code.");
+                }
+            } while (!uses.compareAndSet(current, current + 1));
+        } else {
+            uses.incrementAndGet();
+        }
+        StripedQuota quota = state.quota;
+        if (quota != null && !quota.tryAcquire()) {
+            uses.decrementAndGet();
+            throw new RuntimeException("This promo code has been fully redeemed.");
+        }
+
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                state.unflushed.incrementAndGet();
+            } else {
+                giveBack(state, uses);
+            }
+        });
+        return new Redemption(state.code, state.discountFor(baseAmount));
+    }
+
+    /**
+     * Takes a use again for a booking whose hold lapsed before payment arrived. Limits are not
+     * checked: the customer already paid the discounted price.
+     */
+    public void reclaim(String code, String userEmail) {
+        CodeState state = codes.get(code);
+        if (state == null) {
+            return;
+        }
+        AtomicInteger uses = state.perUser.computeIfAbsent(emailKey(userEmail), email -> new AtomicInteger());
+        uses.incrementAndGet();
+        StripedQuota quota = state.quota;
+        if (quota != null) {
+            quota.adjust(-1);
+        }
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                state.unflushed.incrementAndGet();
+            } else {
+                giveBack(state, uses);
+            }
+        });
+    }
+
+    /**
+     * Gives the use of a failed, cancelled or expired booking back, once its transaction commits.
+     */
+    public void release(String code, String userEmail) {
+        if (code == null) {
+            return;
+        }
+        CodeState state = codes.get(code);
+        if (state == null) {
+            return;
+        }
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                giveBack(state, state.perUser.computeIfAbsent(emailKey(userEmail), email -> new AtomicInteger()));
+                state.unflushed.decrementAndGet();
+            }
+        });
+    }
+
+    /**
+     * Writes the redemptions committed since the last run to the database, one UPDATE per code
+     * that changed, then refreshes all codes from the database: new codes are added, and
+     * existing ones pick up their active flag, validity, max uses and what other instances
+     * redeemed meanwhile.
+     */
+    @Scheduled(fixedDelayString = "${promo.flush-interval-ms:2000}")
+    public void flushUsage() {
+        Map<CodeState, Integer> deltas = new HashMap<>();
+        for (CodeState state : codes.values()) {
+            int delta = state.unflushed.getAndSet(0);
+            if (delta != 0) {
+                deltas.put(state, delta);
+            }
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    deltas.forEach((state, delta) -> promoCodeRepository.addUsage(state.id, delta)));
+        } catch (RuntimeException e) {
+            deltas.forEach((state, delta) -> state.unflushed.addAndGet(delta)); // Try again next run
+            logger.error("Failed to write promo code usage", e);
+            return;
+        }
+        deltas.forEach((state, delta) -> state.knownUsedCount += delta);
+
+        List<String> added = new ArrayList<>();
+        for (PromoCode row : promoCodeRepository.findAll()) {
+            CodeState state = codes.get(row.getCode());
+            if (state != null) {
+                state.refresh(row, stripes);
+            } else if (codes.putIfAbsent(row.getCode(), new CodeState(row, stripes)) == null) {
+                added.add(row.getCode()); // Created on another instance
+            }
+        }
+        if (!added.isEmpty()) {
+            loadPerUserUsage(bookingRepository.countActivePromoUsageByCodeIn(added));
+            logger.info("Picked up {} promo codes created on other instances", added.size());
+        }
+    }
+
+    private void loadPerUserUsage(List<BookingRepository.PromoUsageView> usages) {
+        for (BookingRepository.PromoUsageView usage : usages) {
+            CodeState state = codes.get(usage.getPromoCode());
+            if (state != null) {
+                state.perUser.put(usage.getUserEmail(), new AtomicInteger((int) usage.getUses()));
+            }
+        }
+    }
+
+    private CodeState lookup(String code) {
+        CodeState state = code == null ? null : codes.get(normalize(code));
+        if (state == null || !state.active) {
+            throw new RuntimeException("Invalid promo code.");
+        }
+        return state;
+    }
+
+    private static void checkApplicable(CodeState state, Long eventId) {
+        if (state.eventId != null && !state.eventId.equals(eventId)) {
+            throw new RuntimeException("This promo code is not valid for this event.");
+        }
+        Instant now = Instant.now();
+        if ((state.validFrom != null && now.isBefore(state.validFrom))
+                || (state.validUntil != null && !now.isBefore(state.validUntil))) {
+            throw new RuntimeException("This promo code is not valid at this time.");
+        }
+    }
+
+    private static void giveBack(CodeState state, AtomicInteger uses) {
+        uses.updateAndGet(current -> Math.max(0, current - 1));
+        StripedQuota quota = state.quota;
+        if (quota != null) {
+            quota.release();
+        }
+    }
+
+    private static String normalize(String code) {
+        return code == null ? "" : code.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String emailKey(String userEmail) {
+        return userEmail == null ? "" : userEmail.toLowerCase(Locale.ROOT);
+    }
+
+    private static void afterCompletion(IntConsumer callback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status);
+            }
+        });
+    }
+
+    private static final class CodeState {
+        final Long id;
+        final String code;
+        final String discountType;
+        final double discountValue;
+        final Long eventId;
+        final Integer perUserLimit;
+        final Instant validFrom;
+        volatile Instant validUntil;
+        volatile boolean active;
+
+        volatile Integer maxUses;      // Changed only by the flush job, like quota
+        volatile StripedQuota quota;   // null = unlimited
+        final Map<String, AtomicInteger> perUser = new ConcurrentHashMap<>();
+        final AtomicInteger unflushed = new AtomicInteger(); // Committed redemptions not yet in used_count
+        volatile int knownUsedCount; // used_count as of the last flush; only touched by the flush job
+
+        CodeState(PromoCode code, int stripes) {
+            this.id = code.getId();
+            this.code = code.getCode();
+            this.discountType = code.getDiscountType();
+            this.discountValue = code.getDiscountValue();
+            this.eventId = code.getEventId();
+            this.maxUses = code.getMaxUses();
+            this.perUserLimit = code.getPerUserLimit();
+            this.validFrom = code.getValidFrom();
+            this.validUntil = code.getValidUntil();
+            this.active = code.isActive();
+            this.knownUsedCount = code.getUsedCount();
+            this.quota = maxUses == null ? null : new StripedQuota(maxUses - code.getUsedCount(), stripes);
+        }
+
+        /**
+         * Takes over the definition in the code's row and rebases the remaining uses on what
+         * other instances redeemed since the last flush.
+         */
+        void refresh(PromoCode row, int stripes) {
+            active = row.isActive();
+            validUntil = row.getValidUntil();
+            int byOthers = row.getUsedCount() - knownUsedCount;
+            knownUsedCount = row.getUsedCount();
+
+            Integer newMaxUses = row.getMaxUses();
+            StripedQuota current = quota;
+            if (newMaxUses == null) {
+                quota = null;
+            } else if (current == null) {
+                quota = new StripedQuota(newMaxUses - row.getUsedCount() - unflushed.get(), stripes);
+            } else {
+                int raisedBy = maxUses == null ? 0 : newMaxUses - maxUses;
+                if (raisedBy - byOthers != 0) {
+                    current.adjust(raisedBy - byOthers);
+                }
+            }
+            maxUses = newMaxUses;
+        }
+
+        double discountFor(double baseAmount) {
+            double discount = "PERCENT".equals(discountType)
+                    ? baseAmount * discountValue / 100
+                    : Math.min(discountValue, baseAmount);
+            return Math.round(discount * 100) / 100.0;
+        }
+
+        PromoCodeDTO toDTO() {
+            PromoCodeDTO dto = new PromoCodeDTO();
+            dto.setCode(code);
+            dto.setDiscountType(discountType);
+            dto.setDiscountValue(discountValue);
+            dto.setEventId(eventId);
+            dto.setMaxUses(maxUses);
+            dto.setPerUserLimit(perUserLimit);
+            dto.setValidFrom(validFrom);
+            dto.setValidUntil(validUntil);
+            dto.setActive(active);
+            dto.setUsedCount(knownUsedCount + unflushed.get());
+            return dto;
+        }
+    }
+}
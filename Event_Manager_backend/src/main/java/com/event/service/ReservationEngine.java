@@ -0,0 +1,433 @@
+package com.event.service;
+
+import com.event.bean.Booking;
+import com.event.bean.User;
+import com.event.dto.SeatDTO;
+import com.event.events.BookingStatusChangedEvent;
+import com.event.events.TicketsReservedEvent;
+import com.event.repository.BookingRepository;
+import com.event.repository.EventRepository;
+import com.event.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Front end for {@link BookingService#createPendingBooking} on hot events.
+ *
+ * Requests are routed to a per-event lane that is drained by a single writer at a time.
+ * The lane decides availability from an in-memory counter and flushes all accepted
+ * reservations of a batch in one transaction (one conditional decrement of the event row
+ * plus the booking inserts), so throughput on one event grows with the batch size instead
+ * of with the number of DB round-trips. The conditional decrement stays authoritative: if
+ * the counter was stale the batch falls back to the per-request path.
+ *
+ * A request the caller gave up on (timeout) is skipped if it is still queued, and its
+ * booking is failed again if the batch committed it anyway. Lanes of events that saw no
+ * requests for a while are dropped.
+ */
+@Service
+public class ReservationEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReservationEngine.class);
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private SeatMapService seatMapService;
+
+    @Autowired
+    private TicketTierService ticketTierService;
+
+    @Autowired
+    private DynamicPricingService dynamicPricingService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+    private final ScheduledExecutorService executor;
+    private final Map<Long, Lane> lanes = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final long lingerMillis;
+    private final long timeoutMillis;
+    private final long refreshIntervalMillis;
+    private final long laneIdleMillis;
+
+    public ReservationEngine(PlatformTransactionManager transactionManager,
+                             @Value("${reservation.engine.enabled:false}") boolean enabled,
+                             @Value("${reservation.engine.batch-size:64}") int batchSize,
+                             @Value("${reservation.engine.linger-ms:2}") long lingerMillis,
+                             @Value("${reservation.engine.timeout-ms:5000}") long timeoutMillis,
+                             @Value("${reservation.engine.refresh-interval-ms:200}") long refreshIntervalMillis,
+                             @Value("${reservation.engine.threads:0}") int threads,
+                             @Value("${reservation.engine.lane-idle-ms:60000}") long laneIdleMillis) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.lingerMillis = Math.max(0, lingerMillis);
+        this.timeoutMillis = timeoutMillis;
+        this.refreshIntervalMillis = refreshIntervalMillis;
+        this.laneIdleMillis = laneIdleMillis;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newScheduledThreadPool(poolSize, runnable -> {
+            Thread thread = new Thread(runnable, "reservation-lane-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        if (enabled && laneIdleMillis > 0) {
+            executor.scheduleWithFixedDelay(this::evictIdleLanes, laneIdleMillis, laneIdleMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reserves tickets and creates a PENDING_PAYMENT booking, exactly like
+     * {@link BookingService#createPendingBooking}, but through the event's group-commit lane.
+     *
+     * @throws RuntimeException if the event is not found, not enough tickets are available,
+     *                          or the lane did not answer within the configured timeout.
+     */
+    public Booking reserve(Long eventId, String userName, String userEmail, int numberOfTickets) {
+        return reserve(eventId, userName, userEmail, numberOfTickets, null, null, null, null);
+    }
+
+    /**
+     * Variant for ticket tiers, reserved seating and promo codes. Tiered events and events with
+     * a seat map bypass the lane: tiers have their own counters, and picking seats is already
+     * serialised per event by {@link SeatMapService}. Orders with a promo code bypass it too,
+     * since the lane builds undiscounted bookings.
+     */
+    public Booking reserve(Long eventId, String userName, String userEmail, int numberOfTickets,
+                           Long tierId, String seatSection, List<SeatDTO> seats, String promoCode) {
+        if (!enabled) {
+            return bookingService.createPendingBooking(eventId, userName, userEmail, numberOfTickets,
+                    tierId, seatSection, seats, promoCode);
+        }
+        if (eventId == null) {
+            throw new RuntimeException("Event ID cannot be null");
+        }
+        if (tierId != null || (seats != null && !seats.isEmpty()) || (promoCode != null && !promoCode.isBlank())
+                || ticketTierService.hasTiers(eventId) || seatMapService.hasSeatMap(eventId)) {
+            return bookingService.createPendingBooking(eventId, userName, userEmail, numberOfTickets,
+                    tierId, seatSection, seats, promoCode);
+        }
+        if (numberOfTickets < 1) {
+            throw new RuntimeException("Number of tickets must be at least 1.");
+        }
+
+        ReservationRequest request = new ReservationRequest(userName, userEmail, numberOfTickets);
+        submit(eventId, request);
+
+        try {
+            return request.result.get(timeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw unwrap(e);
+        } catch (TimeoutException e) {
+            abandon(request);
+            throw new RuntimeException("Reservation timed out, please try again.");
+        } catch (InterruptedException e) {
+            abandon(request);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Reservation interrupted.");
+        }
+    }
+
+    /** Enqueues under the map's lock for the event, so an idle lane cannot be dropped in between. */
+    private void submit(Long eventId, ReservationRequest request) {
+        Lane[] target = new Lane[1];
+        lanes.compute(eventId, (id, lane) -> {
+            Lane current = lane != null ? lane : new Lane(id);
+            current.enqueue(request);
+            target[0] = current;
+            return current;
+        });
+        target[0].schedule();
+    }
+
+    /**
+     * Tells the lane nobody waits for the answer any more. If the batch already decided, the
+     * booking it may have committed is failed again, so its tickets do not stay held for nobody.
+     */
+    private void abandon(ReservationRequest request) {
+        if (!request.result.cancel(false) && !request.result.isCompletedExceptionally()) {
+            failAbandoned(request.result.join());
+        }
+    }
+
+    private void failAbandoned(Booking booking) {
+        try {
+            bookingService.failBooking(booking.getId());
+            logger.info("Released booking {}: its reservation request had timed out", booking.getId());
+        } catch (RuntimeException e) {
+            logger.warn("Could not release booking {} of a timed out reservation", booking.getId(), e);
+        }
+    }
+
+    private static RuntimeException unwrap(ExecutionException e) {
+        if (e.getCause() instanceof RuntimeException runtimeException) {
+            return runtimeException;
+        }
+        return new RuntimeException("Reservation failed: " + e.getCause().getMessage(), e.getCause());
+    }
+
+    /** Drops lanes with nothing queued or running that saw no request for the idle period. */
+    private void evictIdleLanes() {
+        long idleSince = System.currentTimeMillis() - laneIdleMillis;
+        for (Long eventId : lanes.keySet()) {
+            lanes.computeIfPresent(eventId, (id, lane) -> lane.isIdleSince(idleSince) ? null : lane);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private static final class ReservationRequest {
+        final String userName;
+        final String userEmail;
+        final int numberOfTickets;
+        final CompletableFuture<Booking> result = new CompletableFuture<>();
+
+        ReservationRequest(String userName, String userEmail, int numberOfTickets) {
+            this.userName = userName;
+            this.userEmail = userEmail;
+            this.numberOfTickets = numberOfTickets;
+        }
+    }
+
+    /** Marker for a batch whose conditional decrement found fewer tickets than the counter claimed. */
+    private static final class StaleCounterException extends RuntimeException {
+        StaleCounterException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private final class Lane {
+        private final Long eventId;
+        private final ConcurrentLinkedQueue<ReservationRequest> queue = new ConcurrentLinkedQueue<>();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private volatile long lastSubmit = System.currentTimeMillis();
+
+        // Only touched by the single drain task that currently owns the lane
+        private int available = -1;
+        private long lastRefresh;
+
+        Lane(Long eventId) {
+            this.eventId = eventId;
+        }
+
+        void enqueue(ReservationRequest request) {
+            queue.add(request);
+            queued.incrementAndGet();
+            lastSubmit = System.currentTimeMillis();
+        }
+
+        void schedule() {
+            if (scheduled.compareAndSet(false, true)) {
+                // Give the batch a moment to fill unless it is already full
+                long delay = queued.get() >= batchSize ? 0 : lingerMillis;
+                executor.schedule(this::drain, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        boolean isIdleSince(long time) {
+            return lastSubmit < time && !scheduled.get() && queue.isEmpty();
+        }
+
+        private void drain() {
+            try {
+                List<ReservationRequest> batch = new ArrayList<>(batchSize);
+                ReservationRequest next;
+                while ((next = queue.poll()) != null) {
+                    queued.decrementAndGet();
+                    batch.add(next);
+                    if (batch.size() == batchSize) {
+                        process(batch);
+                        batch = new ArrayList<>(batchSize);
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    process(batch);
+                }
+            } finally {
+                scheduled.set(false);
+                // A request may have been queued after the last poll but before the flag was cleared
+                if (!queue.isEmpty() && scheduled.compareAndSet(false, true)) {
+                    executor.execute(this::drain);
+                }
+            }
+        }
+
+        private void process(List<ReservationRequest> batch) {
+            try {
+                decide(batch);
+            } catch (RuntimeException e) {
+                logger.error("Reservation batch for event {} failed", eventId, e);
+                available = -1;
+                batch.forEach(r -> r.result.completeExceptionally(e)); // No-op for already answered requests
+            }
+        }
+
+        private void decide(List<ReservationRequest> batch) {
+            if (available < 0) {
+                if (!refresh()) {
+                    batch.forEach(r -> r.result.completeExceptionally(
+                            new RuntimeException("Event not found with id " + eventId)));
+                    return;
+                }
+            }
+
+            List<ReservationRequest> accepted = new ArrayList<>(batch.size());
+            int acceptedTickets = 0;
+            for (ReservationRequest request : batch) {
+                if (request.result.isDone()) {
+                    continue; // Abandoned by its caller while queued
+                }
+                if (request.numberOfTickets > available
+                        && System.currentTimeMillis() - lastRefresh >= refreshIntervalMillis) {
+                    // Tickets may have been returned since the last read; re-check at most once per interval
+                    refresh();
+                    available -= acceptedTickets;
+                }
+                if (request.numberOfTickets <= available) {
+                    available -= request.numberOfTickets;
+                    acceptedTickets += request.numberOfTickets;
+                    accepted.add(request);
+                } else {
+                    request.result.completeExceptionally(
+                            new RuntimeException("Not enough tickets available for this event."));
+                }
+            }
+
+            if (!accepted.isEmpty()) {
+                flush(accepted, acceptedTickets);
+            }
+        }
+
+        private boolean refresh() {
+            Integer current = eventRepository.findAvailableTickets(eventId).orElse(null);
+            lastRefresh = System.currentTimeMillis();
+            if (current == null) {
+                available = -1;
+                return false;
+            }
+            available = current;
+            return true;
+        }
+
+        private void flush(List<ReservationRequest> accepted, int totalTickets) {
+            List<Booking> saved;
+            try {
+                saved = transactionTemplate.execute(status -> {
+                    if (eventRepository.reserveTickets(eventId, totalTickets) == 0) {
+                        throw new StaleCounterException();
+                    }
+                    eventPublisher.publishEvent(new TicketsReservedEvent(eventId, null, totalTickets));
+                    List<Booking> bookings = buildBookings(accepted);
+                    List<Booking> result = bookingRepository.saveAll(bookings);
+                    result.forEach(booking -> eventPublisher.publishEvent(
+                            BookingStatusChangedEvent.of(booking, null, "PENDING_PAYMENT")));
+                    // Re-sync the counter with what other lanes / nodes did in the meantime
+                    eventRepository.findAvailableTickets(eventId).ifPresent(value -> available = value);
+                    lastRefresh = System.currentTimeMillis();
+                    return result;
+                });
+            } catch (StaleCounterException e) {
+                // Someone else sold tickets behind our back: let the authoritative path decide per request
+                available = -1;
+                accepted.forEach(this::reserveIndividually);
+                return;
+            }
+
+            for (int i = 0; i < accepted.size(); i++) {
+                Booking booking = saved.get(i);
+                holdExpiryService.scheduleHold(booking.getId(), booking.getBookingDateTime());
+                if (!accepted.get(i).result.complete(booking)) {
+                    failAbandoned(booking); // The caller timed out while the batch was committing
+                }
+            }
+        }
+
+        private void reserveIndividually(ReservationRequest request) {
+            if (request.result.isDone()) {
+                return;
+            }
+            try {
+                Booking booking = bookingService.createPendingBooking(
+                        eventId, request.userName, request.userEmail, request.numberOfTickets);
+                if (!request.result.complete(booking)) {
+                    failAbandoned(booking);
+                }
+            } catch (RuntimeException e) {
+                request.result.completeExceptionally(e);
+            }
+        }
+
+        private List<Booking> buildBookings(List<ReservationRequest> accepted) {
+            List<String> emails = new ArrayList<>(accepted.size());
+            accepted.forEach(r -> emails.add(r.userEmail));
+            Map<String, User> usersByEmail = new HashMap<>();
+            for (User user : userRepository.findByEmailIn(emails)) { // One lookup for the whole batch
+                usersByEmail.put(user.getEmail(), user);
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            double price = dynamicPricingService.quote(eventId); // Whole batch sells at the same price
+            List<Booking> bookings = new ArrayList<>(accepted.size());
+            for (ReservationRequest request : accepted) {
+                Booking booking = new Booking();
+                booking.setEvent(eventRepository.getReferenceById(eventId));
+                booking.setUserName(request.userName);
+                booking.setUserEmail(request.userEmail);
+                booking.setNumberOfTickets(request.numberOfTickets);
+                booking.setAmount(Math.round(price * request.numberOfTickets * 100) / 100.0);
+                booking.setBookingDateTime(now);
+                booking.setStatus("PENDING_PAYMENT");
+                booking.setUser(usersByEmail.get(request.userEmail));
+                bookings.add(booking);
+            }
+            return bookings;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package com.event.service;
+
+import com.event.dto.SalesPointDTO;
+import com.event.dto.SalesStatsDTO;
+import com.event.events.BookingStatusChangedEvent;
+import com.event.util.HyperLogLog;
+import com.event.util.MinuteSeries;
+
+import java.time.Instant;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Running booking and sales totals of one event, or of all events, updated per status change.
+ * Every method is one short synchronized section.
+ */
+final class SalesCounter {
+
+    private static final String[] STATUSES = {"PENDING_PAYMENT", "CONFIRMED", "CANCELLED", "FAILED", "EXPIRED"};
+    private static final int PENDING_PAYMENT = 0, CONFIRMED = 1, CANCELLED = 2, FAILED = 3, EXPIRED = 4;
+
+    private final long[] byStatus = new long[STATUSES.length]; // Bookings currently in each status
+    private final HyperLogLog attendees;
+    private final MinuteSeries sales; // Paid tickets and revenue by booking minute
+    private long bookings;            // Ever created
+    private long paid;                // Ever confirmed, even if cancelled since
+    private long ticketsSold;         // Of bookings currently CONFIRMED
+    private long revenueCents;        // Of bookings currently CONFIRMED
+
+    SalesCounter(int attendeePrecision, int minutes) {
+        this.attendees = new HyperLogLog(attendeePrecision);
+        this.sales = new MinuteSeries(minutes);
+    }
+
+    synchronized void apply(BookingStatusChangedEvent change, long nowMillis) {
+        int from = slot(change.fromStatus());
+        int to = slot(change.toStatus());
+        long cents = Math.round(change.amount() * 100);
+        if (change.fromStatus() == null) {
+            bookings++;
+        } else if (from >= 0) {
+            byStatus[from]--;
+        }
+        if (to >= 0) {
+            byStatus[to]++;
+        }
+        if (from == CONFIRMED) {
+            ticketsSold -= change.numberOfTickets();
+            revenueCents -= cents;
+        }
+        if (to == CONFIRMED) {
+            ticketsSold += change.numberOfTickets();
+            revenueCents += cents;
+            paid++;
+            long bookingMillis = change.bookingDateTime() != null
+                    ? change.bookingDateTime().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : nowMillis;
+            recordPaid(change.userEmail(), bookingMillis, change.numberOfTickets(), cents, nowMillis);
+        }
+    }
+
+    /** Adds the bookings currently in {@code status}, as counted by the database. */
+    synchronized void seedStatus(String status, long bookings, long tickets, long revenueCents, long paid) {
+        int slot = slot(status);
+        this.bookings += bookings;
+        this.paid += paid;
+        if (slot >= 0) {
+            byStatus[slot] += bookings;
+        }
+        if (slot == CONFIRMED) {
+            this.ticketsSold += tickets;
+            this.revenueCents += revenueCents;
+        }
+    }
+
+    /** Adds the attendee and sales minute of a booking that was paid, as read from the database. */
+    synchronized void seedPaid(String userEmail, long bookingMillis, int tickets, long revenueCents, long nowMillis) {
+        recordPaid(userEmail, bookingMillis, tickets, revenueCents, nowMillis);
+    }
+
+    /**
+     * @param minutes how many of the latest minutes of sales to include, at most the window.
+     */
+    synchronized SalesStatsDTO toDTO(Long eventId, int minutes, long nowMillis) {
+        int count = Math.max(0, Math.min(minutes, sales.minutes()));
+        long[] tickets = new long[count];
+        long[] cents = new long[count];
+        long start = sales.copyLast(count, nowMillis, tickets, cents);
+        List<SalesPointDTO> points = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            points.add(new SalesPointDTO(Instant.ofEpochMilli(start + i * 60_000L), tickets[i], cents[i] / 100.0));
+        }
+        double conversion = bookings == 0 ? 0 : (double) paid / bookings;
+        return new SalesStatsDTO(eventId, bookings, byStatus[PENDING_PAYMENT], byStatus[CONFIRMED],
+                byStatus[CANCELLED], byStatus[FAILED], byStatus[EXPIRED], ticketsSold, revenueCents / 100.0,
+                conversion, attendees.estimate(), points);
+    }
+
+    private void recordPaid(String userEmail, long bookingMillis, int tickets, long cents, long nowMillis) {
+        if (userEmail != null) {
+            attendees.add(userEmail.trim().toLowerCase(Locale.ROOT));
+        }
+        sales.add(bookingMillis, tickets, cents, nowMillis);
+    }
+
+    private static int slot(String status) {
+        for (int i = 0; i < STATUSES.length; i++) {
+            if (STATUSES[i].equals(status)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,163 @@
+package com.event.service;
+
+import com.event.dto.SalesStatsDTO;
+import com.event.events.BookingStatusChangedEvent;
+import com.event.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Booking and sales totals for the admin dashboard, per event and across all events: bookings
+ * by status, tickets sold, revenue, conversion from PENDING_PAYMENT to CONFIRMED, distinct
+ * paying customers (a {@link com.event.util.HyperLogLog} of emails) and sales per minute.
+ *
+ * The totals are updated from every committed {@link BookingStatusChangedEvent}, so reading
+ * them never touches the bookings table. They are built from the database on startup and
+ * rebuilt every {@code booking.stats.reconcile-interval-ms}, which folds in bookings made on
+ * other instances; in between, an instance only sees its own status changes.
+ */
+@Service
+public class SalesStatsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesStatsService.class);
+
+    public static final int MAX_GLOBAL_MINUTES = 1440;
+    public static final int MAX_EVENT_MINUTES = 60;
+
+    private static final int GLOBAL_ATTENDEE_PRECISION = 14; // 16 KB, ~0.8% error
+    private static final int EVENT_ATTENDEE_PRECISION = 10;  // 1 KB per event, ~3% error
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final TransactionTemplate readOnlyTransaction;
+    private final Object rebuildLock = new Object();
+    private volatile Totals totals = new Totals();
+    private List<BookingStatusChangedEvent> replay; // Guarded by rebuildLock, non-null while rebuilding
+
+    public SalesStatsService(PlatformTransactionManager transactionManager) {
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Totals across all events, with sales for each of the last {@code minutes} minutes.
+     */
+    public SalesStatsDTO getGlobalStats(int minutes) {
+        return totals.global.toDTO(null, minutes, System.currentTimeMillis());
+    }
+
+    /**
+     * Totals of one event, with sales for each of the last {@code minutes} minutes (at most
+     * {@value #MAX_EVENT_MINUTES}). An event without bookings reads as all zeros.
+     */
+    public SalesStatsDTO getEventStats(Long eventId, int minutes) {
+        SalesCounter counter = totals.byEvent.get(eventId);
+        long now = System.currentTimeMillis();
+        return (counter != null ? counter : Totals.newEventCounter()).toDTO(eventId, minutes, now);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onBookingStatusChanged(BookingStatusChangedEvent change) {
+        Totals target;
+        synchronized (rebuildLock) {
+            if (replay != null) {
+                replay.add(change); // May miss the rebuild's read, applied again on top of it
+            }
+            target = totals;
+        }
+        target.apply(change, System.currentTimeMillis());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    /**
+     * Rebuilds the totals from the bookings table. Status changes that commit while it runs
+     * are replayed on top, so at worst one that committed just before the read counts twice
+     * until the next rebuild.
+     */
+    @Scheduled(fixedDelayString = "${booking.stats.reconcile-interval-ms:600000}",
+               initialDelayString = "${booking.stats.reconcile-interval-ms:600000}")
+    public synchronized void reconcile() {
+        synchronized (rebuildLock) {
+            replay = new ArrayList<>();
+        }
+        try {
+            long start = System.currentTimeMillis();
+            Totals rebuilt = readOnlyTransaction.execute(status -> read());
+            synchronized (rebuildLock) {
+                long now = System.currentTimeMillis();
+                replay.forEach(change -> rebuilt.apply(change, now));
+                totals = rebuilt;
+            }
+            logger.info("Rebuilt sales totals of {} events in {} ms", rebuilt.byEvent.size(),
+                    System.currentTimeMillis() - start);
+        } catch (RuntimeException e) {
+            logger.error("Failed to rebuild sales totals, keeping the running ones", e);
+        } finally {
+            synchronized (rebuildLock) {
+                replay = null;
+            }
+        }
+    }
+
+    private Totals read() {
+        Totals rebuilt = new Totals();
+        for (BookingRepository.SalesSummaryView row : bookingRepository.summarizeSales()) {
+            long tickets = row.getTickets() != null ? row.getTickets() : 0;
+            long cents = row.getRevenue() != null ? Math.round(row.getRevenue() * 100) : 0;
+            long paid = row.getPaid() != null ? row.getPaid() : 0;
+            rebuilt.global.seedStatus(row.getStatus(), row.getBookings(), tickets, cents, paid);
+            rebuilt.counter(row.getEventId()).seedStatus(row.getStatus(), row.getBookings(), tickets, cents, paid);
+        }
+
+        long now = System.currentTimeMillis();
+        ZoneId zone = ZoneId.systemDefault();
+        try (Stream<BookingRepository.PaidBookingView> paidBookings = bookingRepository.streamPaidBookings()) {
+            paidBookings.forEach(row -> {
+                long bookingMillis = row.getBookingDateTime().atZone(zone).toInstant().toEpochMilli();
+                long cents = row.getAmount() != null ? Math.round(row.getAmount() * 100) : 0;
+                int tickets = row.getNumberOfTickets();
+                rebuilt.global.seedPaid(row.getUserEmail(), bookingMillis, tickets, cents, now);
+                rebuilt.counter(row.getEventId()).seedPaid(row.getUserEmail(), bookingMillis, tickets, cents, now);
+            });
+        }
+        return rebuilt;
+    }
+
+    private static final class Totals {
+        final SalesCounter global = new SalesCounter(GLOBAL_ATTENDEE_PRECISION, MAX_GLOBAL_MINUTES);
+        final Map<Long, SalesCounter> byEvent = new ConcurrentHashMap<>();
+
+        static SalesCounter newEventCounter() {
+            return new SalesCounter(EVENT_ATTENDEE_PRECISION, MAX_EVENT_MINUTES);
+        }
+
+        SalesCounter counter(Long eventId) {
+            return byEvent.computeIfAbsent(eventId, id -> newEventCounter());
+        }
+
+        void apply(BookingStatusChangedEvent change, long nowMillis) {
+            global.apply(change, nowMillis);
+            counter(change.eventId()).apply(change, nowMillis);
+        }
+    }
+}
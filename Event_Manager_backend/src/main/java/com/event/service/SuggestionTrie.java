@@ -0,0 +1,253 @@
+package com.event.service;
+
+import com.event.dto.SuggestionDTO;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Immutable compressed prefix (radix) trie for typeahead. Every node stores the best
+ * suggestions below it, precomputed at build time, so a lookup walks at most one edge per
+ * typed character and returns that shared array: no sorting, scoring or allocation per keystroke.
+ *
+ * Keys are normalized to lower case with every run of non-alphanumeric characters turned into
+ * a single space; queries are normalized the same way on the fly.
+ */
+public final class SuggestionTrie {
+
+    private static final SuggestionDTO[] NONE = new SuggestionDTO[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final char[] NO_CHARS = new char[0];
+    private static final int[] NO_IDS = new int[0];
+
+    private final Node root;
+    private final int size;
+
+    private SuggestionTrie(Node root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The best suggestions whose key starts with {@code prefix}, best first. The returned
+     * array is shared and must not be modified.
+     */
+    public SuggestionDTO[] lookup(CharSequence prefix) {
+        Node node = root;
+        int labelPos = 0;
+        boolean started = false;
+        boolean pendingSpace = false;
+        for (int i = 0; i < prefix.length(); i++) {
+            char c = prefix.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = started;
+                continue;
+            }
+            for (int step = pendingSpace ? 0 : 1; step < 2; step++) {
+                char ch = step == 0 ? ' ' : Character.toLowerCase(c);
+                if (labelPos == node.label.length) {
+                    node = node.child(ch);
+                    if (node == null) {
+                        return NONE;
+                    }
+                    labelPos = 0;
+                }
+                if (node.label[labelPos++] != ch) {
+                    return NONE;
+                }
+            }
+            started = true;
+            pendingSpace = false;
+        }
+        return started ? node.top : NONE;
+    }
+
+    /**
+     * Collects keys with their suggestions and builds the trie.
+     */
+    public static final class Builder {
+        private final int topK;
+        private final Node root = new Node(new char[0]);
+        private final List<SuggestionDTO> suggestions = new ArrayList<>();
+        private final List<Double> scores = new ArrayList<>(); // Parallel to suggestions
+
+        public Builder(int topK) {
+            this.topK = topK;
+        }
+
+        /**
+         * Adds a suggestion reachable by typing the start of any of its keys.
+         *
+         * @param score higher ranks first.
+         */
+        public Builder add(SuggestionDTO suggestion, double score, Iterable<String> keys) {
+            int id = suggestions.size();
+            suggestions.add(suggestion);
+            scores.add(score);
+            for (String key : keys) {
+                String normalized = normalize(key);
+                if (!normalized.isEmpty()) {
+                    insert(normalized.toCharArray(), id);
+                }
+            }
+            return this;
+        }
+
+        public SuggestionTrie build() {
+            // Rank every suggestion once; nodes then only merge small sorted arrays of ranks
+            Integer[] order = new Integer[suggestions.size()];
+            for (int i = 0; i < order.length; i++) {
+                order[i] = i;
+            }
+            Arrays.sort(order, Comparator.<Integer>comparingDouble(id -> -scores.get(id))
+                    .thenComparing(id -> suggestions.get(id).getText()));
+            int[] rankOf = new int[order.length];
+            SuggestionDTO[] byRank = new SuggestionDTO[order.length];
+            for (int rank = 0; rank < order.length; rank++) {
+                rankOf[order[rank]] = rank;
+                byRank[rank] = suggestions.get(order[rank]);
+            }
+            finish(root, rankOf, byRank);
+            return new SuggestionTrie(root, suggestions.size());
+        }
+
+        private void insert(char[] key, int id) {
+            Node node = root;
+            int pos = 0;
+            while (pos < key.length) {
+                Node child = node.pendingChild(key[pos]);
+                if (child == null) {
+                    Node leaf = new Node(Arrays.copyOfRange(key, pos, key.length));
+                    leaf.addId(id);
+                    node.addChild(leaf);
+                    return;
+                }
+                int common = 0;
+                while (common < child.label.length && pos + common < key.length && child.label[common] == key[pos + common]) {
+                    common++;
+                }
+                if (common < child.label.length) {
+                    // Split the edge: the shared part becomes a new node above the old child
+                    Node middle = new Node(Arrays.copyOf(child.label, common));
+                    child.label = Arrays.copyOfRange(child.label, common, child.label.length);
+                    middle.addChild(child);
+                    node.pending.set(node.pending.indexOf(child), middle);
+                    child = middle;
+                }
+                node = child;
+                pos += common;
+            }
+            node.addId(id);
+        }
+
+        /** Freezes children into sorted arrays and computes every node's best suggestions. */
+        private int[] finish(Node node, int[] rankOf, SuggestionDTO[] byRank) {
+            if (node.pending != null) {
+                node.pending.sort(Comparator.comparing(child -> child.label[0]));
+                node.children = node.pending.toArray(new Node[0]);
+                node.firstChars = new char[node.children.length];
+            } else {
+                node.children = NO_CHILDREN;
+                node.firstChars = NO_CHARS;
+            }
+            // Only a child's best can be among this node's best
+            int[][] childBest = new int[node.children.length][];
+            int candidates = node.ids.length;
+            for (int i = 0; i < node.children.length; i++) {
+                node.firstChars[i] = node.children[i].label[0];
+                childBest[i] = finish(node.children[i], rankOf, byRank);
+                candidates += childBest[i].length;
+            }
+            int[] ranks = new int[candidates];
+            int n = 0;
+            for (int id : node.ids) {
+                ranks[n++] = rankOf[id];
+            }
+            for (int[] best : childBest) {
+                System.arraycopy(best, 0, ranks, n, best.length);
+                n += best.length;
+            }
+            Arrays.sort(ranks);
+            int[] best = new int[Math.min(topK, ranks.length)];
+            int count = 0;
+            for (int i = 0; i < ranks.length && count < best.length; i++) {
+                if (count == 0 || ranks[i] != best[count - 1]) { // A suggestion can be reached by several keys
+                    best[count++] = ranks[i];
+                }
+            }
+            best = Arrays.copyOf(best, count);
+            node.top = new SuggestionDTO[count];
+            for (int i = 0; i < count; i++) {
+                node.top[i] = byRank[best[i]];
+            }
+            node.pending = null;
+            node.ids = null;
+            return best;
+        }
+    }
+
+    static String normalize(String text) {
+        StringBuilder out = new StringBuilder(text.length());
+        boolean pendingSpace = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (!Character.isLetterOrDigit(c)) {
+                pendingSpace = out.length() > 0;
+                continue;
+            }
+            if (pendingSpace) {
+                out.append(' ');
+                pendingSpace = false;
+            }
+            out.append(Character.toLowerCase(c));
+        }
+        return out.toString();
+    }
+
+    private static final class Node {
+        char[] label;
+        char[] firstChars;
+        Node[] children;
+        SuggestionDTO[] top;
+        List<Node> pending;        // Children while building, created on first use
+        int[] ids = NO_IDS;        // Suggestions whose key ends here, while building
+
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        Node child(char c) {
+            int index = Arrays.binarySearch(firstChars, c);
+            return index >= 0 ? children[index] : null;
+        }
+
+        Node pendingChild(char c) {
+            if (pending != null) {
+                for (Node child : pending) {
+                    if (child.label[0] == c) {
+                        return child;
+                    }
+                }
+            }
+            return null;
+        }
+
+        void addChild(Node child) {
+            if (pending == null) {
+                pending = new ArrayList<>(2);
+            }
+            pending.add(child);
+        }
+
+        void addId(int id) {
+            ids = Arrays.copyOf(ids, ids.length + 1); // Almost always zero or one
+            ids[ids.length - 1] = id;
+        }
+    }
+}
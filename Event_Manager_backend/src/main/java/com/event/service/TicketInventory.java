@@ -0,0 +1,134 @@
+package com.event.service;
+
+import com.event.bean.Booking;
+import com.event.events.TicketsReleasedEvent;
+import com.event.events.TicketsReservedEvent;
+import com.event.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Single place where bookings take tickets from and return tickets to an event.
+ * Uses this node's ticket lease when leasing is enabled and falls back to the
+ * event's shared counter otherwise. Must be called inside a transaction.
+ */
+@Service
+public class TicketInventory {
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private InventoryLeaseManager inventoryLeaseManager;
+
+    @Autowired
+    private TicketTierService ticketTierService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate newTransaction;
+
+    public TicketInventory(PlatformTransactionManager transactionManager) {
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Takes tickets for a new booking.
+     *
+     * @return the id of the lease the tickets were taken from, or {@code null} if they came
+     *         straight from the event row.
+     * @throws RuntimeException if the event is not found or not enough tickets are available.
+     */
+    public Long reserve(Long eventId, int numberOfTickets) {
+        Long leaseId = inventoryLeaseManager.tryAcquire(eventId, numberOfTickets);
+        if (leaseId != null) {
+            // The local counter is not transactional: put the tickets back if the booking is rolled back
+            afterCompletion(status -> {
+                if (status == TransactionSynchronization.STATUS_ROLLED_BACK
+                        && !inventoryLeaseManager.giveBack(leaseId, eventId, numberOfTickets)) {
+                    releaseInNewTransaction(eventId, numberOfTickets);
+                }
+            });
+            eventPublisher.publishEvent(new TicketsReservedEvent(eventId, null, numberOfTickets));
+            return leaseId;
+        }
+
+        reserveFromEvent(eventId, numberOfTickets);
+        return null;
+    }
+
+    /**
+     * Takes tickets straight from the event row with a conditional UPDATE, bypassing leases.
+     *
+     * @throws RuntimeException if the event is not found or not enough tickets are available.
+     */
+    public void reserveFromEvent(Long eventId, int numberOfTickets) {
+        if (eventRepository.reserveTickets(eventId, numberOfTickets) == 0) {
+            if (!eventRepository.existsById(eventId)) {
+                throw new RuntimeException("Event not found with id " + eventId);
+            }
+            throw new RuntimeException("Not enough tickets available for this event.");
+        }
+        eventPublisher.publishEvent(new TicketsReservedEvent(eventId, null, numberOfTickets));
+    }
+
+    /**
+     * Returns the tickets of a failed or cancelled booking: to its tier if it has one, otherwise
+     * preferably into this node's active lease so they can be resold without touching the event row.
+     */
+    public void release(Booking booking) {
+        if (booking.getTierId() != null) {
+            ticketTierService.release(booking.getTierId(), booking.getNumberOfTickets());
+            return;
+        }
+        if (booking.getEvent() == null) {
+            return;
+        }
+        release(booking.getEvent().getId(), booking.getNumberOfTickets());
+    }
+
+    /**
+     * Returns tickets to an event in one statement, e.g. the summed tickets of several
+     * expired holds of the same event.
+     */
+    public void release(Long eventId, int numberOfTickets) {
+        eventPublisher.publishEvent(new TicketsReleasedEvent(eventId, null, numberOfTickets));
+
+        Long leaseId = inventoryLeaseManager.activeLeaseId(eventId);
+        if (leaseId != null && inventoryLeaseManager.recordReturn(leaseId, numberOfTickets)) {
+            afterCompletion(status -> {
+                if (status == TransactionSynchronization.STATUS_COMMITTED
+                        && !inventoryLeaseManager.giveBack(leaseId, eventId, numberOfTickets)) {
+                    // Lease closed in the meantime without counting these tickets
+                    releaseInNewTransaction(eventId, numberOfTickets);
+                }
+            });
+            return;
+        }
+
+        eventRepository.releaseTickets(eventId, numberOfTickets);
+    }
+
+    private void releaseInNewTransaction(Long eventId, int numberOfTickets) {
+        newTransaction.executeWithoutResult(status -> eventRepository.releaseTickets(eventId, numberOfTickets));
+    }
+
+    private static void afterCompletion(IntConsumer callback) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status);
+            }
+        });
+    }
+}
@@ -0,0 +1,345 @@
+package com.event.service;
+
+import com.event.bean.TicketTier;
+import com.event.dto.TicketTierDTO;
+import com.event.events.TicketsReleasedEvent;
+import com.event.events.TicketsReservedEvent;
+import com.event.repository.EventRepository;
+import com.event.repository.TicketTierRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntConsumer;
+
+/**
+ * Ticket tiers of events. Sales take tickets with a conditional UPDATE on the tier's own row,
+ * so tiers never contend with each other or with the event row. The event's aggregate
+ * available count is recomputed from its tiers in the background.
+ *
+ * Tier availability for catalog views is served from memory: updated on every local
+ * commit and refreshed from the database periodically to pick up other instances' sales.
+ */
+@Service
+public class TicketTierService {
+
+    @Autowired
+    private TicketTierRepository ticketTierRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private final Map<Long, List<TierState>> tiersByEvent = new ConcurrentHashMap<>();
+    private final Map<Long, TierState> tiersById = new ConcurrentHashMap<>();
+    private final Set<Long> dirtyEvents = ConcurrentHashMap.newKeySet();
+
+    public boolean hasTiers(Long eventId) {
+        return !load(eventId).isEmpty();
+    }
+
+    /**
+     * Tiers of an event with their current availability, straight from memory.
+     */
+    public List<TicketTierDTO> getTiers(Long eventId) {
+        List<TierState> tiers = load(eventId);
+        List<TicketTierDTO> result = new ArrayList<>(tiers.size());
+        Instant now = Instant.now();
+        for (TierState tier : tiers) {
+            result.add(tier.toDTO(now));
+        }
+        return result;
+    }
+
+    /**
+     * Loads the tiers of all given events that are not cached yet with one query, so a
+     * catalog page does not load them event by event.
+     */
+    public void preload(Collection<Long> eventIds) {
+        List<Long> missing = new ArrayList<>();
+        for (Long eventId : eventIds) {
+            if (!tiersByEvent.containsKey(eventId)) {
+                missing.add(eventId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        Map<Long, List<TicketTier>> loaded = new HashMap<>();
+        missing.forEach(eventId -> loaded.put(eventId, new ArrayList<>()));
+        ticketTierRepository.findByEventIdIn(missing).forEach(tier -> loaded.get(tier.getEventId()).add(tier));
+        loaded.forEach((eventId, tiers) -> {
+            tiers.sort((a, b) -> a.getDisplayOrder() != b.getDisplayOrder()
+                    ? Integer.compare(a.getDisplayOrder(), b.getDisplayOrder())
+                    : a.getId().compareTo(b.getId()));
+            tiersByEvent.putIfAbsent(eventId, index(tiers));
+        });
+    }
+
+    /**
+     * Creates, updates or removes the tiers of an event to match {@code tiers} (matched by name).
+     * Capacity changes move the tier's available count by the same amount.
+     *
+     * @return the new total capacity, i.e. the event's total tickets.
+     * @throws RuntimeException if a tier would drop below its sold tickets, or a tier with
+     *                          sold tickets would be removed.
+     */
+    @Transactional
+    public int applyTiers(Long eventId, List<TicketTierDTO> tiers) {
+        Map<String, TicketTier> existing = new HashMap<>();
+        for (TicketTier tier : ticketTierRepository.findByEventIdOrderByDisplayOrderAscIdAsc(eventId)) {
+            existing.put(tier.getName().toLowerCase(), tier);
+        }
+
+        List<TicketTier> toSave = new ArrayList<>(tiers.size());
+        Set<String> names = new HashSet<>();
+        int totalCapacity = 0;
+        for (int i = 0; i < tiers.size(); i++) {
+            TicketTierDTO dto = tiers.get(i);
+            String key = dto.getName().toLowerCase();
+            if (!names.add(key)) {
+                throw new RuntimeException("Duplicate tier name: " + dto.getName());
+            }
+            if (dto.getSaleStartsAt() != null && dto.getSaleEndsAt() != null && !dto.getSaleEndsAt().isAfter(dto.getSaleStartsAt())) {
+                throw new RuntimeException("The sale window of tier " + dto.getName() + " ends before it starts.");
+            }
+
+            TicketTier tier = existing.remove(key);
+            if (tier == null) {
+                tier = new TicketTier();
+                tier.setEventId(eventId);
+                tier.setAvailableTickets(dto.getCapacity());
+            } else {
+                int available = tier.getAvailableTickets() + dto.getCapacity() - tier.getCapacity();
+                if (available < 0) {
+                    throw new RuntimeException("Cannot reduce tier " + dto.getName() + " below its booked tickets.");
+                }
+                tier.setAvailableTickets(available);
+            }
+            tier.setName(dto.getName());
+            tier.setPrice(dto.getPrice());
+            tier.setCapacity(dto.getCapacity());
+            tier.setSaleStartsAt(dto.getSaleStartsAt());
+            tier.setSaleEndsAt(dto.getSaleEndsAt());
+            tier.setDisplayOrder(i);
+            toSave.add(tier);
+            totalCapacity += dto.getCapacity();
+        }
+
+        for (TicketTier removed : existing.values()) {
+            if (removed.getAvailableTickets() != removed.getCapacity()) {
+                throw new RuntimeException("Cannot remove tier " + removed.getName() + ", tickets were already booked in it.");
+            }
+        }
+        ticketTierRepository.deleteAll(existing.values());
+        ticketTierRepository.saveAllAndFlush(toSave); // Flush so a version conflict surfaces inside the caller's retry
+        afterCompletion(status -> evict(eventId));
+        return totalCapacity;
+    }
+
+    /**
+     * Deletes all tiers of a deleted event inside the caller's transaction; their cached state
+     * is dropped once it commits.
+     */
+    public void deleteTiers(Long eventId) {
+        ticketTierRepository.deleteByEventId(eventId);
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                evict(eventId);
+                dirtyEvents.remove(eventId); // Nothing left to fold into the event row
+            }
+        });
+    }
+
+    /**
+     * Takes tickets from a tier for a new booking. Must be called inside a transaction.
+     *
+     * @return the tier's price per ticket.
+     * @throws RuntimeException if the tier does not belong to the event, is not on sale,
+     *                          or does not have enough tickets left.
+     */
+    public double reserve(Long eventId, Long tierId, int numberOfTickets) {
+        TierState tier = tiersById.get(tierId);
+        if (tier == null || !tier.eventId.equals(eventId)) {
+            load(eventId);
+            tier = tiersById.get(tierId);
+        }
+        if (tier == null || !tier.eventId.equals(eventId)) {
+            throw new RuntimeException("Ticket tier " + tierId + " not found for event " + eventId);
+        }
+        if (!tier.isOnSale(Instant.now())) {
+            throw new RuntimeException("Tier " + tier.name + " is not on sale.");
+        }
+        take(tier, numberOfTickets);
+        return tier.price;
+    }
+
+    /**
+     * Takes tickets again for a booking whose hold lapsed before payment arrived. The sale
+     * window is not checked again: the buyer started paying while the tier was on sale.
+     */
+    public void reserveAgain(Long tierId, int numberOfTickets) {
+        take(stateOf(tierId), numberOfTickets);
+    }
+
+    /**
+     * Returns tickets to a tier, e.g. for a failed, cancelled or expired booking.
+     * Must be called inside a transaction.
+     */
+    public void release(Long tierId, int numberOfTickets) {
+        TierState tier = stateOf(tierId);
+        ticketTierRepository.releaseTickets(tierId, numberOfTickets);
+        eventPublisher.publishEvent(new TicketsReleasedEvent(tier.eventId, tierId, numberOfTickets));
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                tier.available.addAndGet(numberOfTickets);
+                dirtyEvents.add(tier.eventId);
+            }
+        });
+    }
+
+    /**
+     * Folds tier sales into the events' aggregate available count, one statement for all
+     * events that sold or released tier tickets since the last run.
+     */
+    @Scheduled(fixedDelayString = "${ticket-tier.sync-interval-ms:1000}")
+    @Transactional
+    public void syncEventAvailability() {
+        if (dirtyEvents.isEmpty()) {
+            return;
+        }
+        List<Long> eventIds = new ArrayList<>(dirtyEvents);
+        dirtyEvents.removeAll(eventIds);
+        eventRepository.syncAvailableTicketsFromTiers(eventIds);
+    }
+
+    /**
+     * Reloads cached tier counters from the database so sales made on other instances show up.
+     */
+    @Scheduled(fixedDelayString = "${ticket-tier.refresh-interval-ms:5000}")
+    public void refreshAvailability() {
+        if (tiersById.isEmpty()) {
+            return;
+        }
+        for (TicketTier tier : ticketTierRepository.findAllById(new ArrayList<>(tiersById.keySet()))) {
+            TierState state = tiersById.get(tier.getId());
+            if (state != null) {
+                state.available.set(tier.getAvailableTickets());
+            }
+        }
+    }
+
+    private void take(TierState tier, int numberOfTickets) {
+        if (ticketTierRepository.reserveTickets(tier.id, numberOfTickets) == 0) {
+            throw new RuntimeException("Not enough tickets available in tier " + tier.name + ".");
+        }
+        eventPublisher.publishEvent(new TicketsReservedEvent(tier.eventId, tier.id, numberOfTickets));
+        afterCompletion(status -> {
+            if (status == TransactionSynchronization.STATUS_COMMITTED) {
+                tier.available.addAndGet(-numberOfTickets);
+                dirtyEvents.add(tier.eventId); // Only once committed, or the sync could read the old sum
+            }
+        });
+    }
+
+    private TierState stateOf(Long tierId) {
+        TierState tier = tiersById.get(tierId);
+        if (tier == null) {
+            TicketTier row = ticketTierRepository.findById(tierId)
+                    .orElseThrow(() -> new RuntimeException("Ticket tier not found with ID: " + tierId));
+            load(row.getEventId());
+            tier = tiersById.get(tierId);
+        }
+        return tier;
+    }
+
+    private List<TierState> load(Long eventId) {
+        return tiersByEvent.computeIfAbsent(eventId, id -> index(ticketTierRepository.findByEventIdOrderByDisplayOrderAscIdAsc(id)));
+    }
+
+    private List<TierState> index(List<TicketTier> tiers) {
+        List<TierState> states = new ArrayList<>(tiers.size());
+        for (TicketTier tier : tiers) {
+            TierState state = new TierState(tier);
+            tiersById.put(state.id, state);
+            states.add(state);
+        }
+        return List.copyOf(states);
+    }
+
+    private void evict(Long eventId) {
+        List<TierState> removed = tiersByEvent.remove(eventId);
+        if (removed != null) {
+            removed.forEach(tier -> tiersById.remove(tier.id, tier));
+        }
+        dirtyEvents.add(eventId);
+    }
+
+    private static void afterCompletion(IntConsumer callback) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                callback.accept(status);
+            }
+        });
+    }
+
+    private static final class TierState {
+        final Long id;
+        final Long eventId;
+        final String name;
+        final double price;
+        final int capacity;
+        final Instant saleStartsAt;
+        final Instant saleEndsAt;
+        final AtomicInteger available;
+
+        TierState(TicketTier tier) {
+            this.id = tier.getId();
+            this.eventId = tier.getEventId();
+            this.name = tier.getName();
+            this.price = tier.getPrice();
+            this.capacity = tier.getCapacity();
+            this.saleStartsAt = tier.getSaleStartsAt();
+            this.saleEndsAt = tier.getSaleEndsAt();
+            this.available = new AtomicInteger(tier.getAvailableTickets());
+        }
+
+        boolean isOnSale(Instant now) {
+            return (saleStartsAt == null || !now.isBefore(saleStartsAt))
+                    && (saleEndsAt == null || now.isBefore(saleEndsAt));
+        }
+
+        TicketTierDTO toDTO(Instant now) {
+            TicketTierDTO dto = new TicketTierDTO();
+            dto.setId(id);
+            dto.setName(name);
+            dto.setPrice(price);
+            dto.setCapacity(capacity);
+            dto.setSaleStartsAt(saleStartsAt);
+            dto.setSaleEndsAt(saleEndsAt);
+            dto.setAvailableTickets(Math.max(0, available.get()));
+            dto.setOnSale(isOnSale(now) && available.get() > 0);
+            return dto;
+        }
+    }
+}
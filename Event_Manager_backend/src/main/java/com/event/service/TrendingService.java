@@ -0,0 +1,86 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import com.event.dto.TrendingEventDTO;
+import com.event.events.TicketsReservedEvent;
+import com.event.util.DecayingTopK;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Trending events: upcoming events ranked by recent views and ticket sales, with older
+ * activity fading out exponentially ({@code event.trending.half-life-ms}). Counts live in a
+ * fixed-size {@link DecayingTopK}, so memory does not grow with the catalog and nothing is
+ * computed from the bookings table. The ranking is republished every second, so reading the
+ * top k costs O(k).
+ */
+@Service
+public class TrendingService {
+
+    public static final int MAX_TRENDING = 50;
+
+    private static final int CANDIDATES = 4 * MAX_TRENDING; // Headroom for past and deleted events
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private final DecayingTopK ranking;
+    private final double viewWeight;
+    private final double ticketWeight;
+
+    private volatile List<TrendingEventDTO> trending = List.of();
+
+    public TrendingService(@Value("${event.trending.half-life-ms:3600000}") long halfLifeMillis,
+                           @Value("${event.trending.view-weight:1}") double viewWeight,
+                           @Value("${event.trending.ticket-weight:5}") double ticketWeight) {
+        this.ranking = new DecayingTopK(4096, 4, CANDIDATES, halfLifeMillis, System.currentTimeMillis());
+        this.viewWeight = viewWeight;
+        this.ticketWeight = ticketWeight;
+    }
+
+    /**
+     * The {@code limit} most active upcoming events right now, most active first.
+     */
+    public List<TrendingEventDTO> getTrending(int limit) {
+        List<TrendingEventDTO> current = trending;
+        return current.subList(0, Math.min(current.size(), Math.max(1, Math.min(limit, MAX_TRENDING))));
+    }
+
+    public void recordView(Long eventId) {
+        ranking.add(eventId, viewWeight, System.currentTimeMillis());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReserved(TicketsReservedEvent event) {
+        ranking.add(event.eventId(), ticketWeight * event.numberOfTickets(), System.currentTimeMillis());
+    }
+
+    /**
+     * Republishes the ranking, leaving out events that have started or no longer exist.
+     */
+    @Scheduled(fixedDelayString = "${event.trending.refresh-interval-ms:1000}")
+    public void refresh() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        Instant now = Instant.now();
+        List<TrendingEventDTO> ranked = new ArrayList<>(MAX_TRENDING);
+        for (DecayingTopK.Entry entry : ranking.top(CANDIDATES, now.toEpochMilli())) {
+            Event event = snapshot.get(entry.key());
+            if (event == null || !event.getDateTime().isAfter(now)) {
+                continue;
+            }
+            ranked.add(new TrendingEventDTO(event.getId(), event.getTitle(), event.getDateTime(), event.getLocation(),
+                    event.getPrice(), event.getAvailableTickets(), event.getImageUrl(), entry.score()));
+            if (ranked.size() == MAX_TRENDING) {
+                break;
+            }
+        }
+        trending = List.copyOf(ranked);
+    }
+}
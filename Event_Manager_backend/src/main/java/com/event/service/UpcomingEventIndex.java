@@ -0,0 +1,131 @@
+package com.event.service;
+
+import com.event.bean.Event;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+
+/**
+ * Immutable index of upcoming events in day buckets (UTC days, keyed by the day's first
+ * instant), each bucket in date order. A range query finds its first bucket and its first
+ * event by binary search and then reads only the events it returns: O(log n + k), however many
+ * events lie outside the range. Past days are dropped with {@link #rolledTo}.
+ */
+public final class UpcomingEventIndex {
+
+    private static final Comparator<Event> DATE_ORDER = Comparator.comparing(Event::getDateTime).thenComparing(Event::getId);
+
+    private final long contentVersion;
+    private final Instant firstDay;
+    private final NavigableMap<Instant, Event[]> days;
+    private final int size;
+
+    private UpcomingEventIndex(long contentVersion, Instant firstDay, NavigableMap<Instant, Event[]> days) {
+        this.contentVersion = contentVersion;
+        this.firstDay = firstDay;
+        this.days = days;
+        this.size = days.values().stream().mapToInt(bucket -> bucket.length).sum();
+    }
+
+    /**
+     * Indexes the events from {@code now}'s day onwards.
+     *
+     * @param events in date order, as in {@link CatalogSnapshot#all()}.
+     */
+    public static UpcomingEventIndex build(long contentVersion, List<Event> events, Instant now) {
+        Instant today = dayOf(now);
+        TreeMap<Instant, List<Event>> grouped = new TreeMap<>();
+        for (Event event : events) {
+            if (event.getDateTime() != null && !event.getDateTime().isBefore(today)) {
+                grouped.computeIfAbsent(dayOf(event.getDateTime()), day -> new ArrayList<>()).add(event);
+            }
+        }
+        TreeMap<Instant, Event[]> days = new TreeMap<>();
+        grouped.forEach((day, bucket) -> {
+            Event[] sorted = bucket.toArray(new Event[0]);
+            Arrays.sort(sorted, DATE_ORDER); // Already sorted when built from a snapshot
+            days.put(day, sorted);
+        });
+        return new UpcomingEventIndex(contentVersion, today, days);
+    }
+
+    public long contentVersion() {
+        return contentVersion;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The same index without the days before {@code now}'s day; this index if there are none.
+     */
+    public UpcomingEventIndex rolledTo(Instant now) {
+        Instant today = dayOf(now);
+        if (!today.isAfter(firstDay)) {
+            return this;
+        }
+        return new UpcomingEventIndex(contentVersion, today, new TreeMap<>(days.tailMap(today, true)));
+    }
+
+    /**
+     * Up to {@code limit} events with {@code from <= dateTime < to} in date order, resuming
+     * after ({@code afterTime}, {@code afterId}) when given.
+     */
+    public List<Event> range(Instant from, Instant to, Instant afterTime, Long afterId, int limit) {
+        List<Event> result = new ArrayList<>(Math.min(limit, 64));
+        if (!from.isBefore(to)) {
+            return result;
+        }
+        Instant startDay = dayOf(afterTime != null && afterTime.isAfter(from) ? afterTime : from);
+        for (Map.Entry<Instant, Event[]> day : days.subMap(startDay, true, to, false).entrySet()) {
+            Event[] bucket = day.getValue();
+            int i = day.getKey().equals(startDay) ? firstAtOrAfter(bucket, from, afterTime, afterId) : 0;
+            for (; i < bucket.length; i++) {
+                if (!bucket[i].getDateTime().isBefore(to) || result.size() == limit) {
+                    return result;
+                }
+                result.add(bucket[i]);
+            }
+        }
+        return result;
+    }
+
+    /** Position of the first event at or after {@code from} and after the cursor. */
+    private static int firstAtOrAfter(Event[] bucket, Instant from, Instant afterTime, Long afterId) {
+        int low = 0;
+        int high = bucket.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (isBeforeStart(bucket[mid], from, afterTime, afterId)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static boolean isBeforeStart(Event event, Instant from, Instant afterTime, Long afterId) {
+        Instant time = event.getDateTime();
+        if (time.isBefore(from)) {
+            return true;
+        }
+        if (afterTime == null) {
+            return false;
+        }
+        int compared = time.compareTo(afterTime);
+        return compared < 0 || (compared == 0 && event.getId() <= afterId);
+    }
+
+    private static Instant dayOf(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.DAYS);
+    }
+}
@@ -0,0 +1,79 @@
+package com.event.service;
+
+import com.event.bean.Event;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Date-range reads ("this weekend", "the next 7 days") over an {@link UpcomingEventIndex}
+ * built from the catalog snapshot. The index is rebuilt in the background when event dates or
+ * texts change, and past days roll out of it as time advances; returned rows come from the
+ * current snapshot, so availability is always current.
+ */
+@Service
+public class UpcomingEventService {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private volatile UpcomingEventIndex index;
+
+    /**
+     * Up to {@code limit} upcoming events with {@code from <= dateTime < to}, soonest first,
+     * resuming after ({@code afterTime}, {@code afterId}) when given. Events that have already
+     * started are never returned.
+     */
+    public List<Event> range(Instant from, Instant to, Instant afterTime, Long afterId, int limit) {
+        Instant now = Instant.now();
+        List<Event> rows = currentIndex().range(from.isBefore(now) ? now : from, to, afterTime, afterId, limit);
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        List<Event> events = new ArrayList<>(rows.size());
+        for (Event row : rows) {
+            Event event = snapshot.get(row.getId());
+            if (event != null) { // Deleted since the index was built
+                events.add(event);
+            }
+        }
+        return events;
+    }
+
+    /**
+     * Rebuilds the index when the catalog's content changed since it was built, otherwise drops
+     * the days that have passed.
+     */
+    @Scheduled(fixedDelayString = "${event.range.refresh-interval-ms:1000}")
+    public void refreshIndex() {
+        CatalogSnapshot snapshot = catalogSnapshotService.current();
+        UpcomingEventIndex current = index;
+        if (current == null || current.contentVersion() != snapshot.contentVersion()) {
+            rebuild(snapshot);
+        } else {
+            roll(current);
+        }
+    }
+
+    private UpcomingEventIndex currentIndex() {
+        UpcomingEventIndex current = index;
+        return current != null ? current : rebuild(catalogSnapshotService.current());
+    }
+
+    private synchronized UpcomingEventIndex rebuild(CatalogSnapshot snapshot) {
+        UpcomingEventIndex current = index;
+        if (current == null || current.contentVersion() < snapshot.contentVersion()) {
+            current = UpcomingEventIndex.build(snapshot.contentVersion(), snapshot.all(), Instant.now());
+            index = current;
+        }
+        return current;
+    }
+
+    private synchronized void roll(UpcomingEventIndex seen) {
+        if (index == seen) {
+            index = seen.rolledTo(Instant.now());
+        }
+    }
+}
@@ -25,6 +25,9 @@ public class UserService {
     @Autowired
     private PasswordEncoder passwordEncoder; // Ensure you have a PasswordEncoder bean configured
 
+    @Autowired
+    private JwtUserDetailsService jwtUserDetailsService;
+
     @Transactional
     public User registerUser(RegisterRequest registerRequest) {
         if (userRepository.existsByUsername(registerRequest.getUsername())) {
@@ -73,9 +76,9 @@ public class UserService {
         return userRepository.save(admin);
     }
 
-    // Method to find user by username, used by JwtUserDetailsService
+    // Method to find user by username; concurrent lookups share one query (see JwtUserDetailsService)
     public User findByUsername(String username) {
-        return userRepository.findByUsername(username)
+        return jwtUserDetailsService.findUser(username)
                              .orElseThrow(() -> new RuntimeException("User not found: " + username));
     }
 }
@@ -0,0 +1,209 @@
+package com.event.service;
+
+import com.event.dto.WaitingRoomStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Optional per-event virtual waiting room in front of create-order.
+ *
+ * Buyers join a bounded FIFO queue and get a token; a ticker admits them at the event's
+ * configured rate. Only admitted tokens may create an order, and each admission is good for
+ * one order within the admission window. Every event has its own rate, so one hot event
+ * cannot use up the booking capacity of the rest of the platform.
+ */
+@Service
+public class WaitingRoomService {
+
+    private final Map<Long, Room> rooms = new ConcurrentHashMap<>();
+    private final long abandonAfterMillis;
+
+    public WaitingRoomService(@Value("${waiting-room.abandon-after-seconds:60}") long abandonAfterSeconds) {
+        this.abandonAfterMillis = abandonAfterSeconds * 1000;
+    }
+
+    /**
+     * Turns the waiting room on for an event, or changes its settings if it is already on.
+     */
+    public void configure(Long eventId, double admissionsPerSecond, int capacity, int admissionWindowSeconds) {
+        rooms.compute(eventId, (id, existing) -> {
+            if (existing == null) {
+                return new Room(admissionsPerSecond, capacity, admissionWindowSeconds * 1000L);
+            }
+            existing.admissionsPerSecond = admissionsPerSecond;
+            existing.capacity = capacity;
+            existing.admissionWindowMillis = admissionWindowSeconds * 1000L;
+            return existing;
+        });
+    }
+
+    /**
+     * Turns the waiting room off; buyers go straight to checkout again.
+     */
+    public void disable(Long eventId) {
+        rooms.remove(eventId);
+    }
+
+    public boolean isActive(Long eventId) {
+        return rooms.containsKey(eventId);
+    }
+
+    /**
+     * Puts a buyer at the back of the queue.
+     *
+     * @throws RuntimeException if the queue is at capacity.
+     */
+    public WaitingRoomStatus join(Long eventId) {
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            WaitingRoomStatus status = new WaitingRoomStatus();
+            status.setEventId(eventId);
+            status.setAdmitted(true);
+            return status;
+        }
+
+        // Reserve a slot first so the queue can never grow past its capacity
+        if (room.waiting.incrementAndGet() > room.capacity) {
+            room.waiting.decrementAndGet();
+            throw new RuntimeException("The waiting room for this event is full, please try again shortly.");
+        }
+        Ticket ticket = new Ticket(UUID.randomUUID().toString(), room.nextSequence.incrementAndGet());
+        room.tickets.put(ticket.token, ticket);
+        room.queue.add(ticket);
+        return statusOf(eventId, room, ticket);
+    }
+
+    /**
+     * Current position of a token; polling also keeps the token from being treated as abandoned.
+     *
+     * @throws RuntimeException if the token is unknown or has expired.
+     */
+    public WaitingRoomStatus status(Long eventId, String token) {
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            return join(eventId);
+        }
+        Ticket ticket = token == null ? null : room.tickets.get(token);
+        if (ticket == null) {
+            throw new RuntimeException("Unknown or expired waiting room token.");
+        }
+        ticket.lastSeenMillis = System.currentTimeMillis();
+        return statusOf(eventId, room, ticket);
+    }
+
+    /**
+     * Uses up the admission of a token for one create-order call.
+     *
+     * @return {@code true} if the event has no waiting room or the token is admitted and unused.
+     */
+    public boolean consumeAdmission(Long eventId, String token) {
+        Room room = rooms.get(eventId);
+        if (room == null) {
+            return true;
+        }
+        if (token == null) {
+            return false;
+        }
+        Ticket ticket = room.tickets.get(token);
+        if (ticket == null || ticket.admittedAtMillis == 0
+                || System.currentTimeMillis() > ticket.admittedAtMillis + room.admissionWindowMillis) {
+            return false;
+        }
+        return room.tickets.remove(token, ticket); // One order per admission
+    }
+
+    /**
+     * Admits the next buyers of every room at that room's own rate.
+     */
+    @Scheduled(fixedRateString = "${waiting-room.tick-ms:100}")
+    public void admit() {
+        long now = System.currentTimeMillis();
+        rooms.values().forEach(room -> room.admit(now, abandonAfterMillis));
+    }
+
+    private WaitingRoomStatus statusOf(Long eventId, Room room, Ticket ticket) {
+        WaitingRoomStatus status = new WaitingRoomStatus();
+        status.setToken(ticket.token);
+        status.setEventId(eventId);
+        status.setWaitingRoomActive(true);
+        if (ticket.admittedAtMillis != 0) {
+            status.setAdmitted(true);
+            status.setAdmissionExpiresAt(ticket.admittedAtMillis + room.admissionWindowMillis);
+        } else {
+            long position = Math.max(0, ticket.sequence - room.admittedSequence.get() - 1);
+            status.setPosition(position);
+            status.setEstimatedWaitSeconds((long) Math.ceil(position / room.admissionsPerSecond));
+        }
+        return status;
+    }
+
+    private static final class Ticket {
+        final String token;
+        final long sequence;
+        volatile long lastSeenMillis = System.currentTimeMillis();
+        volatile long admittedAtMillis; // 0 while still waiting
+
+        Ticket(String token, long sequence) {
+            this.token = token;
+            this.sequence = sequence;
+        }
+    }
+
+    private static final class Room {
+        volatile double admissionsPerSecond;
+        volatile int capacity;
+        volatile long admissionWindowMillis;
+
+        final ConcurrentLinkedQueue<Ticket> queue = new ConcurrentLinkedQueue<>();
+        final Map<String, Ticket> tickets = new ConcurrentHashMap<>();
+        final AtomicInteger waiting = new AtomicInteger();
+        final AtomicLong nextSequence = new AtomicLong();
+        final AtomicLong admittedSequence = new AtomicLong();
+
+        // Only touched by the scheduler thread
+        private double credit;
+        private long lastTickMillis = System.currentTimeMillis();
+        private long lastSweepMillis = lastTickMillis;
+
+        Room(double admissionsPerSecond, int capacity, long admissionWindowMillis) {
+            this.admissionsPerSecond = admissionsPerSecond;
+            this.capacity = capacity;
+            this.admissionWindowMillis = admissionWindowMillis;
+        }
+
+        void admit(long now, long abandonAfterMillis) {
+            // Token bucket: accrue credit at the configured rate, bursting at most one second's worth
+            credit = Math.min(admissionsPerSecond, credit + admissionsPerSecond * (now - lastTickMillis) / 1000.0);
+            lastTickMillis = now;
+
+            Ticket ticket;
+            while (credit >= 1 && (ticket = queue.poll()) != null) {
+                waiting.decrementAndGet();
+                admittedSequence.set(ticket.sequence);
+                if (now - ticket.lastSeenMillis > abandonAfterMillis) {
+                    tickets.remove(ticket.token); // Stopped polling: skip without spending an admission
+                    continue;
+                }
+                ticket.admittedAtMillis = now;
+                credit -= 1;
+            }
+            if (queue.isEmpty()) {
+                credit = Math.min(credit, 1); // Don't bank admissions while nobody is waiting
+            }
+
+            // Drop admissions that were never used (once a second is plenty)
+            if (now - lastSweepMillis >= 1000) {
+                lastSweepMillis = now;
+                tickets.values().removeIf(t -> t.admittedAtMillis != 0 && now > t.admittedAtMillis + admissionWindowMillis);
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.event.service;
+
+import com.event.bean.Booking;
+import com.event.bean.Event;
+import com.event.bean.WaitlistEntry;
+import com.event.dto.TicketTierDTO;
+import com.event.dto.WaitlistRequest;
+import com.event.dto.WaitlistStatus;
+import com.event.events.TicketsReleasedEvent;
+import com.event.repository.EventRepository;
+import com.event.repository.WaitlistEntryRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Waitlist for sold-out events. Entries are persisted and mirrored in an in-memory priority
+ * queue per event (and tier), ordered by join time. Whenever tickets are released, the next
+ * people in line are promoted right away: the tickets are held for them as a PENDING_PAYMENT
+ * booking and they get a claim code, valid for the normal hold time. Unclaimed holds expire
+ * like any other and promote the next person.
+ *
+ * Offer emails are sent in batches by a background job, so customers wait for an email
+ * instead of refreshing the event page.
+ *
+ * The waitlist is no way around a flash-sale waiting room: joining is only possible once the
+ * event (or tier) cannot fill the request, not while the event's waiting room is open, and
+ * nobody is promoted while it is open (released tickets go back to the admitted buyers).
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger logger = LoggerFactory.getLogger(WaitlistService.class);
+
+    private static final List<String> ACTIVE_STATUSES = List.of("WAITING", "OFFERED");
+
+    private static final Comparator<Waiter> LINE_ORDER =
+            Comparator.comparing(Waiter::joinedAt).thenComparing(Waiter::id);
+
+    @Autowired
+    private WaitlistEntryRepository waitlistEntryRepository;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TicketTierService ticketTierService;
+
+    @Autowired
+    private HoldExpiryService holdExpiryService;
+
+    @Autowired
+    private WaitingRoomService waitingRoomService;
+
+    @Autowired
+    private InventoryLeaseManager inventoryLeaseManager;
+
+    @Autowired
+    private EmailService emailService;
+
+    private final TransactionTemplate transactionTemplate;
+    private final int maxTicketsPerEntry;
+    private final Map<WaitKey, PriorityQueue<Waiter>> queues = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<EmailService.WaitlistOffer> pendingNotifications = new ConcurrentLinkedQueue<>();
+    private final ExecutorService promoter;
+    private volatile long lastLoadedId;
+
+    public WaitlistService(PlatformTransactionManager transactionManager,
+                           @Value("${waitlist.max-tickets-per-entry:10}") int maxTicketsPerEntry) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.maxTicketsPerEntry = maxTicketsPerEntry;
+        // One thread: promotions never race each other for the same released tickets
+        this.promoter = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "waitlist-promoter");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Puts a customer on the waitlist of an event. The new entry's status carries a random
+     * manage token, needed later to check on or leave the entry; it is not shown again.
+     * Joining twice returns the existing entry, without its token.
+     *
+     * @throws RuntimeException if the event or tier is not found, a tier is required but
+     *                          missing, the request is larger than the per-entry limit or the
+     *                          event (tier) itself, enough tickets are still on sale, or the
+     *                          event's waiting room is open.
+     */
+    public WaitlistStatus join(Long eventId, WaitlistRequest request) {
+        Event event = eventRepository.findById(eventId)
+                .orElseThrow(() -> new RuntimeException("Event not found with ID: " + eventId));
+        if (request.getTierId() == null && ticketTierService.hasTiers(eventId)) {
+            throw new RuntimeException("Please choose a ticket tier for this event.");
+        }
+        WaitlistEntry existing = waitlistEntryRepository
+                .findFirstByEventIdAndUserEmailAndStatusIn(eventId, request.getUserEmail(), ACTIVE_STATUSES)
+                .orElse(null);
+        if (existing != null) {
+            return statusOf(existing);
+        }
+        if (waitingRoomService.isActive(eventId)) {
+            throw new RuntimeException("The waitlist is closed while the waiting room for this event is open.");
+        }
+        if (request.getNumberOfTickets() > maxTicketsPerEntry) {
+            throw new RuntimeException("You can wait for at most " + maxTicketsPerEntry + " tickets.");
+        }
+        int[] capacityAndAvailable = capacityAndAvailable(event, request.getTierId());
+        if (capacityAndAvailable == null) {
+            throw new RuntimeException("Ticket tier " + request.getTierId() + " is not on sale for event " + eventId);
+        }
+        if (request.getNumberOfTickets() > capacityAndAvailable[0]) {
+            throw new RuntimeException("This event only has " + capacityAndAvailable[0] + " tickets.");
+        }
+        if (request.getNumberOfTickets() <= capacityAndAvailable[1]) {
+            throw new RuntimeException("Tickets are still available, please book them directly.");
+        }
+
+        WaitlistEntry entry = new WaitlistEntry();
+        entry.setEventId(eventId);
+        entry.setTierId(request.getTierId());
+        entry.setUserName(request.getUserName());
+        entry.setUserEmail(request.getUserEmail());
+        entry.setNumberOfTickets(request.getNumberOfTickets());
+        entry.setJoinedAt(LocalDateTime.now());
+        entry.setStatus("WAITING");
+        entry.setManageToken(UUID.randomUUID().toString());
+        entry = waitlistEntryRepository.save(entry);
+
+        WaitKey key = new WaitKey(eventId, entry.getTierId());
+        enqueue(key, entry);
+        schedulePromotion(key);
+        WaitlistStatus status = statusOf(entry);
+        status.setManageToken(entry.getManageToken());
+        return status;
+    }
+
+    /**
+     * Current state of an entry and, while waiting, how many people are ahead.
+     *
+     * @throws RuntimeException if the entry is not found or the manage token does not match.
+     */
+    public WaitlistStatus status(Long entryId, String manageToken) {
+        return statusOf(findOwned(entryId, manageToken));
+    }
+
+    /**
+     * Leaves the waitlist. An outstanding offer is given up, so its tickets go to the next in line.
+     */
+    public void leave(Long entryId, String manageToken) {
+        WaitlistEntry entry = findOwned(entryId, manageToken);
+        if ("OFFERED".equals(entry.getStatus()) && entry.getBookingId() != null) {
+            bookingService.failBooking(entry.getBookingId());
+        } else if (!"WAITING".equals(entry.getStatus())) {
+            throw new RuntimeException("Waitlist entry is already " + entry.getStatus() + ".");
+        }
+        entry.setStatus("CANCELLED");
+        waitlistEntryRepository.save(entry);
+
+        PriorityQueue<Waiter> queue = queues.get(new WaitKey(entry.getEventId(), entry.getTierId()));
+        if (queue != null) {
+            synchronized (queue) {
+                queue.removeIf(waiter -> waiter.id().equals(entryId));
+            }
+        }
+    }
+
+    /**
+     * Claims an offer: returns the held PENDING_PAYMENT booking so it can be paid for.
+     * Claiming again (e.g. after a failed payment attempt) returns the same booking.
+     *
+     * @throws RuntimeException if the claim code is unknown or the offer has lapsed.
+     */
+    public Booking claim(String claimToken) {
+        WaitlistEntry entry = waitlistEntryRepository.findByClaimToken(claimToken)
+                .orElseThrow(() -> new RuntimeException("Unknown claim code."));
+        if (!"OFFERED".equals(entry.getStatus()) && !"CLAIMED".equals(entry.getStatus())) {
+            throw new RuntimeException("This offer is no longer available.");
+        }
+        Booking booking = bookingService.getBookingById(entry.getBookingId())
+                .orElseThrow(() -> new RuntimeException("Booking not found with ID: " + entry.getBookingId()));
+        if (!"PENDING_PAYMENT".equals(booking.getStatus())) {
+            entry.setStatus("EXPIRED");
+            waitlistEntryRepository.save(entry);
+            throw new RuntimeException("This offer is no longer available.");
+        }
+        entry.setStatus("CLAIMED");
+        waitlistEntryRepository.save(entry);
+        return booking;
+    }
+
+    /**
+     * Offers released tickets to the next people in line, once the release has committed.
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTicketsReleased(TicketsReleasedEvent event) {
+        schedulePromotion(new WaitKey(event.eventId(), event.tierId()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void recoverWaitlists() {
+        List<WaitlistEntry> waiting = waitlistEntryRepository.findByStatus("WAITING");
+        loadWaiting(waiting);
+        queues.keySet().forEach(this::schedulePromotion);
+        if (!waiting.isEmpty()) {
+            logger.info("Restored {} waitlist entries", waiting.size());
+        }
+    }
+
+    /**
+     * Sends the offer emails collected since the last run in one batch, lapses unclaimed offers,
+     * and picks up entries that joined through other instances.
+     */
+    @Scheduled(fixedDelayString = "${waitlist.notify-interval-ms:5000}")
+    public void flushNotifications() {
+        List<EmailService.WaitlistOffer> batch = new ArrayList<>();
+        EmailService.WaitlistOffer offer;
+        while ((offer = pendingNotifications.poll()) != null) {
+            batch.add(offer);
+        }
+        if (!batch.isEmpty()) {
+            emailService.sendWaitlistOffers(batch);
+        }
+
+        transactionTemplate.executeWithoutResult(status -> waitlistEntryRepository.expireOffers(LocalDateTime.now()));
+
+        List<WaitlistEntry> joinedElsewhere = waitlistEntryRepository.findByStatusAndIdGreaterThanOrderByIdAsc("WAITING", lastLoadedId);
+        loadWaiting(joinedElsewhere);
+    }
+
+    private void loadWaiting(List<WaitlistEntry> entries) {
+        for (WaitlistEntry entry : entries) {
+            enqueue(new WaitKey(entry.getEventId(), entry.getTierId()), entry);
+        }
+    }
+
+    private void enqueue(WaitKey key, WaitlistEntry entry) {
+        PriorityQueue<Waiter> queue = queues.computeIfAbsent(key, k -> new PriorityQueue<>(LINE_ORDER));
+        synchronized (queue) {
+            if (queue.stream().noneMatch(waiter -> waiter.id().equals(entry.getId()))) {
+                queue.add(new Waiter(entry.getId(), entry.getJoinedAt()));
+            }
+        }
+        lastLoadedId = Math.max(lastLoadedId, entry.getId());
+    }
+
+    private void schedulePromotion(WaitKey key) {
+        PriorityQueue<Waiter> queue = queues.get(key);
+        if (queue != null && !queue.isEmpty() && !waitingRoomService.isActive(key.eventId())) {
+            promoter.execute(() -> promote(queue));
+        }
+    }
+
+    /**
+     * Strictly first come, first served: stops at the first person whose tickets cannot be
+     * held yet, rather than letting smaller requests further back jump the line. A head that
+     * can never be served (event or tier gone, tier no longer on sale, or more tickets than it
+     * now has) is expired instead, so it cannot block the line.
+     */
+    private void promote(PriorityQueue<Waiter> queue) {
+        while (true) {
+            Waiter head;
+            synchronized (queue) {
+                head = queue.peek();
+            }
+            if (head == null) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> offer(head.id()));
+            } catch (RuntimeException e) {
+                if (!expireIfUnservable(head.id())) {
+                    return; // Not enough tickets (yet); the next release tries again
+                }
+            }
+            synchronized (queue) {
+                queue.remove(head);
+            }
+        }
+    }
+
+    private boolean expireIfUnservable(Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId).orElse(null);
+        if (entry == null || !"WAITING".equals(entry.getStatus())) {
+            return true; // Nothing left to serve
+        }
+        Event event = eventRepository.findById(entry.getEventId()).orElse(null);
+        int[] capacityAndAvailable = event != null ? capacityAndAvailable(event, entry.getTierId()) : null;
+        if (capacityAndAvailable != null && entry.getNumberOfTickets() <= capacityAndAvailable[0]) {
+            return false;
+        }
+        entry.setStatus("EXPIRED");
+        waitlistEntryRepository.save(entry);
+        logger.info("Expired waitlist entry {}: its {} tickets can no longer be offered", entryId, entry.getNumberOfTickets());
+        return true;
+    }
+
+    /**
+     * Capacity and currently available tickets of the event, or of its tier, from memory where
+     * possible. {@code null} if the tier does not exist or its sale is over.
+     */
+    private int[] capacityAndAvailable(Event event, Long tierId) {
+        if (tierId == null) {
+            return new int[]{event.getTotalTickets(),
+                    event.getAvailableTickets() + inventoryLeaseManager.unsold(event.getId())};
+        }
+        Instant now = Instant.now();
+        for (TicketTierDTO tier : ticketTierService.getTiers(event.getId())) {
+            if (tier.getId().equals(tierId)) {
+                boolean saleOver = tier.getSaleEndsAt() != null && !tier.getSaleEndsAt().isAfter(now);
+                return saleOver ? null : new int[]{tier.getCapacity(), tier.getAvailableTickets()};
+            }
+        }
+        return null;
+    }
+
+    private void offer(Long entryId) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId).orElse(null);
+        if (entry == null || !"WAITING".equals(entry.getStatus())) {
+            return; // Left the waitlist or promoted by another instance
+        }
+
+        Booking booking = bookingService.createPendingBooking(entry.getEventId(), entry.getUserName(),
+                entry.getUserEmail(), entry.getNumberOfTickets(), entry.getTierId(), null, null, null);
+
+        LocalDateTime expiresAt = booking.getBookingDateTime().plusNanos(holdExpiryService.getHoldTtlMillis() * 1_000_000);
+        entry.setStatus("OFFERED");
+        entry.setBookingId(booking.getId());
+        entry.setClaimToken(UUID.randomUUID().toString());
+        entry.setOfferExpiresAt(expiresAt);
+        waitlistEntryRepository.saveAndFlush(entry); // Version check: only one instance can promote an entry
+
+        String eventTitle = eventRepository.findById(entry.getEventId()).map(Event::getTitle).orElse("your event");
+        EmailService.WaitlistOffer offer = new EmailService.WaitlistOffer(entry.getUserEmail(), entry.getUserName(),
+                eventTitle, entry.getNumberOfTickets(), entry.getClaimToken(), expiresAt);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                pendingNotifications.add(offer);
+            }
+        });
+    }
+
+    private WaitlistEntry findOwned(Long entryId, String manageToken) {
+        WaitlistEntry entry = waitlistEntryRepository.findById(entryId)
+                .orElseThrow(() -> new RuntimeException("Waitlist entry not found with ID: " + entryId));
+        // Entry ids are sequential and emails guessable; only the random token proves ownership
+        if (entry.getManageToken() == null || !entry.getManageToken().equals(manageToken)) {
+            throw new RuntimeException("Waitlist entry not found with ID: " + entryId);
+        }
+        return entry;
+    }
+
+    private WaitlistStatus statusOf(WaitlistEntry entry) {
+        WaitlistStatus status = new WaitlistStatus();
+        status.setEntryId(entry.getId());
+        status.setEventId(entry.getEventId());
+        status.setStatus(entry.getStatus());
+        if ("WAITING".equals(entry.getStatus())) {
+            PriorityQueue<Waiter> queue = queues.get(new WaitKey(entry.getEventId(), entry.getTierId()));
+            if (queue != null) {
+                Waiter self = new Waiter(entry.getId(), entry.getJoinedAt());
+                synchronized (queue) {
+                    status.setPosition(queue.stream().filter(w -> LINE_ORDER.compare(w, self) < 0).count());
+                }
+            }
+        }
+        return status;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        promoter.shutdownNow();
+    }
+
+    private record WaitKey(Long eventId, Long tierId) {
+    }
+
+    private record Waiter(Long id, LocalDateTime joinedAt) {
+    }
+}
@@ -0,0 +1,159 @@
+package com.event.util;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A small read-through cache bounded by size (least recently used entries go first) and by
+ * age (entries older than the TTL are reloaded). Loads run outside the lock; a load that
+ * overlaps an invalidation is returned to its caller but not cached, so an invalidation can
+ * never be undone by a slow reader putting the old value back.
+ *
+ * Concurrent misses for the same key share one load ({@link SingleFlight}). Optionally, an
+ * entry that expired less than {@code staleWhileRevalidateMillis} ago is still served while a
+ * single background refresh reloads it, so a hot key never makes readers wait on expiry.
+ * Invalidated entries are never served stale.
+ */
+public class BoundedTtlCache<K, V> {
+
+    public record Stats(long hits, long staleHits, long misses, long coalescedLoads, long evictions, int size) {
+    }
+
+    private final int maxSize;
+    private final long ttlMillis;
+    private final long staleWhileRevalidateMillis;
+    private final Executor refresher;
+    private final SingleFlight<K, V> loads = new SingleFlight<>();
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder staleHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long invalidations; // Guarded by this
+
+    public BoundedTtlCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, 0, null);
+    }
+
+    /**
+     * @param refresher runs background refreshes of stale entries; {@code null} disables
+     *                  stale-while-revalidate.
+     */
+    public BoundedTtlCache(int maxSize, long ttlMillis, long staleWhileRevalidateMillis, Executor refresher) {
+        this.maxSize = Math.max(1, maxSize);
+        this.ttlMillis = ttlMillis;
+        this.staleWhileRevalidateMillis = refresher != null ? Math.max(0, staleWhileRevalidateMillis) : 0;
+        this.refresher = refresher;
+    }
+
+    /**
+     * Returns the cached value, or loads, caches and returns it. {@code null} results are
+     * returned but not cached.
+     */
+    public V getOrLoad(K key, Supplier<V> loader) {
+        V stale = null;
+        synchronized (this) {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                long age = System.currentTimeMillis() - entry.loadedAt;
+                if (age < ttlMillis) {
+                    hits.increment();
+                    return entry.value;
+                }
+                if (age < ttlMillis + staleWhileRevalidateMillis) {
+                    stale = entry.value;
+                } else {
+                    entries.remove(key);
+                    evictions.increment();
+                }
+            }
+        }
+
+        if (stale != null) {
+            staleHits.increment();
+            refreshInBackground(key, loader);
+            return stale;
+        }
+        misses.increment();
+        return loads.load(key, () -> loadAndCache(key, loader));
+    }
+
+    public synchronized void invalidate(K key) {
+        invalidations++;
+        entries.remove(key);
+        loads.forget(key); // Later readers must not join a load that may predate the change
+    }
+
+    /**
+     * Drops every entry whose value matches, e.g. every cached page that contains a given event.
+     */
+    public synchronized void invalidateIf(Predicate<V> predicate) {
+        invalidations++;
+        entries.values().removeIf(entry -> predicate.test(entry.value));
+        loads.forgetAll();
+    }
+
+    public synchronized void clear() {
+        invalidations++;
+        entries.clear();
+        loads.forgetAll();
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(hits.sum(), staleHits.sum(), misses.sum(), loads.stats().coalesced(), evictions.sum(), entries.size());
+    }
+
+    private V loadAndCache(K key, Supplier<V> loader) {
+        long seenInvalidations;
+        synchronized (this) {
+            seenInvalidations = invalidations;
+        }
+        V value = loader.get();
+        synchronized (this) {
+            if (invalidations == seenInvalidations) {
+                if (value != null) {
+                    entries.put(key, new Entry<>(value, System.currentTimeMillis()));
+                    evictOverflow();
+                } else {
+                    entries.remove(key); // Gone at the source: do not keep serving the stale value
+                }
+            }
+        }
+        return value;
+    }
+
+    private void refreshInBackground(K key, Supplier<V> loader) {
+        if (loads.isLoading(key)) {
+            return; // A refresh (or load) is already running for this key
+        }
+        try {
+            refresher.execute(() -> {
+                try {
+                    loads.load(key, () -> loadAndCache(key, loader));
+                } catch (RuntimeException e) {
+                    // Keep serving the stale value until it ages out; the next reader retries
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Refresher shut down or saturated: readers keep the stale value until it ages out
+        }
+    }
+
+    private void evictOverflow() {
+        Iterator<Map.Entry<K, Entry<V>>> it = entries.entrySet().iterator();
+        while (entries.size() > maxSize && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions.increment();
+        }
+    }
+
+    private record Entry<V>(V value, long loadedAt) {
+    }
+}
@@ -0,0 +1,149 @@
+package com.event.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximate "hottest keys lately" in fixed memory: exponentially decayed counts kept in a
+ * count-min sketch, plus a small set of the heaviest keys seen so far.
+ *
+ * Decay uses forward decay: instead of shrinking every counter as time passes, a hit at time
+ * t adds {@code weight * 2^((t - landmark) / halfLife)}, which ranks exactly like decaying all
+ * counts and costs O(depth) per hit. Counters are rescaled (and the landmark moved) before the
+ * multiplier grows large. The sketch uses conservative update, so a key is overestimated only
+ * by hits that collided with it in every row.
+ *
+ * Memory is {@code width * depth} counters plus {@code capacity} candidates, however many keys
+ * are seen. Thread-safe: every method is one short synchronized section.
+ */
+public class DecayingTopK {
+
+    public record Entry(long key, double score) {
+    }
+
+    private static final double RESCALE_ABOVE = 1e12; // Of the forward-decay multiplier
+
+    private final int width;
+    private final double[][] counters;
+    private final long[] seeds;
+    private final int[] slots; // Scratch for add, guarded by this
+    private final int capacity;
+    private final double halfLifeMillis;
+    private final Map<Long, Double> candidates; // Key -> estimated scaled score, at most capacity entries
+    private long landmarkMillis;
+    private long minKey;      // Lightest candidate, valid while candidates is full
+    private double minScore;
+
+    /**
+     * @param width    counters per row; more means fewer collisions.
+     * @param depth    rows, each with its own hash.
+     * @param capacity heavy-hitter candidates tracked; the top k is exact among them.
+     */
+    public DecayingTopK(int width, int depth, int capacity, long halfLifeMillis, long nowMillis) {
+        this.width = width;
+        this.counters = new double[depth][width];
+        this.seeds = new long[depth];
+        this.slots = new int[depth];
+        for (int row = 0; row < depth; row++) {
+            seeds[row] = mix(0x9E3779B97F4A7C15L * (row + 1));
+        }
+        this.capacity = capacity;
+        this.halfLifeMillis = halfLifeMillis;
+        this.candidates = new HashMap<>(capacity * 2);
+        this.landmarkMillis = nowMillis;
+    }
+
+    /**
+     * Records {@code weight} hits for {@code key} at {@code nowMillis} (which should not go back
+     * in time by more than a little).
+     */
+    public synchronized void add(long key, double weight, long nowMillis) {
+        double multiplier = multiplier(nowMillis);
+        if (multiplier > RESCALE_ABOVE) {
+            rescale(nowMillis);
+            multiplier = multiplier(nowMillis);
+        }
+
+        // Conservative update: raise every row only as far as the new estimate
+        double estimate = Double.MAX_VALUE;
+        for (int row = 0; row < counters.length; row++) {
+            slots[row] = (int) Long.remainderUnsigned(mix(key ^ seeds[row]), width);
+            estimate = Math.min(estimate, counters[row][slots[row]]);
+        }
+        estimate += weight * multiplier;
+        for (int row = 0; row < counters.length; row++) {
+            if (counters[row][slots[row]] < estimate) {
+                counters[row][slots[row]] = estimate;
+            }
+        }
+        offer(key, estimate);
+    }
+
+    /**
+     * The {@code k} heaviest keys with their decayed scores as of {@code nowMillis}, heaviest first.
+     */
+    public synchronized List<Entry> top(int k, long nowMillis) {
+        double scale = 1 / multiplier(nowMillis);
+        List<Entry> entries = new ArrayList<>(candidates.size());
+        candidates.forEach((key, score) -> entries.add(new Entry(key, score * scale)));
+        entries.sort((a, b) -> Double.compare(b.score(), a.score()));
+        return entries.size() > k ? List.copyOf(entries.subList(0, k)) : entries;
+    }
+
+    private void offer(long key, double estimate) {
+        if (candidates.containsKey(key)) {
+            candidates.put(key, estimate);
+            if (key == minKey) {
+                findMin();
+            }
+            return;
+        }
+        if (candidates.size() < capacity) {
+            candidates.put(key, estimate);
+            if (candidates.size() == capacity) {
+                findMin();
+            }
+            return;
+        }
+        if (estimate > minScore) {
+            candidates.remove(minKey);
+            candidates.put(key, estimate);
+            findMin();
+        }
+    }
+
+    private void findMin() {
+        minScore = Double.MAX_VALUE;
+        candidates.forEach((key, score) -> {
+            if (score < minScore) {
+                minScore = score;
+                minKey = key;
+            }
+        });
+    }
+
+    private double multiplier(long nowMillis) {
+        return Math.pow(2, (nowMillis - landmarkMillis) / halfLifeMillis);
+    }
+
+    /** Moves the landmark to now, dividing every count by the multiplier reached so far. */
+    private void rescale(long nowMillis) {
+        double factor = 1 / multiplier(nowMillis);
+        for (double[] row : counters) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] *= factor;
+            }
+        }
+        candidates.replaceAll((key, score) -> score * factor);
+        minScore *= factor;
+        landmarkMillis = nowMillis;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+        z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+        return z ^ (z >>> 33);
+    }
+}
@@ -0,0 +1,91 @@
+package com.event.util;
+
+/**
+ * Hash aggregation for group-by queries: per group key (up to two long components) it sums a
+ * row count and two long measures, all in primitive arrays (open addressing, linear probing).
+ * Each worker fills its own table and the tables are merged at the end. Not thread-safe.
+ */
+public class GroupTable {
+
+    /** Receives one group. */
+    public interface Visitor {
+        void visit(long key1, long key2, long count, long sum1, long sum2);
+    }
+
+    private long[] keys1;
+    private long[] keys2;
+    private long[] counts; // 0 = empty slot
+    private long[] sums1;
+    private long[] sums2;
+    private int size;
+
+    public GroupTable() {
+        allocate(64);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(long key1, long key2, long count, long value1, long value2) {
+        if ((size + 1) * 2 > counts.length) {
+            resize(counts.length * 2);
+        }
+        int mask = counts.length - 1;
+        int slot = hash(key1, key2) & mask;
+        while (counts[slot] != 0) {
+            if (keys1[slot] == key1 && keys2[slot] == key2) {
+                counts[slot] += count;
+                sums1[slot] += value1;
+                sums2[slot] += value2;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys1[slot] = key1;
+        keys2[slot] = key2;
+        counts[slot] = count;
+        sums1[slot] = value1;
+        sums2[slot] = value2;
+        size++;
+    }
+
+    /** Adds every group of {@code other} into this table and returns this table. */
+    public GroupTable merge(GroupTable other) {
+        other.forEach(this::add);
+        return this;
+    }
+
+    public void forEach(Visitor visitor) {
+        for (int slot = 0; slot < counts.length; slot++) {
+            if (counts[slot] != 0) {
+                visitor.visit(keys1[slot], keys2[slot], counts[slot], sums1[slot], sums2[slot]);
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys1 = new long[capacity];
+        keys2 = new long[capacity];
+        counts = new long[capacity];
+        sums1 = new long[capacity];
+        sums2 = new long[capacity];
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys1 = keys1, oldKeys2 = keys2, oldCounts = counts, oldSums1 = sums1, oldSums2 = sums2;
+        allocate(capacity);
+        size = 0;
+        for (int slot = 0; slot < oldCounts.length; slot++) {
+            if (oldCounts[slot] != 0) {
+                add(oldKeys1[slot], oldKeys2[slot], oldCounts[slot], oldSums1[slot], oldSums2[slot]);
+            }
+        }
+    }
+
+    private static int hash(long key1, long key2) {
+        long h = key1 * 0x9E3779B97F4A7C15L + key2;
+        h = (h ^ (h >>> 33)) * 0xff51afd7ed558ccdL;
+        return (int) (h ^ (h >>> 33));
+    }
+}
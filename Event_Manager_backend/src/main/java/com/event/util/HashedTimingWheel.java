@@ -0,0 +1,142 @@
+package com.event.util;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel (Varghese &amp; Lauck) keyed by an id.
+ *
+ * Timeouts are hashed into {@code wheelSize} buckets by their expiry tick; timeouts further
+ * away than one revolution carry a round counter. Scheduling and cancelling are O(1), and
+ * advancing the wheel only touches the buckets that were passed. The wheel is passive:
+ * the owner calls {@link #advanceTo(long)} from its own timer thread.
+ *
+ * @param <K> key type; scheduling an existing key replaces its previous timeout
+ */
+public class HashedTimingWheel<K> {
+
+    private final long tickMillis;
+    private final int mask;
+    private final Bucket<K>[] buckets;
+    private final Map<K, Timeout<K>> timeouts = new HashMap<>();
+    private final long startMillis;
+    private long currentTick;
+
+    @SuppressWarnings("unchecked")
+    public HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("tickMillis must be positive");
+        }
+        int size = Integer.highestOneBit(Math.max(2, wheelSize - 1)) << 1; // Round up to a power of two
+        this.tickMillis = tickMillis;
+        this.mask = size - 1;
+        this.buckets = new Bucket[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new Bucket<>();
+        }
+        this.startMillis = startMillis;
+    }
+
+    /**
+     * Schedules {@code key} to expire at {@code deadlineMillis}. Deadlines in the past expire on the next tick.
+     */
+    public synchronized void schedule(K key, long deadlineMillis) {
+        cancel(key);
+        long deadlineTick = Math.max(currentTick + 1, (deadlineMillis - startMillis + tickMillis - 1) / tickMillis);
+        long ticksAway = deadlineTick - currentTick;
+        Timeout<K> timeout = new Timeout<>(key, (ticksAway - 1) / buckets.length);
+        buckets[(int) (deadlineTick & mask)].add(timeout);
+        timeouts.put(key, timeout);
+    }
+
+    /**
+     * @return {@code true} if the key had a pending timeout.
+     */
+    public synchronized boolean cancel(K key) {
+        Timeout<K> timeout = timeouts.remove(key);
+        if (timeout == null) {
+            return false;
+        }
+        timeout.bucket.remove(timeout);
+        return true;
+    }
+
+    public synchronized int size() {
+        return timeouts.size();
+    }
+
+    /**
+     * Advances the wheel up to {@code nowMillis} and returns the keys whose timeouts expired.
+     */
+    public synchronized List<K> advanceTo(long nowMillis) {
+        long targetTick = (nowMillis - startMillis) / tickMillis;
+        List<K> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            currentTick++;
+            buckets[(int) (currentTick & mask)].expire(expired, timeouts);
+        }
+        return expired;
+    }
+
+    private static final class Timeout<K> {
+        final K key;
+        long remainingRounds;
+        Bucket<K> bucket;
+        Timeout<K> prev;
+        Timeout<K> next;
+
+        Timeout(K key, long remainingRounds) {
+            this.key = key;
+            this.remainingRounds = remainingRounds;
+        }
+    }
+
+    /** Intrusive doubly-linked list, so a timeout can unlink itself in O(1). */
+    private static final class Bucket<K> {
+        Timeout<K> head;
+        Timeout<K> tail;
+
+        void add(Timeout<K> timeout) {
+            timeout.bucket = this;
+            if (head == null) {
+                head = tail = timeout;
+            } else {
+                tail.next = timeout;
+                timeout.prev = tail;
+                tail = timeout;
+            }
+        }
+
+        void remove(Timeout<K> timeout) {
+            if (timeout.prev != null) {
+                timeout.prev.next = timeout.next;
+            } else {
+                head = timeout.next;
+            }
+            if (timeout.next != null) {
+                timeout.next.prev = timeout.prev;
+            } else {
+                tail = timeout.prev;
+            }
+            timeout.prev = timeout.next = null;
+            timeout.bucket = null;
+        }
+
+        void expire(List<K> expired, Map<K, Timeout<K>> index) {
+            Timeout<K> timeout = head;
+            while (timeout != null) {
+                Timeout<K> next = timeout.next;
+                if (timeout.remainingRounds <= 0) {
+                    remove(timeout);
+                    index.remove(timeout.key);
+                    expired.add(timeout.key);
+                } else {
+                    timeout.remainingRounds--;
+                }
+                timeout = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.event.util;
+
+import java.util.Arrays;
+
+/**
+ * Map from long keys to non-negative int values in two primitive arrays (open addressing,
+ * linear probing), about 24 bytes per entry instead of the ~80 of a {@code HashMap<Long, Integer>}.
+ * No removal. Not thread-safe: callers guard it.
+ */
+public class LongIntMap {
+
+    private static final int NONE = -1;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+
+    public LongIntMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        Arrays.fill(values, NONE);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /** The value of {@code key}, or -1 if it has none. */
+    public int get(long key) {
+        int mask = keys.length - 1;
+        for (int slot = hash(key) & mask; values[slot] != NONE; slot = (slot + 1) & mask) {
+            if (keys[slot] == key) {
+                return values[slot];
+            }
+        }
+        return NONE;
+    }
+
+    public void put(long key, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Values must not be negative: " + value);
+        }
+        if ((size + 1) * 2 > keys.length) {
+            resize(keys.length * 2);
+        }
+        int mask = keys.length - 1;
+        int slot = hash(key) & mask;
+        while (values[slot] != NONE) {
+            if (keys[slot] == key) {
+                values[slot] = value;
+                return;
+            }
+            slot = (slot + 1) & mask;
+        }
+        keys[slot] = key;
+        values[slot] = value;
+        size++;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        keys = new long[capacity];
+        values = new int[capacity];
+        Arrays.fill(values, NONE);
+        int mask = capacity - 1;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldValues[i] != NONE) {
+                int slot = hash(oldKeys[i]) & mask;
+                while (values[slot] != NONE) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        key = (key ^ (key >>> 33)) * 0xff51afd7ed558ccdL;
+        return (int) (key ^ (key >>> 33));
+    }
+}
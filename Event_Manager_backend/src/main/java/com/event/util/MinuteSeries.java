@@ -0,0 +1,64 @@
+package com.event.util;
+
+/**
+ * Ticket and revenue totals per minute over the last {@code minutes} minutes, in a ring of
+ * fixed size. Each slot remembers which minute it holds, so minutes with no sales need no
+ * clean-up pass: a slot still holding an older minute simply reads as zero. Revenue is kept in
+ * cents so the totals add up exactly. Not thread-safe: callers guard it.
+ */
+public class MinuteSeries {
+
+    private static final long MINUTE_MILLIS = 60_000;
+
+    private final long[] minuteOf; // Epoch minute each slot holds
+    private final long[] tickets;
+    private final long[] revenueCents;
+
+    public MinuteSeries(int minutes) {
+        this.minuteOf = new long[minutes];
+        this.tickets = new long[minutes];
+        this.revenueCents = new long[minutes];
+    }
+
+    public int minutes() {
+        return minuteOf.length;
+    }
+
+    /**
+     * Adds a sale at {@code atMillis}; ignored if it is older than the window as of {@code nowMillis}.
+     */
+    public void add(long atMillis, long tickets, long revenueCents, long nowMillis) {
+        long minute = Math.floorDiv(atMillis, MINUTE_MILLIS);
+        long now = Math.floorDiv(nowMillis, MINUTE_MILLIS);
+        if (minute <= now - minuteOf.length || minute > now) {
+            return;
+        }
+        int slot = (int) Math.floorMod(minute, (long) minuteOf.length);
+        if (minuteOf[slot] != minute) {
+            minuteOf[slot] = minute;
+            this.tickets[slot] = 0;
+            this.revenueCents[slot] = 0;
+        }
+        this.tickets[slot] += tickets;
+        this.revenueCents[slot] += revenueCents;
+    }
+
+    /**
+     * Copies the last {@code count} minutes (at most the window), oldest first, into
+     * {@code tickets} and {@code revenueCents}; the last entry is the current minute.
+     *
+     * @return the epoch millis the first entry starts at.
+     */
+    public long copyLast(int count, long nowMillis, long[] tickets, long[] revenueCents) {
+        long now = Math.floorDiv(nowMillis, MINUTE_MILLIS);
+        long first = now - count + 1;
+        for (int i = 0; i < count; i++) {
+            long minute = first + i;
+            int slot = (int) Math.floorMod(minute, (long) minuteOf.length);
+            boolean current = minuteOf[slot] == minute;
+            tickets[i] = current ? this.tickets[slot] : 0;
+            revenueCents[i] = current ? this.revenueCents[slot] : 0;
+        }
+        return first * MINUTE_MILLIS;
+    }
+}
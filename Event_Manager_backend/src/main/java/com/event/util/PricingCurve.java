@@ -0,0 +1,145 @@
+package com.event.util;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * A demand-based pricing curve, compiled once from its text form so that quoting a price is
+ * a table lookup plus a short binary search.
+ *
+ * Format (every part optional, steps in any order):
+ * <pre>
+ *   occupancy: 50%=1.2, 80%=1.5; velocity: 20/min=1.1, 60/min=1.3; max=2.0
+ * </pre>
+ * Once at least 50% of the tickets are sold the price is 1.2x, from 80% it is 1.5x. Selling
+ * at least 20 tickets a minute adds 1.1x on top, and so on. The combined multiplier is capped
+ * at {@code max} and never goes below 1.
+ */
+public final class PricingCurve {
+
+    public static final PricingCurve FLAT = new PricingCurve(new double[101], new double[0], new double[0], 1.0);
+
+    private final double[] occupancyBySoldPercent; // 0 = no step reached
+    private final double[] velocityThresholds;     // ascending, tickets per minute
+    private final double[] velocityMultipliers;
+    private final double max;
+
+    private PricingCurve(double[] occupancyBySoldPercent, double[] velocityThresholds, double[] velocityMultipliers, double max) {
+        this.occupancyBySoldPercent = occupancyBySoldPercent;
+        this.velocityThresholds = velocityThresholds;
+        this.velocityMultipliers = velocityMultipliers;
+        this.max = max;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the spec cannot be parsed.
+     */
+    public static PricingCurve compile(String spec) {
+        if (spec == null || spec.isBlank()) {
+            return FLAT;
+        }
+        List<double[]> occupancy = new ArrayList<>();
+        List<double[]> velocity = new ArrayList<>();
+        double max = Double.MAX_VALUE;
+
+        for (String part : spec.toLowerCase(Locale.ROOT).split(";")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            if (part.startsWith("max")) {
+                max = parseNumber(part.substring(part.indexOf('=') + 1), spec);
+            } else if (part.startsWith("occupancy:")) {
+                parseSteps(part.substring("occupancy:".length()), "%", occupancy, spec);
+            } else if (part.startsWith("velocity:")) {
+                parseSteps(part.substring("velocity:".length()), "/min", velocity, spec);
+            } else {
+                throw new IllegalArgumentException("Unknown pricing curve part '" + part + "' in: " + spec);
+            }
+        }
+
+        // Precompute the occupancy multiplier for every whole percent sold
+        occupancy.sort((a, b) -> Double.compare(a[0], b[0]));
+        double[] bySoldPercent = new double[101];
+        for (int percent = 0; percent <= 100; percent++) {
+            for (double[] step : occupancy) {
+                if (percent >= step[0]) {
+                    bySoldPercent[percent] = step[1];
+                }
+            }
+        }
+
+        velocity.sort((a, b) -> Double.compare(a[0], b[0]));
+        double[] thresholds = new double[velocity.size()];
+        double[] multipliers = new double[velocity.size()];
+        for (int i = 0; i < velocity.size(); i++) {
+            thresholds[i] = velocity.get(i)[0];
+            multipliers[i] = velocity.get(i)[1];
+        }
+        return new PricingCurve(bySoldPercent, thresholds, multipliers, max);
+    }
+
+    /**
+     * @param soldPercent       share of tickets sold, 0-100
+     * @param ticketsPerMinute  recent sales velocity
+     */
+    public double multiplier(int soldPercent, double ticketsPerMinute) {
+        double multiplier = 1.0;
+        double occupancy = occupancyBySoldPercent[Math.max(0, Math.min(100, soldPercent))];
+        if (occupancy > 0) {
+            multiplier *= occupancy;
+        }
+        int step = highestStepReached(ticketsPerMinute);
+        if (step >= 0) {
+            multiplier *= velocityMultipliers[step];
+        }
+        return Math.max(1.0, Math.min(max, multiplier));
+    }
+
+    public boolean isFlat() {
+        return this == FLAT;
+    }
+
+    private int highestStepReached(double value) {
+        int low = 0;
+        int high = velocityThresholds.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (velocityThresholds[mid] <= value) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return found;
+    }
+
+    private static void parseSteps(String steps, String unit, List<double[]> into, String spec) {
+        for (String step : steps.split(",")) {
+            String[] thresholdAndMultiplier = step.split("=");
+            if (thresholdAndMultiplier.length != 2) {
+                throw new IllegalArgumentException("Invalid pricing step '" + step.trim() + "' in: " + spec);
+            }
+            String threshold = thresholdAndMultiplier[0].trim();
+            if (threshold.endsWith(unit)) {
+                threshold = threshold.substring(0, threshold.length() - unit.length());
+            }
+            into.add(new double[] { parseNumber(threshold, spec), parseNumber(thresholdAndMultiplier[1], spec) });
+        }
+    }
+
+    private static double parseNumber(String value, String spec) {
+        try {
+            double number = Double.parseDouble(value.trim());
+            if (number < 0 || Double.isNaN(number) || Double.isInfinite(number)) {
+                throw new NumberFormatException();
+            }
+            return number;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid number '" + value.trim() + "' in pricing curve: " + spec);
+        }
+    }
+}
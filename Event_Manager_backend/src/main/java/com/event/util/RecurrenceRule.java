@@ -0,0 +1,248 @@
+package com.event.util;
+
+import java.time.DateTimeException;
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The recurrence rule of an event series, a subset of iCalendar RRULE compiled once from its
+ * text form. Occurrences are computed, never stored: a lookup jumps straight to the period that
+ * contains {@code from} and only steps through the occurrences it returns, so asking for next
+ * month of a daily series that started years ago costs the same as asking for its first week.
+ *
+ * Format:
+ * <pre>
+ *   FREQ=WEEKLY;INTERVAL=2;BYDAY=MO,WE;COUNT=20;UNTIL=2027-06-30T00:00:00Z
+ * </pre>
+ * FREQ is DAILY, WEEKLY or MONTHLY; everything else is optional. Occurrences fall on the
+ * series' first date and time of day (wall clock in the series' zone, so they stay at 19:00
+ * across daylight saving changes), repeating every INTERVAL days, weeks or months. A weekly
+ * series can list its days in BYDAY, a monthly series repeats on the first date's day of the
+ * month and skips months without it. COUNT limits the number of occurrences, UNTIL the last start.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency { DAILY, WEEKLY, MONTHLY }
+
+    private static final Map<String, DayOfWeek> DAYS = Map.of("MO", DayOfWeek.MONDAY, "TU", DayOfWeek.TUESDAY,
+            "WE", DayOfWeek.WEDNESDAY, "TH", DayOfWeek.THURSDAY, "FR", DayOfWeek.FRIDAY,
+            "SA", DayOfWeek.SATURDAY, "SU", DayOfWeek.SUNDAY);
+
+    private final Frequency frequency;
+    private final int interval;
+    private final DayOfWeek[] byDay; // Weekly only, Monday first; empty = the first date's day
+    private final Integer count;     // null = unlimited
+    private final Instant until;     // null = open-ended
+
+    private RecurrenceRule(Frequency frequency, int interval, DayOfWeek[] byDay, Integer count, Instant until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the spec cannot be parsed.
+     */
+    public static RecurrenceRule compile(String spec) {
+        if (spec == null || spec.isBlank()) {
+            throw new IllegalArgumentException("A recurrence rule is required, e.g. FREQ=WEEKLY;BYDAY=FR");
+        }
+        String rule = spec.trim().toUpperCase(Locale.ROOT);
+        if (rule.startsWith("RRULE:")) {
+            rule = rule.substring("RRULE:".length());
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        DayOfWeek[] byDay = new DayOfWeek[0];
+        Integer count = null;
+        Instant until = null;
+
+        for (String part : rule.split(";")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Expected NAME=VALUE but got '" + part + "' in: " + spec);
+            }
+            String name = part.substring(0, eq).trim();
+            String value = part.substring(eq + 1).trim();
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = parseFrequency(value, spec);
+                    case "INTERVAL" -> interval = Integer.parseInt(value);
+                    case "COUNT" -> count = Integer.parseInt(value);
+                    case "UNTIL" -> until = Instant.parse(value);
+                    case "BYDAY" -> byDay = parseDays(value, spec);
+                    default -> throw new IllegalArgumentException("Unsupported rule part '" + name + "' in: " + spec);
+                }
+            } catch (NumberFormatException | DateTimeException e) {
+                throw new IllegalArgumentException("Invalid " + name + " '" + value + "' in: " + spec);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ (DAILY, WEEKLY or MONTHLY) is required in: " + spec);
+        }
+        if (interval < 1 || (count != null && count < 1)) {
+            throw new IllegalArgumentException("INTERVAL and COUNT must be at least 1 in: " + spec);
+        }
+        if (byDay.length > 0 && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY in: " + spec);
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    /**
+     * Up to {@code limit} occurrence start times in {@code [from, to)}, in order.
+     *
+     * @param first the series' first date and time of day; occurrences never start before it.
+     * @param zone  the wall clock the series repeats on.
+     */
+    public List<Instant> occurrences(Instant first, ZoneId zone, Instant from, Instant to, int limit) {
+        List<Instant> result = new ArrayList<>(Math.min(limit, 64));
+        ZonedDateTime firstLocal = first.atZone(zone);
+        LocalDate firstDate = firstLocal.toLocalDate();
+        LocalTime time = firstLocal.toLocalTime();
+        LocalDate fromDate = from.isAfter(first) ? from.atZone(zone).toLocalDate() : firstDate;
+        if (limit <= 0 || !from.isBefore(to)) {
+            return result;
+        }
+
+        // One period early, so a time-of-day or zone offset never skips a due occurrence
+        long period = Math.max(0, periodsBetween(firstDate, fromDate) / interval - 1);
+        long index = indexOfFirstIn(period, firstDate); // Occurrences before this period, for COUNT
+        while (true) {
+            for (LocalDate date : datesOf(period, firstDate)) {
+                if (date.isBefore(firstDate)) {
+                    continue;
+                }
+                if (count != null && index >= count) {
+                    return result;
+                }
+                index++;
+                Instant start = ZonedDateTime.of(date, time, zone).toInstant();
+                if ((until != null && start.isAfter(until)) || !start.isBefore(to)) {
+                    return result;
+                }
+                if (!start.isBefore(from)) {
+                    result.add(start);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+            period++;
+        }
+    }
+
+    /**
+     * Whether an occurrence of the series starts exactly at {@code start}.
+     */
+    public boolean occursAt(Instant first, ZoneId zone, Instant start) {
+        return !occurrences(first, zone, start, start.plusNanos(1), 1).isEmpty();
+    }
+
+    /** Whole periods from the first date's period to the one containing {@code date}. */
+    private long periodsBetween(LocalDate firstDate, LocalDate date) {
+        return switch (frequency) {
+            case DAILY -> ChronoUnit.DAYS.between(firstDate, date);
+            case WEEKLY -> ChronoUnit.WEEKS.between(weekOf(firstDate), weekOf(date));
+            case MONTHLY -> ChronoUnit.MONTHS.between(YearMonth.from(firstDate), YearMonth.from(date));
+        };
+    }
+
+    /** The candidate dates of the {@code period}-th period, in order. */
+    private LocalDate[] datesOf(long period, LocalDate firstDate) {
+        switch (frequency) {
+            case DAILY:
+                return new LocalDate[]{firstDate.plusDays(period * interval)};
+            case WEEKLY:
+                LocalDate week = weekOf(firstDate).plusWeeks(period * interval);
+                if (byDay.length == 0) {
+                    return new LocalDate[]{week.plusDays(firstDate.getDayOfWeek().getValue() - 1)};
+                }
+                LocalDate[] dates = new LocalDate[byDay.length];
+                for (int i = 0; i < byDay.length; i++) {
+                    dates[i] = week.plusDays(byDay[i].getValue() - 1);
+                }
+                return dates;
+            default:
+                YearMonth month = YearMonth.from(firstDate).plusMonths(period * interval);
+                return month.isValidDay(firstDate.getDayOfMonth())
+                        ? new LocalDate[]{month.atDay(firstDate.getDayOfMonth())}
+                        : new LocalDate[0];
+        }
+    }
+
+    /** How many occurrences come before the {@code period}-th period. */
+    private long indexOfFirstIn(long period, LocalDate firstDate) {
+        if (period == 0) {
+            return 0;
+        }
+        switch (frequency) {
+            case DAILY:
+                return period;
+            case WEEKLY:
+                int perWeek = Math.max(1, byDay.length);
+                long beforeFirst = Arrays.stream(byDay).filter(day -> day.compareTo(firstDate.getDayOfWeek()) < 0).count();
+                return period * perWeek - beforeFirst; // The first week only has the days from the first date on
+            default:
+                if (firstDate.getDayOfMonth() <= 28) {
+                    return period;
+                }
+                long held = 0; // Count the months that have the day (a few per year are skipped)
+                for (long p = 0; p < period; p++) {
+                    held += datesOf(p, firstDate).length;
+                }
+                return held;
+        }
+    }
+
+    private static LocalDate weekOf(LocalDate date) {
+        return date.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    private static Frequency parseFrequency(String value, String spec) {
+        for (Frequency frequency : Frequency.values()) {
+            if (frequency.name().equals(value)) {
+                return frequency;
+            }
+        }
+        throw new IllegalArgumentException("FREQ must be DAILY, WEEKLY or MONTHLY in: " + spec);
+    }
+
+    private static DayOfWeek[] parseDays(String value, String spec) {
+        DayOfWeek[] days = Arrays.stream(value.split(","))
+                .map(String::trim)
+                .map(code -> {
+                    DayOfWeek day = DAYS.get(code);
+                    if (day == null) {
+                        throw new IllegalArgumentException("Unknown day '" + code + "' in: " + spec);
+                    }
+                    return day;
+                })
+                .distinct()
+                .sorted()
+                .toArray(DayOfWeek[]::new);
+        if (days.length == 0) {
+            throw new IllegalArgumentException("BYDAY needs at least one day in: " + spec);
+        }
+        return days;
+    }
+}
@@ -0,0 +1,92 @@
+package com.event.util;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * A bounded counter of remaining units (e.g. promo code uses) split across stripes, so
+ * thousands of threads taking units at once CAS on different cache lines instead of one
+ * hot word. A thread starts at its own stripe and moves on to the others only when that
+ * stripe is empty, so units are never lost and the total can never go below zero.
+ */
+public class StripedQuota {
+
+    private static final int PAD = 16; // 16 ints = 64 bytes: one stripe per cache line
+
+    private final AtomicIntegerArray cells;
+    private final int mask;
+
+    public StripedQuota(int initial, int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1; // Round up to a power of two
+        this.mask = size - 1;
+        this.cells = new AtomicIntegerArray(size * PAD);
+        int share = Math.max(0, initial) / size;
+        int remainder = Math.max(0, initial) % size;
+        for (int i = 0; i < size; i++) {
+            cells.set(i * PAD, share + (i < remainder ? 1 : 0));
+        }
+    }
+
+    /**
+     * Takes one unit.
+     *
+     * @return {@code false} if no units are left.
+     */
+    public boolean tryAcquire() {
+        int home = home();
+        for (int i = 0; i <= mask; i++) {
+            int index = ((home + i) & mask) * PAD;
+            int value;
+            while ((value = cells.get(index)) > 0) {
+                if (cells.compareAndSet(index, value, value - 1)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gives one unit back.
+     */
+    public void release() {
+        cells.incrementAndGet(home() * PAD);
+    }
+
+    /**
+     * Adds units, or removes up to {@code -delta} units if negative (never below zero).
+     */
+    public void adjust(int delta) {
+        if (delta >= 0) {
+            cells.addAndGet(home() * PAD, delta);
+            return;
+        }
+        int toRemove = -delta;
+        for (int i = 0; i <= mask && toRemove > 0; i++) {
+            int index = i * PAD;
+            int value;
+            while (toRemove > 0 && (value = cells.get(index)) > 0) {
+                int taken = Math.min(value, toRemove);
+                if (cells.compareAndSet(index, value, value - taken)) {
+                    toRemove -= taken;
+                }
+            }
+        }
+    }
+
+    /**
+     * Sum over all stripes; only a snapshot while other threads are taking units.
+     */
+    public int remaining() {
+        int sum = 0;
+        for (int i = 0; i <= mask; i++) {
+            sum += cells.get(i * PAD);
+        }
+        return sum;
+    }
+
+    private int home() {
+        long id = Thread.currentThread().getId();
+        int hash = (int) (id ^ (id >>> 32)) * 0x9E3779B9; // Spread consecutive thread ids
+        return (hash >>> 16) & mask;
+    }
+}
@@ -0,0 +1,69 @@
+package com.event.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.time.temporal.IsoFields;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingAnalyticsServiceTest {
+
+    @Test
+    void monthOfMatchesLocalDateDayByDay() {
+        // 1900 to 2200 day by day: every leap rule (including 2000 and 2100), every month length
+        int from = (int) LocalDate.of(1900, 1, 1).toEpochDay();
+        int to = (int) LocalDate.of(2200, 12, 31).toEpochDay();
+        for (int day = from; day <= to; day++) {
+            assertEquals(expectedMonth(day), BookingAnalyticsService.monthOf(day), "epoch day " + day);
+        }
+    }
+
+    @Test
+    void monthOfMatchesLocalDateFarFromTheEpoch() {
+        for (int day = -700_000; day <= 700_000; day += 997) { // Roughly years 83 to 3886
+            assertEquals(expectedMonth(day), BookingAnalyticsService.monthOf(day), "epoch day " + day);
+        }
+        int[] edges = { -1, 0, 1, 58, 59, 60, (int) LocalDate.of(2024, 2, 29).toEpochDay(),
+                (int) LocalDate.of(2000, 3, 1).toEpochDay(), (int) LocalDate.of(1600, 2, 29).toEpochDay() };
+        for (int day : edges) {
+            assertEquals(expectedMonth(day), BookingAnalyticsService.monthOf(day), "epoch day " + day);
+        }
+    }
+
+    @Test
+    void weekStartsOnTheMondayOfTheDay() {
+        int from = (int) LocalDate.of(1960, 1, 1).toEpochDay();
+        int to = (int) LocalDate.of(2080, 12, 31).toEpochDay();
+        for (int day = from; day <= to; day++) {
+            LocalDate date = LocalDate.ofEpochDay(day);
+            LocalDate monday = date.minusDays(date.getDayOfWeek().getValue() - 1);
+            assertEquals(monday, BookingAnalyticsService.weekStart(BookingAnalyticsService.weekOf(day)), date.toString());
+        }
+    }
+
+    @Test
+    void weekKeysAreConsecutiveAndAlignWithIsoWeeks() {
+        LocalDate monday = LocalDate.of(1969, 12, 29); // The week holding the epoch
+        assertEquals(DayOfWeek.MONDAY, monday.getDayOfWeek());
+        assertEquals(0, BookingAnalyticsService.weekOf((int) monday.toEpochDay()));
+        assertEquals(0, BookingAnalyticsService.weekOf(0));
+        assertEquals(-1, BookingAnalyticsService.weekOf((int) monday.minusDays(1).toEpochDay()));
+
+        long previous = BookingAnalyticsService.weekOf((int) monday.toEpochDay());
+        for (LocalDate date = monday.plusDays(1); date.getYear() < 2040; date = date.plusDays(1)) {
+            long week = BookingAnalyticsService.weekOf((int) date.toEpochDay());
+            LocalDate yesterday = date.minusDays(1);
+            boolean sameIsoWeek = date.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR) == yesterday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR);
+            assertEquals(sameIsoWeek ? previous : previous + 1, week, date.toString());
+            previous = week;
+        }
+    }
+
+    private static long expectedMonth(int epochDay) {
+        YearMonth month = YearMonth.from(LocalDate.ofEpochDay(epochDay));
+        return month.getYear() * 12L + month.getMonthValue() - 1;
+    }
+}
@@ -0,0 +1,136 @@
+package com.event.service;
+
+import com.event.dto.SuggestionDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class SuggestionTrieTest {
+
+    @Test
+    void findsKeysThatShareAnEdge() {
+        // "rock" becomes a split point above "rockabilly", "rocket" and "rock opera"
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Rockabilly Night"), 3, List.of("rockabilly night"))
+                .add(event("Rocket Launch"), 2, List.of("rocket launch"))
+                .add(event("Rock Opera"), 1, List.of("rock opera"))
+                .add(event("Road Trip"), 0, List.of("road trip"))
+                .build();
+
+        assertEquals(List.of("Rockabilly Night", "Rocket Launch", "Rock Opera", "Road Trip"), texts(trie.lookup("r")));
+        assertEquals(List.of("Rockabilly Night", "Rocket Launch", "Rock Opera", "Road Trip"), texts(trie.lookup("ro")));
+        assertEquals(List.of("Rockabilly Night", "Rocket Launch", "Rock Opera"), texts(trie.lookup("roc")));
+        assertEquals(List.of("Rockabilly Night", "Rocket Launch", "Rock Opera"), texts(trie.lookup("rock")));
+        assertEquals(List.of("Rocket Launch"), texts(trie.lookup("rocke")));
+        assertEquals(List.of("Rock Opera"), texts(trie.lookup("rock o")));
+        assertEquals(List.of("Road Trip"), texts(trie.lookup("roa")));
+        assertEquals(List.of(), texts(trie.lookup("rockz")));
+        assertEquals(List.of(), texts(trie.lookup("rocket launchpad")));
+    }
+
+    @Test
+    void splitOrderDoesNotMatter() {
+        // Insert the long key first so the shorter ones split its edge mid-label
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Summer Jazz Festival"), 1, List.of("summer jazz festival"))
+                .add(event("Summer Jam"), 2, List.of("summer jam"))
+                .add(event("Sum"), 3, List.of("sum"))
+                .build();
+
+        assertEquals(List.of("Sum", "Summer Jam", "Summer Jazz Festival"), texts(trie.lookup("sum")));
+        assertEquals(List.of("Summer Jam", "Summer Jazz Festival"), texts(trie.lookup("summer ja")));
+        assertEquals(List.of("Summer Jazz Festival"), texts(trie.lookup("summer jaz")));
+        assertEquals(List.of("Summer Jam"), texts(trie.lookup("summer jam")));
+    }
+
+    @Test
+    void punctuationAndCaseAreNormalized() {
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Rock 'n' Roll -- Live!"), 1, List.of("Rock 'n' Roll -- Live!"))
+                .build();
+
+        assertEquals(List.of("Rock 'n' Roll -- Live!"), texts(trie.lookup("ROCK N")));
+        assertEquals(List.of("Rock 'n' Roll -- Live!"), texts(trie.lookup("rock 'n'")));
+        assertEquals(List.of("Rock 'n' Roll -- Live!"), texts(trie.lookup("rock-n-roll")));
+        assertEquals(List.of("Rock 'n' Roll -- Live!"), texts(trie.lookup("  ...rock,,  n  roll live")));
+        assertEquals(List.of(), texts(trie.lookup("rockn")));
+        assertEquals(List.of(), texts(trie.lookup("rock nr")));
+    }
+
+    @Test
+    void trailingSpacesAndPunctuationAreIgnored() {
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Jazz Night"), 2, List.of("jazz night"))
+                .add(event("Jazzfest"), 1, List.of("jazzfest"))
+                .build();
+
+        assertEquals(texts(trie.lookup("jazz")), texts(trie.lookup("jazz ")));
+        assertEquals(texts(trie.lookup("jazz")), texts(trie.lookup("jazz  !")));
+        assertEquals(List.of("Jazz Night"), texts(trie.lookup("jazz night   ")));
+        assertEquals(List.of("Jazz Night"), texts(trie.lookup("jazz n")));
+    }
+
+    @Test
+    void blankQueriesMatchNothing() {
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Jazz Night"), 1, List.of("jazz night"))
+                .build();
+
+        assertEquals(0, trie.lookup("").length);
+        assertEquals(0, trie.lookup("   ").length);
+        assertEquals(0, trie.lookup("?!").length);
+    }
+
+    @Test
+    void keepsTheBestTopKAndDeduplicatesKeys() {
+        SuggestionTrie.Builder builder = new SuggestionTrie.Builder(3);
+        for (int i = 0; i < 8; i++) {
+            builder.add(event("Show " + i), i, List.of("show " + i, i + " show")); // Two keys per show
+        }
+        SuggestionTrie trie = builder.build();
+
+        assertEquals(8, trie.size());
+        assertEquals(List.of("Show 7", "Show 6", "Show 5"), texts(trie.lookup("show")));
+        assertEquals(List.of("Show 2"), texts(trie.lookup("2")));
+        assertEquals(List.of("Show 7", "Show 6", "Show 5"), texts(trie.lookup("s")));
+    }
+
+    @Test
+    void equalScoresRankByText() {
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Open Mic Beta"), 1, List.of("open mic beta"))
+                .add(event("Open Mic Alpha"), 1, List.of("open mic alpha"))
+                .add(event("Open Mic Gamma"), 1, List.of("open mic gamma"))
+                .build();
+
+        assertEquals(List.of("Open Mic Alpha", "Open Mic Beta", "Open Mic Gamma"), texts(trie.lookup("open")));
+    }
+
+    @Test
+    void repeatedLookupsShareTheResult() {
+        SuggestionTrie trie = new SuggestionTrie.Builder(10)
+                .add(event("Jazz Night"), 1, List.of("jazz night"))
+                .build();
+
+        assertSame(trie.lookup("jaz"), trie.lookup("JAZ"));
+    }
+
+    @Test
+    void normalizeCollapsesSeparators() {
+        assertEquals("rock n roll live", SuggestionTrie.normalize("  Rock 'n' Roll -- Live! "));
+        assertEquals("café 2024", SuggestionTrie.normalize("Café/2024"));
+        assertEquals("", SuggestionTrie.normalize(" - "));
+    }
+
+    private static SuggestionDTO event(String title) {
+        return new SuggestionDTO(title, "event", null);
+    }
+
+    private static List<String> texts(SuggestionDTO[] suggestions) {
+        return Arrays.stream(suggestions).map(SuggestionDTO::getText).toList();
+    }
+}
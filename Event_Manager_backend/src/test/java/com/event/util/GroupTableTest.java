@@ -0,0 +1,91 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class GroupTableTest {
+
+    @Test
+    void sumsRowsOfTheSameGroup() {
+        GroupTable table = new GroupTable();
+        table.add(1, 2, 1, 100, 3);
+        table.add(1, 2, 1, 50, 1);
+        table.add(2, 1, 1, 10, 1); // Same components, other order
+
+        Map<String, long[]> groups = collect(table);
+        assertEquals(2, table.size());
+        assertArrayEquals(new long[] { 2, 150, 4 }, groups.get("1/2"));
+        assertArrayEquals(new long[] { 1, 10, 1 }, groups.get("2/1"));
+    }
+
+    @Test
+    void keepsEveryGroupAcrossResizes() {
+        GroupTable table = new GroupTable(); // Starts at 64 slots
+        Map<String, long[]> expected = new HashMap<>();
+        Random random = new Random(7);
+        for (int i = 0; i < 50_000; i++) {
+            long key1 = random.nextInt(3000) - 1500; // Negative keys too
+            long key2 = random.nextInt(4);
+            long value = random.nextInt(1000);
+            table.add(key1, key2, 1, value, 2 * value);
+            long[] sums = expected.computeIfAbsent(key1 + "/" + key2, key -> new long[3]);
+            sums[0]++;
+            sums[1] += value;
+            sums[2] += 2 * value;
+        }
+
+        Map<String, long[]> groups = collect(table);
+        assertEquals(expected.size(), table.size());
+        assertEquals(expected.size(), groups.size());
+        for (Map.Entry<String, long[]> entry : expected.entrySet()) {
+            assertArrayEquals(entry.getValue(), groups.get(entry.getKey()), entry.getKey());
+        }
+    }
+
+    @Test
+    void mergeAddsOverlappingAndNewGroups() {
+        GroupTable left = new GroupTable();
+        GroupTable right = new GroupTable();
+        for (int i = 0; i < 100; i++) {
+            left.add(i, 0, 1, i, 1);
+        }
+        for (int i = 50; i < 300; i++) { // Enough new groups to resize the left table
+            right.add(i, 0, 2, 10, 2);
+        }
+
+        assertSame(left, left.merge(right));
+        Map<String, long[]> groups = collect(left);
+        assertEquals(300, left.size());
+        assertArrayEquals(new long[] { 1, 10, 1 }, groups.get("10/0"));
+        assertArrayEquals(new long[] { 3, 60 + 10, 3 }, groups.get("60/0"));
+        assertArrayEquals(new long[] { 2, 10, 2 }, groups.get("200/0"));
+        assertEquals(250, right.size()); // The merged-in table is left as it was
+    }
+
+    @Test
+    void mergingAnEmptyTableChangesNothing() {
+        GroupTable table = new GroupTable();
+        table.add(5, 5, 1, 1, 1);
+
+        table.merge(new GroupTable());
+        new GroupTable().merge(table);
+
+        assertEquals(1, table.size());
+        assertArrayEquals(new long[] { 1, 1, 1 }, collect(table).get("5/5"));
+        assertNull(collect(table).get("0/0"));
+    }
+
+    private static Map<String, long[]> collect(GroupTable table) {
+        Map<String, long[]> groups = new HashMap<>();
+        table.forEach((key1, key2, count, sum1, sum2) -> groups.put(key1 + "/" + key2, new long[] { count, sum1, sum2 }));
+        return groups;
+    }
+}
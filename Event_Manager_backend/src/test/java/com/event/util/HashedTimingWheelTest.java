@@ -0,0 +1,139 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HashedTimingWheelTest {
+
+    // 10 ms ticks, 8 buckets: one revolution is 80 ms
+    private final HashedTimingWheel<String> wheel = new HashedTimingWheel<>(10, 8, 0);
+
+    @Test
+    void firesAfterSeveralRotations() {
+        wheel.schedule("hold", 250); // Tick 25: three full revolutions away
+
+        assertEquals(List.of(), wheel.advanceTo(80));
+        assertEquals(List.of(), wheel.advanceTo(160));
+        assertEquals(List.of(), wheel.advanceTo(249));
+        assertEquals(List.of("hold"), wheel.advanceTo(250));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void sameBucketDifferentRounds() {
+        wheel.schedule("later", 90); // Tick 9, bucket 1, one round
+        wheel.schedule("soon", 10);  // Tick 1, bucket 1, no rounds
+
+        assertEquals(List.of("soon"), wheel.advanceTo(10));
+        assertEquals(List.of(), wheel.advanceTo(89));
+        assertEquals(List.of("later"), wheel.advanceTo(90));
+    }
+
+    @Test
+    void deadlinesRoundUpToTheNextTick() {
+        wheel.schedule("hold", 41);
+
+        assertEquals(List.of(), wheel.advanceTo(49));
+        assertEquals(List.of("hold"), wheel.advanceTo(50));
+    }
+
+    @Test
+    void pastDeadlineFiresOnTheNextTick() {
+        wheel.advanceTo(100);
+        wheel.schedule("late", 20);
+
+        assertEquals(List.of(), wheel.advanceTo(109));
+        assertEquals(List.of("late"), wheel.advanceTo(110));
+    }
+
+    @Test
+    void cancelBeforeFire() {
+        wheel.schedule("a", 30);
+        wheel.schedule("b", 30);
+
+        assertTrue(wheel.cancel("a"));
+        assertFalse(wheel.cancel("a"));
+        assertEquals(1, wheel.size());
+        assertEquals(List.of("b"), wheel.advanceTo(500));
+        assertFalse(wheel.cancel("b")); // Already fired
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    void cancelKeepsTheRestOfTheBucket() {
+        // All three hash to bucket 3
+        wheel.schedule("first", 30);
+        wheel.schedule("middle", 110);
+        wheel.schedule("last", 190);
+
+        assertTrue(wheel.cancel("middle"));
+
+        assertEquals(List.of("first"), wheel.advanceTo(30));
+        assertEquals(List.of(), wheel.advanceTo(110));
+        assertEquals(List.of("last"), wheel.advanceTo(190));
+    }
+
+    @Test
+    void rescheduleReplacesThePreviousTimeout() {
+        wheel.schedule("hold", 50);
+        wheel.schedule("hold", 170); // Later, in a different bucket and round
+
+        assertEquals(1, wheel.size());
+        assertEquals(List.of(), wheel.advanceTo(160));
+        assertEquals(List.of("hold"), wheel.advanceTo(170));
+
+        wheel.schedule("hold", 400);
+        wheel.schedule("hold", 200); // Earlier than before
+        assertEquals(List.of("hold"), wheel.advanceTo(200));
+        assertEquals(List.of(), wheel.advanceTo(1000));
+    }
+
+    @Test
+    void everyKeyFiresExactlyOnceAtItsDeadline() {
+        Random random = new Random(42);
+        Map<String, Long> dueAt = new HashMap<>();
+        for (int i = 0; i < 2000; i++) {
+            long deadline = 1 + random.nextInt(5000); // Up to ~60 revolutions
+            String key = "k" + i;
+            wheel.schedule(key, deadline);
+            dueAt.put(key, (deadline + 9) / 10 * 10); // Rounded up to a tick
+        }
+        for (int i = 0; i < 300; i++) {
+            String key = "k" + random.nextInt(2000);
+            if (random.nextBoolean()) {
+                wheel.cancel(key);
+                dueAt.remove(key);
+            } else {
+                long deadline = 1 + random.nextInt(5000);
+                wheel.schedule(key, deadline);
+                dueAt.put(key, (deadline + 9) / 10 * 10);
+            }
+        }
+
+        List<String> fired = new ArrayList<>();
+        long previous = 0;
+        for (long now = 0; now <= 6000; now += 1 + random.nextInt(37)) {
+            for (String key : wheel.advanceTo(now)) {
+                long due = dueAt.get(key);
+                assertTrue(due > previous && due <= now, key + " due at " + due + " fired at " + now);
+                fired.add(key);
+            }
+            previous = now;
+        }
+        fired.addAll(wheel.advanceTo(6000));
+
+        assertEquals(dueAt.size(), fired.size());
+        assertEquals(dueAt.keySet(), new HashSet<>(fired));
+        assertEquals(0, wheel.size());
+    }
+}
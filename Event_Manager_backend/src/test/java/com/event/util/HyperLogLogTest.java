@@ -0,0 +1,91 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HyperLogLogTest {
+
+    @Test
+    void emptyIsZero() {
+        assertEquals(0, new HyperLogLog(14).estimate());
+        assertEquals(0, new HyperLogLog(10).estimate());
+    }
+
+    @Test
+    void smallCardinalitiesAreNearlyExact() {
+        // Linear counting while most registers are empty
+        for (int precision : new int[] { 10, 14 }) {
+            for (int n : new int[] { 1, 2, 10, 50, 200 }) {
+                HyperLogLog hll = new HyperLogLog(precision);
+                addDistinct(hll, "user-", n);
+                assertWithin(n, hll.estimate(), Math.max(1, 0.05 * n), "precision " + precision);
+            }
+        }
+    }
+
+    @Test
+    void largeCardinalitiesAtPrecision14() {
+        // Standard error 0.8%: allow about four of them
+        for (int n : new int[] { 20_000, 100_000, 1_000_000 }) {
+            HyperLogLog hll = new HyperLogLog(14);
+            addDistinct(hll, "visitor:", n);
+            assertWithin(n, hll.estimate(), 0.03 * n, "precision 14");
+        }
+    }
+
+    @Test
+    void largeCardinalitiesAtPrecision10() {
+        // Standard error 3.3%: allow about four of them
+        for (int n : new int[] { 5_000, 50_000, 500_000 }) {
+            HyperLogLog hll = new HyperLogLog(10);
+            addDistinct(hll, "visitor:", n);
+            assertWithin(n, hll.estimate(), 0.13 * n, "precision 10");
+        }
+    }
+
+    @Test
+    void acrossTheLinearCountingHandOver() {
+        // Around 2.5 * 2^precision the estimator switches from linear counting to the raw estimate
+        HyperLogLog hll = new HyperLogLog(10);
+        for (int n = 1; n <= 6000; n++) {
+            hll.add("id" + n);
+            if (n % 250 == 0) {
+                assertWithin(n, hll.estimate(), 0.13 * n, "precision 10");
+            }
+        }
+    }
+
+    @Test
+    void duplicatesDoNotCount() {
+        HyperLogLog hll = new HyperLogLog(14);
+        addDistinct(hll, "user-", 5000);
+        long once = hll.estimate();
+        for (int round = 0; round < 3; round++) {
+            addDistinct(hll, "user-", 5000);
+        }
+
+        assertEquals(once, hll.estimate());
+    }
+
+    @Test
+    void rejectsPrecisionOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(3));
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(19));
+    }
+
+    private static void addDistinct(HyperLogLog hll, String prefix, int n) {
+        StringBuilder value = new StringBuilder();
+        for (int i = 0; i < n; i++) {
+            value.setLength(0);
+            hll.add(value.append(prefix).append(i));
+        }
+    }
+
+    private static void assertWithin(long expected, long actual, double tolerance, String context) {
+        assertTrue(Math.abs(actual - expected) <= tolerance,
+                context + ": estimated " + actual + " for " + expected + " distinct values");
+    }
+}
@@ -0,0 +1,70 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongIntMapTest {
+
+    @Test
+    void putGetAndOverwrite() {
+        LongIntMap map = new LongIntMap(4);
+        map.put(42, 1);
+        map.put(-7, 0); // Zero is a value, not an empty slot
+        map.put(42, 9);
+
+        assertEquals(2, map.size());
+        assertEquals(9, map.get(42));
+        assertEquals(0, map.get(-7));
+        assertEquals(-1, map.get(43));
+        assertEquals(-1, map.get(0));
+    }
+
+    @Test
+    void rejectsNegativeValues() {
+        assertThrows(IllegalArgumentException.class, () -> new LongIntMap(4).put(1, -1));
+    }
+
+    @Test
+    void keepsEveryEntryAcrossResizes() {
+        LongIntMap map = new LongIntMap(1); // 16 slots, grows many times
+        Map<Long, Integer> expected = new HashMap<>();
+        Random random = new Random(11);
+        for (int i = 0; i < 100_000; i++) {
+            long key = random.nextLong() >> random.nextInt(64); // Small and huge, positive and negative
+            int value = random.nextInt(Integer.MAX_VALUE);
+            map.put(key, value);
+            expected.put(key, value);
+        }
+
+        assertEquals(expected.size(), map.size());
+        for (Map.Entry<Long, Integer> entry : expected.entrySet()) {
+            assertEquals((int) entry.getValue(), map.get(entry.getKey()), "key " + entry.getKey());
+        }
+        for (int i = 0; i < 1000; i++) {
+            long key = random.nextLong();
+            if (!expected.containsKey(key)) {
+                assertEquals(-1, map.get(key));
+            }
+        }
+    }
+
+    @Test
+    void sequentialKeysSurviveResizes() {
+        LongIntMap map = new LongIntMap(16);
+        for (int i = 0; i < 10_000; i++) {
+            map.put(i * 1024L, i); // Keys that share their low bits
+        }
+
+        assertEquals(10_000, map.size());
+        for (int i = 0; i < 10_000; i++) {
+            assertEquals(i, map.get(i * 1024L));
+        }
+        assertEquals(-1, map.get(10_000 * 1024L));
+    }
+}
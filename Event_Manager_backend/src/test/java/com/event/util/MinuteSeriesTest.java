@@ -0,0 +1,126 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class MinuteSeriesTest {
+
+    private static final long MINUTE = 60_000;
+    private static final long T0 = 1_700_000_000_000L - 1_700_000_000_000L % MINUTE; // A minute boundary
+
+    private final MinuteSeries series = new MinuteSeries(5);
+
+    @Test
+    void sumsSalesWithinTheSameMinute() {
+        series.add(T0 + 1_000, 2, 5000, T0 + 30_000);
+        series.add(T0 + 59_999, 1, 2500, T0 + 59_999);
+        series.add(T0 + MINUTE, 4, 100, T0 + MINUTE);
+
+        long[] tickets = new long[3];
+        long[] revenue = new long[3];
+        long start = series.copyLast(3, T0 + MINUTE + 10, tickets, revenue);
+
+        assertEquals(T0 - MINUTE, start);
+        assertArrayEquals(new long[] { 0, 3, 4 }, tickets);
+        assertArrayEquals(new long[] { 0, 7500, 100 }, revenue);
+    }
+
+    @Test
+    void ignoresSalesOutsideTheWindow() {
+        long now = T0 + 10 * MINUTE;
+        series.add(now - 5 * MINUTE, 1, 1, now);  // Six minutes ago counting the current one: too old
+        series.add(now - 4 * MINUTE, 2, 2, now);  // Oldest minute in the window
+        series.add(now + MINUTE, 3, 3, now);      // In the future
+
+        long[] tickets = new long[5];
+        long[] revenue = new long[5];
+        series.copyLast(5, now, tickets, revenue);
+
+        assertArrayEquals(new long[] { 2, 0, 0, 0, 0 }, tickets);
+        assertArrayEquals(new long[] { 2, 0, 0, 0, 0 }, revenue);
+    }
+
+    @Test
+    void minutesFallOutAsTimeMovesOn() {
+        for (int i = 0; i < 5; i++) {
+            series.add(T0 + i * MINUTE, i + 1, 100 * (i + 1), T0 + i * MINUTE);
+        }
+        long[] tickets = new long[5];
+        long[] revenue = new long[5];
+
+        series.copyLast(5, T0 + 4 * MINUTE, tickets, revenue);
+        assertArrayEquals(new long[] { 1, 2, 3, 4, 5 }, tickets);
+
+        // Two quiet minutes later the first two have left the window without any clean-up
+        long start = series.copyLast(5, T0 + 6 * MINUTE, tickets, revenue);
+        assertEquals(T0 + 2 * MINUTE, start);
+        assertArrayEquals(new long[] { 3, 4, 5, 0, 0 }, tickets);
+        assertArrayEquals(new long[] { 300, 400, 500, 0, 0 }, revenue);
+    }
+
+    @Test
+    void wrapAroundResetsAReusedSlot() {
+        series.add(T0, 7, 700, T0);
+        // Exactly one ring later the same slot is reused for a new minute
+        long later = T0 + 5 * MINUTE;
+        series.add(later, 1, 10, later);
+
+        long[] tickets = new long[5];
+        long[] revenue = new long[5];
+        series.copyLast(5, later, tickets, revenue);
+
+        assertArrayEquals(new long[] { 0, 0, 0, 0, 1 }, tickets);
+        assertArrayEquals(new long[] { 0, 0, 0, 0, 10 }, revenue);
+    }
+
+    @Test
+    void staleSlotReadsAsZeroAfterAGap() {
+        series.add(T0 + 2 * MINUTE, 3, 30, T0 + 2 * MINUTE);
+
+        long[] tickets = new long[5];
+        long[] revenue = new long[5];
+        series.copyLast(5, T0 + 12 * MINUTE, tickets, revenue); // Slot 2 still holds the old minute
+
+        assertArrayEquals(new long[5], tickets);
+        assertArrayEquals(new long[5], revenue);
+    }
+
+    @Test
+    void manyRotationsKeepExactTotals() {
+        MinuteSeries series = new MinuteSeries(60);
+        long[] expectedTickets = new long[600];
+        for (int minute = 0; minute < 600; minute++) {
+            long now = T0 + minute * MINUTE;
+            for (int sale = 0; sale <= minute % 4; sale++) {
+                series.add(now + sale * 1000, 1, 250, now + sale * 1000);
+                expectedTickets[minute]++;
+            }
+            if (minute % 37 == 0 && minute >= 59) {
+                long[] tickets = new long[60];
+                long[] revenue = new long[60];
+                series.copyLast(60, now, tickets, revenue);
+                for (int i = 0; i < 60; i++) {
+                    long want = expectedTickets[minute - 59 + i];
+                    assertEquals(want, tickets[i], "minute " + (minute - 59 + i));
+                    assertEquals(want * 250, revenue[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    void copiesFewerMinutesThanTheWindow() {
+        series.add(T0, 1, 1, T0);
+        series.add(T0 + MINUTE, 2, 2, T0 + MINUTE);
+
+        long[] tickets = new long[1];
+        long[] revenue = new long[1];
+        long start = series.copyLast(1, T0 + MINUTE, tickets, revenue);
+
+        assertEquals(T0 + MINUTE, start);
+        assertArrayEquals(new long[] { 2 }, tickets);
+        assertEquals(5, series.minutes());
+    }
+}
@@ -0,0 +1,123 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PricingCurveTest {
+
+    private static final double DELTA = 1e-9;
+
+    @Test
+    void blankSpecIsFlat() {
+        assertSame(PricingCurve.FLAT, PricingCurve.compile(null));
+        assertSame(PricingCurve.FLAT, PricingCurve.compile("  "));
+        assertTrue(PricingCurve.FLAT.isFlat());
+        assertEquals(1.0, PricingCurve.FLAT.multiplier(100, 1000), DELTA);
+    }
+
+    @Test
+    void parsesAValidSpec() {
+        PricingCurve curve = PricingCurve.compile("Occupancy: 50%=1.2, 80%=1.5; velocity: 20/min=1.1, 60/min=1.3; max=2.0");
+
+        assertFalse(curve.isFlat());
+        assertEquals(1.0, curve.multiplier(10, 0), DELTA);
+        assertEquals(1.2, curve.multiplier(60, 0), DELTA);
+        assertEquals(1.5 * 1.3, curve.multiplier(90, 100), DELTA);
+    }
+
+    @Test
+    void emptyPartsAreIgnored() {
+        PricingCurve curve = PricingCurve.compile(";occupancy: 50%=1.2;;");
+
+        assertEquals(1.2, curve.multiplier(50, 0), DELTA);
+    }
+
+    @Test
+    void rejectsAnUnknownPart() {
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> PricingCurve.compile("occupancy: 50%=1.2; weather: sunny=2"));
+        assertTrue(e.getMessage().contains("weather"));
+    }
+
+    @Test
+    void rejectsANegativeNumber() {
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("occupancy: 50%=-1.2"));
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("velocity: -5/min=1.1"));
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("max=-2"));
+    }
+
+    @Test
+    void rejectsMalformedSteps() {
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("occupancy: 50%"));
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("occupancy: 50%=1.2=1.3"));
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("occupancy: half=1.2"));
+        assertThrows(IllegalArgumentException.class, () -> PricingCurve.compile("velocity: 20/min=NaN"));
+    }
+
+    @Test
+    void maxCapsTheCombinedMultiplier() {
+        PricingCurve curve = PricingCurve.compile("occupancy: 50%=1.5; velocity: 10/min=1.5; max=2");
+
+        assertEquals(1.5, curve.multiplier(50, 0), DELTA);
+        assertEquals(1.5, curve.multiplier(0, 10), DELTA);
+        assertEquals(2.0, curve.multiplier(50, 10), DELTA); // 2.25 capped
+    }
+
+    @Test
+    void neverGoesBelowOne() {
+        PricingCurve curve = PricingCurve.compile("occupancy: 0%=0.5; velocity: 0/min=0.8");
+
+        assertEquals(1.0, curve.multiplier(0, 0), DELTA);
+        assertEquals(1.0, curve.multiplier(100, 50), DELTA);
+    }
+
+    @Test
+    void unorderedStepsAreSorted() {
+        PricingCurve ordered = PricingCurve.compile("occupancy: 20%=1.1, 50%=1.2, 80%=1.5; velocity: 5/min=1.05, 20/min=1.1, 60/min=1.3");
+        PricingCurve unordered = PricingCurve.compile("velocity: 60/min=1.3, 5/min=1.05, 20/min=1.1; occupancy: 80%=1.5, 20%=1.1, 50%=1.2");
+
+        for (int percent = 0; percent <= 100; percent++) {
+            for (double velocity = 0; velocity <= 80; velocity += 2.5) {
+                assertEquals(ordered.multiplier(percent, velocity), unordered.multiplier(percent, velocity), DELTA,
+                        percent + "% at " + velocity + "/min");
+            }
+        }
+    }
+
+    @Test
+    void occupancyStepsApplyFromTheirThreshold() {
+        PricingCurve curve = PricingCurve.compile("occupancy: 50%=1.2, 80%=1.5");
+
+        assertEquals(1.0, curve.multiplier(49, 0), DELTA);
+        assertEquals(1.2, curve.multiplier(50, 0), DELTA);
+        assertEquals(1.2, curve.multiplier(79, 0), DELTA);
+        assertEquals(1.5, curve.multiplier(80, 0), DELTA);
+        assertEquals(1.5, curve.multiplier(100, 0), DELTA);
+    }
+
+    @Test
+    void soldPercentIsClamped() {
+        PricingCurve curve = PricingCurve.compile("occupancy: 0%=1.1, 100%=1.5");
+
+        assertEquals(1.1, curve.multiplier(-20, 0), DELTA);
+        assertEquals(1.5, curve.multiplier(150, 0), DELTA);
+    }
+
+    @Test
+    void velocityStepsApplyFromTheirThreshold() {
+        PricingCurve curve = PricingCurve.compile("velocity: 20/min=1.1, 60/min=1.3, 100/min=1.6");
+
+        assertEquals(1.0, curve.multiplier(0, 19.99), DELTA);
+        assertEquals(1.1, curve.multiplier(0, 20), DELTA);
+        assertEquals(1.1, curve.multiplier(0, 59.99), DELTA);
+        assertEquals(1.3, curve.multiplier(0, 60), DELTA);
+        assertEquals(1.3, curve.multiplier(0, 99.99), DELTA);
+        assertEquals(1.6, curve.multiplier(0, 100), DELTA);
+        assertEquals(1.6, curve.multiplier(0, 1e6), DELTA);
+    }
+}
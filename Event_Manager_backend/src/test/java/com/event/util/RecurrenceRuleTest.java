@@ -0,0 +1,179 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecurrenceRuleTest {
+
+    private static final ZoneId UTC = ZoneOffset.UTC;
+    private static final ZoneId BERLIN = ZoneId.of("Europe/Berlin");
+    private static final Instant FAR_FUTURE = Instant.parse("2100-01-01T00:00:00Z");
+
+    @Test
+    void weeklyByDayCountMatchesWhenStartingMidWeek() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;BYDAY=MO,WE,FR;COUNT=10");
+        Instant first = utc(2026, 3, 4, 18); // A Wednesday, so that week only has WE and FR
+
+        List<Instant> all = rule.occurrences(first, UTC, first, FAR_FUTURE, 100);
+
+        assertEquals(10, all.size());
+        assertEquals(first, all.get(0));
+        assertEquals(utc(2026, 3, 6, 18), all.get(1));
+        assertEquals(utc(2026, 3, 9, 18), all.get(2));
+        assertEquals(utc(2026, 3, 25, 18), all.get(9));
+        assertAgreesWithAWindowedLookup(rule, first, UTC, all);
+    }
+
+    @Test
+    void weeklyByDayCountMatchesWhenFirstDateIsNotAListedDay() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;INTERVAL=2;BYDAY=TU,SA;COUNT=7");
+        Instant first = utc(2026, 3, 5, 9); // A Thursday, so only that Saturday counts in week one
+
+        List<Instant> all = rule.occurrences(first, UTC, first, FAR_FUTURE, 100);
+
+        assertEquals(7, all.size());
+        assertEquals(utc(2026, 3, 7, 9), all.get(0));
+        assertEquals(utc(2026, 3, 17, 9), all.get(1));
+        assertAgreesWithAWindowedLookup(rule, first, UTC, all);
+    }
+
+    @Test
+    void monthlyOnTheThirtyFirstSkipsShortMonths() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=MONTHLY;COUNT=8");
+        Instant first = utc(2026, 1, 31, 20);
+
+        List<Instant> all = rule.occurrences(first, UTC, first, FAR_FUTURE, 100);
+
+        assertEquals(List.of(first, utc(2026, 3, 31, 20), utc(2026, 5, 31, 20), utc(2026, 7, 31, 20),
+                utc(2026, 8, 31, 20), utc(2026, 10, 31, 20), utc(2026, 12, 31, 20), utc(2027, 1, 31, 20)), all);
+        assertAgreesWithAWindowedLookup(rule, first, UTC, all);
+    }
+
+    @Test
+    void dailyCountMatchesAWindowedLookup() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=DAILY;INTERVAL=3;COUNT=40");
+        Instant first = utc(2026, 2, 27, 7);
+
+        List<Instant> all = rule.occurrences(first, UTC, first, FAR_FUTURE, 100);
+
+        assertEquals(40, all.size());
+        assertEquals(first.plus(Duration.ofDays(39 * 3)), all.get(39));
+        assertAgreesWithAWindowedLookup(rule, first, UTC, all);
+    }
+
+    @Test
+    void untilIsTheLastStart() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;UNTIL=2026-03-24T18:00:00Z");
+        Instant first = utc(2026, 3, 3, 18);
+
+        List<Instant> all = rule.occurrences(first, UTC, first, FAR_FUTURE, 100);
+
+        assertEquals(List.of(first, utc(2026, 3, 10, 18), utc(2026, 3, 17, 18), utc(2026, 3, 24, 18)), all);
+        assertTrue(rule.occurrences(first, UTC, utc(2026, 3, 25, 0), FAR_FUTURE, 10).isEmpty());
+    }
+
+    @Test
+    void countAndUntilStopAtWhicheverComesFirst() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=DAILY;COUNT=3;UNTIL=2026-03-10T00:00:00Z");
+        Instant first = utc(2026, 3, 1, 12);
+
+        assertEquals(3, rule.occurrences(first, UTC, first, FAR_FUTURE, 100).size());
+    }
+
+    @Test
+    void keepsTheWallClockTimeAcrossDaylightSaving() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;BYDAY=FR");
+        Instant first = ZonedDateTime.of(LocalDateTime.of(2026, 3, 20, 19, 0), BERLIN).toInstant();
+
+        // Berlin moves to summer time on 2026-03-29 and back on 2026-10-25
+        List<Instant> spring = rule.occurrences(first, BERLIN, first, utc(2026, 4, 4, 0), 10);
+        assertEquals(List.of(utc(2026, 3, 20, 18), utc(2026, 3, 27, 18), utc(2026, 4, 3, 17)), spring);
+
+        List<Instant> autumn = rule.occurrences(first, BERLIN, utc(2026, 10, 20, 0), utc(2026, 11, 1, 0), 10);
+        assertEquals(List.of(utc(2026, 10, 23, 17), utc(2026, 10, 30, 18)), autumn);
+        for (Instant start : rule.occurrences(first, BERLIN, first, utc(2027, 6, 1, 0), 100)) {
+            assertEquals(LocalTime.of(19, 0), start.atZone(BERLIN).toLocalTime());
+            assertEquals(DayOfWeek.FRIDAY, start.atZone(BERLIN).getDayOfWeek());
+        }
+    }
+
+    @Test
+    void nonexistentLocalTimeMovesForwardOnTheTransitionDay() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=DAILY");
+        Instant first = ZonedDateTime.of(LocalDateTime.of(2026, 3, 28, 2, 30), BERLIN).toInstant();
+
+        List<Instant> starts = rule.occurrences(first, BERLIN, first, utc(2026, 3, 31, 0), 10);
+
+        assertEquals(3, starts.size());
+        assertEquals(LocalTime.of(3, 30), starts.get(1).atZone(BERLIN).toLocalTime()); // 02:30 does not exist
+        assertEquals(LocalTime.of(2, 30), starts.get(2).atZone(BERLIN).toLocalTime());
+    }
+
+    @Test
+    void countIsHonouredAcrossDaylightSaving() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;BYDAY=TU,SU;COUNT=12");
+        Instant first = ZonedDateTime.of(LocalDateTime.of(2026, 3, 18, 0, 30), BERLIN).toInstant();
+
+        List<Instant> all = rule.occurrences(first, BERLIN, first, FAR_FUTURE, 100);
+
+        assertEquals(12, all.size());
+        assertAgreesWithAWindowedLookup(rule, first, BERLIN, all);
+    }
+
+    @Test
+    void occursAtMatchesOnlyExactStarts() {
+        RecurrenceRule rule = RecurrenceRule.compile("FREQ=WEEKLY;BYDAY=MO,TH;COUNT=5");
+        Instant first = ZonedDateTime.of(LocalDateTime.of(2026, 3, 23, 19, 0), BERLIN).toInstant();
+
+        assertTrue(rule.occursAt(first, BERLIN, first));
+        assertTrue(rule.occursAt(first, BERLIN, ZonedDateTime.of(LocalDateTime.of(2026, 3, 26, 19, 0), BERLIN).toInstant()));
+        assertTrue(rule.occursAt(first, BERLIN, ZonedDateTime.of(LocalDateTime.of(2026, 4, 6, 19, 0), BERLIN).toInstant()));
+        assertFalse(rule.occursAt(first, BERLIN, ZonedDateTime.of(LocalDateTime.of(2026, 4, 9, 19, 0), BERLIN).toInstant())); // Sixth
+        assertFalse(rule.occursAt(first, BERLIN, ZonedDateTime.of(LocalDateTime.of(2026, 3, 26, 19, 1), BERLIN).toInstant()));
+        assertFalse(rule.occursAt(first, BERLIN, ZonedDateTime.of(LocalDateTime.of(2026, 3, 25, 19, 0), BERLIN).toInstant()));
+        assertFalse(rule.occursAt(first, BERLIN, ZonedDateTime.of(LocalDateTime.of(2026, 3, 16, 19, 0), BERLIN).toInstant())); // Before the first
+    }
+
+    @Test
+    void rejectsInvalidRules() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile(" "));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile("INTERVAL=2"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile("FREQ=YEARLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile("FREQ=DAILY;COUNT=0"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile("FREQ=DAILY;BYDAY=MO"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile("FREQ=WEEKLY;BYDAY=XX"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.compile("FREQ=WEEKLY;UNTIL=tomorrow"));
+    }
+
+    /**
+     * Every occurrence must also be found by a lookup that starts at it, which jumps straight to
+     * its period and counts the earlier occurrences for COUNT, and nothing may follow the last one.
+     */
+    private static void assertAgreesWithAWindowedLookup(RecurrenceRule rule, Instant first, ZoneId zone, List<Instant> all) {
+        for (int i = 0; i < all.size(); i++) {
+            List<Instant> rest = rule.occurrences(first, zone, all.get(i), FAR_FUTURE, 100);
+            assertEquals(all.subList(i, all.size()), rest, "lookup from occurrence " + i);
+        }
+        Instant afterLast = all.get(all.size() - 1).plusSeconds(1);
+        assertTrue(rule.occurrences(first, zone, afterLast, FAR_FUTURE, 100).isEmpty());
+    }
+
+    private static Instant utc(int year, int month, int day, int hour) {
+        return LocalDate.of(year, month, day).atTime(hour, 0).toInstant(ZoneOffset.UTC);
+    }
+}
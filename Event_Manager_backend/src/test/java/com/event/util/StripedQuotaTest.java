@@ -0,0 +1,147 @@
+package com.event.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StripedQuotaTest {
+
+    @Test
+    void initialUnitsAreSpreadButAllTakeable() {
+        StripedQuota quota = new StripedQuota(5, 16); // Fewer units than stripes
+
+        assertEquals(5, quota.remaining());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(quota.tryAcquire());
+        }
+        assertFalse(quota.tryAcquire());
+        assertEquals(0, quota.remaining());
+    }
+
+    @Test
+    void negativeInitialMeansEmpty() {
+        StripedQuota quota = new StripedQuota(-3, 4);
+
+        assertEquals(0, quota.remaining());
+        assertFalse(quota.tryAcquire());
+    }
+
+    @Test
+    void concurrentAcquiresNeverExceedTheQuota() throws InterruptedException {
+        int units = 1000;
+        StripedQuota quota = new StripedQuota(units, 16);
+        AtomicInteger acquired = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 16; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 500; i++) { // 8000 attempts for 1000 units
+                    if (quota.tryAcquire()) {
+                        acquired.incrementAndGet();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(units, acquired.get());
+        assertEquals(0, quota.remaining());
+    }
+
+    @Test
+    void concurrentAcquireAndReleaseKeepTheTotal() throws InterruptedException {
+        StripedQuota quota = new StripedQuota(64, 8);
+        AtomicInteger held = new AtomicInteger();
+        AtomicInteger maxHeld = new AtomicInteger();
+
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    if (quota.tryAcquire()) {
+                        maxHeld.accumulateAndGet(held.incrementAndGet(), Math::max);
+                        held.decrementAndGet();
+                        quota.release();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertTrue(maxHeld.get() <= 64, "held " + maxHeld.get() + " of 64 units at once");
+        assertEquals(64, quota.remaining());
+    }
+
+    @Test
+    void releaseGivesAUnitBack() {
+        StripedQuota quota = new StripedQuota(1, 4);
+        assertTrue(quota.tryAcquire());
+        assertFalse(quota.tryAcquire());
+
+        quota.release();
+
+        assertEquals(1, quota.remaining());
+        assertTrue(quota.tryAcquire());
+    }
+
+    @Test
+    void adjustAddsUnits() {
+        StripedQuota quota = new StripedQuota(2, 4);
+
+        quota.adjust(3);
+
+        assertEquals(5, quota.remaining());
+        for (int i = 0; i < 5; i++) {
+            assertTrue(quota.tryAcquire());
+        }
+        assertFalse(quota.tryAcquire());
+    }
+
+    @Test
+    void adjustRemovesUnitsAcrossStripes() {
+        StripedQuota quota = new StripedQuota(40, 8); // 5 per stripe
+
+        quota.adjust(-23);
+
+        assertEquals(17, quota.remaining());
+        for (int i = 0; i < 17; i++) {
+            assertTrue(quota.tryAcquire());
+        }
+        assertFalse(quota.tryAcquire());
+    }
+
+    @Test
+    void adjustNeverGoesBelowZero() {
+        StripedQuota quota = new StripedQuota(10, 4);
+
+        quota.adjust(-25);
+
+        assertEquals(0, quota.remaining());
+        assertFalse(quota.tryAcquire());
+
+        quota.adjust(2);
+        assertEquals(2, quota.remaining());
+    }
+}